@@ -0,0 +1,98 @@
+package com.roamsys.swagger.benchmarks;
+
+import com.roamsys.swagger.SwaggerAPIDefaultAuthorizationHandler;
+import com.roamsys.swagger.SwaggerAPIKeyAuthorizationHandler;
+import com.roamsys.swagger.auth.SwaggerAPICachingKeyStore;
+import com.roamsys.swagger.auth.SwaggerAPIKeyTable;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A cheap GET call authorized by a single key, by a table of {@link #KEYS} tenant keys and by a cache in front of a key store taking
+ * {@link #BACKEND_LATENCY_MICROS} per lookup. Valid and invalid keys are sent as header.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AuthorizationBenchmark {
+
+    private static final int KEYS = 10_000;
+    private static final long BACKEND_LATENCY_MICROS = 200;
+
+    @State(Scope.Thread)
+    public static class AuthorizationState extends DispatchState {
+
+        @Param({ "none", "single", "table", "cached" })
+        public String handler;
+
+        private String validKey;
+
+        @Setup(Level.Trial)
+        @Override
+        public void setup() throws ServletException {
+            super.setup();
+            final Map<String, String> keys = new HashMap<>();
+            for (int i = 0; i < KEYS; i++) {
+                keys.put("tenant-" + i, "key-" + i + "-" + Integer.toHexString(i * 7919));
+            }
+            validKey = keys.get("tenant-" + (KEYS / 2));
+            final SwaggerAPIKeyTable table = SwaggerAPIKeyTable.ofKeys(keys);
+            switch (handler) {
+                case "single":
+                    config.setAuthorizationHandler(new SwaggerAPIDefaultAuthorizationHandler(validKey));
+                    break;
+                case "table":
+                    config.setAuthorizationHandler(new SwaggerAPIKeyAuthorizationHandler(table));
+                    break;
+                case "cached":
+                    config.setAuthorizationHandler(new SwaggerAPIKeyAuthorizationHandler(new SwaggerAPICachingKeyStore(digest -> {
+                        try {
+                            TimeUnit.MICROSECONDS.sleep(BACKEND_LATENCY_MICROS);
+                        } catch (final InterruptedException ex) {
+                            throw new InterruptedIOException();
+                        }
+                        return table.lookup(digest);
+                    }, 1000, 1, 1, TimeUnit.MINUTES)));
+                    break;
+                default:
+                    config.setAuthorizationHandler(null);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void shutdown() {
+            config.shutdown();
+        }
+    }
+
+    @Benchmark
+    public int validKey(final AuthorizationState state) throws ServletException, IOException {
+        state.request("GET", "/catalog00.json/items/42/summary").header("X-Api-Key", state.validKey);
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int invalidKey(final AuthorizationState state) throws ServletException, IOException {
+        state.request("GET", "/catalog00.json/items/42/summary").header("X-Api-Key", "invalid-key");
+        return state.dispatch();
+    }
+}
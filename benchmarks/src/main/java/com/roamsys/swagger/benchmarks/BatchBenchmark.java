@@ -0,0 +1,70 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ten cheap GET calls dispatched one by one compared to one batch of the same calls. The difference is the overhead of parsing the
+ * batch and capturing the responses of its entries, which a batch trades for the network round trips it saves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BatchBenchmark {
+
+    private static final int CALLS = 10;
+
+    @State(Scope.Thread)
+    public static class BatchState extends DispatchState {
+
+        private String batch;
+
+        @Setup(Level.Trial)
+        @Override
+        public void setup() throws ServletException {
+            super.setup();
+            config.setBatchMaxEntries(CALLS);
+            final StringBuilder entries = new StringBuilder("[");
+            for (int i = 0; i < CALLS; i++) {
+                entries.append(i == 0 ? "" : ",").append("{\"method\":\"GET\",\"path\":\"/catalog").append(String.format("%02d", i)).append(".json/items/42/summary\"}");
+            }
+            batch = entries.append(']').toString();
+        }
+
+        @TearDown(Level.Trial)
+        public void shutdown() {
+            config.shutdown();
+        }
+    }
+
+    @Benchmark
+    public int separate(final BatchState state) throws ServletException, IOException {
+        int result = 0;
+        for (int i = 0; i < CALLS; i++) {
+            state.request("GET", "/catalog" + String.format("%02d", i) + ".json/items/42/summary");
+            result += state.dispatch();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int batch(final BatchState state) throws ServletException, IOException {
+        state.request("POST", "/_batch").body(state.batch);
+        return state.dispatch();
+    }
+}
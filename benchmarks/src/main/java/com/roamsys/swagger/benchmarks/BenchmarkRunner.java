@@ -0,0 +1,25 @@
+package com.roamsys.swagger.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the dispatch pipeline benchmarks with the GC profiler, reporting throughput, latency percentiles and allocation rate.
+ * The optional argument is a regular expression selecting the benchmarks, by default all dispatch benchmarks are run.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "(Routing|ParameterConversion|Invocation|ErrorHandling|SpecRendering)Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,109 @@
+package com.roamsys.swagger.benchmarks;
+
+import com.roamsys.swagger.limit.SwaggerAPIBulkhead;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A burst of blocking requests to a slow model followed by cheap requests to another model, on a fixed pool of container threads.
+ * Measures the time until the cheap requests are answered. Without a bulkhead they wait until the slow requests have released the
+ * container threads, with a bulkhead of the slow model the requests above its limit are rejected right away.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkheadBenchmark {
+
+    @Param({"8"})
+    public int containerThreads;
+
+    @Param({"56"})
+    public int slowRequests;
+
+    @Param({"8"})
+    public int fastRequests;
+
+    @Param({"10"})
+    public int blockingMillis;
+
+    @Param({"none", "bulkhead", "adaptive"})
+    public String mode;
+
+    private final DispatchState state = new DispatchState();
+    private ExecutorService container;
+    private CountDownLatch slowCompleted;
+
+    @Setup(Level.Trial)
+    public void setup() throws ServletException {
+        state.setup();
+        container = Executors.newFixedThreadPool(containerThreads);
+        if (!mode.equals("none")) {
+            final SwaggerAPIBulkhead bulkhead = new SwaggerAPIBulkhead(containerThreads / 4);
+            if (mode.equals("adaptive")) {
+                bulkhead.setAdaptive(1, containerThreads / 2);
+            }
+            state.config.setBulkhead(SyntheticModels.Catalog05.class, bulkhead);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void awaitSlowRequests() throws InterruptedException {
+        slowCompleted.await();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        container.shutdownNow();
+        state.config.shutdown();
+    }
+
+    /**
+     * Dispatches the slow and then the cheap requests on the container threads and waits for the cheap responses.
+     */
+    @Benchmark
+    public long burst() throws InterruptedException {
+        slowCompleted = new CountDownLatch(slowRequests);
+        final CountDownLatch fastCompleted = new CountDownLatch(fastRequests);
+        final String millis = Integer.toString(blockingMillis);
+        for (int i = 0; i < slowRequests; i++) {
+            dispatch(new InMemoryHttpServletRequest().method("GET").path("/catalog05.json/slow").parameter("millis", millis), slowCompleted);
+        }
+        for (int i = 0; i < fastRequests; i++) {
+            dispatch(new InMemoryHttpServletRequest().method("GET").path("/catalog00.json/items/42/summary"), fastCompleted);
+        }
+        fastCompleted.await();
+        return fastCompleted.getCount();
+    }
+
+    private void dispatch(final InMemoryHttpServletRequest request, final CountDownLatch completed) {
+        container.execute(() -> {
+            try {
+                state.servlet.service(request, new InMemoryHttpServletResponse());
+            } catch (final ServletException | IOException ex) {
+                throw new IllegalStateException(ex);
+            } finally {
+                completed.countDown();
+            }
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package com.roamsys.swagger.benchmarks;
+
+import com.roamsys.swagger.SwaggerAPIConfig;
+import com.roamsys.swagger.SwaggerAPIServlet;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A servlet initialized with the synthetic models and a request/response pair per benchmark thread.
+ */
+@State(Scope.Thread)
+public class DispatchState {
+
+    public ServletContext context;
+    public SwaggerAPIConfig config;
+    public SwaggerAPIServlet servlet;
+    public InMemoryHttpServletRequest request;
+    public InMemoryHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setup() throws ServletException {
+        setup(Collections.emptyMap());
+    }
+
+    /**
+     * Runs the listener and initializes the servlet.
+     *
+     * @param servletInitParameters the servlet init parameters
+     * @throws ServletException if the servlet could not be initialized
+     */
+    public void setup(final Map<String, String> servletInitParameters) throws ServletException {
+        context = InMemoryServletContext.create(Collections.emptyMap());
+        new SyntheticModels.Listener().contextInitialized(new ServletContextEvent(context));
+        config = (SwaggerAPIConfig) context.getAttribute(SwaggerAPIConfig.SERVLET_ATTRIBUTE_NAME);
+        servlet = new SwaggerAPIServlet();
+        servlet.init(InMemoryServletContext.config(context, servletInitParameters));
+        request = new InMemoryHttpServletRequest();
+        response = new InMemoryHttpServletResponse();
+    }
+
+    /**
+     * Prepares the request for the next dispatch.
+     *
+     * @param method the HTTP method
+     * @param path the path info
+     * @return the request
+     */
+    public InMemoryHttpServletRequest request(final String method, final String path) {
+        response.recycle();
+        return request.recycle().method(method).path(path);
+    }
+
+    /**
+     * Dispatches the prepared request through the servlet.
+     *
+     * @return the response status combined with the body size, to be consumed by the benchmark
+     * @throws ServletException if the servlet fails
+     * @throws IOException if an I/O error occurs
+     */
+    public int dispatch() throws ServletException, IOException {
+        servlet.service(request, response);
+        return response.getStatus() * 31 + response.getBodySize();
+    }
+}
@@ -0,0 +1,41 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full dispatches ending in the exception handler.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ErrorHandlingBenchmark {
+
+    @Benchmark
+    public int unknownOperation(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog05.json/unknown/operation");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int invalidParameter(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog05.json/organisations/123456789012345678901234/before/yesterday");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int failingOperation(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog05.json/failing");
+        return state.dispatch();
+    }
+}
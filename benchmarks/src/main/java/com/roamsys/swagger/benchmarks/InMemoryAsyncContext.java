@@ -0,0 +1,140 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory async context. Timeouts are not enforced, {@link #fireTimeout()} simulates one.
+ */
+public class InMemoryAsyncContext implements AsyncContext {
+
+    private final ServletRequest request;
+    private final ServletResponse response;
+    private final List<AsyncListener> listeners = new CopyOnWriteArrayList<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private final Runnable onComplete;
+    private volatile long timeout;
+
+    /**
+     * Creates an async context.
+     *
+     * @param request the request
+     * @param response the response
+     * @param onComplete called once when the request is completed, may be <code>null</code>
+     */
+    public InMemoryAsyncContext(final ServletRequest request, final ServletResponse response, final Runnable onComplete) {
+        this.request = request;
+        this.response = response;
+        this.onComplete = onComplete;
+    }
+
+    /**
+     * Waits until the request is completed.
+     *
+     * @param timeoutMillis the maximum time to wait
+     * @return true if completed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean await(final long timeoutMillis) throws InterruptedException {
+        return completed.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Notifies the listeners about a timeout, as the container would.
+     *
+     * @throws IOException if a listener fails
+     */
+    public void fireTimeout() throws IOException {
+        for (final AsyncListener listener : listeners) {
+            listener.onTimeout(new AsyncEvent(this, request, response));
+        }
+    }
+
+    @Override
+    public ServletRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public ServletResponse getResponse() {
+        return response;
+    }
+
+    @Override
+    public boolean hasOriginalRequestAndResponse() {
+        return true;
+    }
+
+    @Override
+    public void dispatch() {
+        throw new UnsupportedOperationException("AsyncContext.dispatch");
+    }
+
+    @Override
+    public void dispatch(final String path) {
+        throw new UnsupportedOperationException("AsyncContext.dispatch");
+    }
+
+    @Override
+    public void dispatch(final ServletContext context, final String path) {
+        throw new UnsupportedOperationException("AsyncContext.dispatch");
+    }
+
+    @Override
+    public void complete() {
+        if (completed.getCount() == 0) {
+            throw new IllegalStateException("Request already completed");
+        }
+        completed.countDown();
+        for (final AsyncListener listener : listeners) {
+            try {
+                listener.onComplete(new AsyncEvent(this, request, response));
+            } catch (final IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        if (onComplete != null) {
+            onComplete.run();
+        }
+    }
+
+    @Override
+    public void start(final Runnable run) {
+        throw new UnsupportedOperationException("AsyncContext.start");
+    }
+
+    @Override
+    public void addListener(final AsyncListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void addListener(final AsyncListener listener, final ServletRequest servletRequest, final ServletResponse servletResponse) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public <T extends AsyncListener> T createListener(final Class<T> clazz) throws ServletException {
+        throw new UnsupportedOperationException("AsyncContext.createListener");
+    }
+
+    @Override
+    public void setTimeout(final long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,255 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory HTTP request, reusable for many dispatches by calling {@link #recycle()}.
+ * All methods not needed for dispatching throw an {@link UnsupportedOperationException}.
+ */
+public class InMemoryHttpServletRequest extends HttpServletRequestWrapper {
+
+    private String method = "GET";
+    private String pathInfo;
+    private final Map<String, String> parameters = new HashMap<>();
+    private final Map<String, String> headers = new HashMap<>();
+    private final Map<String, Object> attributes = new HashMap<>();
+    private byte[] body = new byte[0];
+    private boolean asyncSupported;
+    private Runnable onComplete;
+    private InMemoryAsyncContext asyncContext;
+
+    public InMemoryHttpServletRequest() {
+        super(Unsupported.proxy(HttpServletRequest.class));
+    }
+
+    /**
+     * Clears all request data.
+     *
+     * @return <code>this</code> pointer
+     */
+    public InMemoryHttpServletRequest recycle() {
+        method = "GET";
+        pathInfo = null;
+        parameters.clear();
+        headers.clear();
+        attributes.clear();
+        body = new byte[0];
+        asyncSupported = false;
+        onComplete = null;
+        asyncContext = null;
+        return this;
+    }
+
+    /**
+     * Enables async support, as for servlets declared with <code>async-supported</code>.
+     *
+     * @param onComplete called when the async request is completed, may be <code>null</code>
+     * @return <code>this</code> pointer
+     */
+    public InMemoryHttpServletRequest asyncSupported(final Runnable onComplete) {
+        this.asyncSupported = true;
+        this.onComplete = onComplete;
+        return this;
+    }
+
+    public InMemoryHttpServletRequest method(final String method) {
+        this.method = method;
+        return this;
+    }
+
+    public InMemoryHttpServletRequest path(final String pathInfo) {
+        this.pathInfo = pathInfo;
+        return this;
+    }
+
+    public InMemoryHttpServletRequest parameter(final String name, final String value) {
+        parameters.put(name, value);
+        return this;
+    }
+
+    public InMemoryHttpServletRequest header(final String name, final String value) {
+        headers.put(name.toLowerCase(Locale.ROOT), value);
+        return this;
+    }
+
+    public InMemoryHttpServletRequest body(final String body) {
+        this.body = body.getBytes(StandardCharsets.UTF_8);
+        return this;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return pathInfo;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return "/api" + pathInfo;
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return "127.0.0.1";
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public String getParameter(final String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(final String name) {
+        final String value = parameters.get(name);
+        return value == null ? null : new String[] { value };
+    }
+
+    @Override
+    public String getHeader(final String name) {
+        return headers.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(final String name) {
+        final String value = getHeader(name);
+        return value == null ? Collections.emptyEnumeration() : Collections.enumeration(Collections.singletonList(value));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public long getDateHeader(final String name) {
+        return -1;
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader("content-type");
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        // containers recycle their readers, a small buffer keeps the stand-in's own allocation out of the results
+        return new BufferedReader(new StringReader(new String(body, StandardCharsets.UTF_8)), 64);
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        final ByteArrayInputStream in = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+
+            @Override
+            public int read() throws IOException {
+                return in.read();
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                return in.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(final ReadListener readListener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public Object getAttribute(final String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(final String name, final Object value) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void removeAttribute(final String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return asyncSupported;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return asyncContext != null;
+    }
+
+    @Override
+    public AsyncContext startAsync(final ServletRequest servletRequest, final ServletResponse servletResponse) {
+        if (!asyncSupported || asyncContext != null) {
+            throw new IllegalStateException("Async not supported or already started");
+        }
+        asyncContext = new InMemoryAsyncContext(servletRequest, servletResponse, onComplete);
+        return asyncContext;
+    }
+
+    @Override
+    public InMemoryAsyncContext getAsyncContext() {
+        return asyncContext;
+    }
+}
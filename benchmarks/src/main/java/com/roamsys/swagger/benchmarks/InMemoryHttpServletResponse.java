@@ -0,0 +1,251 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory HTTP response, reusable for many dispatches by calling {@link #recycle()}. Writer and output stream are reused as well,
+ * so their buffers do not count as allocations of the dispatch.
+ * All methods not needed for dispatching throw an {@link UnsupportedOperationException}.
+ */
+public class InMemoryHttpServletResponse extends HttpServletResponseWrapper {
+
+    private int status = SC_OK;
+    private String contentType;
+    private final Map<String, List<String>> headers = new LinkedHashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+    private PrintWriter writer;
+    private ServletOutputStream outputStream;
+    private boolean committed;
+
+    public InMemoryHttpServletResponse() {
+        super(Unsupported.proxy(HttpServletResponse.class));
+    }
+
+    /**
+     * Clears status, headers and body.
+     *
+     * @return <code>this</code> pointer
+     */
+    public InMemoryHttpServletResponse recycle() {
+        status = SC_OK;
+        contentType = null;
+        headers.clear();
+        if (writer != null) {
+            writer.flush();
+        }
+        body.reset();
+        committed = false;
+        return this;
+    }
+
+    /**
+     * @return the written body
+     */
+    public byte[] getBody() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return body.toByteArray();
+    }
+
+    /**
+     * @return the number of written body bytes
+     */
+    public int getBodySize() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return body.size();
+    }
+
+    @Override
+    public void setStatus(final int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(final int status) {
+        this.status = status;
+        committed = true;
+    }
+
+    @Override
+    public void sendError(final int status, final String message) {
+        sendError(status);
+    }
+
+    @Override
+    public void setContentType(final String contentType) {
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(final String charset) {
+        // always UTF-8
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public void setContentLength(final int length) {
+        setHeader("Content-Length", Integer.toString(length));
+    }
+
+    @Override
+    public void setContentLengthLong(final long length) {
+        setHeader("Content-Length", Long.toString(length));
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        final List<String> values = new ArrayList<>(1);
+        values.add(value);
+        headers.put(name.toLowerCase(Locale.ROOT), values);
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+        headers.computeIfAbsent(name.toLowerCase(Locale.ROOT), n -> new ArrayList<>(1)).add(value);
+    }
+
+    @Override
+    public void setDateHeader(final String name, final long date) {
+        setHeader(name, Long.toString(date));
+    }
+
+    @Override
+    public void setIntHeader(final String name, final int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public boolean containsHeader(final String name) {
+        return headers.containsKey(name.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public String getHeader(final String name) {
+        final List<String> values = headers.get(name.toLowerCase(Locale.ROOT));
+        return values == null ? null : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(final String name) {
+        final List<String> values = headers.get(name.toLowerCase(Locale.ROOT));
+        return values == null ? Collections.emptyList() : values;
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return headers.keySet();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+        }
+        return writer;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+
+                private final byte[] chunk = new byte[8192];
+
+                @Override
+                public void write(final int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void write(final byte[] b, final int off, final int len) {
+                    body.write(b, off, len);
+                }
+
+                @Override
+                public void write(final ByteBuffer buffer) {
+                    // like a container writing the buffer to its socket, without copying it to an array at once
+                    while (buffer.hasRemaining()) {
+                        final int length = Math.min(buffer.remaining(), chunk.length);
+                        buffer.get(chunk, 0, length);
+                        body.write(chunk, 0, length);
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(final WriteListener writeListener) {
+                    // always ready, like a client reading as fast as the listener writes
+                    try {
+                        writeListener.onWritePossible();
+                    } catch (final IOException ex) {
+                        writeListener.onError(ex);
+                    }
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        committed = true;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public void reset() {
+        recycle();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+        body.reset();
+    }
+}
@@ -0,0 +1,90 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory servlet context and servlet config, supporting attributes and init parameters only.
+ */
+public final class InMemoryServletContext {
+
+    private InMemoryServletContext() {
+    }
+
+    /**
+     * Creates a servlet context.
+     *
+     * @param initParameters the context init parameters
+     * @return the servlet context
+     */
+    public static ServletContext create(final Map<String, String> initParameters) {
+        final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        return (ServletContext) Proxy.newProxyInstance(ServletContext.class.getClassLoader(), new Class<?>[] { ServletContext.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getAttribute":
+                    return attributes.get((String) args[0]);
+                case "setAttribute":
+                    attributes.put((String) args[0], args[1]);
+                    return null;
+                case "removeAttribute":
+                    attributes.remove((String) args[0]);
+                    return null;
+                case "getInitParameter":
+                    return initParameters.get((String) args[0]);
+                case "getInitParameterNames":
+                    return Collections.enumeration(initParameters.keySet());
+                case "getContextPath":
+                    return "";
+                case "getServletContextName":
+                    return "benchmark";
+                case "log":
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "InMemoryServletContext";
+                default:
+                    throw new UnsupportedOperationException("ServletContext." + method.getName());
+            }
+        });
+    }
+
+    /**
+     * Creates a servlet config.
+     *
+     * @param context the servlet context
+     * @param initParameters the servlet init parameters
+     * @return the servlet config
+     */
+    public static ServletConfig config(final ServletContext context, final Map<String, String> initParameters) {
+        return new ServletConfig() {
+
+            @Override
+            public String getServletName() {
+                return "SwaggerAPI";
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return context;
+            }
+
+            @Override
+            public String getInitParameter(final String name) {
+                return initParameters.get(name);
+            }
+
+            @Override
+            public Enumeration<String> getInitParameterNames() {
+                return Collections.enumeration(initParameters.keySet());
+            }
+        };
+    }
+}
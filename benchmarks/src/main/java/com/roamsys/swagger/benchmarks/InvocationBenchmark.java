@@ -0,0 +1,59 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full dispatches of cheap operations with few parameters, dominated by the invocation and the servlet overhead.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class InvocationBenchmark {
+
+    @Benchmark
+    public int noParameters(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog11.json/items");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int stringParameters(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog11.json/organisations/123456789012345678901234/ROAM0");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int bodyParameter(final DispatchState state) throws ServletException, IOException {
+        state.request("POST", "/catalog11.json/items").body("{\"name\":\"item\"}");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int jsonBodyParameter(final DispatchState state) throws ServletException, IOException {
+        state.request("PUT", "/catalog11.json/items/42").body("{\"name\":\"item\",\"quantity\":3,\"tags\":[\"a\",\"b\"]}");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int returnValue(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog11.json/items/42/summary");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int streamedReturnValue(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog11.json/items/stream").parameter("count", "100");
+        return state.dispatch();
+    }
+}
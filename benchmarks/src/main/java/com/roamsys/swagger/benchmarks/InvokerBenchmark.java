@@ -0,0 +1,115 @@
+package com.roamsys.swagger.benchmarks;
+
+import com.roamsys.swagger.SwaggerAPIModel;
+import com.roamsys.swagger.annotations.SwaggerApi.HTTPMethod;
+import com.roamsys.swagger.annotations.SwaggerModel;
+import com.roamsys.swagger.data.SwaggerAPIContext;
+import com.roamsys.swagger.data.SwaggerAPIInvoker;
+import com.roamsys.swagger.data.SwaggerAPIModelData;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the reflective invocation of API methods with the spun {@link SwaggerAPIInvoker}, with and without the argument checks of
+ * {@link SwaggerAPIModelData}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class InvokerBenchmark {
+
+    /**
+     * The number of API parameters besides the context
+     */
+    @Param({"0", "1", "2", "3", "4", "5", "6"})
+    public int arity;
+
+    private ArityModel model;
+    private Method method;
+    private SwaggerAPIModelData api;
+    private SwaggerAPIInvoker invoker;
+    private Object[] arguments;
+
+    @Setup
+    public void setup() throws Exception {
+        model = new ArityModel();
+        final Class<?>[] parameterTypes = new Class<?>[arity + 1];
+        parameterTypes[0] = SwaggerAPIContext.class;
+        Arrays.fill(parameterTypes, 1, parameterTypes.length, String.class);
+        method = ArityModel.class.getMethod("arity" + arity, parameterTypes);
+        method.setAccessible(true);
+        invoker = SwaggerAPIInvoker.create(model, method);
+        api = new SwaggerAPIModelData(model, method, HTTPMethod.GET, "/arity.json/" + arity, Collections.emptyList());
+        arguments = new Object[arity + 1];
+        arguments[0] = new SwaggerAPIContext(null, null, null, null);
+        Arrays.fill(arguments, 1, arguments.length, "value");
+    }
+
+    @Benchmark
+    public Object reflective() throws Exception {
+        return method.invoke(model, arguments);
+    }
+
+    @Benchmark
+    public Object invoker() throws Throwable {
+        return invoker.invoke(arguments);
+    }
+
+    @Benchmark
+    public Object modelData() throws Exception {
+        return api.invoke(arguments);
+    }
+
+    /**
+     * Model with one API method per arity
+     */
+    @SwaggerModel(path = "/arity")
+    public static class ArityModel implements SwaggerAPIModel {
+
+        public int calls;
+
+        public void arity0(final SwaggerAPIContext context) {
+            calls++;
+        }
+
+        public void arity1(final SwaggerAPIContext context, final String p1) {
+            calls += p1.length();
+        }
+
+        public void arity2(final SwaggerAPIContext context, final String p1, final String p2) {
+            calls += p1.length() + p2.length();
+        }
+
+        public void arity3(final SwaggerAPIContext context, final String p1, final String p2, final String p3) {
+            calls += p1.length() + p2.length() + p3.length();
+        }
+
+        public void arity4(final SwaggerAPIContext context, final String p1, final String p2, final String p3, final String p4) {
+            calls += p1.length() + p2.length() + p3.length() + p4.length();
+        }
+
+        public void arity5(final SwaggerAPIContext context, final String p1, final String p2, final String p3, final String p4, final String p5) {
+            calls += p1.length() + p2.length() + p3.length() + p4.length() + p5.length();
+        }
+
+        public void arity6(final SwaggerAPIContext context, final String p1, final String p2, final String p3, final String p4, final String p5, final String p6) {
+            calls += p1.length() + p2.length() + p3.length() + p4.length() + p5.length() + p6.length();
+        }
+    }
+}
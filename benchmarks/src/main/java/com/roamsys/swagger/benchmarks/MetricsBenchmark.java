@@ -0,0 +1,64 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of the per-operation metrics on cheap dispatches, with metrics enabled and disabled.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MetricsBenchmark {
+
+    @State(Scope.Thread)
+    public static class MetricsState extends DispatchState {
+
+        @Param({"false", "true"})
+        public boolean metrics;
+
+        @Setup(Level.Trial)
+        public void enableMetrics() {
+            config.setMetricsEnabled(metrics);
+        }
+
+        @TearDown(Level.Trial)
+        public void shutdown() {
+            config.shutdown();
+        }
+    }
+
+    @Benchmark
+    public int noParameters(final MetricsState state) throws ServletException, IOException {
+        state.request("GET", "/catalog11.json/items");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int returnValue(final MetricsState state) throws ServletException, IOException {
+        state.request("GET", "/catalog11.json/items/42/summary");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int unknownOperation(final MetricsState state) throws ServletException, IOException {
+        state.request("GET", "/catalog05.json/unknown/operation");
+        return state.dispatch();
+    }
+}
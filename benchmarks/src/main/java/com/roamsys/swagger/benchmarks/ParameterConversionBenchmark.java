@@ -0,0 +1,70 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full dispatches of operations whose cost is dominated by converting path, query and header parameters.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParameterConversionBenchmark {
+
+    @Benchmark
+    public int pathLong(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog03.json/items/1234567890");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int pathDate(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog03.json/organisations/123456789012345678901234/before/2007-08-31");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int pathDateTime(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog03.json/organisations/123456789012345678901234/after/2007-08-31T16:47:00+00:00");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int pathLocalDate(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog03.json/organisations/123456789012345678901234/on/2007-08-31");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int pathOffsetDateTime(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog03.json/organisations/123456789012345678901234/since/2007-08-31T16:47:00+00:00");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int pathPrimitiveLongs(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog03.json/ranges/1234567890/1234567990");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int queryAndHeader(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog03.json/search")
+                .parameter("page", "3")
+                .parameter("size", "50")
+                .parameter("active", "true")
+                .parameter("from", "2007-08-31T16:47:00+00:00")
+                .header("X-Tenant", "ROAM0");
+        return state.dispatch();
+    }
+}
@@ -0,0 +1,74 @@
+package com.roamsys.swagger.benchmarks;
+
+import com.roamsys.swagger.limit.SwaggerAPIRateLimit;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A cheap GET call without rate limit and with a limit which is never reached, sent with one of {@link #keys} API keys in turn. The
+ * difference is the cost of the bucket lookup and update per request, with many keys also of creating and dropping buckets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RateLimitBenchmark {
+
+    @State(Scope.Thread)
+    public static class RateLimitState extends DispatchState {
+
+        @Param({ "1", "100000" })
+        public int keys;
+
+        @Param({ "false", "true" })
+        public boolean limited;
+
+        private String[] apiKeys;
+        private int next;
+
+        @Setup(Level.Trial)
+        @Override
+        public void setup() throws ServletException {
+            super.setup();
+            apiKeys = new String[keys];
+            for (int i = 0; i < keys; i++) {
+                apiKeys[i] = "key-" + i;
+            }
+            if (limited) {
+                config.setDefaultRateLimit(SwaggerAPIRateLimit.perSecond(1_000_000_000));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void shutdown() {
+            config.shutdown();
+        }
+
+        private String nextKey() {
+            final String key = apiKeys[next];
+            next = next + 1 < apiKeys.length ? next + 1 : 0;
+            return key;
+        }
+    }
+
+    @Benchmark
+    public int dispatch(final RateLimitState state) throws ServletException, IOException {
+        state.request("GET", "/catalog00.json/items/42/summary").header("X-Api-Key", state.nextKey());
+        return state.dispatch();
+    }
+}
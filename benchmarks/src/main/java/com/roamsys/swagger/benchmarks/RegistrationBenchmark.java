@@ -0,0 +1,48 @@
+package com.roamsys.swagger.benchmarks;
+
+import com.roamsys.swagger.SwaggerAPIConfig;
+import com.roamsys.swagger.SwaggerAPIModel;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Registration of the synthetic models at startup: one by one, all at once with parallel preparation, and found by scanning the
+ * benchmark package. Each registration includes rendering the API spec, like the listener does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RegistrationBenchmark {
+
+    @Benchmark
+    public Object registerEach() {
+        final SwaggerAPIConfig config = new SwaggerAPIConfig(null);
+        for (final SwaggerAPIModel model : SyntheticModels.all()) {
+            config.registerModel(model);
+        }
+        return config.getApiSpecDocument();
+    }
+
+    @Benchmark
+    public Object registerAll() {
+        final SwaggerAPIConfig config = new SwaggerAPIConfig(null);
+        config.registerModels(Arrays.asList(SyntheticModels.all()));
+        return config.getApiSpecDocument();
+    }
+
+    @Benchmark
+    public Object scan() {
+        final SwaggerAPIConfig config = new SwaggerAPIConfig(null);
+        config.scanModels(SyntheticModels.class.getPackageName());
+        return config.getApiSpecDocument();
+    }
+}
@@ -0,0 +1,49 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dispatches of operations with a cache TTL: hits of a cheap and of a slow operation compared to the uncached operation, and misses
+ * buffering the response for the cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ResponseCacheBenchmark {
+
+    @Benchmark
+    public int uncached(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog11.json/items/42/summary");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int hit(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog11.json/items/42/cached");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int slowHit(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog11.json/slow/cached").parameter("millis", "2");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int miss(final DispatchState state) throws ServletException, IOException {
+        state.config.invalidateCachedResponses();
+        state.request("GET", "/catalog11.json/items/42/cached");
+        return state.dispatch();
+    }
+}
@@ -0,0 +1,78 @@
+package com.roamsys.swagger.benchmarks;
+
+import com.roamsys.swagger.annotations.SwaggerApi.HTTPMethod;
+import com.roamsys.swagger.data.SwaggerAPIModelData;
+import com.roamsys.swagger.data.SwaggerAPIRouteMatch;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Route resolution across all synthetic models: the trie used by the servlet, the former regex scan for comparison, and a full
+ * dispatch of an operation without parameters.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RoutingBenchmark {
+
+    private final String[] paths = new String[SyntheticModels.MODELS * 4];
+    private final String[] listPaths = new String[SyntheticModels.MODELS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        for (int i = 0; i < SyntheticModels.MODELS; i++) {
+            final String model = SyntheticModels.modelPath(i);
+            listPaths[i] = model + "/items";
+            paths[i * 4] = model + "/items/" + i;
+            paths[i * 4 + 1] = model + "/items/" + i + "/details";
+            paths[i * 4 + 2] = model + "/organisations/ORG" + i + "/TADIG" + i;
+            // miss: no such operation
+            paths[i * 4 + 3] = model + "/organisations/ORG" + i + "/unknown/" + i;
+        }
+    }
+
+    private String nextPath() {
+        final String path = paths[next];
+        next = (next + 1) % paths.length;
+        return path;
+    }
+
+    @Benchmark
+    public SwaggerAPIRouteMatch trie(final DispatchState state) {
+        return state.config.resolveAPI(nextPath(), HTTPMethod.GET);
+    }
+
+    @Benchmark
+    public SwaggerAPIModelData regex(final DispatchState state) {
+        final String path = nextPath();
+        for (final SwaggerAPIModelData api : state.config.getAPIsFor(path.substring(0, path.indexOf('/', 1)))) {
+            if (api.getHTTPMethod() == HTTPMethod.GET && api.matchPath(path).matches()) {
+                return api;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public int dispatch(final DispatchState state) throws ServletException, IOException {
+        next = (next + 1) % listPaths.length;
+        state.request("GET", listPaths[next]);
+        return state.dispatch();
+    }
+}
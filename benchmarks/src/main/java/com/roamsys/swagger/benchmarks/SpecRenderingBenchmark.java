@@ -0,0 +1,42 @@
+package com.roamsys.swagger.benchmarks;
+
+import com.roamsys.swagger.documentation.ApiSpecDocument;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Requests of the OpenAPI specification of all synthetic models, uncompressed, compressed and conditional.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SpecRenderingBenchmark {
+
+    @Benchmark
+    public int swaggerJson(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/swagger.json");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int swaggerJsonGzip(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/swagger.json").header("Accept-Encoding", "gzip, deflate");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int swaggerJsonNotModified(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/swagger.json").header("If-None-Match", state.config.getApiSpecDocument().getEntityTag(ApiSpecDocument.Encoding.GZIP));
+        return state.dispatch();
+    }
+}
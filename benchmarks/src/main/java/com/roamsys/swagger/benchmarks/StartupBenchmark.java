@@ -0,0 +1,190 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.ServletException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures the cold start of a servlet with the {@value SyntheticModels#MODELS} * {@value SyntheticModels#OPERATIONS_PER_MODEL}
+ * synthetic operations, registered by {@link SyntheticModels.Listener}: the time from starting the process until the first request
+ * is answered and the resident set size at that point. JMH can not measure this, so every run starts a new process:
+ * <ul>
+ * <li><code>jvm</code> - the JVM with the default class data sharing archive of the JDK,</li>
+ * <li><code>cds</code> - the JVM with an AppCDS archive of the application classes, created by a training run first, which starts the
+ * servlet and dispatches a request of every kind, see {@link #TRAINING_REQUESTS},</li>
+ * <li><code>native</code> - a native image of this class, if its executable is given.</li>
+ * </ul>
+ * Usage: <code>java -cp benchmarks.jar com.roamsys.swagger.benchmarks.StartupBenchmark [runs] [native executable]</code>
+ * <p>
+ * The native image is built from the benchmark jar, which contains the reflection and resource configuration generated by the annotation
+ * processor: <code>native-image -cp benchmarks.jar com.roamsys.swagger.benchmarks.StartupBenchmark startup</code>
+ */
+public final class StartupBenchmark {
+
+    /**
+     * The argument running a single start in the current process
+     */
+    private static final String MODE_START = "start";
+
+    /**
+     * The argument running a single start in the current process followed by the training requests
+     */
+    private static final String MODE_TRAIN = "train";
+
+    /**
+     * The prefix of the line a start reports its result with
+     */
+    private static final String RESULT_PREFIX = "STARTUP ";
+
+    /**
+     * The requests dispatched by the training run, so the classes of all request paths are archived
+     */
+    private static final String[][] TRAINING_REQUESTS = {
+        { "GET", "/catalog01.json/items" },
+        { "GET", "/catalog01.json/items/42" },
+        { "GET", "/catalog01.json/items/42/cached" },
+        { "GET", "/catalog01.json/items/list?count=3" },
+        { "GET", "/catalog01.json/items/stream?count=3" },
+        { "POST", "/catalog01.json/items" },
+        { "PUT", "/catalog01.json/items/42" },
+        { "DELETE", "/catalog01.json/items/42" },
+        { "GET", "/catalog01.json/organisations/123456789012345678901234/before/2007-08-31" },
+        { "GET", "/catalog01.json/unknown/operation" },
+        { "GET", "/swagger.json" }
+    };
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        if (args.length > 0 && (args[0].equals(MODE_START) || args[0].equals(MODE_TRAIN))) {
+            start(args[0].equals(MODE_TRAIN));
+            return;
+        }
+        final int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        final String executable = args.length > 1 ? args[1] : null;
+
+        final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        final String classPath = System.getProperty("java.class.path");
+        final Path archive = Files.createTempFile("swaggerapi-startup", ".jsa");
+        try {
+            System.out.println(String.format("%-8s %6s %16s %16s %12s", "mode", "runs", "first req ms p50", "first req ms min", "RSS MB p50"));
+            report("jvm", runs, Arrays.asList(java, "-cp", classPath, StartupBenchmark.class.getName(), MODE_START));
+
+            // the archive is written when the training run exits
+            Files.delete(archive);
+            run(Arrays.asList(java, "-XX:ArchiveClassesAtExit=" + archive, "-cp", classPath, StartupBenchmark.class.getName(), MODE_TRAIN));
+            report("cds", runs, Arrays.asList(java, "-XX:SharedArchiveFile=" + archive, "-cp", classPath, StartupBenchmark.class.getName(), MODE_START));
+
+            if (executable != null) {
+                report("native", runs, Arrays.asList(executable, MODE_START));
+            }
+        } finally {
+            Files.deleteIfExists(archive);
+        }
+    }
+
+    /**
+     * Starts the servlet, dispatches the first request and prints the time and the resident set size.
+     *
+     * @param train true to dispatch the training requests afterwards
+     * @throws ServletException if the servlet fails
+     * @throws IOException if an I/O error occurs
+     */
+    private static void start(final boolean train) throws ServletException, IOException {
+        final DispatchState state = new DispatchState();
+        state.setup();
+        state.request("GET", "/catalog00.json/items/42/summary");
+        state.dispatch();
+        if (state.response.getStatus() != 200) {
+            throw new IllegalStateException("The first request failed with status " + state.response.getStatus());
+        }
+        // System.nanoTime() is the monotonic clock shared by all processes of the machine
+        final long answered = System.nanoTime();
+        if (train) {
+            for (final String[] request : TRAINING_REQUESTS) {
+                final int query = request[1].indexOf('?');
+                if (query == -1) {
+                    state.request(request[0], request[1]);
+                } else {
+                    final String[] parameter = request[1].substring(query + 1).split("=");
+                    state.request(request[0], request[1].substring(0, query)).parameter(parameter[0], parameter[1]);
+                }
+                if (!request[0].equals("GET")) {
+                    state.request.body("{\"name\":\"item\"}");
+                }
+                state.dispatch();
+            }
+        }
+        System.out.println(RESULT_PREFIX + answered + " " + residentSetSize());
+        System.exit(0);
+    }
+
+    /**
+     * Helper for reading the resident set size of the process in kB, -1 if it is unknown.
+     */
+    private static long residentSetSize() throws IOException {
+        final Path status = Paths.get("/proc/self/status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        for (final String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.substring(6).replace("kB", "").trim());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Helper for starting a command several times and printing the median and minimum time to the first request and the median resident
+     * set size.
+     */
+    private static void report(final String mode, final int runs, final List<String> command) throws IOException, InterruptedException {
+        final List<Long> times = new ArrayList<>(runs);
+        final List<Long> sizes = new ArrayList<>(runs);
+        for (int i = 0; i < runs; i++) {
+            final long[] result = run(command);
+            times.add(result[0]);
+            sizes.add(result[1]);
+        }
+        Collections.sort(times);
+        Collections.sort(sizes);
+        System.out.println(String.format("%-8s %6d %16.1f %16.1f %12.1f", mode, runs, times.get(runs / 2) / 1e6, times.get(0) / 1e6, sizes.get(runs / 2) / 1024.0));
+    }
+
+    /**
+     * Helper for starting a command and reading its result.
+     *
+     * @return the nanoseconds from starting the process until the first request was answered and the resident set size in kB
+     */
+    private static long[] run(final List<String> command) throws IOException, InterruptedException {
+        final ProcessBuilder builder = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT);
+        final long started = System.nanoTime();
+        final Process process = builder.start();
+        long[] result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    final String[] values = line.substring(RESULT_PREFIX.length()).split(" ");
+                    result = new long[] { Long.parseLong(values[0]) - started, Long.parseLong(values[1]) };
+                }
+                // other lines, e.g. of the listener or warnings of the JVM about the archive, are skipped
+            }
+        }
+        final int exitCode = process.waitFor();
+        if (exitCode != 0 || result == null) {
+            throw new IllegalStateException("Start failed with exit code " + exitCode + ": " + String.join(" ", command));
+        }
+        return result;
+    }
+}
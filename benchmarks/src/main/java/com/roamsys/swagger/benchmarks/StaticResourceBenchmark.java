@@ -0,0 +1,116 @@
+package com.roamsys.swagger.benchmarks;
+
+import com.roamsys.swagger.resources.SwaggerAPIStaticResources;
+import jakarta.servlet.ServletException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Static resources served from a directory mounted at <code>/ui</code>: the index page, a fingerprinted bundle of {@link #BUNDLE_SIZE}
+ * bytes uncompressed and as its gzip sibling, a range of the bundle and a revalidation answered with 304. The in-memory response
+ * writes byte buffers in chunks like a container, so the allocation rate shows that the mapped content is not copied to the heap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StaticResourceBenchmark {
+
+    private static final int BUNDLE_SIZE = 1 << 20;
+    private static final String BUNDLE = "/ui/swagger-ui-bundle.3f2a9c1b.js";
+
+    @State(Scope.Thread)
+    public static class StaticResourceState extends DispatchState {
+
+        private Path directory;
+
+        private String indexEntityTag;
+
+        @Setup(Level.Trial)
+        @Override
+        public void setup() throws ServletException {
+            super.setup();
+            try {
+                directory = Files.createTempDirectory("swaggerapi-ui");
+                Files.write(directory.resolve("index.html"), "<html><body><div id=\"swagger-ui\"></div></body></html>".getBytes(StandardCharsets.UTF_8));
+                final StringBuilder bundle = new StringBuilder(BUNDLE_SIZE);
+                for (int i = 0; bundle.length() < BUNDLE_SIZE; i++) {
+                    bundle.append("function operation").append(i).append("(request){return request.send('/catalog").append(i % 20).append("');}\n");
+                }
+                bundle.setLength(BUNDLE_SIZE);
+                final byte[] content = bundle.toString().getBytes(StandardCharsets.UTF_8);
+                Files.write(directory.resolve("swagger-ui-bundle.3f2a9c1b.js"), content);
+                final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (OutputStream out = new GZIPOutputStream(compressed)) {
+                    out.write(content);
+                }
+                Files.write(directory.resolve("swagger-ui-bundle.3f2a9c1b.js.gz"), compressed.toByteArray());
+                config.setStaticResources("/ui", new SwaggerAPIStaticResources(directory));
+                request("GET", "/ui/index.html");
+                servlet.service(request, response);
+            } catch (final IOException ex) {
+                throw new ServletException(ex);
+            }
+            indexEntityTag = response.getHeader("ETag");
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            config.shutdown();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public int index(final StaticResourceState state) throws ServletException, IOException {
+        state.request("GET", "/ui/index.html");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int bundle(final StaticResourceState state) throws ServletException, IOException {
+        state.request("GET", BUNDLE);
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int bundleGzip(final StaticResourceState state) throws ServletException, IOException {
+        state.request("GET", BUNDLE).header("Accept-Encoding", "gzip, deflate, br");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int range(final StaticResourceState state) throws ServletException, IOException {
+        state.request("GET", BUNDLE).header("Range", "bytes=524288-589823");
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int notModified(final StaticResourceState state) throws ServletException, IOException {
+        state.request("GET", "/ui/index.html").header("If-None-Match", state.indexEntityTag);
+        return state.dispatch();
+    }
+}
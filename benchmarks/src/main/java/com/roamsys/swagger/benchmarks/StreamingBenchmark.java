@@ -0,0 +1,49 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Large array responses: a list collected before serialization, a stream serialized by the servlet and an array written element by
+ * element by the method. Run with <code>-prof gc</code> to compare the allocation per response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StreamingBenchmark {
+
+    @Param({ "10000" })
+    public String count;
+
+    @Benchmark
+    public int list(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog11.json/items/list").parameter("count", count);
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int stream(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog11.json/items/stream").parameter("count", count);
+        return state.dispatch();
+    }
+
+    @Benchmark
+    public int export(final DispatchState state) throws ServletException, IOException {
+        state.request("GET", "/catalog11.json/items/export").parameter("count", count);
+        return state.dispatch();
+    }
+}
@@ -0,0 +1,336 @@
+package com.roamsys.swagger.benchmarks;
+
+import com.roamsys.swagger.SwaggerAPIConfig;
+import com.roamsys.swagger.SwaggerAPIListener;
+import com.roamsys.swagger.SwaggerAPIModel;
+import com.roamsys.swagger.annotations.SwaggerApi;
+import com.roamsys.swagger.annotations.SwaggerApi.HTTPMethod;
+import com.roamsys.swagger.annotations.SwaggerModel;
+import com.roamsys.swagger.annotations.SwaggerParameter;
+import com.roamsys.swagger.annotations.SwaggerParameter.DataType;
+import com.roamsys.swagger.annotations.SwaggerParameter.ParamType;
+import com.roamsys.swagger.data.SwaggerAPIContext;
+import com.roamsys.swagger.data.SwaggerExceptionHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Synthetic API models in the style of the unit test models. {@link CatalogAPI} declares {@value #OPERATIONS_PER_MODEL} operations,
+ * the {@value #MODELS} subclasses only declare their own model path, so the listener registers
+ * {@value #MODELS} * {@value #OPERATIONS_PER_MODEL} operations.
+ */
+public final class SyntheticModels {
+
+    public static final int MODELS = 20;
+    public static final int OPERATIONS_PER_MODEL = 12;
+
+    private SyntheticModels() {
+    }
+
+    /**
+     * Creates one instance of every synthetic model.
+     *
+     * @return the models
+     */
+    public static SwaggerAPIModel[] all() {
+        return new SwaggerAPIModel[] {
+            new Catalog00(), new Catalog01(), new Catalog02(), new Catalog03(), new Catalog04(),
+            new Catalog05(), new Catalog06(), new Catalog07(), new Catalog08(), new Catalog09(),
+            new Catalog10(), new Catalog11(), new Catalog12(), new Catalog13(), new Catalog14(),
+            new Catalog15(), new Catalog16(), new Catalog17(), new Catalog18(), new Catalog19()
+        };
+    }
+
+    /**
+     * Returns the model path of a synthetic model.
+     *
+     * @param index the model index
+     * @return the path including the format, e.g. <code>/catalog07.json</code>
+     */
+    public static String modelPath(final int index) {
+        return String.format("/catalog%02d.json", index);
+    }
+
+    /**
+     * Exception handler writing the error JSON like {@link SwaggerExceptionHandler#DEFAULT} without logging to {@link System#err}.
+     */
+    public static final SwaggerExceptionHandler QUIET_EXCEPTION_HANDLER = (response, code, message, ex) -> {
+        response.setStatus(code);
+        try {
+            response.setContentType("application/json;charset=UTF-8");
+            response.getWriter().write("{\"code\":" + code + ",\"reason\":\"" + message + "\"}");
+        } catch (final IOException nested) {
+            throw new IllegalStateException(nested);
+        }
+    };
+
+    /**
+     * Listener registering all synthetic models.
+     */
+    public static class Listener extends SwaggerAPIListener {
+
+        @Override
+        public void initialize(final SwaggerAPIConfig config) {
+            config.setTitle("Benchmark API");
+            config.setAPIVersion("1.0");
+            config.setDefaultContentType("application/json;charset=UTF-8");
+            config.setExceptionHandler(QUIET_EXCEPTION_HANDLER);
+            config.registerModels(Arrays.asList(all()));
+        }
+    }
+
+    /**
+     * JSON body bound by the servlet.
+     */
+    public static class Item {
+
+        public String name;
+
+        public long quantity;
+
+        public List<String> tags;
+    }
+
+    /**
+     * Base model declaring the operations.
+     */
+    public abstract static class CatalogAPI implements SwaggerAPIModel {
+
+        private static final List<String> TAGS = List.of("a", "b");
+
+        /**
+         * Completes the backend responses, like the I/O threads of an async HTTP client
+         */
+        private static final Executor BACKEND_IO = Executors.newFixedThreadPool(2, runnable -> {
+            final Thread thread = new Thread(runnable, "backend-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/items", summary = "", notes = "List items")
+        public void items(final SwaggerAPIContext context) throws IOException {
+            context.getResponse().getWriter().write("[]");
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/items/{id}", summary = "", notes = "Get item")
+        public void item(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "id", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.LONG) final Long id) throws IOException {
+            context.getResponse().getWriter().write("{\"id\":" + id + "}");
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/items/{id}/summary", summary = "", notes = "Get item serialized by the servlet")
+        public Item itemSummary(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "id", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.LONG) final Long id) {
+            final Item item = new Item();
+            item.name = "item" + id;
+            item.quantity = id;
+            item.tags = TAGS;
+            return item;
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/items/{id}/cached", summary = "", notes = "Get item served from the response cache", cacheTtl = 60)
+        public Item cachedItem(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "id", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.LONG) final Long id) {
+            return itemSummary(context, id);
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/items/stream", summary = "", notes = "Stream items serialized by the servlet")
+        public Stream<Item> itemStream(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "count", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.INTEGER) final Integer count) {
+            return IntStream.range(0, count).mapToObj(i -> {
+                final Item item = new Item();
+                item.name = "item" + i;
+                item.quantity = i;
+                item.tags = TAGS;
+                return item;
+            });
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/items/list", summary = "", notes = "List items collected before serialization")
+        public List<Item> itemList(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "count", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.INTEGER) final Integer count) {
+            return itemStream(context, count).collect(Collectors.toList());
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/items/export", summary = "", notes = "Stream items written by the method")
+        public CompletionStage<Void> itemExport(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "count", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.INTEGER) final Integer count) {
+            return context.writeJsonArray(itemStream(context, count).iterator(), Item.class);
+        }
+
+        @SwaggerApi(method = HTTPMethod.POST, path = "/items", summary = "", notes = "Create item")
+        public void createItem(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "item", description = "", required = true, paramType = ParamType.BODY) final InputStream item) throws IOException {
+            context.getResponse().setStatus(HttpServletResponse.SC_CREATED);
+        }
+
+        @SwaggerApi(method = HTTPMethod.PUT, path = "/items/{id}", summary = "", notes = "Update item")
+        public void updateItem(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "id", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.LONG) final Long id,
+                @SwaggerParameter(name = "item", description = "", required = true, paramType = ParamType.BODY) final Item item) {
+            // nothing to update
+        }
+
+        @SwaggerApi(method = HTTPMethod.DELETE, path = "/items/{id}", summary = "", notes = "Delete item")
+        public void deleteItem(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "id", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.LONG) final Long id) {
+            context.getResponse().setStatus(HttpServletResponse.SC_NO_CONTENT);
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/items/{id}/details", summary = "", notes = "Get item details")
+        public void itemDetails(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "id", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.LONG) final Long id) throws IOException {
+            context.getResponse().getWriter().write("{\"id\":" + id + ",\"details\":true}");
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/organisations/{organisationidList}", summary = "", notes = "Organisations")
+        public void organisations(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "organisationidList", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.STRING) final String organisationidList) throws IOException {
+            context.getResponse().getWriter().write("[\"" + organisationidList + "\"]");
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/organisations/{organisationidList}/{tadigList}", summary = "", notes = "Organisations by TADIG")
+        public void organisationTadigs(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "organisationidList", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.STRING) final String organisationidList,
+                @SwaggerParameter(name = "tadigList", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.STRING) final String tadigList) throws IOException {
+            context.getResponse().getWriter().write("[\"" + tadigList + "\"]");
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/organisations/{organisationidList}/before/{date}", summary = "", notes = "Organisations before date")
+        public void organisationsBefore(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "organisationidList", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.STRING) final String organisationidList,
+                @SwaggerParameter(name = "date", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.DATE) final Date date) throws IOException {
+            context.getResponse().getWriter().write("{\"before\":" + date.getTime() + "}");
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/organisations/{organisationidList}/after/{date}", summary = "", notes = "Organisations after date")
+        public void organisationsAfter(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "organisationidList", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.STRING) final String organisationidList,
+                @SwaggerParameter(name = "date", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.DATETIME) final Date date) throws IOException {
+            context.getResponse().getWriter().write("{\"after\":" + date.getTime() + "}");
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/organisations/{organisationidList}/on/{date}", summary = "", notes = "Organisations on local date")
+        public void organisationsOn(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "organisationidList", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.STRING) final String organisationidList,
+                @SwaggerParameter(name = "date", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.DATE) final LocalDate date) throws IOException {
+            context.getResponse().getWriter().write("{\"on\":" + date.toEpochDay() + "}");
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/organisations/{organisationidList}/since/{time}", summary = "", notes = "Organisations since offset date time")
+        public void organisationsSince(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "organisationidList", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.STRING) final String organisationidList,
+                @SwaggerParameter(name = "time", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.DATETIME) final OffsetDateTime time) throws IOException {
+            context.getResponse().getWriter().write("{\"since\":" + time.toEpochSecond() + "}");
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/ranges/{from}/{to}", summary = "", notes = "Range with primitive parameters")
+        public void range(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "from", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.LONG) final long from,
+                @SwaggerParameter(name = "to", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.LONG) final long to) throws IOException {
+            context.getResponse().getWriter().write("{\"size\":" + (to - from) + "}");
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/slow", summary = "", notes = "Blocking call on the container thread")
+        public void slow(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "millis", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.INTEGER) final int millis) throws IOException, InterruptedException {
+            // stands in for a JDBC or downstream HTTP call
+            Thread.sleep(millis);
+            context.getResponse().getWriter().write("{}");
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/slow/cached", summary = "", notes = "Blocking call served from the response cache", cacheTtl = 60)
+        public void slowCached(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "millis", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.INTEGER) final int millis) throws IOException, InterruptedException {
+            slow(context, millis);
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/slow/coalesced", summary = "", notes = "Blocking call shared by concurrent identical requests", coalesce = true)
+        public void slowCoalesced(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "millis", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.INTEGER) final int millis) throws IOException, InterruptedException {
+            slow(context, millis);
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/slow/async", summary = "", notes = "Blocking call on the async executor", async = true)
+        public void slowAsync(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "millis", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.INTEGER) final int millis) throws IOException, InterruptedException {
+            slow(context, millis);
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/slow/stage", summary = "", notes = "Non-blocking call completing a stage")
+        public CompletableFuture<Item> slowStage(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "millis", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.INTEGER) final int millis) {
+            return backend("slow", millis);
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/fanout", summary = "", notes = "Three non-blocking backend calls in parallel")
+        public CompletionStage<List<Item>> fanout(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "millis", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.INTEGER) final int millis) {
+            return backend("a", millis)
+                    .thenCombine(backend("b", millis), (a, b) -> List.of(a, b))
+                    .thenCombine(backend("c", millis), (ab, c) -> List.of(ab.get(0), ab.get(1), c));
+        }
+
+        /**
+         * Stands in for a non-blocking backend call, e.g. with an async HTTP client: no thread waits for the response.
+         */
+        private static CompletableFuture<Item> backend(final String name, final int millis) {
+            return CompletableFuture.supplyAsync(() -> {
+                final Item item = new Item();
+                item.name = name;
+                item.tags = TAGS;
+                return item;
+            }, CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS, BACKEND_IO));
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/search", summary = "", notes = "Search with query and header parameters")
+        public void search(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "page", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.INTEGER) final Integer page,
+                @SwaggerParameter(name = "size", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.LONG) final Long size,
+                @SwaggerParameter(name = "active", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.BOOLEAN) final Boolean active,
+                @SwaggerParameter(name = "from", description = "", required = true, paramType = ParamType.QUERY, dataType = DataType.DATETIME) final Date from,
+                @SwaggerParameter(name = "X-Tenant", description = "", required = true, paramType = ParamType.HEADER, dataType = DataType.STRING) final String tenant) throws IOException {
+            context.getResponse().getWriter().write("{\"page\":" + page + "}");
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/failing", summary = "", notes = "Always fails")
+        public void failing(final SwaggerAPIContext context) {
+            throw new IllegalStateException("failing operation");
+        }
+    }
+
+    @SwaggerModel(path = "/catalog00", description = "Catalog 0") public static class Catalog00 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog01", description = "Catalog 1") public static class Catalog01 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog02", description = "Catalog 2") public static class Catalog02 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog03", description = "Catalog 3") public static class Catalog03 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog04", description = "Catalog 4") public static class Catalog04 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog05", description = "Catalog 5") public static class Catalog05 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog06", description = "Catalog 6") public static class Catalog06 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog07", description = "Catalog 7") public static class Catalog07 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog08", description = "Catalog 8") public static class Catalog08 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog09", description = "Catalog 9") public static class Catalog09 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog10", description = "Catalog 10") public static class Catalog10 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog11", description = "Catalog 11") public static class Catalog11 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog12", description = "Catalog 12") public static class Catalog12 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog13", description = "Catalog 13") public static class Catalog13 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog14", description = "Catalog 14") public static class Catalog14 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog15", description = "Catalog 15") public static class Catalog15 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog16", description = "Catalog 16") public static class Catalog16 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog17", description = "Catalog 17") public static class Catalog17 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog18", description = "Catalog 18") public static class Catalog18 extends CatalogAPI { }
+    @SwaggerModel(path = "/catalog19", description = "Catalog 19") public static class Catalog19 extends CatalogAPI { }
+}
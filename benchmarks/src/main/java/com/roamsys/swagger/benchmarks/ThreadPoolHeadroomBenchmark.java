@@ -0,0 +1,108 @@
+package com.roamsys.swagger.benchmarks;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load test with a fixed pool of container threads, like the connector pool of Tomcat, and API methods blocking for a few milliseconds
+ * as on a JDBC or downstream HTTP call. A synchronous method holds its container thread while blocking, so a burst of requests takes
+ * <code>concurrentRequests / containerThreads</code> times the blocking time. An async method releases the container thread after the
+ * parameters are bound, so the burst is bound by the blocking time and the container threads remain available for other requests.
+ * Methods returning a stage hold no thread at all while waiting, <code>fanout</code> waits for three backends in parallel.
+ * A coalesced method is invoked once for the identical requests of the burst, the others wait for its response without holding a thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadPoolHeadroomBenchmark {
+
+    @Param({"8"})
+    public int containerThreads;
+
+    @Param({"64"})
+    public int concurrentRequests;
+
+    @Param({"10"})
+    public int blockingMillis;
+
+    @Param({"sync", "async", "stage", "fanout", "coalesced"})
+    public String mode;
+
+    private final DispatchState state = new DispatchState();
+    private ExecutorService container;
+    private String path;
+
+    @Setup(Level.Trial)
+    public void setup() throws ServletException {
+        state.setup();
+        container = Executors.newFixedThreadPool(containerThreads);
+        switch (mode) {
+            case "async":
+                path = "/catalog05.json/slow/async";
+                break;
+            case "stage":
+                path = "/catalog05.json/slow/stage";
+                break;
+            case "fanout":
+                path = "/catalog05.json/fanout";
+                break;
+            case "coalesced":
+                path = "/catalog05.json/slow/coalesced";
+                break;
+            default:
+                path = "/catalog05.json/slow";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        container.shutdownNow();
+        state.config.shutdown();
+    }
+
+    /**
+     * Dispatches a burst of requests on the container threads and waits for all responses.
+     */
+    @Benchmark
+    public long burst() throws InterruptedException {
+        final CountDownLatch completed = new CountDownLatch(concurrentRequests);
+        final String millis = Integer.toString(blockingMillis);
+        for (int i = 0; i < concurrentRequests; i++) {
+            container.execute(() -> {
+                final InMemoryHttpServletRequest request = new InMemoryHttpServletRequest().method("GET").path(path).parameter("millis", millis)
+                        .asyncSupported(completed::countDown);
+                try {
+                    state.servlet.service(request, new InMemoryHttpServletResponse());
+                } catch (final ServletException | IOException ex) {
+                    throw new IllegalStateException(ex);
+                } finally {
+                    if (!request.isAsyncStarted()) {
+                        completed.countDown();
+                    }
+                }
+            });
+        }
+        completed.await();
+        return completed.getCount();
+    }
+}
@@ -0,0 +1,26 @@
+package com.roamsys.swagger.benchmarks;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Creates proxies for servlet API interfaces which throw an {@link UnsupportedOperationException} for every call, used as
+ * delegates of the in-memory stand-ins so unexpected calls become visible.
+ */
+final class Unsupported {
+
+    private Unsupported() {
+    }
+
+    /**
+     * Creates a proxy throwing an {@link UnsupportedOperationException} for every method.
+     *
+     * @param <T> the interface type
+     * @param type the interface
+     * @return the proxy
+     */
+    static <T> T proxy(final Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        }));
+    }
+}
@@ -0,0 +1,529 @@
+package com.roamsys.swagger.processor;
+
+import com.google.gson.stream.JsonWriter;
+import com.roamsys.swagger.SwaggerAPIModel;
+import com.roamsys.swagger.SwaggerAPIModelScanner;
+import com.roamsys.swagger.annotations.SwaggerApi;
+import com.roamsys.swagger.annotations.SwaggerModel;
+import com.roamsys.swagger.annotations.SwaggerParameter;
+import com.roamsys.swagger.annotations.SwaggerParameter.ParamType;
+import com.roamsys.swagger.data.SwaggerAPIBindingPlan;
+import com.roamsys.swagger.data.SwaggerAPIInvoker;
+import com.roamsys.swagger.data.SwaggerAPIInvokerProvider;
+import com.roamsys.swagger.documentation.ApiSpecBuilder;
+import com.roamsys.swagger.documentation.ApiSpecDocument;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor for classes annotated with {@link SwaggerModel}. At compile time it
+ * <ul>
+ * <li>checks the API methods like the registration does: the context as first parameter, annotated parameters, the binding of the
+ * parameters to the path, see {@link SwaggerAPIBindingPlan#checkParameters(String, String, List, List)}, and unique routes,</li>
+ * <li>generates a {@link SwaggerAPIInvokerProvider} for each model, which calls the API methods directly,</li>
+ * <li>writes the index {@link SwaggerAPIModelScanner#MODEL_INDEX} of the model classes, so scanning does not read the class files,</li>
+ * <li>writes the API spec of the models to {@link #API_SPEC_RESOURCE}, e.g. to publish it or to generate clients at build time,</li>
+ * <li>and writes the reflection and resource configuration of native images to {@link #NATIVE_IMAGE_DIRECTORY}, covering the model
+ * classes, the generated providers, the types of the body parameters and results serialized by Gson and the resources above.</li>
+ * </ul>
+ * The index and the spec cover the models of one compilation, so the module has to be compiled entirely, not incrementally.
+ */
+@SupportedAnnotationTypes("com.roamsys.swagger.annotations.SwaggerModel")
+@SupportedOptions({ SwaggerAPIProcessor.OPTION_TITLE, SwaggerAPIProcessor.OPTION_VERSION })
+public final class SwaggerAPIProcessor extends AbstractProcessor {
+
+    /**
+     * The resource the API spec of the models is written to
+     */
+    public static final String API_SPEC_RESOURCE = "META-INF/swaggerapi/swagger.json";
+
+    /**
+     * The directory the configuration of native images is written to, read by the <code>native-image</code> tool from the class path
+     */
+    public static final String NATIVE_IMAGE_DIRECTORY = "META-INF/native-image/swaggerapi-models/";
+
+    /**
+     * The option for the title of the API spec, e.g. <code>-Aswaggerapi.title=Items</code>
+     */
+    public static final String OPTION_TITLE = "swaggerapi.title";
+
+    /**
+     * The option for the version of the API spec
+     */
+    public static final String OPTION_VERSION = "swaggerapi.version";
+
+    /**
+     * The name of the context class, which is not loaded as it depends on the servlet API
+     */
+    private static final String CONTEXT_CLASS_NAME = "com.roamsys.swagger.data.SwaggerAPIContext";
+
+    /**
+     * The binary names of the processed model classes
+     */
+    private final Set<String> modelClassNames = new TreeSet<>();
+
+    /**
+     * The binary names of the generated providers
+     */
+    private final Set<String> providerClassNames = new TreeSet<>();
+
+    /**
+     * The binary names of the classes serialized by Gson, the body parameters and results of the API methods and the types of their fields
+     */
+    private final Set<String> dataClassNames = new TreeSet<>();
+
+    /**
+     * The model classes, as originating elements of the resources
+     */
+    private final List<TypeElement> modelClasses = new ArrayList<>();
+
+    /**
+     * The API methods by route, the HTTP method and the path with empty placeholders, to find duplicate routes
+     */
+    private final Map<String, String> routes = new HashMap<>();
+
+    private final ApiSpecBuilder apiSpecBuilder = new ApiSpecBuilder();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!modelClasses.isEmpty()) {
+                writeResources();
+            }
+            return false;
+        }
+        // in the order of the names, so the generated resources do not depend on the order of the sources
+        final Set<TypeElement> types = new TreeSet<>(Comparator.comparing(type -> type.getQualifiedName().toString()));
+        types.addAll(ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(SwaggerModel.class)));
+        for (final TypeElement type : types) {
+            if (type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT)) {
+                processModel(type);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks a model class and generates its invokers.
+     */
+    private void processModel(final TypeElement type) {
+        final Elements elements = processingEnv.getElementUtils();
+        final Types types = processingEnv.getTypeUtils();
+        final Messager messager = processingEnv.getMessager();
+        if (!types.isAssignable(type.asType(), types.erasure(elements.getTypeElement(SwaggerAPIModel.class.getCanonicalName()).asType()))) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Class " + type.getQualifiedName() + " is annotated with @" + SwaggerModel.class.getSimpleName()
+                    + " but does not implement " + SwaggerAPIModel.class.getSimpleName(), type);
+            return;
+        }
+        final SwaggerModel modelAnnotation = type.getAnnotation(SwaggerModel.class);
+        final String modelPath = modelAnnotation.path() + "." + modelAnnotation.format();
+        final TypeMirror contextType = elements.getTypeElement(CONTEXT_CLASS_NAME).asType();
+        final PackageElement modelPackage = elements.getPackageOf(type);
+
+        // the invocations by method signature
+        final Map<String, String> invocations = new TreeMap<>();
+        boolean valid = true;
+        // in the order of the signatures, so the checks do not depend on the order of the members
+        final Map<String, ExecutableElement> methods = new TreeMap<>();
+        for (final ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (method.getAnnotation(SwaggerApi.class) != null) {
+                methods.put(signature(method), method);
+            }
+        }
+        for (final ExecutableElement method : methods.values()) {
+            final SwaggerApi apiAnnotation = method.getAnnotation(SwaggerApi.class);
+            final String methodName = method.getSimpleName() + " of " + type.getQualifiedName();
+            if (!method.getModifiers().contains(Modifier.PUBLIC)) {
+                messager.printMessage(Diagnostic.Kind.WARNING, "Method " + methodName + " is not public and therefore not registered", method);
+                continue;
+            }
+
+            // the context is passed as first argument, all further arguments are bound to the annotated parameters
+            final List<? extends VariableElement> arguments = method.getParameters();
+            if (arguments.isEmpty() || !types.isAssignable(contextType, types.erasure(arguments.get(0).asType()))) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Method " + methodName + " must declare "
+                        + CONTEXT_CLASS_NAME.substring(CONTEXT_CLASS_NAME.lastIndexOf('.') + 1) + " as first parameter", method);
+                valid = false;
+                continue;
+            }
+            final List<SwaggerParameter> paramAnnotations = new ArrayList<>(arguments.size());
+            final List<ParamType> paramTypes = new ArrayList<>(arguments.size());
+            final List<String> names = new ArrayList<>(arguments.size());
+            for (int i = 1; i < arguments.size(); i++) {
+                final SwaggerParameter paramAnnotation = arguments.get(i).getAnnotation(SwaggerParameter.class);
+                if (paramAnnotation == null) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "Parameter " + (i + 1) + " of method " + methodName + " is not annotated with @"
+                            + SwaggerParameter.class.getSimpleName(), method);
+                    valid = false;
+                    break;
+                }
+                paramAnnotations.add(paramAnnotation);
+                paramTypes.add(paramAnnotation.paramType());
+                names.add(paramAnnotation.name());
+            }
+            if (paramAnnotations.size() < arguments.size() - 1) {
+                continue;
+            }
+            final String path = modelPath + apiAnnotation.path();
+            try {
+                SwaggerAPIBindingPlan.checkParameters(method.getSimpleName().toString(), path, paramTypes, names);
+            } catch (final IllegalArgumentException ex) {
+                messager.printMessage(Diagnostic.Kind.ERROR, ex.getMessage(), method);
+                valid = false;
+                continue;
+            }
+            final String route = apiAnnotation.method().name() + " " + path.replaceAll("\\{[^/]*\\}", "{}");
+            final String declared = routes.putIfAbsent(route, methodName);
+            if (declared != null) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Duplicate route " + apiAnnotation.method().name() + " " + path + " of method " + methodName
+                        + ", already declared by method " + declared, method);
+                valid = false;
+                continue;
+            }
+
+            apiSpecBuilder.addOperation(modelAnnotation, apiAnnotation, paramAnnotations);
+            final ExecutableType memberType = memberType(type, method);
+            for (int i = 0; i < paramTypes.size(); i++) {
+                if (paramTypes.get(i) == ParamType.BODY) {
+                    addDataTypes(memberType.getParameterTypes().get(i + 1));
+                }
+            }
+            addDataTypes(memberType.getReturnType());
+            if (isAccessible(memberType.getParameterTypes(), modelPackage)) {
+                invocations.put(signature(method), invocation(type, method));
+            }
+        }
+        if (!valid) {
+            return;
+        }
+
+        modelClasses.add(type);
+        modelClassNames.add(elements.getBinaryName(type).toString());
+        if (invocations.isEmpty()) {
+            return;
+        }
+        if (!isAccessible(type.asType(), modelPackage)) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "No invokers generated for " + type.getQualifiedName() + ", the class is not accessible", type);
+            return;
+        }
+        writeProvider(type, invocations);
+    }
+
+    /**
+     * Helper for generating the invoker provider of a model class.
+     */
+    private void writeProvider(final TypeElement type, final Map<String, String> invocations) {
+        final Elements elements = processingEnv.getElementUtils();
+        final String providerName = SwaggerAPIInvokerProvider.providerClassName(elements.getBinaryName(type).toString());
+        final String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        final String modelName = type.getQualifiedName().toString();
+
+        final StringBuilder source = new StringBuilder(1024);
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n * Invokers of the API methods of {@link ").append(modelName).append("}\n */\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        source.append("public final class ").append(providerName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1))
+                .append(" implements ").append(SwaggerAPIInvokerProvider.class.getCanonicalName()).append(" {\n\n");
+        source.append("    @Override\n");
+        source.append("    @SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+        source.append("    public ").append(SwaggerAPIInvoker.class.getCanonicalName()).append(" getInvoker(final ").append(SwaggerAPIModel.class.getCanonicalName())
+                .append(" model, final String signature) {\n");
+        source.append("        final ").append(modelName).append(" target = (").append(modelName).append(") model;\n");
+        source.append("        switch (signature) {\n");
+        for (final Map.Entry<String, String> invocation : invocations.entrySet()) {
+            source.append("            case \"").append(invocation.getKey()).append("\":\n");
+            source.append("                return ").append(invocation.getValue()).append(";\n");
+        }
+        source.append("            default:\n");
+        source.append("                return null;\n");
+        source.append("        }\n");
+        source.append("    }\n");
+        source.append("}\n");
+
+        try {
+            final JavaFileObject file = processingEnv.getFiler().createSourceFile(providerName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+            providerClassNames.add(providerName);
+        } catch (final IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Writing the invokers of " + modelName + " failed: " + ex, type);
+        }
+    }
+
+    /**
+     * Helper for collecting the classes serialized by Gson, which have to be registered for reflection in native images. The classes of
+     * the JDK and of Gson are skipped, Gson handles them without reflection.
+     */
+    private void addDataTypes(final TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                addDataTypes(((ArrayType) type).getComponentType());
+                break;
+            case WILDCARD:
+                final TypeMirror bound = ((WildcardType) type).getExtendsBound();
+                if (bound != null) {
+                    addDataTypes(bound);
+                }
+                break;
+            case DECLARED:
+                final DeclaredType declared = (DeclaredType) type;
+                for (final TypeMirror argument : declared.getTypeArguments()) {
+                    addDataTypes(argument);
+                }
+                final TypeElement element = (TypeElement) declared.asElement();
+                final String name = processingEnv.getElementUtils().getBinaryName(element).toString();
+                if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("com.google.gson.") || !dataClassNames.add(name)) {
+                    return;
+                }
+                for (final VariableElement field : ElementFilter.fieldsIn(element.getEnclosedElements())) {
+                    if (!field.getModifiers().contains(Modifier.STATIC) && !field.getModifiers().contains(Modifier.TRANSIENT)) {
+                        addDataTypes(field.asType());
+                    }
+                }
+                addDataTypes(element.getSuperclass());
+                break;
+            default:
+                // primitives, void and type variables
+                break;
+        }
+    }
+
+    /**
+     * Helper for writing the model index and the API spec.
+     */
+    private void writeResources() {
+        final Element[] originatingElements = modelClasses.toArray(new Element[0]);
+        final String title = processingEnv.getOptions().get(OPTION_TITLE);
+        if (title != null) {
+            apiSpecBuilder.setTitle(title);
+        }
+        final String version = processingEnv.getOptions().get(OPTION_VERSION);
+        if (version != null) {
+            apiSpecBuilder.setVersion(version);
+        }
+        try {
+            writeResource(SwaggerAPIModelScanner.MODEL_INDEX, (String.join("\n", modelClassNames) + "\n").getBytes(StandardCharsets.UTF_8), originatingElements);
+            writeResource(API_SPEC_RESOURCE, ApiSpecDocument.toJson(apiSpecBuilder.getApiSpec()).getBytes(StandardCharsets.UTF_8), originatingElements);
+            writeResource(NATIVE_IMAGE_DIRECTORY + "reflect-config.json", reflectConfig(), originatingElements);
+            writeResource(NATIVE_IMAGE_DIRECTORY + "resource-config.json", resourceConfig(), originatingElements);
+        } catch (final IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Writing the Swagger API resources failed: " + ex);
+        }
+    }
+
+    /**
+     * Helper for creating the reflection configuration of native images: the registration reads the public methods and their annotations
+     * and scanned models are created with their constructor without parameters, the providers are looked up by name and Gson reads and
+     * writes the fields of the data classes.
+     */
+    private byte[] reflectConfig() throws IOException {
+        final StringWriter json = new StringWriter(1024);
+        try (JsonWriter writer = new JsonWriter(json)) {
+            writer.setIndent("  ");
+            writer.beginArray();
+            for (final String modelClassName : modelClassNames) {
+                writer.beginObject();
+                writer.name("name").value(modelClassName);
+                writer.name("queryAllPublicMethods").value(true);
+                writer.name("allPublicMethods").value(true);
+                writeConstructor(writer);
+                writer.endObject();
+            }
+            for (final String providerClassName : providerClassNames) {
+                writer.beginObject();
+                writer.name("name").value(providerClassName);
+                writeConstructor(writer);
+                writer.endObject();
+            }
+            for (final String dataClassName : dataClassNames) {
+                writer.beginObject();
+                writer.name("name").value(dataClassName);
+                writer.name("allDeclaredFields").value(true);
+                writer.name("allDeclaredConstructors").value(true);
+                writer.endObject();
+            }
+            writer.endArray();
+        }
+        return (json + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Helper for registering the constructor without parameters of a class.
+     */
+    private static void writeConstructor(final JsonWriter writer) throws IOException {
+        writer.name("methods").beginArray().beginObject();
+        writer.name("name").value("<init>");
+        writer.name("parameterTypes").beginArray().endArray();
+        writer.endObject().endArray();
+    }
+
+    /**
+     * Helper for creating the resource configuration of native images, which includes the model index and the API spec.
+     */
+    private byte[] resourceConfig() throws IOException {
+        final StringWriter json = new StringWriter(256);
+        try (JsonWriter writer = new JsonWriter(json)) {
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("resources").beginObject();
+            writer.name("includes").beginArray();
+            for (final String resource : new String[] { SwaggerAPIModelScanner.MODEL_INDEX, API_SPEC_RESOURCE }) {
+                writer.beginObject();
+                writer.name("pattern").value(Pattern.quote(resource));
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+            writer.endObject();
+        }
+        return (json + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Helper for writing a resource to the class output.
+     */
+    private void writeResource(final String name, final byte[] content, final Element[] originatingElements) throws IOException {
+        final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", name, originatingElements);
+        try (OutputStream out = file.openOutputStream()) {
+            out.write(content);
+        }
+    }
+
+    /**
+     * Helper for creating the lambda expression invoking an API method. The arguments are cast to the erased parameter types of the method
+     * as member of the model class, inherited methods may have type variables bound by the model class.
+     */
+    private String invocation(final TypeElement type, final ExecutableElement method) {
+        final StringBuilder call = new StringBuilder(128);
+        call.append(method.getModifiers().contains(Modifier.STATIC) ? type.getQualifiedName().toString() : "target").append('.')
+                .append(method.getSimpleName()).append('(');
+        final List<? extends TypeMirror> parameterTypes = memberType(type, method).getParameterTypes();
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            if (i > 0) {
+                call.append(", ");
+            }
+            call.append('(').append(typeName(parameterTypes.get(i))).append(") arguments[").append(i).append(']');
+        }
+        call.append(')');
+        return method.getReturnType().getKind() == TypeKind.VOID ? "arguments -> {\n                    " + call + ";\n                    return null;\n                }"
+                : "arguments -> " + call;
+    }
+
+    /**
+     * Helper for resolving the type of a method as member of the raw model class.
+     */
+    private ExecutableType memberType(final TypeElement type, final ExecutableElement method) {
+        final Types types = processingEnv.getTypeUtils();
+        return (ExecutableType) types.asMemberOf(types.getDeclaredType(type), method);
+    }
+
+    /**
+     * Helper for creating the signature of a method as created by {@link SwaggerAPIInvokerProvider#signature(java.lang.reflect.Method)}.
+     */
+    private String signature(final ExecutableElement method) {
+        final StringBuilder signature = new StringBuilder(method.getSimpleName()).append('(');
+        final List<? extends VariableElement> arguments = method.getParameters();
+        for (int i = 0; i < arguments.size(); i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(typeName(arguments.get(i).asType()));
+        }
+        return signature.append(')').toString();
+    }
+
+    /**
+     * Helper for creating the canonical name of an erased type.
+     */
+    private String typeName(final TypeMirror type) {
+        final TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        switch (erased.getKind()) {
+            case ARRAY:
+                return typeName(((ArrayType) erased).getComponentType()) + "[]";
+            case DECLARED:
+                return ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().toString();
+            default:
+                return erased.getKind().isPrimitive() ? erased.getKind().name().toLowerCase(Locale.ROOT) : erased.toString();
+        }
+    }
+
+    /**
+     * Helper for checking if the parameter types of a method are accessible from the package of the generated class.
+     */
+    private boolean isAccessible(final List<? extends TypeMirror> parameterTypes, final PackageElement from) {
+        for (final TypeMirror parameterType : parameterTypes) {
+            if (!isAccessible(parameterType, from)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Helper for checking if a type and its enclosing types are accessible from a package.
+     */
+    private boolean isAccessible(final TypeMirror type, final PackageElement from) {
+        final TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind() == TypeKind.ARRAY) {
+            return isAccessible(((ArrayType) erased).getComponentType(), from);
+        }
+        if (erased.getKind() != TypeKind.DECLARED) {
+            return true;
+        }
+        for (Element element = ((DeclaredType) erased).asElement(); element instanceof TypeElement; element = element.getEnclosingElement()) {
+            final Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)
+                    || !modifiers.contains(Modifier.PUBLIC) && !processingEnv.getElementUtils().getPackageOf(element).equals(from)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
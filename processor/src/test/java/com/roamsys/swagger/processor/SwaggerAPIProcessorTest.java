@@ -0,0 +1,239 @@
+package com.roamsys.swagger.processor;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import com.roamsys.swagger.SwaggerAPIConfig;
+import com.roamsys.swagger.SwaggerAPIModel;
+import com.roamsys.swagger.SwaggerAPIModelScanner;
+import com.roamsys.swagger.annotations.SwaggerApi.HTTPMethod;
+import com.roamsys.swagger.annotations.SwaggerModel;
+import com.roamsys.swagger.data.SwaggerAPIContext;
+import com.roamsys.swagger.data.SwaggerAPIModelData;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test for {@link SwaggerAPIProcessor}, which compiles models with the processor and registers them.
+ */
+public class SwaggerAPIProcessorTest {
+
+    private static final String ITEMS_API = String.join("\n",
+            "package com.example;",
+            "",
+            "import com.roamsys.swagger.SwaggerAPIModel;",
+            "import com.roamsys.swagger.annotations.SwaggerApi;",
+            "import com.roamsys.swagger.annotations.SwaggerApi.HTTPMethod;",
+            "import com.roamsys.swagger.annotations.SwaggerModel;",
+            "import com.roamsys.swagger.annotations.SwaggerParameter;",
+            "import com.roamsys.swagger.annotations.SwaggerParameter.DataType;",
+            "import com.roamsys.swagger.annotations.SwaggerParameter.ParamType;",
+            "import com.roamsys.swagger.data.SwaggerAPIContext;",
+            "import java.util.List;",
+            "",
+            "public class Api {",
+            "",
+            "    public abstract static class Base<T> implements SwaggerAPIModel {",
+            "",
+            "        public int calls;",
+            "",
+            "        @SwaggerApi(method = HTTPMethod.GET, path = \"/items/{id}\", summary = \"Item\", notes = \"\")",
+            "        public String item(final SwaggerAPIContext context,",
+            "                @SwaggerParameter(name = \"id\", description = \"\", required = true, dataType = DataType.INTEGER) final int id) {",
+            "            return \"item \" + id;",
+            "        }",
+            "",
+            "        @SwaggerApi(method = HTTPMethod.POST, path = \"/items\", summary = \"Create\", notes = \"\")",
+            "        public void create(final SwaggerAPIContext context,",
+            "                @SwaggerParameter(name = \"item\", description = \"\", required = true, paramType = ParamType.BODY) final T item) {",
+            "            calls++;",
+            "        }",
+            "    }",
+            "",
+            "    public static class Tag {",
+            "",
+            "        public String name;",
+            "",
+            "        public List<? extends Tag> children;",
+            "    }",
+            "",
+            "    @SwaggerModel(path = \"/items\", description = \"Items\")",
+            "    public static class Items extends Base<List<String>> {",
+            "",
+            "        @SwaggerApi(method = HTTPMethod.POST, path = \"/tags\", summary = \"Tags\", notes = \"\")",
+            "        public String[] tags(final SwaggerAPIContext context,",
+            "                @SwaggerParameter(name = \"prefix\", description = \"\", required = false, paramType = ParamType.QUERY) final String prefix,",
+            "                @SwaggerParameter(name = \"ids\", description = \"\", required = false, paramType = ParamType.BODY) final long[] ids) {",
+            "            return new String[] { prefix, Long.toString(ids[0]) };",
+            "        }",
+            "",
+            "        @SwaggerApi(method = HTTPMethod.GET, path = \"/tags/first\", summary = \"First tag\", notes = \"\")",
+            "        public Tag firstTag(final SwaggerAPIContext context) {",
+            "            return new Tag();",
+            "        }",
+            "",
+            "        @SwaggerApi(method = HTTPMethod.GET, path = \"/hidden\", summary = \"Hidden\", notes = \"\")",
+            "        String hidden(final SwaggerAPIContext context) {",
+            "            return \"hidden\";",
+            "        }",
+            "    }",
+            "}",
+            "");
+
+    private static final String INVALID_API = String.join("\n",
+            "package com.example;",
+            "",
+            "import com.roamsys.swagger.SwaggerAPIModel;",
+            "import com.roamsys.swagger.annotations.SwaggerApi;",
+            "import com.roamsys.swagger.annotations.SwaggerModel;",
+            "import com.roamsys.swagger.annotations.SwaggerParameter;",
+            "import com.roamsys.swagger.data.SwaggerAPIContext;",
+            "",
+            "@SwaggerModel(path = \"/invalid\")",
+            "public class InvalidAPI implements SwaggerAPIModel {",
+            "",
+            "    @SwaggerApi(path = \"/items/{id}\", summary = \"\", notes = \"\")",
+            "    public void item(final SwaggerAPIContext context, @SwaggerParameter(name = \"key\", description = \"\", required = true) final String key) {",
+            "    }",
+            "",
+            "    @SwaggerApi(path = \"/items/{name}\", summary = \"\", notes = \"\")",
+            "    public void named(final SwaggerAPIContext context, final String name) {",
+            "    }",
+            "",
+            "    @SwaggerApi(path = \"/items/{key}\", summary = \"\", notes = \"\")",
+            "    public void other(final SwaggerAPIContext context, @SwaggerParameter(name = \"key\", description = \"\", required = true) final String key) {",
+            "    }",
+            "",
+            "    @SwaggerApi(path = \"/items/{code}\", summary = \"\", notes = \"\")",
+            "    public void duplicate(final SwaggerAPIContext context, @SwaggerParameter(name = \"code\", description = \"\", required = true) final String code) {",
+            "    }",
+            "",
+            "    @SwaggerApi(path = \"/plain\", summary = \"\", notes = \"\")",
+            "    public void plain(final String value) {",
+            "    }",
+            "}",
+            "");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Helper for compiling a source file with the processor.
+     */
+    private List<Diagnostic<? extends JavaFileObject>> compile(final Path output, final String className, final String source, final String... options) throws IOException, URISyntaxException {
+        final Path sourceFile = folder.newFolder().toPath().resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final List<String> arguments = new ArrayList<>(Arrays.asList("-d", output.toString(), "-s", output.toString(), "-classpath",
+                location(SwaggerModel.class) + File.pathSeparator + location(HttpServletRequest.class)));
+        arguments.addAll(Arrays.asList(options));
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, arguments, null, fileManager.getJavaFileObjects(sourceFile));
+            task.setProcessors(Collections.singletonList(new SwaggerAPIProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    /**
+     * Helper for resolving the class path entry of a class.
+     */
+    private static String location(final Class<?> type) throws URISyntaxException {
+        return Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    /**
+     * Helper for collecting the messages of a kind.
+     */
+    private static List<String> messages(final List<Diagnostic<? extends JavaFileObject>> diagnostics, final Diagnostic.Kind kind) {
+        return diagnostics.stream().filter(d -> d.getKind() == kind).map(d -> d.getMessage(null)).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testGenerate() throws Exception {
+        final Path output = folder.newFolder().toPath();
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(output, "com.example.Api", ITEMS_API, "-Aswaggerapi.title=Items");
+        Assert.assertEquals(Collections.emptyList(), messages(diagnostics, Diagnostic.Kind.ERROR));
+        Assert.assertEquals(Collections.singletonList("Method hidden of com.example.Api.Items is not public and therefore not registered"),
+                messages(diagnostics, Diagnostic.Kind.WARNING));
+
+        Assert.assertEquals("com.example.Api$Items\n", new String(Files.readAllBytes(output.resolve(SwaggerAPIModelScanner.MODEL_INDEX)), StandardCharsets.UTF_8));
+        final String apiSpec = new String(Files.readAllBytes(output.resolve(SwaggerAPIProcessor.API_SPEC_RESOURCE)), StandardCharsets.UTF_8);
+        Assert.assertTrue(apiSpec, apiSpec.contains("\"title\":\"Items\""));
+        Assert.assertTrue(apiSpec, apiSpec.contains("\"/items.json/items/{id}\""));
+        Assert.assertTrue(apiSpec, apiSpec.contains("\"/items.json/tags\""));
+        Assert.assertFalse(apiSpec, apiSpec.contains("hidden"));
+        final String provider = new String(Files.readAllBytes(output.resolve("com/example/Api_Items_SwaggerInvokers.java")), StandardCharsets.UTF_8);
+        Assert.assertTrue(provider, provider.contains("case \"create(com.roamsys.swagger.data.SwaggerAPIContext,java.lang.Object)\":"));
+        Assert.assertTrue(provider, provider.contains("case \"tags(com.roamsys.swagger.data.SwaggerAPIContext,java.lang.String,long[])\":"));
+
+        // the models, the providers and the data classes are registered for reflection in native images
+        final JsonArray reflectConfig = JsonParser.parseString(new String(Files.readAllBytes(output.resolve(SwaggerAPIProcessor.NATIVE_IMAGE_DIRECTORY + "reflect-config.json")),
+                StandardCharsets.UTF_8)).getAsJsonArray();
+        Assert.assertEquals(Arrays.asList("com.example.Api$Items", "com.example.Api_Items_SwaggerInvokers", "com.example.Api$Tag"),
+                reflectConfig.asList().stream().map(entry -> entry.getAsJsonObject().get("name").getAsString()).collect(Collectors.toList()));
+        final String resourceConfig = new String(Files.readAllBytes(output.resolve(SwaggerAPIProcessor.NATIVE_IMAGE_DIRECTORY + "resource-config.json")), StandardCharsets.UTF_8);
+        Assert.assertTrue(resourceConfig, resourceConfig.contains("\\\\QMETA-INF/swaggerapi/models\\\\E"));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { output.toUri().toURL() }, getClass().getClassLoader())) {
+            // found by the index and registered with the generated invokers
+            final SwaggerAPIConfig config = new SwaggerAPIConfig(null);
+            Assert.assertEquals(Collections.singletonList("com.example.Api$Items"), new SwaggerAPIModelScanner(classLoader).findModelClassNames("com.example"));
+            final SwaggerAPIModel model = (SwaggerAPIModel) classLoader.loadClass("com.example.Api$Items").getConstructor().newInstance();
+            config.registerModel(model);
+            Assert.assertEquals(4, config.getRoutes().getAPIs().size());
+
+            final SwaggerAPIModelData item = config.resolveAPI("/items.json/items/42", HTTPMethod.GET).getAPI();
+            Assert.assertEquals("item 42", item.invoke(new Object[] { new SwaggerAPIContext(null, null, null, null), 42 }));
+            final SwaggerAPIModelData tags = config.resolveAPI("/items.json/tags", HTTPMethod.POST).getAPI();
+            Assert.assertArrayEquals(new String[] { "a", "7" }, (String[]) tags.invoke(new Object[] { null, "a", new long[] { 7 } }));
+            final SwaggerAPIModelData create = config.resolveAPI("/items.json/items", HTTPMethod.POST).getAPI();
+            Assert.assertNull(create.invoke(new Object[] { null, Arrays.asList("a") }));
+            Assert.assertEquals(1, model.getClass().getField("calls").getInt(model));
+            try {
+                item.invoke(new Object[] { null, null });
+                Assert.fail("Missing primitive argument accepted");
+            } catch (final IllegalArgumentException ex) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        // the methods are checked in the order of their signatures
+        final Path output = folder.newFolder().toPath();
+        Assert.assertEquals(Arrays.asList(
+                "Parameter key (argument 1) of method item has no placeholder {key} in path \"/invalid.json/items/{id}\"",
+                "Parameter 2 of method named of com.example.InvalidAPI is not annotated with @SwaggerParameter",
+                "Duplicate route GET /invalid.json/items/{key} of method other of com.example.InvalidAPI, already declared by method duplicate of com.example.InvalidAPI",
+                "Method plain of com.example.InvalidAPI must declare SwaggerAPIContext as first parameter"),
+                messages(compile(output, "com.example.InvalidAPI", INVALID_API), Diagnostic.Kind.ERROR));
+        Assert.assertFalse(Files.exists(output.resolve(SwaggerAPIModelScanner.MODEL_INDEX)));
+    }
+}
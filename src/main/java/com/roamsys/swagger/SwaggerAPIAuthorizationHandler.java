@@ -27,19 +27,20 @@ public interface SwaggerAPIAuthorizationHandler {
      * Default implementation for resolving API key from request.
      * The following strategy is used:
      * <ol>
-     * <li>Check for URL parameter <code>api_key</code></li>
      * <li>Check for header field <code>X-Api-Key</code></li>
+     * <li>Check for URL parameter <code>api_key</code></li>
      * </ol>
+     * The header is checked first, as reading a parameter makes the container parse the query string and a form body.
      *
      * @param request the request
      * @return the resolved API key or <code>null</code>
      */
     default String resolveApiKey(final HttpServletRequest request) {
-        final String requestAPIKeyParameter = request.getParameter("api_key");
-        if (requestAPIKeyParameter == null) {
-            return request.getHeader("x-api-key");
-         } else {
-            return requestAPIKeyParameter;
+        final String requestAPIKeyHeader = request.getHeader("x-api-key");
+        if (requestAPIKeyHeader == null) {
+            return request.getParameter("api_key");
+        } else {
+            return requestAPIKeyHeader;
         }
     }
 }
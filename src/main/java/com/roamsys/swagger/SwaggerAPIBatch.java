@@ -0,0 +1,268 @@
+package com.roamsys.swagger;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Reading and writing of batches of API calls, see {@link SwaggerAPIConfig#setBatchMaxEntries(int)}. A batch is a JSON array of entries
+ * like <code>{"method": "GET", "path": "/model.json/items/42", "query": {"fields": "name"}, "headers": {"X-Api-Key": "..."}}</code>,
+ * the response is a JSON array of <code>{"status": 200, "headers": {...}, "body": ...}</code> in the order of the entries.
+ */
+final class SwaggerAPIBatch {
+
+    /**
+     * Parses the batch independent of the Gson instance of the config, which may use other naming policies
+     */
+    private static final Gson GSON = new Gson();
+
+    private SwaggerAPIBatch() {
+    }
+
+    /**
+     * An entry of a batch as posted
+     */
+    static final class Entry {
+
+        /**
+         * The HTTP method, GET if missing
+         */
+        String method;
+
+        /**
+         * The path below the servlet path, not URL encoded, may include a URL encoded query string
+         */
+        String path;
+
+        /**
+         * The query parameters by name, values are strings or arrays of strings
+         */
+        Map<String, JsonElement> query;
+
+        /**
+         * The request headers by name
+         */
+        Map<String, String> headers;
+
+        /**
+         * The request body, passed as JSON unless the entry declares a content type and the body is a string
+         */
+        JsonElement body;
+    }
+
+    /**
+     * Reads the entries of a batch one by one, so reading stops at the first entry exceeding the maximum instead of parsing the entire
+     * batch first.
+     *
+     * @param reader the reader of the request body
+     * @param maxEntries the maximum number of entries
+     * @return the entries, empty for an empty body, or <code>null</code> if the batch has more than the maximum number of entries
+     * @throws JsonParseException if the body is not an array of entries
+     * @throws IOException if the body can not be read
+     */
+    static List<Entry> read(final Reader reader, final int maxEntries) throws IOException {
+        final JsonReader json = GSON.newJsonReader(reader);
+        try {
+            if (json.peek() == JsonToken.NULL) {
+                return Collections.emptyList();
+            }
+        } catch (final EOFException ex) {
+            // empty body
+            return Collections.emptyList();
+        }
+        try {
+            final TypeAdapter<Entry> adapter = GSON.getAdapter(Entry.class);
+            final List<Entry> entries = new ArrayList<>();
+            json.beginArray();
+            while (json.hasNext()) {
+                if (entries.size() == maxEntries) {
+                    return null;
+                }
+                entries.add(adapter.read(json));
+            }
+            json.endArray();
+            if (json.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("Unexpected content after the batch");
+            }
+            return entries;
+        } catch (final EOFException | MalformedJsonException | IllegalStateException ex) {
+            // a truncated or malformed body or an unexpected token, mapped like Gson.fromJson does
+            throw new JsonSyntaxException(ex);
+        }
+    }
+
+    /**
+     * Creates the request of an entry.
+     *
+     * @param request the batch request
+     * @param entry the entry
+     * @return the request
+     * @throws IllegalArgumentException if the entry is invalid
+     */
+    static SwaggerAPIBatchRequest createRequest(final HttpServletRequest request, final Entry entry) {
+        if (entry == null || entry.path == null || !entry.path.startsWith("/")) {
+            throw new IllegalArgumentException("Batch entry without absolute path");
+        }
+        final String method = entry.method != null ? entry.method.toUpperCase(Locale.ROOT) : "GET";
+
+        // query parameters of the path and of the query object
+        final Map<String, String[]> parameters = new LinkedHashMap<>();
+        String path = entry.path;
+        String queryString = null;
+        final int queryPos = path.indexOf('?');
+        if (queryPos != -1) {
+            queryString = path.substring(queryPos + 1);
+            path = path.substring(0, queryPos);
+            for (final String pair : queryString.split("&")) {
+                if (!pair.isEmpty()) {
+                    final int separatorPos = pair.indexOf('=');
+                    addParameter(parameters, URLDecoder.decode(separatorPos != -1 ? pair.substring(0, separatorPos) : pair, StandardCharsets.UTF_8),
+                            separatorPos != -1 ? URLDecoder.decode(pair.substring(separatorPos + 1), StandardCharsets.UTF_8) : "");
+                }
+            }
+        }
+        if (entry.query != null) {
+            for (final Map.Entry<String, JsonElement> parameter : entry.query.entrySet()) {
+                final JsonElement value = parameter.getValue();
+                if (value == null || value.isJsonNull()) {
+                    continue;
+                }
+                if (value.isJsonArray()) {
+                    for (final JsonElement element : (JsonArray) value) {
+                        addParameter(parameters, parameter.getKey(), element.getAsString());
+                    }
+                } else if (value.isJsonPrimitive()) {
+                    addParameter(parameters, parameter.getKey(), value.getAsString());
+                } else {
+                    throw new IllegalArgumentException("Invalid value for query parameter " + parameter.getKey());
+                }
+            }
+        }
+
+        final Map<String, String> headers = SwaggerAPIBatchRequest.createHeaderMap();
+        if (entry.headers != null) {
+            entry.headers.forEach((name, value) -> {
+                if (value != null) {
+                    headers.put(name, value);
+                }
+            });
+        }
+
+        byte[] body = null;
+        if (entry.body != null && !entry.body.isJsonNull()) {
+            final String contentType = headers.get("Content-Type");
+            if (contentType != null && !isJson(contentType) && entry.body.isJsonPrimitive()) {
+                // plain text or other textual content
+                body = entry.body.getAsString().getBytes(charset(contentType));
+            } else {
+                body = GSON.toJson(entry.body).getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        return new SwaggerAPIBatchRequest(request, method, path, queryString, parameters, headers, body);
+    }
+
+    /**
+     * Writes the response of an entry as element of the batch response. JSON bodies are embedded as they are, other bodies as string.
+     *
+     * @param writer the writer of the batch response
+     * @param out the stream the writer writes to, UTF-8 encoded JSON bodies are copied to it without decoding and encoding them again
+     * @param response the response of the entry
+     * @throws IOException if an I/O error occurs
+     */
+    static void write(final JsonWriter writer, final OutputStream out, final SwaggerAPIBatchResponse response) throws IOException {
+        writer.beginObject();
+        writer.name("status").value(response.getStatus());
+        writer.name("headers").beginObject();
+        for (final Map.Entry<String, List<String>> header : response.getHeaderMap().entrySet()) {
+            writer.name(header.getKey()).value(String.join(", ", header.getValue()));
+        }
+        writer.endObject();
+        final byte[] body = response.getBody();
+        if (body.length > 0) {
+            final Charset charset = charset("charset=" + response.getCharacterEncoding());
+            writer.name("body");
+            if (response.getContentType() == null || !isJson(response.getContentType())) {
+                writer.value(new String(body, charset));
+            } else if (isBlank(body)) {
+                writer.nullValue();
+            } else if (charset.equals(StandardCharsets.UTF_8)) {
+                // an empty raw value only writes the separators
+                writer.jsonValue("");
+                writer.flush();
+                out.write(body);
+            } else {
+                writer.jsonValue(new String(body, charset).trim());
+            }
+        }
+        writer.endObject();
+    }
+
+    /**
+     * Helper for adding a parameter value.
+     */
+    private static void addParameter(final Map<String, String[]> parameters, final String name, final String value) {
+        parameters.merge(name, new String[] { value }, (values, added) -> {
+            final List<String> merged = new ArrayList<>(Arrays.asList(values));
+            merged.add(added[0]);
+            return merged.toArray(new String[0]);
+        });
+    }
+
+    /**
+     * Helper for checking if a body consists of whitespace only.
+     */
+    private static boolean isBlank(final byte[] body) {
+        for (final byte b : body) {
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Helper for checking if a content type is JSON.
+     */
+    private static boolean isJson(final String contentType) {
+        return contentType.toLowerCase(Locale.ROOT).contains("json");
+    }
+
+    /**
+     * Helper for resolving the charset of a content type, UTF-8 if missing or unknown.
+     */
+    private static Charset charset(final String contentType) {
+        final int charsetPos = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (charsetPos != -1) {
+            try {
+                return Charset.forName(contentType.substring(charsetPos + 8).trim());
+            } catch (final IllegalCharsetNameException | UnsupportedCharsetException ex) {
+                // fall back to UTF-8
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
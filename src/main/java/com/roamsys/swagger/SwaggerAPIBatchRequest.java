@@ -0,0 +1,307 @@
+package com.roamsys.swagger;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Request of a batch, dispatched like a request of its own. Method, path, parameters and body are those of the batch entry, headers of
+ * the entry take precedence over the headers of the batch request, e.g. for the API key or cookies. Attributes set while processing the
+ * entry are not visible to other entries. Async processing is not supported, methods are invoked on the thread executing the entry.
+ */
+final class SwaggerAPIBatchRequest extends HttpServletRequestWrapper {
+
+    private final String method;
+    private final String path;
+    private final String queryString;
+
+    /**
+     * The parameters by name
+     */
+    private final Map<String, String[]> parameters;
+
+    /**
+     * The headers of the entry by name, case-insensitive
+     */
+    private final Map<String, String> headers;
+
+    /**
+     * The request body or <code>null</code> if the entry has none
+     */
+    private final byte[] body;
+
+    /**
+     * The attributes set while processing the entry
+     */
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    private String characterEncoding;
+
+    /**
+     * Creates the request
+     *
+     * @param request the batch request
+     * @param method the HTTP method
+     * @param path the path below the servlet path, like {@link #getPathInfo()} not URL encoded
+     * @param queryString the query string or <code>null</code>
+     * @param parameters the parameters by name
+     * @param headers the headers of the entry by name, case-insensitive
+     * @param body the request body or <code>null</code> if the entry has none
+     */
+    SwaggerAPIBatchRequest(final HttpServletRequest request, final String method, final String path, final String queryString,
+            final Map<String, String[]> parameters, final Map<String, String> headers, final byte[] body) {
+        super(request);
+        this.method = method;
+        this.path = path;
+        this.queryString = queryString;
+        this.parameters = parameters;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return path;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return getContextPath() + getServletPath() + path;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        final StringBuffer url = new StringBuffer(getScheme()).append("://").append(getServerName());
+        if (getServerPort() > 0) {
+            url.append(':').append(getServerPort());
+        }
+        return url.append(getRequestURI());
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getParameter(final String name) {
+        final String[] values = parameters.get(name);
+        return values != null && values.length > 0 ? values[0] : null;
+    }
+
+    @Override
+    public String[] getParameterValues(final String name) {
+        final String[] values = parameters.get(name);
+        return values != null ? values.clone() : null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String getHeader(final String name) {
+        final String value = headers.get(name);
+        return value != null || isEntityHeader(name) ? value : super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(final String name) {
+        final String value = headers.get(name);
+        if (value != null) {
+            return Collections.enumeration(Collections.singletonList(value));
+        }
+        return isEntityHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        final Set<String> names = new LinkedHashSet<>(headers.keySet());
+        final Enumeration<String> batchNames = super.getHeaderNames();
+        while (batchNames != null && batchNames.hasMoreElements()) {
+            final String name = batchNames.nextElement();
+            if (!headers.containsKey(name) && !isEntityHeader(name)) {
+                names.add(name);
+            }
+        }
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public int getIntHeader(final String name) {
+        final String value = headers.get(name);
+        if (value != null) {
+            return Integer.parseInt(value);
+        }
+        return isEntityHeader(name) ? -1 : super.getIntHeader(name);
+    }
+
+    /**
+     * Helper for checking if a header describes the body of the batch request, which is not inherited.
+     */
+    private static boolean isEntityHeader(final String name) {
+        return name.equalsIgnoreCase("Content-Type") || name.equalsIgnoreCase("Content-Length") || name.equalsIgnoreCase("Content-Encoding");
+    }
+
+    @Override
+    public String getContentType() {
+        final String contentType = headers.get("Content-Type");
+        return contentType != null || body == null ? contentType : "application/json";
+    }
+
+    @Override
+    public int getContentLength() {
+        return body != null ? body.length : -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return getContentLength();
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        if (characterEncoding != null) {
+            return characterEncoding;
+        }
+        final String contentType = headers.get("Content-Type");
+        if (contentType == null) {
+            // JSON bodies of the batch are passed as UTF-8
+            return body != null ? StandardCharsets.UTF_8.name() : null;
+        }
+        final int charsetPos = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        return charsetPos != -1 ? contentType.substring(charsetPos + 8).trim() : null;
+    }
+
+    @Override
+    public void setCharacterEncoding(final String encoding) throws UnsupportedEncodingException {
+        if (!Charset.isSupported(encoding)) {
+            throw new UnsupportedEncodingException(encoding);
+        }
+        characterEncoding = encoding;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        final ByteArrayInputStream in = new ByteArrayInputStream(body != null ? body : new byte[0]);
+        return new ServletInputStream() {
+
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) {
+                return in.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(final ReadListener readListener) {
+                throw new IllegalStateException("Non-blocking input is not supported for batch requests");
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        final String encoding = getCharacterEncoding();
+        return new BufferedReader(new InputStreamReader(getInputStream(), encoding != null ? encoding : StandardCharsets.ISO_8859_1.name()));
+    }
+
+    @Override
+    public Object getAttribute(final String name) {
+        final Object value = attributes.get(name);
+        return value != null ? value : super.getAttribute(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        final Set<String> names = new LinkedHashSet<>(attributes.keySet());
+        names.addAll(Collections.list(super.getAttributeNames()));
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public void setAttribute(final String name, final Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(final String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Async processing is not supported for batch requests");
+    }
+
+    @Override
+    public AsyncContext startAsync(final ServletRequest servletRequest, final ServletResponse servletResponse) {
+        throw new IllegalStateException("Async processing is not supported for batch requests");
+    }
+
+    /**
+     * Creates the map for the headers of an entry.
+     *
+     * @return an empty, case-insensitive map
+     */
+    static Map<String, String> createHeaderMap() {
+        return new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    }
+}
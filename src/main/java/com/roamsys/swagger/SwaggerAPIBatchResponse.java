@@ -0,0 +1,328 @@
+package com.roamsys.swagger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Response of a request of a batch. Status, headers and body are captured and written as element of the batch response afterwards,
+ * nothing is passed to the response of the batch.
+ */
+final class SwaggerAPIBatchResponse extends HttpServletResponseWrapper {
+
+    /**
+     * The headers by name, case-insensitive
+     */
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * The captured body
+     */
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+    private int status = HttpServletResponse.SC_OK;
+    private String contentType;
+
+    /**
+     * The character encoding, the batch response is UTF-8 encoded JSON anyway
+     */
+    private String characterEncoding = StandardCharsets.UTF_8.name();
+
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * Creates the response
+     *
+     * @param response the response of the batch, only used for URL encoding and the locale
+     */
+    SwaggerAPIBatchResponse(final HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * @return the captured headers by name, the content type is included
+     */
+    Map<String, List<String>> getHeaderMap() {
+        return headers;
+    }
+
+    /**
+     * Returns the captured body, the writer is flushed first.
+     *
+     * @return the body
+     */
+    byte[] getBody() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return body.toByteArray();
+    }
+
+    @Override
+    public void setStatus(final int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(final int status) {
+        sendError(status, null);
+    }
+
+    @Override
+    public void sendError(final int status, final String message) {
+        resetBuffer();
+        this.status = status;
+        if (message != null) {
+            setContentType("text/plain");
+            body.writeBytes(message.getBytes(Charset.forName(characterEncoding)));
+        }
+    }
+
+    @Override
+    public void sendRedirect(final String location) {
+        sendRedirect(location, HttpServletResponse.SC_FOUND, true);
+    }
+
+    @Override
+    public void sendRedirect(final String location, final int status) {
+        sendRedirect(location, status, true);
+    }
+
+    @Override
+    public void sendRedirect(final String location, final boolean clearBuffer) {
+        sendRedirect(location, HttpServletResponse.SC_FOUND, clearBuffer);
+    }
+
+    @Override
+    public void sendRedirect(final String location, final int status, final boolean clearBuffer) {
+        if (clearBuffer) {
+            resetBuffer();
+        }
+        this.status = status;
+        setHeader("Location", location);
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        if (value == null) {
+            headers.remove(name);
+        } else {
+            final List<String> values = new ArrayList<>(1);
+            values.add(value);
+            headers.put(name, values);
+        }
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+        if (value != null) {
+            headers.computeIfAbsent(name, n -> new ArrayList<>(1)).add(value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(final String name, final int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void addIntHeader(final String name, final int value) {
+        addHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void setDateHeader(final String name, final long date) {
+        setHeader(name, formatDate(date));
+    }
+
+    @Override
+    public void addDateHeader(final String name, final long date) {
+        addHeader(name, formatDate(date));
+    }
+
+    /**
+     * Helper for formatting a date header.
+     */
+    private static String formatDate(final long date) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(date).atOffset(ZoneOffset.UTC));
+    }
+
+    @Override
+    public void addCookie(final Cookie cookie) {
+        addHeader("Set-Cookie", cookie.getName() + "=" + cookie.getValue());
+    }
+
+    @Override
+    public boolean containsHeader(final String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String getHeader(final String name) {
+        final List<String> values = headers.get(name);
+        return values != null ? values.get(0) : null;
+    }
+
+    @Override
+    public Collection<String> getHeaders(final String name) {
+        final List<String> values = headers.get(name);
+        return values != null ? new ArrayList<>(values) : Collections.emptyList();
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return new ArrayList<>(headers.keySet());
+    }
+
+    @Override
+    public void setContentType(final String type) {
+        if (type == null) {
+            contentType = null;
+            headers.remove("Content-Type");
+            return;
+        }
+        if (type.equals(contentType)) {
+            // set by the default headers and again by the serializer
+            return;
+        }
+        final int charsetPos = type.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (charsetPos != -1) {
+            if (writer == null) {
+                characterEncoding = type.substring(charsetPos + 8).trim();
+            }
+        }
+        contentType = type;
+        setHeader("Content-Type", contentType);
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(final String charset) {
+        if (writer == null && charset != null) {
+            characterEncoding = charset;
+        }
+    }
+
+    @Override
+    public void setCharacterEncoding(final Charset charset) {
+        setCharacterEncoding(charset.name());
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setContentLength(final int length) {
+        // the length is known from the captured body
+    }
+
+    @Override
+    public void setContentLengthLong(final long length) {
+        // the length is known from the captured body
+    }
+
+    @Override
+    public void setBufferSize(final int size) {
+        // the whole body is buffered
+    }
+
+    @Override
+    public void setLocale(final Locale locale) {
+        // not part of the batch response
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+
+                @Override
+                public void write(final int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void write(final byte[] b, final int off, final int len) {
+                    body.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(final WriteListener writeListener) {
+                    throw new IllegalStateException("Non-blocking output is not supported for batch requests");
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), characterEncoding));
+        }
+        return writer;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+        body.reset();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = HttpServletResponse.SC_OK;
+        contentType = null;
+    }
+}
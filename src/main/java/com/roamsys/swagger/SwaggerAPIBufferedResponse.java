@@ -0,0 +1,268 @@
+package com.roamsys.swagger;
+
+import com.roamsys.swagger.cache.SwaggerAPICachedResponse;
+import com.roamsys.swagger.cache.SwaggerAPIResponseCache;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.concurrent.CompletableFuture;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Response of a cached or coalesced operation while the method is invoked. The body is buffered until the invocation is done and then
+ * written to the wrapped response, added to the cache if the status is 200, and handed to the requests waiting for the invocation.
+ * Status, headers and content type are set on the wrapped response directly.
+ * <p>
+ * Without waiting requests, bodies too large for the cache are passed through once they exceed the limit.
+ */
+final class SwaggerAPIBufferedResponse extends HttpServletResponseWrapper {
+
+    /**
+     * The cache or <code>null</code> if the operation is not cached
+     */
+    private final SwaggerAPIResponseCache cache;
+
+    private final SwaggerAPIResponseCache.Key key;
+
+    /**
+     * The time to live in the cache in nanoseconds
+     */
+    private final long ttl;
+
+    /**
+     * The flight completed for the waiting requests or <code>null</code> if the operation is not coalesced
+     */
+    private final CompletableFuture<SwaggerAPICachedResponse> flight;
+
+    /**
+     * The size above which the body is not cached
+     */
+    private final long maxCachedBytes;
+
+    /**
+     * The buffered body, <code>null</code> once passed through
+     */
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+
+    /**
+     * The exception reported for the invocation, handed to the waiting requests instead of the body
+     */
+    private Throwable failure;
+
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private boolean released;
+
+    /**
+     * Creates the response
+     *
+     * @param response the wrapped response
+     * @param key the key of the response
+     * @param cache the cache or <code>null</code> if the operation is not cached
+     * @param ttl the time to live in the cache in nanoseconds
+     * @param flight the flight to complete or <code>null</code> if the operation is not coalesced
+     */
+    SwaggerAPIBufferedResponse(final HttpServletResponse response, final SwaggerAPIResponseCache.Key key, final SwaggerAPIResponseCache cache, final long ttl,
+            final CompletableFuture<SwaggerAPICachedResponse> flight) {
+        super(response);
+        this.key = key;
+        this.cache = cache;
+        this.ttl = ttl;
+        this.flight = flight;
+        this.maxCachedBytes = cache != null ? cache.getMaxBytes() / 8 : -1;
+    }
+
+    /**
+     * Sets the exception reported for the invocation, so the waiting requests report it with their own exception handler.
+     *
+     * @param failure the exception
+     */
+    void fail(final Throwable failure) {
+        if (this.failure == null) {
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Writes the buffered body to the wrapped response, caches the response if the status is 200 and completes the flight.
+     * Later writes are passed through.
+     *
+     * @param store false to not cache the response, e.g. after a timeout
+     * @throws IOException if the body could not be written
+     */
+    void release(final boolean store) throws IOException {
+        if (released) {
+            return;
+        }
+        released = true;
+        try {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (buffer != null) {
+                final byte[] body = buffer.toByteArray();
+                buffer = null;
+                final SwaggerAPICachedResponse response = new SwaggerAPICachedResponse(getStatus(), getContentType(), body);
+                if (store && cache != null && failure == null && response.getStatus() == HttpServletResponse.SC_OK && body.length <= maxCachedBytes) {
+                    cache.put(key, response, ttl);
+                }
+                complete(response);
+                if (body.length > 0) {
+                    getResponse().getOutputStream().write(body);
+                }
+            }
+        } finally {
+            // a body passed through can not be replayed
+            complete(null);
+        }
+    }
+
+    /**
+     * Helper for completing the flight.
+     */
+    private void complete(final SwaggerAPICachedResponse response) {
+        if (flight == null) {
+            return;
+        }
+        if (failure != null) {
+            flight.completeExceptionally(failure);
+        } else if (response != null) {
+            flight.complete(response);
+        } else {
+            flight.completeExceptionally(new Aborted(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Coalesced method call did not complete"));
+        }
+    }
+
+    /**
+     * Helper for passing the body through once it exceeds the limit.
+     */
+    private void overflow() throws IOException {
+        final ByteArrayOutputStream buffered = buffer;
+        buffer = null;
+        buffered.writeTo(getResponse().getOutputStream());
+    }
+
+    /**
+     * Helper for checking the size of the buffered body after a write.
+     */
+    private void checkSize() throws IOException {
+        if (flight == null && buffer.size() > maxCachedBytes) {
+            overflow();
+        }
+    }
+
+    /**
+     * Reported to the waiting requests if the invocation did not complete, e.g. on timeout, instead of an exception thrown by the method.
+     */
+    static final class Aborted extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The HTTP status reported by the exception handler
+         */
+        private final int code;
+
+        Aborted(final int code, final String message) {
+            super(message, null, false, false);
+            this.code = code;
+        }
+
+        int getCode() {
+            return code;
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+
+                @Override
+                public void write(final int b) throws IOException {
+                    if (buffer == null) {
+                        getResponse().getOutputStream().write(b);
+                    } else {
+                        buffer.write(b);
+                        checkSize();
+                    }
+                }
+
+                @Override
+                public void write(final byte[] b, final int off, final int len) throws IOException {
+                    if (buffer == null) {
+                        getResponse().getOutputStream().write(b, off, len);
+                    } else {
+                        buffer.write(b, off, len);
+                        checkSize();
+                    }
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    if (buffer == null) {
+                        getResponse().getOutputStream().flush();
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(final WriteListener writeListener) {
+                    throw new IllegalStateException("Non-blocking output is not supported for cached or coalesced operations");
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            // fixes the character encoding like the container does
+            setCharacterEncoding(getCharacterEncoding());
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return buffer == null && super.isCommitted();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (buffer == null) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (buffer == null) {
+            super.resetBuffer();
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        buffer.reset();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        super.reset();
+    }
+}
@@ -1,21 +1,49 @@
 package com.roamsys.swagger;
 
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
 import com.roamsys.swagger.annotations.SwaggerApi;
+import com.roamsys.swagger.annotations.SwaggerApi.HTTPMethod;
 import com.roamsys.swagger.annotations.SwaggerModel;
 import com.roamsys.swagger.annotations.SwaggerParameter;
+import com.roamsys.swagger.cache.SwaggerAPIRequestCoalescer;
+import com.roamsys.swagger.cache.SwaggerAPIResponseCache;
+import com.roamsys.swagger.data.SwaggerAPIContext;
 import com.roamsys.swagger.data.SwaggerAPIModelData;
 import com.roamsys.swagger.data.SwaggerAPIParameterData;
+import com.roamsys.swagger.data.SwaggerAPIRouteMatch;
+import com.roamsys.swagger.data.SwaggerAPIRouteTable;
 import com.roamsys.swagger.data.SwaggerExceptionHandler;
+import com.roamsys.swagger.data.SwaggerParameterConverters;
 import com.roamsys.swagger.documentation.ApiSpecBuilder;
+import com.roamsys.swagger.documentation.ApiSpecDocument;
 import com.roamsys.swagger.documentation.SwaggerApiSpec;
+import com.roamsys.swagger.limit.SwaggerAPIBulkhead;
+import com.roamsys.swagger.limit.SwaggerAPIBulkheads;
+import com.roamsys.swagger.limit.SwaggerAPIRateLimit;
+import com.roamsys.swagger.limit.SwaggerAPIRateLimiter;
+import com.roamsys.swagger.metrics.SwaggerAPIMetrics;
+import com.roamsys.swagger.resources.SwaggerAPIStaticResources;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import jakarta.servlet.ServletContext;
 
@@ -37,15 +65,20 @@ public class SwaggerAPIConfig {
     public final static String SERVLET_ATTRIBUTE_NAME = "SwaggerAPIModel";
 
     /**
-     * The map that holds all swagger API data with their path as identifier
+     * The current snapshot of all swagger APIs, replaced on every registration
      */
-    private final Map<String, List<SwaggerAPIModelData>> swaggerAPIs = new HashMap<>();
+    private volatile SwaggerAPIRouteTable routes = SwaggerAPIRouteTable.EMPTY;
 
     /**
      * The builder for collecting API spec information
      */
     private final ApiSpecBuilder apiSpecBuilder;
 
+    /**
+     * The rendered API spec, <code>null</code> if it has to be rendered again after a change
+     */
+    private volatile ApiSpecDocument apiSpecDocument;
+
     /**
      * Defines if cross origin access is allowed
      */
@@ -56,6 +89,91 @@ public class SwaggerAPIConfig {
      */
     private String defaultContentType;
 
+    /**
+     * The Gson instance used to bind JSON request bodies
+     */
+    private volatile Gson gson = new Gson();
+
+    /**
+     * The Gson type adapters by the Java type of the method parameters
+     */
+    private final Map<Type, TypeAdapter<?>> typeAdapters = new ConcurrentHashMap<>();
+
+    /**
+     * The converters for PATH, QUERY and HEADER parameters
+     */
+    private final SwaggerParameterConverters parameterConverters = new SwaggerParameterConverters();
+
+    /**
+     * The serializers for the return values of API methods by result format
+     */
+    private final Map<String, SwaggerAPIResultSerializer> resultSerializers = new ConcurrentHashMap<>();
+
+    /**
+     * The executor for async API methods, created on first use if not set
+     */
+    private volatile ExecutorService asyncExecutor;
+
+    /**
+     * Defines if the async executor was created by the config and must be shut down with it
+     */
+    private boolean defaultAsyncExecutor;
+
+    /**
+     * The timeout for async API methods in milliseconds
+     */
+    private volatile long asyncTimeout = 30000;
+
+    /**
+     * The number of bytes after which streamed JSON arrays are written and flushed
+     */
+    private volatile int streamFlushThreshold = SwaggerAPIJsonArrayWriter.DEFAULT_FLUSH_THRESHOLD;
+
+    /**
+     * The cache for responses of operations with a cache TTL
+     */
+    private final SwaggerAPIResponseCache responseCache = new SwaggerAPIResponseCache(SwaggerAPIResponseCache.DEFAULT_MAX_BYTES);
+
+    /**
+     * The in-flight invocations of coalesced operations
+     */
+    private final SwaggerAPIRequestCoalescer requestCoalescer = new SwaggerAPIRequestCoalescer();
+
+    /**
+     * The rate limits per API key of operations
+     */
+    private final SwaggerAPIRateLimiter rateLimiter = new SwaggerAPIRateLimiter();
+
+    /**
+     * The limits of concurrent invocations of operations and models
+     */
+    private final SwaggerAPIBulkheads bulkheads = new SwaggerAPIBulkheads();
+
+    /**
+     * The static resources by the first segment of their path, e.g. <code>/ui</code>
+     */
+    private final Map<String, SwaggerAPIStaticResources> staticResources = new ConcurrentHashMap<>();
+
+    /**
+     * The maximum number of entries of a batch, <code>0</code> if the batch endpoint is disabled
+     */
+    private volatile int batchMaxEntries;
+
+    /**
+     * The number of entries of a batch executed in parallel
+     */
+    private volatile int batchParallelism = 1;
+
+    /**
+     * Defines if each entry of a batch is authorized, not only the batch
+     */
+    private volatile boolean batchEntryAuthorization;
+
+    /**
+     * The per-operation metrics or <code>null</code> if disabled
+     */
+    private volatile SwaggerAPIMetrics metrics;
+
     /**
      * The exception handler
      */
@@ -88,52 +206,214 @@ public class SwaggerAPIConfig {
     public SwaggerAPIConfig(final ServletContext servletContext) {
         this.servletContext = servletContext;
         apiSpecBuilder = new ApiSpecBuilder();
+        resultSerializers.put("json", new SwaggerAPIJsonResultSerializer(gson));
     }
 
     /**
-     * Registers a new API model
+     * Registers a new API model. Models may be registered while requests are processed, requests see either all or none of the
+     * operations of the model.
      *
      * @param model new Swagger API model
      */
-    public void registerModel(final SwaggerAPIModel model) {
+    public synchronized void registerModel(final SwaggerAPIModel model) {
+        publish(Collections.singletonList(prepareModel(model)));
+    }
+
+    /**
+     * Registers several API models at once. The operations of the models are validated and prepared in parallel on the common
+     * {@link ForkJoinPool}, then the route table and the API spec are updated once, in the order of the models, so the result does not
+     * depend on the scheduling. Requests see either all or none of the operations of the models, and none of the models is registered
+     * if one of them is invalid.
+     *
+     * @param models the Swagger API models
+     */
+    public void registerModels(final Collection<? extends SwaggerAPIModel> models) {
+        final List<PreparedModel> prepared = new ArrayList<>(models).parallelStream().map(this::prepareModel).collect(Collectors.toList());
+        synchronized (this) {
+            publish(prepared);
+        }
+    }
+
+    /**
+     * Scans packages for classes annotated with {@link SwaggerModel} and registers an instance of each, see
+     * {@link SwaggerAPIModelScanner}. The classes must implement {@link SwaggerAPIModel} and declare a constructor without parameters.
+     * Classes are loaded with the context class loader of the current thread.
+     *
+     * @param packages the names of the packages, sub packages are included
+     * @return the registered models in the order of their class names
+     * @throws IllegalArgumentException if a model class can not be instantiated or a model is invalid
+     * @throws UncheckedIOException if reading the class files fails
+     */
+    public List<SwaggerAPIModel> scanModels(final String... packages) {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader() != null ? Thread.currentThread().getContextClassLoader()
+                : SwaggerAPIConfig.class.getClassLoader();
+        final List<Class<? extends SwaggerAPIModel>> modelClasses;
+        try {
+            modelClasses = new SwaggerAPIModelScanner(classLoader).findModelClasses(packages);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException("Scanning the packages " + String.join(", ", packages) + " failed", ex);
+        }
+        final List<SwaggerAPIModel> models = modelClasses.parallelStream().map(SwaggerAPIConfig::instantiateModel).collect(Collectors.toList());
+        registerModels(models);
+        return models;
+    }
+
+    /**
+     * Helper for creating an instance of a scanned model class.
+     */
+    private static SwaggerAPIModel instantiateModel(final Class<? extends SwaggerAPIModel> modelClass) {
+        try {
+            final Constructor<? extends SwaggerAPIModel> constructor = modelClass.getDeclaredConstructor();
+            if (!constructor.canAccess(null)) {
+                constructor.setAccessible(true);
+            }
+            return constructor.newInstance();
+        } catch (final NoSuchMethodException ex) {
+            throw new IllegalArgumentException("Model " + modelClass.getName() + " has no constructor without parameters", ex);
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            throw new IllegalArgumentException("Creating model " + modelClass.getName() + " failed", ex);
+        }
+    }
+
+    /**
+     * The operations of a model, validated and ready to be published
+     */
+    private static final class PreparedModel {
+
+        /**
+         * The operations of the model
+         */
+        private final List<SwaggerAPIModelData> apis = new ArrayList<>();
+
+        /**
+         * Adds the operations to the API spec, run after all routes have been validated
+         */
+        private final List<Runnable> specOperations = new ArrayList<>();
+    }
+
+    /**
+     * Collects and validates the operations of a model without changing the configuration, so models can be prepared concurrently.
+     *
+     * @param model the Swagger API model
+     * @return the prepared operations
+     * @throws IllegalArgumentException if the model is invalid
+     */
+    private PreparedModel prepareModel(final SwaggerAPIModel model) {
         // check if current model is annotated with {@link SwaggerModel}
         final SwaggerModel modelAnnotation = model.getClass().getAnnotation(SwaggerModel.class);
         if (modelAnnotation != null) {
             final String modelPath = modelAnnotation.path() + "." + modelAnnotation.format();
+            final PreparedModel prepared = new PreparedModel();
 
             for (final Method method : model.getClass().getMethods()) {
-                if (method.isAnnotationPresent(SwaggerApi.class)) {
+                if (method.isAnnotationPresent(SwaggerApi.class) && !method.isBridge()) {
 
                     // fetch Swagger annotations for the method and it's parameters and prepare the data structures for them
-                    method.setAccessible(true);
+                    // the access checks are only suppressed for methods of non-public classes, as native images and modules restrict it
+                    if (!method.canAccess(Modifier.isStatic(method.getModifiers()) ? null : model)) {
+                        method.setAccessible(true);
+                    }
                     final SwaggerApi annotation = method.getAnnotation(SwaggerApi.class);
                     final Annotation[][] annotations = method.getParameterAnnotations();
+                    final Type[] parameterTypes = method.getGenericParameterTypes();
                     final List<SwaggerParameter> paramAnnotations = new ArrayList<>(annotations.length);
+                    final List<SwaggerAPIParameterData> parameters = new ArrayList<>(annotations.length);
+
+                    // the context is passed as first argument, all further arguments are bound to the annotated parameters
+                    final Class<?>[] argumentTypes = method.getParameterTypes();
+                    if (argumentTypes.length == 0 || !argumentTypes[0].isAssignableFrom(SwaggerAPIContext.class)) {
+                        throw new IllegalArgumentException("Method " + method.getName() + " of " + model.getClass().getName() + " must declare "
+                                + SwaggerAPIContext.class.getSimpleName() + " as first parameter");
+                    }
 
                     // collect the parameter annotations
-                    for (final Annotation[] param : annotations) {
-                        for (final Annotation currentParamAnnotation : param) {
+                    for (int i = 1; i < annotations.length; i++) {
+                        SwaggerParameter paramAnnotaion = null;
+                        for (final Annotation currentParamAnnotation : annotations[i]) {
                             if (currentParamAnnotation.annotationType().equals(SwaggerParameter.class)) {
-                                final SwaggerParameter paramAnnotaion = (SwaggerParameter) currentParamAnnotation;
-                                paramAnnotations.add(paramAnnotaion);
+                                paramAnnotaion = (SwaggerParameter) currentParamAnnotation;
                             }
                         }
+                        if (paramAnnotaion == null) {
+                            throw new IllegalArgumentException("Parameter " + (i + 1) + " of method " + method.getName() + " of " + model.getClass().getName()
+                                    + " is not annotated with @" + SwaggerParameter.class.getSimpleName());
+                        }
+                        paramAnnotations.add(paramAnnotaion);
+                        parameters.add(new SwaggerAPIParameterData(paramAnnotaion.name(), paramAnnotaion.paramType(), paramAnnotaion.dataType(), parameterTypes[i],
+                                paramAnnotaion.required(), parameterConverters));
                     }
 
                     // add the data structure with the collected information to the list of APIs for the current base path
                     final String path = modelPath + annotation.path();
-                    final List<SwaggerAPIParameterData> parameters = paramAnnotations.stream().map(a -> new SwaggerAPIParameterData(a.name(), a.paramType(), a.dataType())).collect(Collectors.toList());
-                    swaggerAPIs.computeIfAbsent(modelPath, p -> new ArrayList<>()).add(new SwaggerAPIModelData(model, method, annotation.method(), path, parameters));
+                    final SwaggerAPIModelData api = new SwaggerAPIModelData(model, method, annotation.method(), path, parameters);
+                    if (api.getResultType() != null) {
+                        final SwaggerAPIResultSerializer serializer = resultSerializers.get(modelAnnotation.format());
+                        if (serializer == null) {
+                            throw new IllegalArgumentException("No result serializer registered for format \"" + modelAnnotation.format() + "\" of method " + method.getName());
+                        }
+                        // resolve the serialization of the return type before the first request
+                        serializer.prepare(api.getResultType());
+                    }
+                    prepared.apis.add(api);
 
-                    // add the API operation to spec
-                    apiSpecBuilder.addOperation(modelAnnotation, annotation, paramAnnotations);
+                    // add the API operation to spec after all routes have been validated
+                    prepared.specOperations.add(() -> apiSpecBuilder.addOperation(modelAnnotation, annotation, paramAnnotations));
                 }
             }
+            return prepared;
         } else {
             throw new IllegalArgumentException(SwaggerAPIModel.class.getSimpleName() + " annotation must be present on model class");
         }
     }
 
+    /**
+     * Publishes prepared models as a new snapshot of the route table, which is built once for all of them. The caller must hold the lock
+     * of the config.
+     *
+     * @param prepared the prepared models in the order of registration
+     * @throws IllegalArgumentException if a route is registered twice
+     */
+    private void publish(final List<PreparedModel> prepared) {
+        final List<SwaggerAPIModelData> apis = new ArrayList<>();
+        prepared.forEach(model -> apis.addAll(model.apis));
+        routes = routes.with(apis);
+        final SwaggerAPIMetrics metrics = this.metrics;
+        if (metrics != null) {
+            apis.forEach(api -> metrics.getOperation(api.getRoute(), api.getOperationId()));
+        }
+        prepared.forEach(model -> model.specOperations.forEach(Runnable::run));
+        apiSpecDocument = null;
+    }
+
+    /**
+     * Removes a registered API model. Requests already dispatched to the model are completed.
+     *
+     * @param model the registered Swagger API model instance
+     * @return true if the model was registered
+     */
+    public synchronized boolean unregisterModel(final SwaggerAPIModel model) {
+        final SwaggerAPIRouteTable current = routes;
+        final SwaggerAPIRouteTable remaining = current.without(model);
+        if (remaining.getAPIs().size() == current.getAPIs().size()) {
+            return false;
+        }
+        routes = remaining;
+
+        // remove the API operations from spec
+        final SwaggerModel modelAnnotation = model.getClass().getAnnotation(SwaggerModel.class);
+        for (final SwaggerAPIModelData api : current.getAPIs()) {
+            if (api.getAPIModelClass() == model) {
+                apiSpecBuilder.removeOperation(modelAnnotation, api.getMethod().getAnnotation(SwaggerApi.class));
+                if (metrics != null) {
+                    metrics.removeOperation(api.getRoute());
+                }
+                responseCache.invalidate(api.getRoute());
+            }
+        }
+        apiSpecDocument = null;
+        return true;
+    }
+
     /**
      * Get swagger API list for current base path
      *
@@ -141,7 +421,27 @@ public class SwaggerAPIConfig {
      * @return list of swagger API data that belong to the base path
      */
     public List<SwaggerAPIModelData> getAPIsFor(final String path) {
-        return swaggerAPIs.get(path);
+        return routes.getAPIsFor(path);
+    }
+
+    /**
+     * Returns the current snapshot of all registered swagger APIs
+     *
+     * @return the immutable snapshot
+     */
+    public SwaggerAPIRouteTable getRoutes() {
+        return routes;
+    }
+
+    /**
+     * Resolves the swagger API for the given request path and HTTP method
+     *
+     * @param path the entire request path including the model path
+     * @param method the HTTP method
+     * @return the matched swagger API with its path parameters or <code>null</code> if there is no such API
+     */
+    public SwaggerAPIRouteMatch resolveAPI(final String path, final HTTPMethod method) {
+        return routes.resolve(path, method);
     }
 
     /**
@@ -153,13 +453,32 @@ public class SwaggerAPIConfig {
         return apiSpecBuilder.getApiSpec();
     }
 
+    /**
+     * Get the OpenAPI spec rendered to JSON. The spec is rendered once and cached until the configuration changes.
+     *
+     * @return the rendered API spec
+     */
+    public ApiSpecDocument getApiSpecDocument() {
+        ApiSpecDocument document = apiSpecDocument;
+        if (document == null) {
+            synchronized (this) {
+                document = apiSpecDocument;
+                if (document == null) {
+                    document = new ApiSpecDocument(apiSpecBuilder.getApiSpec());
+                    apiSpecDocument = document;
+                }
+            }
+        }
+        return document;
+    }
+
     /**
      * Sets the URL serving the API. This field is important for completing the OpenAPI specification.
      * Declarations on the server providing the APIs themselves, it is not a requirement.
      *
      * @param apiUrl The API URL
      */
-    public void setURL(final URL apiUrl) {
+    public synchronized void setURL(final URL apiUrl) {
         apiSpecBuilder.setSchemes(Collections.singletonList(apiUrl.getProtocol()));
         if (apiUrl.getPort() != -1) {
             apiSpecBuilder.setHost(String.format("%s:%d", apiUrl.getHost(), apiUrl.getPort()));
@@ -167,6 +486,7 @@ public class SwaggerAPIConfig {
             apiSpecBuilder.setHost(apiUrl.getHost());
         }
         apiSpecBuilder.setBasePath(apiUrl.getPath());
+        apiSpecDocument = null;
     }
 
     /**
@@ -174,8 +494,9 @@ public class SwaggerAPIConfig {
      *
      * @param apiVersion the API version as string
      */
-    public void setAPIVersion(final String apiVersion) {
+    public synchronized void setAPIVersion(final String apiVersion) {
         apiSpecBuilder.setVersion(apiVersion);
+        apiSpecDocument = null;
     }
 
     /**
@@ -184,8 +505,9 @@ public class SwaggerAPIConfig {
      *
      * @param info the swagger metadata info as string
      */
-    public void setTitle(final String title) {
+    public synchronized void setTitle(final String title) {
         apiSpecBuilder.setTitle(title);
+        apiSpecDocument = null;
     }
 
     /**
@@ -193,8 +515,9 @@ public class SwaggerAPIConfig {
      *
      * @param info the swagger metadata info as string
      */
-    public void setDescription(final String description) {
+    public synchronized void setDescription(final String description) {
         apiSpecBuilder.setDescription(description);
+        apiSpecDocument = null;
     }
 
     /**
@@ -212,7 +535,7 @@ public class SwaggerAPIConfig {
      * @return true if current path defines an API model
      */
     public boolean isAPIModelPath(final String path) {
-        return swaggerAPIs.containsKey(path);
+        return routes.getAPIsFor(path) != null;
     }
 
     /**
@@ -249,6 +572,392 @@ public class SwaggerAPIConfig {
         return defaultContentType;
     }
 
+    /**
+     * Returns the Gson instance used to bind JSON request bodies
+     * @return the Gson instance
+     */
+    public Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * Sets the Gson instance used to bind JSON request bodies and to serialize JSON results, e.g. with custom type adapters.
+     * A custom result serializer registered for the format <code>json</code> is kept.
+     * @param gson the Gson instance
+     */
+    public void setGson(final Gson gson) {
+        this.gson = gson;
+        typeAdapters.clear();
+        resultSerializers.computeIfPresent("json", (format, serializer) -> serializer instanceof SwaggerAPIJsonResultSerializer ? new SwaggerAPIJsonResultSerializer(gson) : serializer);
+    }
+
+    /**
+     * Returns the registry of the converters for PATH, QUERY and HEADER parameters. Custom converters must be registered before the
+     * models using them.
+     * @return the converter registry
+     */
+    public SwaggerParameterConverters getParameterConverters() {
+        return parameterConverters;
+    }
+
+    /**
+     * Registers a serializer for the return values of API methods of models with the given result format
+     * @param format the result format, see {@link SwaggerModel#format()}
+     * @param serializer the serializer
+     */
+    public void setResultSerializer(final String format, final SwaggerAPIResultSerializer serializer) {
+        resultSerializers.put(format, serializer);
+    }
+
+    /**
+     * Returns the serializer for the return values of API methods of models with the given result format
+     * @param format the result format
+     * @return the serializer or <code>null</code> if none is registered
+     */
+    public SwaggerAPIResultSerializer getResultSerializer(final String format) {
+        return resultSerializers.get(format);
+    }
+
+    /**
+     * Returns the cached Gson type adapter for a Java type
+     * @param type the Java type
+     * @return the type adapter
+     */
+    public TypeAdapter<?> getTypeAdapter(final Type type) {
+        return typeAdapters.computeIfAbsent(type, t -> gson.getAdapter(TypeToken.get(t)));
+    }
+
+    /**
+     * Returns the executor for API methods invoked asynchronously. Unless set, virtual threads are used on Java 21 and later,
+     * otherwise a cached thread pool.
+     * @return the executor
+     */
+    public ExecutorService getAsyncExecutor() {
+        ExecutorService executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = asyncExecutor;
+                if (executor == null) {
+                    executor = createDefaultAsyncExecutor();
+                    defaultAsyncExecutor = true;
+                    asyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Sets the executor for API methods invoked asynchronously. The executor is not shut down by the config.
+     * @param asyncExecutor the executor
+     */
+    public synchronized void setAsyncExecutor(final ExecutorService asyncExecutor) {
+        shutdownAsyncExecutor();
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * Returns the timeout for API methods invoked asynchronously
+     * @return the timeout in milliseconds
+     */
+    public long getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    /**
+     * Sets the timeout for API methods invoked asynchronously. Requests timing out are answered with status 503 by the exception handler
+     * and the thread invoking the method is interrupted.
+     * @param asyncTimeout the timeout in milliseconds, 0 or less for no timeout
+     */
+    public void setAsyncTimeout(final long asyncTimeout) {
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    /**
+     * Returns the number of bytes after which JSON arrays streamed with {@link com.roamsys.swagger.data.SwaggerAPIContext#openJsonArray(java.lang.reflect.Type)}
+     * are written to the response and flushed
+     * @return the threshold in bytes
+     */
+    public int getStreamFlushThreshold() {
+        return streamFlushThreshold;
+    }
+
+    /**
+     * Sets the number of bytes after which streamed JSON arrays are written to the response and flushed, 16 KB by default. Bounds the
+     * memory per streamed response together with the size of the largest element.
+     * @param streamFlushThreshold the threshold in bytes
+     */
+    public void setStreamFlushThreshold(final int streamFlushThreshold) {
+        if (streamFlushThreshold < 1) {
+            throw new IllegalArgumentException("The flush threshold must be at least one byte");
+        }
+        this.streamFlushThreshold = streamFlushThreshold;
+    }
+
+    /**
+     * Returns the cache for responses of operations with a cache TTL, see {@link SwaggerApi#cacheTtl()}
+     * @return the response cache with its hit and miss statistics
+     */
+    public SwaggerAPIResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Returns the in-flight invocations of operations coalescing concurrent identical requests, see {@link SwaggerApi#coalesce()}
+     * @return the request coalescer with its statistics
+     */
+    public SwaggerAPIRequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * Returns the rate limits per API key of operations, see {@link SwaggerApi#rateLimit()}
+     * @return the rate limiter with its statistics
+     */
+    public SwaggerAPIRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Configures the rate limit per API key of an operation, which takes precedence over the limit declared by the annotations. An
+     * operation ID configures all operations sharing it, a route only its operation.
+     * @param operation the route, e.g. <code>GET /metadata.json/details/{hash}</code>, or the operation ID as used in the API specification,
+     * e.g. <code>get-metadata-detailshash</code>
+     * @param limit the limit, {@link SwaggerAPIRateLimit#UNLIMITED} to not limit the operation or <code>null</code> to use the declared limit
+     */
+    public void setRateLimit(final String operation, final SwaggerAPIRateLimit limit) {
+        rateLimiter.setLimit(operation, limit);
+    }
+
+    /**
+     * Sets the rate limit per API key of operations which neither declare nor configure a limit
+     * @param limit the limit or <code>null</code> to not limit them
+     */
+    public void setDefaultRateLimit(final SwaggerAPIRateLimit limit) {
+        rateLimiter.setDefaultLimit(limit);
+    }
+
+    /**
+     * Returns the limits of concurrent invocations of operations and models
+     * @return the bulkheads with their current limits and statistics
+     */
+    public SwaggerAPIBulkheads getBulkheads() {
+        return bulkheads;
+    }
+
+    /**
+     * Limits the concurrent invocations of an operation, requests above the limit respond with status 503. The bulkhead of an operation
+     * ID is shared by all operations with this ID, the bulkhead of a route limits only its operation.
+     * @param operation the route, e.g. <code>GET /metadata.json/details/{hash}</code>, or the operation ID as used in the API specification,
+     * e.g. <code>get-metadata-detailshash</code>
+     * @param bulkhead the bulkhead or <code>null</code> to use the bulkhead of the model
+     */
+    public void setBulkhead(final String operation, final SwaggerAPIBulkhead bulkhead) {
+        bulkheads.setOperationBulkhead(operation, bulkhead);
+    }
+
+    /**
+     * Limits the concurrent invocations of all operations of a model without a bulkhead of their own, requests above the limit respond
+     * with status 503
+     * @param modelClass the class of the Swagger API model
+     * @param bulkhead the bulkhead or <code>null</code> to not limit the invocations
+     */
+    public void setBulkhead(final Class<? extends SwaggerAPIModel> modelClass, final SwaggerAPIBulkhead bulkhead) {
+        bulkheads.setModelBulkhead(modelClass, bulkhead);
+    }
+
+    /**
+     * Serves static resources, e.g. Swagger UI, below a path of the servlet. They are served without authorization and pre-request
+     * handler, as browsers load them without API key.
+     * @param path the path, a single segment without dot, so it can not collide with the model paths, e.g. <code>/ui</code>
+     * @param resources the resources or <code>null</code> to not serve the path any more
+     */
+    public void setStaticResources(final String path, final SwaggerAPIStaticResources resources) {
+        if (path == null || !path.matches("/[^/.]+") || path.equals("/metrics") || path.equals(SwaggerAPIServlet.BATCH_PATH)) {
+            throw new IllegalArgumentException("Invalid path of static resources " + path + ", it must be a single segment without dot like /ui");
+        }
+        if (resources != null) {
+            staticResources.put(path, resources);
+        } else {
+            staticResources.remove(path);
+        }
+    }
+
+    /**
+     * Returns the static resources served below a path
+     * @param path the first segment of the path info, e.g. <code>/ui</code>
+     * @return the resources or <code>null</code> if the path does not serve static resources
+     */
+    public SwaggerAPIStaticResources getStaticResources(final String path) {
+        return staticResources.get(path);
+    }
+
+    /**
+     * @return true if static resources are served
+     */
+    public boolean hasStaticResources() {
+        return !staticResources.isEmpty();
+    }
+
+    /**
+     * Creates a snapshot of the statistics of the static resources for the <code>/metrics</code> path.
+     * @return the statistics by path
+     */
+    public Map<String, Object> staticResourceStatistics() {
+        final Map<String, Object> statistics = new TreeMap<>();
+        staticResources.forEach((path, resources) -> statistics.put(path, resources.statistics()));
+        return statistics;
+    }
+
+    /**
+     * Sets the capacity of the response cache, 32 MB by default. Responses larger than an eighth of the capacity are not cached.
+     * @param maxBytes the capacity in bytes
+     */
+    public void setResponseCacheSize(final long maxBytes) {
+        responseCache.setMaxBytes(maxBytes);
+    }
+
+    /**
+     * Removes the cached responses of all operations of a model, e.g. after the underlying data has changed
+     * @param model the registered Swagger API model instance
+     */
+    public void invalidateCachedResponses(final SwaggerAPIModel model) {
+        for (final SwaggerAPIModelData api : routes.getAPIs()) {
+            if (api.getAPIModelClass() == model) {
+                responseCache.invalidate(api.getRoute());
+            }
+        }
+    }
+
+    /**
+     * Removes all cached responses
+     */
+    public void invalidateCachedResponses() {
+        responseCache.invalidateAll();
+    }
+
+    /**
+     * Returns the maximum number of entries of a batch
+     * @return the maximum number of entries or <code>0</code> if the batch endpoint is disabled
+     */
+    public int getBatchMaxEntries() {
+        return batchMaxEntries;
+    }
+
+    /**
+     * Enables the batch endpoint <code>POST /_batch</code>, which executes a JSON array of API calls in one HTTP round trip and responds
+     * with a JSON array of their responses. The endpoint is added to the OpenAPI specification.
+     * @param maxEntries the maximum number of entries of a batch, <code>0</code> to disable the batch endpoint
+     */
+    public synchronized void setBatchMaxEntries(final int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("The maximum number of batch entries must not be negative");
+        }
+        batchMaxEntries = maxEntries;
+        apiSpecBuilder.setBatchOperation(SwaggerAPIServlet.BATCH_PATH, maxEntries);
+        apiSpecDocument = null;
+    }
+
+    /**
+     * Returns the number of entries of a batch executed in parallel
+     * @return the batch parallelism, <code>1</code> if entries are executed sequentially
+     */
+    public int getBatchParallelism() {
+        return batchParallelism;
+    }
+
+    /**
+     * Sets the number of entries of a batch executed in parallel on the async executor, which bounds the number of threads for all
+     * batches. By default the entries are executed sequentially on the container thread.
+     * @param parallelism the batch parallelism, <code>1</code> to execute the entries sequentially
+     */
+    public void setBatchParallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The batch parallelism must be at least 1");
+        }
+        batchParallelism = parallelism;
+    }
+
+    /**
+     * Returns if each entry of a batch is authorized
+     * @return true if each entry is authorized, false if only the batch is authorized
+     */
+    public boolean isBatchEntryAuthorization() {
+        return batchEntryAuthorization;
+    }
+
+    /**
+     * Defines if the authorization handler is called for each entry of a batch in addition to the batch request, e.g. if the entries
+     * carry API keys of their own. By default only the batch request is authorized.
+     * @param batchEntryAuthorization true to authorize each entry
+     */
+    public void setBatchEntryAuthorization(final boolean batchEntryAuthorization) {
+        this.batchEntryAuthorization = batchEntryAuthorization;
+    }
+
+    /**
+     * Returns the per-operation metrics
+     * @return the metrics or <code>null</code> if disabled
+     */
+    public SwaggerAPIMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Enables or disables the per-operation metrics. Enabled metrics are served as JSON at the path <code>/metrics</code> and registered
+     * with the platform MBean server. Disabled metrics cost a single check per request.
+     * @param enabled true to enable the metrics, false to disable and discard them
+     */
+    public synchronized void setMetricsEnabled(final boolean enabled) {
+        if (enabled && metrics == null) {
+            final SwaggerAPIMetrics created = new SwaggerAPIMetrics(servletContext != null && servletContext.getContextPath() != null ? servletContext.getContextPath() : "");
+            for (final SwaggerAPIModelData api : routes.getAPIs()) {
+                created.getOperation(api.getRoute(), api.getOperationId());
+            }
+            metrics = created;
+        } else if (!enabled && metrics != null) {
+            metrics.close();
+            metrics = null;
+        }
+    }
+
+    /**
+     * Shuts down the async executor, if it was created by the config, and unregisters the MBeans of the metrics
+     */
+    public synchronized void shutdown() {
+        shutdownAsyncExecutor();
+        if (metrics != null) {
+            metrics.close();
+        }
+    }
+
+    /**
+     * Helper for shutting down the async executor, if it was created by the config.
+     */
+    private void shutdownAsyncExecutor() {
+        if (defaultAsyncExecutor) {
+            asyncExecutor.shutdown();
+            asyncExecutor = null;
+            defaultAsyncExecutor = false;
+        }
+    }
+
+    /**
+     * Helper for creating the default async executor. Virtual threads are looked up by reflection, as the library targets Java 17.
+     */
+    private static ExecutorService createDefaultAsyncExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final ReflectiveOperationException ex) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "swagger-api-async-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
     /**
      * Returns the exception handler for handling the exceptions thrown while method invocations
      * @return the exception handler or null if none is set
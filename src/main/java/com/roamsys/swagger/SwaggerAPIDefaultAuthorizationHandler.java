@@ -1,33 +1,37 @@
 package com.roamsys.swagger;
 
+import com.roamsys.swagger.auth.SwaggerAPIKeyStore;
 import java.io.IOException;
+import java.security.MessageDigest;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 /**
- * Check for a valid API key
+ * Check for a valid API key. The key is compared in constant time by its digest, see {@link SwaggerAPIKeyAuthorizationHandler} for
+ * multiple keys.
  * @author mbartel
  */
 public class SwaggerAPIDefaultAuthorizationHandler implements SwaggerAPIAuthorizationHandler {
 
     /**
-     * The API key
+     * The digest of the API key
      */
-    private final String apiKey;
+    private final byte[] apiKeyDigest;
 
     /**
      * Creates a new authentication handler that only checks the API key
      * @param apiKey the API key
      */
     public SwaggerAPIDefaultAuthorizationHandler(final String apiKey) {
-        this.apiKey = apiKey;
+        this.apiKeyDigest = SwaggerAPIKeyStore.digest(apiKey);
     }
 
     @Override
     public boolean isRequestAuthorized(final HttpServletRequest request, final HttpServletResponse response) throws ServletException, IOException {
         final String requestAPIKey = resolveApiKey(request);
-        return requestAPIKey != null && requestAPIKey.equals(apiKey);
+        // digests have the same length, so the comparison does not reveal the length or a common prefix of the key
+        return requestAPIKey != null && MessageDigest.isEqual(SwaggerAPIKeyStore.digest(requestAPIKey), apiKeyDigest);
     }
 
 }
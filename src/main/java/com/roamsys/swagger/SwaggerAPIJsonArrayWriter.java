@@ -0,0 +1,258 @@
+package com.roamsys.swagger;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+import com.roamsys.swagger.data.ContentType;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes a JSON array to the response element by element, see {@link com.roamsys.swagger.data.SwaggerAPIContext#openJsonArray(Type)}.
+ * Elements are encoded as UTF-8 into a reused buffer, which is written to the response and flushed whenever it exceeds the flush
+ * threshold, so the memory of a response is bounded by the threshold and the largest element, regardless of the number of elements.
+ * <p>
+ * With {@link #writeAll(Iterator, boolean)} the elements are pulled from an iterator. For requests in async mode they are written by a
+ * {@link WriteListener} as long as the container can accept more bytes, so a slow client does not fill up the memory of the server.
+ */
+public final class SwaggerAPIJsonArrayWriter implements Closeable, Flushable {
+
+    /**
+     * The default number of bytes after which the buffer is written and flushed
+     */
+    public static final int DEFAULT_FLUSH_THRESHOLD = 16 * 1024;
+
+    private final Gson gson;
+    private final HttpServletResponse response;
+
+    /**
+     * The number of bytes after which the buffer is written and flushed
+     */
+    private final int flushThreshold;
+
+    /**
+     * The encoded elements not yet written to the response
+     */
+    private final ByteArrayOutputStream buffer;
+
+    /**
+     * The encoder in front of the buffer, it holds up to one block of encoded bytes itself
+     */
+    private final SwaggerAPIUtf8Writer encoder;
+
+    private final JsonWriter writer;
+
+    /**
+     * The type adapter of the declared element type or <code>null</code> to use the class of each element
+     */
+    private final TypeAdapter<Object> elementAdapter;
+
+    /**
+     * The element class of the last resolved adapter
+     */
+    private Class<?> adapterClass;
+    private TypeAdapter<Object> adapter;
+
+    private boolean closed;
+
+    /**
+     * Creates the writer and starts the array
+     *
+     * @param gson the Gson instance
+     * @param response the response, the content type is set to JSON if it is not committed yet
+     * @param elementType the type of the elements or <code>null</code> to serialize each element by its class
+     * @param flushThreshold the number of bytes after which the buffer is written and flushed
+     * @throws IOException if an I/O error occurs
+     */
+    @SuppressWarnings("unchecked")
+    public SwaggerAPIJsonArrayWriter(final Gson gson, final HttpServletResponse response, final Type elementType, final int flushThreshold) throws IOException {
+        this.gson = gson;
+        this.response = response;
+        this.flushThreshold = Math.max(flushThreshold, 1);
+        this.buffer = new ByteArrayOutputStream(Math.min(this.flushThreshold, DEFAULT_FLUSH_THRESHOLD) + 1024);
+        this.elementAdapter = elementType != null ? (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(elementType)) : null;
+        if (!response.isCommitted()) {
+            response.setContentType(ContentType.JSON_UTF8);
+        }
+        encoder = new SwaggerAPIUtf8Writer(buffer);
+        writer = gson.newJsonWriter(encoder);
+        writer.beginArray();
+    }
+
+    /**
+     * Writes an element, the buffer is written to the response once it exceeds the flush threshold.
+     *
+     * @param element the element, may be <code>null</code>
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(final Object element) throws IOException {
+        append(element);
+        if (bufferedCount() >= flushThreshold) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered elements to the response and flushes it, so the container sends them as chunk.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+        final ServletOutputStream out = response.getOutputStream();
+        buffer.writeTo(out);
+        buffer.reset();
+        out.flush();
+    }
+
+    /**
+     * Ends the array and writes the remaining elements to the response.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            writer.endArray();
+            flush();
+        }
+    }
+
+    /**
+     * Writes all elements of an iterator and ends the array. Without non-blocking output the elements are written on the calling thread
+     * and the returned stage is completed already. With non-blocking output the elements are written whenever the container is ready to
+     * accept more bytes, on the thread the container calls the write listener with, and the returned stage completes once the array has
+     * been written. Returning the stage from the API method keeps the request open until then. Cancelling it, e.g. on timeout, stops
+     * writing. Responses not supporting non-blocking output, e.g. of cached operations or batch entries, are written blocking.
+     *
+     * @param elements the elements
+     * @param nonBlocking true to write the elements with a write listener, the request must be in async mode
+     * @return the stage completed once the array has been written, or exceptionally if the iterator or the response fails
+     */
+    public CompletableFuture<Void> writeAll(final Iterator<?> elements, final boolean nonBlocking) {
+        final CompletableFuture<Void> written = new CompletableFuture<>();
+        if (nonBlocking) {
+            try {
+                response.getOutputStream().setWriteListener(new NonBlockingWrite(elements, written));
+                return written;
+            } catch (final IllegalStateException | UnsupportedOperationException ex) {
+                // the response does not support non-blocking output
+            } catch (final IOException ex) {
+                written.completeExceptionally(ex);
+                return written;
+            }
+        }
+        try {
+            while (elements.hasNext()) {
+                write(elements.next());
+            }
+            close();
+            written.complete(null);
+        } catch (final IOException | RuntimeException ex) {
+            written.completeExceptionally(ex);
+        }
+        return written;
+    }
+
+    /**
+     * Helper for encoding an element into the buffer.
+     */
+    private void append(final Object element) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The JSON array has been closed");
+        }
+        if (element == null) {
+            writer.nullValue();
+        } else {
+            adapterFor(element).write(writer, element);
+        }
+    }
+
+    /**
+     * Helper for counting the encoded bytes not yet written to the response.
+     */
+    private int bufferedCount() {
+        return buffer.size() + encoder.getBufferedCount();
+    }
+
+    /**
+     * Helper for resolving the type adapter of an element, elements usually share their class.
+     */
+    @SuppressWarnings("unchecked")
+    private TypeAdapter<Object> adapterFor(final Object element) {
+        if (elementAdapter != null) {
+            return elementAdapter;
+        }
+        if (element.getClass() != adapterClass) {
+            adapterClass = element.getClass();
+            adapter = (TypeAdapter<Object>) gson.getAdapter(adapterClass);
+        }
+        return adapter;
+    }
+
+    /**
+     * Writes the elements of an iterator while the output stream is ready, one buffer at a time.
+     */
+    private final class NonBlockingWrite implements WriteListener {
+
+        private final Iterator<?> elements;
+        private final CompletableFuture<Void> written;
+
+        /**
+         * Set once the end of the array has been written to the response
+         */
+        private boolean ended;
+
+        private NonBlockingWrite(final Iterator<?> elements, final CompletableFuture<Void> written) {
+            this.elements = elements;
+            this.written = written;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            final ServletOutputStream out = response.getOutputStream();
+            try {
+                while (out.isReady()) {
+                    if (written.isDone()) {
+                        // cancelled, e.g. by the timeout
+                        return;
+                    }
+                    if (ended) {
+                        written.complete(null);
+                        return;
+                    }
+                    while (bufferedCount() < flushThreshold && elements.hasNext()) {
+                        append(elements.next());
+                    }
+                    if (!elements.hasNext()) {
+                        closed = true;
+                        writer.endArray();
+                        ended = true;
+                    }
+                    // the container accepts the whole buffer, but no further write until it is ready again
+                    writer.flush();
+                    buffer.writeTo(out);
+                    buffer.reset();
+                }
+            } catch (final IOException | RuntimeException ex) {
+                written.completeExceptionally(ex);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable ex) {
+            written.completeExceptionally(ex);
+        }
+    }
+}
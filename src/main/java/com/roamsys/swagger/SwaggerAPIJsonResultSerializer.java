@@ -0,0 +1,119 @@
+package com.roamsys.swagger;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+import com.roamsys.swagger.data.ContentType;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Serializes return values to UTF-8 encoded JSON with a shared {@link Gson} instance.
+ * {@link Iterator} and {@link Stream} results are written element by element as JSON array, without collecting the elements first.
+ */
+public class SwaggerAPIJsonResultSerializer implements SwaggerAPIResultSerializer {
+
+    /**
+     * The Gson instance
+     */
+    private final Gson gson;
+
+    /**
+     * The type adapters by return type, or by element type for iterators and streams
+     */
+    private final Map<Type, TypeAdapter<Object>> typeAdapters = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a JSON serializer
+     * @param gson the Gson instance, configured with the type adapters of the results
+     */
+    public SwaggerAPIJsonResultSerializer(final Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * @return the Gson instance
+     */
+    public Gson getGson() {
+        return gson;
+    }
+
+    @Override
+    public String getContentType() {
+        return ContentType.JSON_UTF8;
+    }
+
+    @Override
+    public void prepare(final Type type) {
+        getTypeAdapter(isSequence(type) ? elementType(type) : type);
+    }
+
+    @Override
+    public void serialize(final Object result, final Type type, final OutputStream out) throws IOException {
+        // the writer buffers the encoded bytes, so the response stream is written in blocks
+        final JsonWriter writer = gson.newJsonWriter(new SwaggerAPIUtf8Writer(out));
+        if (result instanceof Iterator || result instanceof Stream) {
+            final TypeAdapter<Object> adapter = getTypeAdapter(isSequence(type) ? elementType(type) : Object.class);
+            writer.beginArray();
+            if (result instanceof Stream) {
+                try (final Stream<?> stream = (Stream<?>) result) {
+                    writeElements(stream.iterator(), adapter, writer);
+                }
+            } else {
+                writeElements((Iterator<?>) result, adapter, writer);
+            }
+            writer.endArray();
+        } else {
+            getTypeAdapter(type).write(writer, result);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes the remaining elements of an iterator
+     */
+    private static void writeElements(final Iterator<?> elements, final TypeAdapter<Object> adapter, final JsonWriter writer) throws IOException {
+        while (elements.hasNext()) {
+            adapter.write(writer, elements.next());
+        }
+    }
+
+    /**
+     * Returns the cached type adapter for a type
+     */
+    @SuppressWarnings("unchecked")
+    private TypeAdapter<Object> getTypeAdapter(final Type type) {
+        return typeAdapters.computeIfAbsent(type, t -> (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(t)));
+    }
+
+    /**
+     * Checks if a return type is an iterator or stream
+     */
+    private static boolean isSequence(final Type type) {
+        final Class<?> rawType = TypeToken.get(type).getRawType();
+        return Iterator.class.isAssignableFrom(rawType) || Stream.class.isAssignableFrom(rawType);
+    }
+
+    /**
+     * Returns the element type of an iterator or stream type, {@link Object} for raw types and type variables
+     */
+    private static Type elementType(final Type type) {
+        if (type instanceof ParameterizedType) {
+            final Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            final Type argument = arguments.length == 1 && arguments[0] instanceof WildcardType ? ((WildcardType) arguments[0]).getUpperBounds()[0] : arguments[0];
+            if (arguments.length == 1 && !(argument instanceof TypeVariable)) {
+                return argument;
+            }
+        }
+        return Object.class;
+    }
+}
@@ -0,0 +1,55 @@
+package com.roamsys.swagger;
+
+import com.roamsys.swagger.auth.SwaggerAPIKeyStore;
+import java.io.IOException;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Checks the API key of the request against a key store, e.g. a {@link com.roamsys.swagger.auth.SwaggerAPIKeyTable} with the keys of
+ * all tenants, a {@link com.roamsys.swagger.auth.SwaggerAPIKeyFileStore} reloading them from a file, or a
+ * {@link com.roamsys.swagger.auth.SwaggerAPICachingKeyStore} in front of a slow backend. The name of the key is set as request attribute
+ * {@link #KEY_NAME_ATTRIBUTE} for the API methods.
+ */
+public class SwaggerAPIKeyAuthorizationHandler implements SwaggerAPIAuthorizationHandler {
+
+    /**
+     * The request attribute holding the name of the authorized key
+     */
+    public static final String KEY_NAME_ATTRIBUTE = "com.roamsys.swagger.apiKeyName";
+
+    /**
+     * The key store
+     */
+    private final SwaggerAPIKeyStore keyStore;
+
+    /**
+     * Creates a new authentication handler checking the API keys against a key store
+     * @param keyStore the key store
+     */
+    public SwaggerAPIKeyAuthorizationHandler(final SwaggerAPIKeyStore keyStore) {
+        this.keyStore = keyStore;
+    }
+
+    @Override
+    public boolean isRequestAuthorized(final HttpServletRequest request, final HttpServletResponse response) throws ServletException, IOException {
+        final String requestAPIKey = resolveApiKey(request);
+        if (requestAPIKey == null) {
+            return false;
+        }
+        final String name = keyStore.lookup(SwaggerAPIKeyStore.digest(requestAPIKey));
+        if (name == null) {
+            return false;
+        }
+        request.setAttribute(KEY_NAME_ATTRIBUTE, name);
+        return true;
+    }
+
+    /**
+     * @return the key store
+     */
+    public SwaggerAPIKeyStore getKeyStore() {
+        return keyStore;
+    }
+}
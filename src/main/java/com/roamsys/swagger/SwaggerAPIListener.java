@@ -1,15 +1,22 @@
 package com.roamsys.swagger;
 
+import java.util.Arrays;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
 
 /**
- * The swagger API listener to be executed on startup
+ * The swagger API listener to be executed on startup. Models are registered by {@link #initialize(SwaggerAPIConfig)} or found in the
+ * packages listed in the context parameter {@value #CONTEXT_PARAM_MODEL_PACKAGES}, see {@link SwaggerAPIConfig#scanModels(String...)}.
  *
  * @author johanna
  */
-public abstract class SwaggerAPIListener implements ServletContextListener {
+public class SwaggerAPIListener implements ServletContextListener {
+
+    /**
+     * The name of the context parameter listing the packages to scan for models, separated by commas
+     */
+    public static final String CONTEXT_PARAM_MODEL_PACKAGES = "swaggerModelPackages";
 
     @Override
     public void contextInitialized(final ServletContextEvent sce) {
@@ -20,19 +27,33 @@ public abstract class SwaggerAPIListener implements ServletContextListener {
 
         System.out.print("Initializing Swagger API components ... ");
         initialize(model);
+        // scan after the initialization, which may register converters and serializers the models depend on
+        final String modelPackages = servletContext.getInitParameter(CONTEXT_PARAM_MODEL_PACKAGES);
+        if (modelPackages != null && !modelPackages.isBlank()) {
+            model.scanModels(Arrays.stream(modelPackages.split(",")).map(String::trim).filter(p -> !p.isEmpty()).toArray(String[]::new));
+        }
+        // render the API spec once, before the first request
+        model.getApiSpecDocument();
         System.out.println("done. => " + model.getApiSpec().toString());
     }
 
     @Override
     public void contextDestroyed(final ServletContextEvent sce) {
+        final SwaggerAPIConfig model = (SwaggerAPIConfig) sce.getServletContext().getAttribute(SwaggerAPIConfig.SERVLET_ATTRIBUTE_NAME);
+        if (model != null) {
+            model.shutdown();
+        }
         sce.getServletContext().removeAttribute(SwaggerAPIConfig.SERVLET_ATTRIBUTE_NAME);
     }
 
     /**
-     * Initializes the swagger API startup definitions
+     * Initializes the swagger API startup definitions, called before the models of the scanned packages are registered.
+     * Does nothing by default.
      *
      * @param model the swagger API model
      */
-    public abstract void initialize(final SwaggerAPIConfig model);
+    public void initialize(final SwaggerAPIConfig model) {
+        // only the models of the scanned packages are registered
+    }
 
 }
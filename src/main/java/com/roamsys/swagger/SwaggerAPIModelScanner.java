@@ -0,0 +1,387 @@
+package com.roamsys.swagger;
+
+import com.roamsys.swagger.annotations.SwaggerModel;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Finds the classes annotated with {@link SwaggerModel} in packages of the class path without loading the other classes. The class files
+ * of the packages are read from directories and JAR files and their constant pool and annotations are parsed in parallel, only the
+ * classes carrying the annotation are loaded. Class files in other locations, e.g. of class loaders not backed by files, are not found.
+ * <p>
+ * Directories and JAR files compiled with the annotation processor of the <code>swaggerapi-processor</code> artifact contain the index
+ * {@link #MODEL_INDEX}, which lists their model classes, so their class files are not read at all. Packages without directories or JAR
+ * files on the class path, e.g. in a native image, are looked up in all indexes visible to the class loader.
+ */
+public final class SwaggerAPIModelScanner {
+
+    /**
+     * The resource listing the binary names of the model classes of a directory or JAR file, one per line, written by the annotation
+     * processor
+     */
+    public static final String MODEL_INDEX = "META-INF/swaggerapi/models";
+
+    /**
+     * The descriptor of the model annotation as it appears in the constant pool
+     */
+    private static final byte[] MODEL_DESCRIPTOR = ("L" + SwaggerModel.class.getName().replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * The name of the class attribute holding the annotations retained at runtime
+     */
+    private static final byte[] ANNOTATIONS_ATTRIBUTE = "RuntimeVisibleAnnotations".getBytes(StandardCharsets.UTF_8);
+
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    /**
+     * The class loader to find the class files with and to load the model classes
+     */
+    private final ClassLoader classLoader;
+
+    /**
+     * Creates a scanner
+     *
+     * @param classLoader the class loader to find the class files with and to load the model classes
+     */
+    public SwaggerAPIModelScanner(final ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Finds the model classes in packages.
+     *
+     * @param packages the names of the packages, sub packages are included
+     * @return the concrete model classes ordered by name
+     * @throws IOException if reading a class file fails
+     * @throws IllegalArgumentException if an annotated class does not implement {@link SwaggerAPIModel} or can not be loaded
+     */
+    public List<Class<? extends SwaggerAPIModel>> findModelClasses(final String... packages) throws IOException {
+        final List<Class<? extends SwaggerAPIModel>> modelClasses = new ArrayList<>();
+        for (final String className : findModelClassNames(packages)) {
+            final Class<?> modelClass;
+            try {
+                modelClass = Class.forName(className, false, classLoader);
+            } catch (final ClassNotFoundException | LinkageError ex) {
+                throw new IllegalArgumentException("Loading model " + className + " failed", ex);
+            }
+            if (!SwaggerAPIModel.class.isAssignableFrom(modelClass)) {
+                throw new IllegalArgumentException("Class " + className + " is annotated with @" + SwaggerModel.class.getSimpleName() + " but does not implement "
+                        + SwaggerAPIModel.class.getSimpleName());
+            }
+            modelClasses.add(modelClass.asSubclass(SwaggerAPIModel.class));
+        }
+        return modelClasses;
+    }
+
+    /**
+     * Finds the names of the model classes in packages without loading any class.
+     *
+     * @param packages the names of the packages, sub packages are included
+     * @return the binary names of the concrete classes annotated with {@link SwaggerModel}, ordered and without duplicates
+     * @throws IOException if reading a class file fails
+     */
+    public List<String> findModelClassNames(final String... packages) throws IOException {
+        final List<byte[]> classFiles = new ArrayList<>();
+        final Set<String> classNames = new TreeSet<>();
+        for (final String packageName : packages) {
+            final String directory = packageName.trim().replace('.', '/');
+            final Enumeration<URL> roots = classLoader.getResources(directory);
+            boolean scanned = roots.hasMoreElements();
+            URL unsupported = null;
+            while (roots.hasMoreElements()) {
+                final URL root = roots.nextElement();
+                if (!readClassFiles(root, directory, classFiles, classNames)) {
+                    scanned = false;
+                    unsupported = root;
+                }
+            }
+            if (!scanned && !readIndexes(directory + "/", classNames) && unsupported != null) {
+                System.err.println("Swagger API models in " + unsupported + " are not scanned, only directories, JAR files and indexes are supported");
+            }
+        }
+        try {
+            classNames.addAll(classFiles.parallelStream().map(SwaggerAPIModelScanner::modelClassName).filter(Objects::nonNull).collect(Collectors.toList()));
+        } catch (final IllegalArgumentException ex) {
+            throw new IOException("Invalid class file in packages " + String.join(", ", packages), ex);
+        }
+        return new ArrayList<>(classNames);
+    }
+
+    /**
+     * Helper for reading the class files below a package directory of the class path, or the names of the model classes in the package
+     * from the index of the directory or JAR file.
+     *
+     * @return false if the class path entry is neither a directory nor a JAR file
+     */
+    private static boolean readClassFiles(final URL root, final String directory, final List<byte[]> classFiles, final Set<String> classNames) throws IOException {
+        final String prefix = directory + "/";
+        if ("file".equals(root.getProtocol())) {
+            final Path path;
+            try {
+                path = Paths.get(root.toURI());
+            } catch (final URISyntaxException ex) {
+                throw new IOException("Invalid class path entry " + root, ex);
+            }
+            // the root of the class path entry is the package directory without the package
+            Path base = path;
+            for (int i = directory.isEmpty() ? 0 : directory.split("/").length; i > 0 && base != null; i--) {
+                base = base.getParent();
+            }
+            if (base != null && Files.isRegularFile(base.resolve(MODEL_INDEX))) {
+                readIndex(Files.readAllBytes(base.resolve(MODEL_INDEX)), prefix, classNames);
+                return true;
+            }
+            final List<Path> files;
+            try (Stream<Path> walk = Files.walk(path)) {
+                files = walk.filter(file -> file.toString().endsWith(".class")).collect(Collectors.toList());
+            } catch (final UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            for (final Path file : files) {
+                classFiles.add(Files.readAllBytes(file));
+            }
+        } else if ("jar".equals(root.getProtocol())) {
+            final URLConnection connection = root.openConnection();
+            connection.setUseCaches(false);
+            try (JarFile jar = ((JarURLConnection) connection).getJarFile()) {
+                final JarEntry index = jar.getJarEntry(MODEL_INDEX);
+                if (index != null) {
+                    try (InputStream in = jar.getInputStream(index)) {
+                        readIndex(in.readAllBytes(), prefix, classNames);
+                    }
+                    return true;
+                }
+                final Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    final JarEntry entry = entries.nextElement();
+                    if (entry.getName().startsWith(prefix) && entry.getName().endsWith(".class")) {
+                        try (InputStream in = jar.getInputStream(entry)) {
+                            classFiles.add(in.readAllBytes());
+                        }
+                    }
+                }
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Helper for adding the model classes of a package directory listed in any index visible to the class loader.
+     *
+     * @return false if there is no index
+     */
+    private boolean readIndexes(final String prefix, final Set<String> classNames) throws IOException {
+        final Enumeration<URL> indexes = classLoader.getResources(MODEL_INDEX);
+        final boolean indexed = indexes.hasMoreElements();
+        while (indexes.hasMoreElements()) {
+            final URLConnection connection = indexes.nextElement().openConnection();
+            connection.setUseCaches(false);
+            try (InputStream in = connection.getInputStream()) {
+                readIndex(in.readAllBytes(), prefix, classNames);
+            }
+        }
+        return indexed;
+    }
+
+    /**
+     * Helper for adding the model classes of a package directory listed in an index.
+     */
+    private static void readIndex(final byte[] index, final String prefix, final Set<String> classNames) {
+        for (final String line : new String(index, StandardCharsets.UTF_8).split("\n")) {
+            final String className = line.trim();
+            if (!className.isEmpty() && !className.startsWith("#") && className.replace('.', '/').startsWith(prefix)) {
+                classNames.add(className);
+            }
+        }
+    }
+
+    /**
+     * Returns the name of a class if it is a concrete class annotated with {@link SwaggerModel}. Only the constant pool, the header and
+     * the class attributes are parsed, fields and methods are skipped.
+     *
+     * @param classFile the bytes of the class file
+     * @return the binary name of the class or <code>null</code> if it is no model class
+     * @throws IllegalArgumentException if the class file is invalid
+     */
+    static String modelClassName(final byte[] classFile) {
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(classFile);
+            if (buffer.getInt() != 0xCAFEBABE) {
+                throw new IllegalArgumentException("Invalid class file");
+            }
+            buffer.position(8);
+
+            // the positions of the constant pool entries, the descriptor of the annotation must be one of them
+            final int constantCount = buffer.getShort() & 0xFFFF;
+            final int[] constants = new int[constantCount];
+            boolean annotated = false;
+            for (int i = 1; i < constantCount; i++) {
+                constants[i] = buffer.position();
+                final int tag = buffer.get();
+                switch (tag) {
+                    case 1: // UTF-8
+                        final int length = buffer.getShort() & 0xFFFF;
+                        annotated |= equalsUtf8(classFile, buffer.position() - 2, MODEL_DESCRIPTOR);
+                        buffer.position(buffer.position() + length);
+                        break;
+                    case 5: // long
+                    case 6: // double
+                        buffer.position(buffer.position() + 8);
+                        i++;
+                        break;
+                    case 3: // integer
+                    case 4: // float
+                    case 9: // field reference
+                    case 10: // method reference
+                    case 11: // interface method reference
+                    case 12: // name and type
+                    case 17: // dynamic
+                    case 18: // invoke dynamic
+                        buffer.position(buffer.position() + 4);
+                        break;
+                    case 15: // method handle
+                        buffer.position(buffer.position() + 3);
+                        break;
+                    case 7: // class
+                    case 8: // string
+                    case 16: // method type
+                    case 19: // module
+                    case 20: // package
+                        buffer.position(buffer.position() + 2);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Invalid constant pool tag " + tag);
+                }
+            }
+            if (!annotated) {
+                return null;
+            }
+
+            final int accessFlags = buffer.getShort() & 0xFFFF;
+            if ((accessFlags & (ACC_INTERFACE | ACC_ABSTRACT)) != 0) {
+                return null;
+            }
+            final int thisClass = buffer.getShort() & 0xFFFF;
+            buffer.position(buffer.position() + 2);
+            final int interfaceCount = buffer.getShort() & 0xFFFF;
+            buffer.position(buffer.position() + 2 * interfaceCount);
+            skipMembers(buffer);
+            skipMembers(buffer);
+
+            final int attributeCount = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < attributeCount; i++) {
+                final int name = buffer.getShort() & 0xFFFF;
+                final int length = buffer.getInt();
+                final int end = buffer.position() + length;
+                if (equalsUtf8(classFile, constants[name] + 1, ANNOTATIONS_ATTRIBUTE)) {
+                    final int annotationCount = buffer.getShort() & 0xFFFF;
+                    for (int j = 0; j < annotationCount; j++) {
+                        if (equalsUtf8(classFile, constants[buffer.getShort(buffer.position()) & 0xFFFF] + 1, MODEL_DESCRIPTOR)) {
+                            return utf8(classFile, constants[buffer.getShort(constants[thisClass] + 1) & 0xFFFF] + 1).replace('/', '.');
+                        }
+                        skipAnnotation(buffer);
+                    }
+                }
+                buffer.position(end);
+            }
+            return null;
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Truncated class file", ex);
+        }
+    }
+
+    /**
+     * Helper for skipping the fields or methods of a class file.
+     */
+    private static void skipMembers(final ByteBuffer buffer) {
+        final int count = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            buffer.position(buffer.position() + 6);
+            final int attributeCount = buffer.getShort() & 0xFFFF;
+            for (int j = 0; j < attributeCount; j++) {
+                buffer.position(buffer.position() + 2);
+                final int length = buffer.getInt();
+                buffer.position(buffer.position() + length);
+            }
+        }
+    }
+
+    /**
+     * Helper for skipping an annotation including its element values.
+     */
+    private static void skipAnnotation(final ByteBuffer buffer) {
+        buffer.position(buffer.position() + 2);
+        final int pairs = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < pairs; i++) {
+            buffer.position(buffer.position() + 2);
+            skipElementValue(buffer);
+        }
+    }
+
+    /**
+     * Helper for skipping an element value of an annotation.
+     */
+    private static void skipElementValue(final ByteBuffer buffer) {
+        final char tag = (char) buffer.get();
+        switch (tag) {
+            case 'e':
+                buffer.position(buffer.position() + 4);
+                break;
+            case '@':
+                skipAnnotation(buffer);
+                break;
+            case '[':
+                final int count = buffer.getShort() & 0xFFFF;
+                for (int i = 0; i < count; i++) {
+                    skipElementValue(buffer);
+                }
+                break;
+            default:
+                // constants, strings and classes
+                buffer.position(buffer.position() + 2);
+                break;
+        }
+    }
+
+    /**
+     * Helper for comparing a UTF-8 constant, given by the position of its length, with the expected bytes.
+     */
+    private static boolean equalsUtf8(final byte[] classFile, final int lengthPos, final byte[] expected) {
+        final int length = ((classFile[lengthPos] & 0xFF) << 8) | (classFile[lengthPos + 1] & 0xFF);
+        return length == expected.length && Arrays.equals(classFile, lengthPos + 2, lengthPos + 2 + length, expected, 0, length);
+    }
+
+    /**
+     * Helper for decoding a UTF-8 constant, given by the position of its length. Class names do not contain the characters the modified
+     * UTF-8 of class files encodes differently.
+     */
+    private static String utf8(final byte[] classFile, final int lengthPos) {
+        final int length = ((classFile[lengthPos] & 0xFF) << 8) | (classFile[lengthPos + 1] & 0xFF);
+        return new String(classFile, lengthPos + 2, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,35 @@
+package com.roamsys.swagger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Interface for serializers writing the return values of API methods to the response.
+ * Serializers are registered in the {@link SwaggerAPIConfig} for the result format of the models, see
+ * {@link com.roamsys.swagger.annotations.SwaggerModel#format()}, and are called concurrently.
+ */
+public interface SwaggerAPIResultSerializer {
+
+    /**
+     * Returns the content type of the serialized results
+     * @return the content type including the charset, e.g. <code>application/json;charset=UTF-8</code>
+     */
+    public String getContentType();
+
+    /**
+     * Prepares the serialization of a return type, called once when a model is registered.
+     * @param type the generic return type of an API method
+     */
+    public default void prepare(final Type type) {
+    }
+
+    /**
+     * Writes a return value to the response
+     * @param result the return value, never <code>null</code>
+     * @param type the generic return type of the API method
+     * @param out the output stream of the response, must not be closed
+     * @throws IOException if writing fails
+     */
+    public void serialize(final Object result, final Type type, final OutputStream out) throws IOException;
+}
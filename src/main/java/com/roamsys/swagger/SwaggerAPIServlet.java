@@ -1,19 +1,54 @@
 package com.roamsys.swagger;
 
-import com.google.gson.GsonBuilder;
 import com.roamsys.swagger.annotations.SwaggerApi.HTTPMethod;
-import com.roamsys.swagger.annotations.SwaggerParameter.DataType;
+import com.roamsys.swagger.cache.SwaggerAPICachedResponse;
+import com.roamsys.swagger.cache.SwaggerAPIResponseCache;
 import com.roamsys.swagger.data.ContentType;
+import com.roamsys.swagger.data.SwaggerAPIBindingPlan;
 import com.roamsys.swagger.data.SwaggerAPIContext;
 import com.roamsys.swagger.data.SwaggerAPIModelData;
 import com.roamsys.swagger.data.SwaggerAPIParameterData;
+import com.roamsys.swagger.data.SwaggerAPIRouteMatch;
 import com.roamsys.swagger.data.SwaggerExceptionHandler;
+import com.roamsys.swagger.documentation.ApiSpecDocument;
+import com.roamsys.swagger.limit.SwaggerAPIBulkhead;
+import com.roamsys.swagger.limit.SwaggerAPIRateLimit;
+import com.roamsys.swagger.metrics.SwaggerAPIMetrics;
+import com.roamsys.swagger.metrics.SwaggerAPIOperationMetrics;
+import com.roamsys.swagger.metrics.SwaggerAPIOperationMetrics.Phase;
+import com.roamsys.swagger.resources.SwaggerAPIStaticResources;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.lang.reflect.InvocationTargetException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
-import java.util.regex.Matcher;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,14 +65,100 @@ public class SwaggerAPIServlet extends HttpServlet {
     private static final long serialVersionUID = 1L;
 
     /**
-     * Date format for API calls
+     * Init parameter enabling the legacy session handling
      */
-    private static final String DATE_FORMAT = "yyyy-MM-dd";
+    public static final String INIT_PARAM_USE_SESSION = "useSession";
 
     /**
-     * Date-Time format for API calls
+     * Init parameter with the class name of the {@link SwaggerExceptionHandler}, overrides the handler of the config
      */
-    private static final String DATE_TIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ssXXX";
+    public static final String INIT_PARAM_EXCEPTION_HANDLER = "exceptionHandler";
+
+    /**
+     * Init parameter with the default content type of the HTTP response, overrides the content type of the config
+     */
+    public static final String INIT_PARAM_DEFAULT_CONTENT_TYPE = "defaultContentType";
+
+    /**
+     * Init parameter allowing cross origin access in addition to the config
+     */
+    public static final String INIT_PARAM_ALLOW_CROSS_ORIGIN_ACCESS = "allowCrossOriginAccess";
+
+    /**
+     * The path of the batch endpoint, see {@link SwaggerAPIConfig#setBatchMaxEntries(int)}
+     */
+    public static final String BATCH_PATH = "/_batch";
+
+    /**
+     * Resolves the API key for rate limits if the config has no authorization handler
+     */
+    private static final SwaggerAPIAuthorizationHandler DEFAULT_KEY_RESOLVER = (request, response) -> true;
+
+    /**
+     * The Swagger API config, cached at servlet initialization
+     */
+    private transient SwaggerAPIConfig config;
+
+    /**
+     * Defines if the config is read via the HTTP session, which is invalidated after each request (legacy behaviour)
+     */
+    private boolean useSession;
+
+    /**
+     * The exception handler configured by init parameter or <code>null</code> to use the handler of the config
+     */
+    private transient SwaggerExceptionHandler exceptionHandler;
+
+    /**
+     * The default content type configured by init parameter or <code>null</code> to use the content type of the config
+     */
+    private String defaultContentType;
+
+    /**
+     * Defines if cross origin access is allowed by init parameter
+     */
+    private boolean allowCrossOriginAccess;
+
+    /**
+     * Resolves and validates all init parameters, so requests only have to read the resulting fields.
+     *
+     * @throws ServletException if an init parameter is invalid
+     */
+    @Override
+    public void init() throws ServletException {
+        useSession = Boolean.parseBoolean(getInitParameter(INIT_PARAM_USE_SESSION));
+        config = (SwaggerAPIConfig) getServletContext().getAttribute(SwaggerAPIConfig.SERVLET_ATTRIBUTE_NAME);
+
+        // register exception handler for API
+        final String exceptionHandlerClass = getInitParameter(INIT_PARAM_EXCEPTION_HANDLER);
+        if (!StringUtils.isEmpty(exceptionHandlerClass)) {
+            try {
+                exceptionHandler = (SwaggerExceptionHandler) Class.forName(exceptionHandlerClass).getConstructor().newInstance();
+            } catch (final ReflectiveOperationException | ClassCastException ex) {
+                throw new ServletException("Could not instantiate Swagger exception handler [" + exceptionHandlerClass + "]", ex);
+            }
+        }
+
+        defaultContentType = StringUtils.trimToNull(getInitParameter(INIT_PARAM_DEFAULT_CONTENT_TYPE));
+        allowCrossOriginAccess = Boolean.parseBoolean(getInitParameter(INIT_PARAM_ALLOW_CROSS_ORIGIN_ACCESS));
+    }
+
+    /**
+     * Returns the Swagger API config. Without legacy session handling the config is never fetched via the HTTP session,
+     * so no session is created for API calls.
+     *
+     * @param request the request
+     * @return the Swagger API config
+     */
+    protected SwaggerAPIConfig getConfig(final HttpServletRequest request) {
+        if (useSession) {
+            return (SwaggerAPIConfig) request.getSession().getServletContext().getAttribute(SwaggerAPIConfig.SERVLET_ATTRIBUTE_NAME);
+        } else if (config == null) {
+            // the listener may not have been run when the servlet was initialized
+            config = (SwaggerAPIConfig) getServletContext().getAttribute(SwaggerAPIConfig.SERVLET_ATTRIBUTE_NAME);
+        }
+        return config;
+    }
 
     /**
      * Processes requests for both HTTP <code>GET</code> and <code>POST</code> methods.
@@ -49,21 +170,23 @@ public class SwaggerAPIServlet extends HttpServlet {
      * @throws IOException if an I/O error occurs
      */
     protected void processRequest(final HttpServletRequest request, final HttpServletResponse response, final HTTPMethod method) throws ServletException, IOException {
-        final SwaggerAPIConfig config = (SwaggerAPIConfig) request.getSession().getServletContext().getAttribute(SwaggerAPIConfig.SERVLET_ATTRIBUTE_NAME);
+        processRequest(request, response, method, true);
+    }
 
-        // register exception handler for API
-        final String exceptionHandlerClass = getServletConfig().getInitParameter("exceptionHandler");
-        SwaggerExceptionHandler exceptionHandler = config.getExceptionHandler();
-        if (!StringUtils.isEmpty(exceptionHandlerClass)) {
-            try {
-                final Class<?> clazz = Class.forName(exceptionHandlerClass);
-                exceptionHandler = (SwaggerExceptionHandler) clazz.getConstructor().newInstance();
-                config.setExceptionHandler(exceptionHandler);
-            } catch (final Exception ex) {
-                // log error with default exception handler
-                exceptionHandler.handleException(response, HttpServletResponse.SC_BAD_REQUEST, "Could not instantiate Swagger exception handler [" + exceptionHandlerClass + "]. Default exception handler will be used.", ex);
-            }
-        }
+    /**
+     * Processes a request or an entry of a batch.
+     *
+     * @param request servlet request
+     * @param response servlet response
+     * @param method the HTTP method call type
+     * @param authorize false to skip the authorization handler for entries of an authorized batch
+     */
+    private void processRequest(final HttpServletRequest request, final HttpServletResponse response, final HTTPMethod method, final boolean authorize)
+            throws ServletException, IOException {
+        final SwaggerAPIConfig config = getConfig(request);
+        final SwaggerExceptionHandler exceptionHandler = this.exceptionHandler != null ? this.exceptionHandler : config.getExceptionHandler();
+        final SwaggerAPIMetrics metrics = config.getMetrics();
+        final long start = metrics != null ? System.nanoTime() : 0;
 
         // get the URL decoded path to be called
         final String path = request.getPathInfo();
@@ -72,20 +195,20 @@ public class SwaggerAPIServlet extends HttpServlet {
             return;
         }
 
-        // enables cross-origin-access, if allowed in config
-        if (config.isCrossOriginAccessAllowed()) {
-            response.addHeader("Access-Control-Allow-Origin", "*");
-            response.addHeader("Access-Control-Allow-Methods", "POST, GET, PUT, DELETE, UPDATE, OPTIONS");
-            response.addHeader("Access-Control-Allow-Headers", "Content-Type, Accept, X-Requested-With, X-Api-Key");
-        }
+        addDefaultHeaders(config, response);
 
-        // sets the default content type, if defined in config
-        if (config.getDefaultContentType() != null) {
-            response.setContentType(config.getDefaultContentType());
+        // static resources, e.g. Swagger UI, are served without authorization, browsers load them without API key
+        if (config.hasStaticResources()) {
+            final int segmentEnd = path.indexOf('/', 1);
+            final SwaggerAPIStaticResources resources = config.getStaticResources(segmentEnd == -1 ? path : path.substring(0, segmentEnd));
+            if (resources != null) {
+                serveStaticResource(request, response, method, resources, segmentEnd == -1 ? null : path.substring(segmentEnd + 1), exceptionHandler);
+                return;
+            }
         }
 
         // try to authenticate the API call
-        if (config.getAuthorizationHandler() != null && !config.getAuthorizationHandler().isRequestAuthorized(request, response)) {
+        if (authorize && config.getAuthorizationHandler() != null && !config.getAuthorizationHandler().isRequestAuthorized(request, response)) {
             exceptionHandler.handleException(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid authorization key", null);
             return;
         }
@@ -97,11 +220,11 @@ public class SwaggerAPIServlet extends HttpServlet {
 
         // OpenAPI swagger.json request e.g. from Swagger UI
         if (path.equals("/swagger.json")) {
-            response.setStatus(HttpServletResponse.SC_OK);
-            response.setContentType(ContentType.JSON_UTF8);
-            final GsonBuilder gsonBuilder = new GsonBuilder();
-            gsonBuilder.excludeFieldsWithoutExposeAnnotation();
-            gsonBuilder.create().toJson(config.getApiSpec(), response.getWriter());
+            writeApiSpec(request, response, config.getApiSpecDocument());
+        } else if (metrics != null && path.equals("/metrics")) {
+            writeMetrics(config, metrics, response);
+        } else if (path.equals(BATCH_PATH) && config.getBatchMaxEntries() > 0) {
+            processBatch(config, request, response, method, exceptionHandler);
         } else {
             // API method calls
             final int basePathEndPos = path.indexOf("/", 1);
@@ -110,83 +233,381 @@ public class SwaggerAPIServlet extends HttpServlet {
                 return;
             }
 
-            // initialize for maybe no match
-            boolean matchFound = false;
-
-            final String basePath = path.substring(0, path.indexOf("/", 1));
-            if (config.isAPIModelPath(basePath)) {
-                for (final SwaggerAPIModelData api : config.getAPIsFor(basePath)) {
-                    // Find matching API model and method
-                    if (api.getHTTPMethod() == method) {
-                        final Matcher pathParamMatcher = api.matchPath(path);
-                        if (pathParamMatcher.matches()) {
-                            matchFound = true;
-                            response.setStatus(HttpServletResponse.SC_OK);
-
-                            // Set up variables for parameter collection
-                            final List<SwaggerAPIParameterData> paramsData = api.getParameters();
-                            final int parameterCount = paramsData.size();
-                            final Object[] arguments = new Object[parameterCount + 1];
-                            arguments[0] = new SwaggerAPIContext(this, request, response, exceptionHandler);
-
-                            // Collect parameters
-                            int getParamIndex = 0;
-                            for (int i = 1; i <= parameterCount; i++) {
-                                final SwaggerAPIParameterData paramData = paramsData.get(i - 1);
-
-                                // Fetch and convert argument value
-                                try {
-                                    switch (paramData.getParamType()) {
-                                        case PATH:
-                                            if (pathParamMatcher.groupCount() >= getParamIndex + 1) {
-                                                arguments[i] = convertParamToArgument(paramData.getDataType(), pathParamMatcher.group(1 + getParamIndex++));
-                                            }
-                                            break;
-
-                                        case QUERY:
-                                            arguments[i] = convertParamToArgument(paramData.getDataType(), request.getParameter(paramData.getName()));
-                                            break;
-
-                                        case FORM:
-                                        case BODY:
-                                            arguments[i] = request.getInputStream();
-                                            break;
-
-                                        case HEADER:
-                                            arguments[i] = convertParamToArgument(paramData.getDataType(), request.getHeader(paramData.getName()));
-                                            break;
-
-                                        default:
-                                            throw new IllegalArgumentException("Handling for parameter type \"" + paramData.getParamType().name() + "\" not yet implemented.");
-                                    }
-                                } catch (final ParseException ex) {
-                                    exceptionHandler.handleException(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid value for parameter " + paramData.getName(), ex);
-                                    return;
+            final long routingStart = metrics != null ? System.nanoTime() : 0;
+            final SwaggerAPIRouteMatch route = config.resolveAPI(path, method);
+            if (route == null) {
+                if (metrics != null) {
+                    metrics.recordUnmatched();
+                }
+                exceptionHandler.handleException(response, HttpServletResponse.SC_NOT_IMPLEMENTED, "Called method does not exist", null);
+            } else {
+                final SwaggerAPIModelData api = route.getAPI();
+                final SwaggerAPIOperationMetrics operationMetrics = metrics != null ? metrics.getOperation(api.getRoute(), api.getOperationId()) : null;
+                final long bindingStart = operationMetrics != null ? operationMetrics.recordSince(Phase.ROUTING, routingStart) : 0;
+
+                // limit the requests per API key before parameters are bound
+                final SwaggerAPIRateLimit rateLimit = config.getRateLimiter().getLimit(api.getRoute(), api.getOperationId(), api.getRateLimit());
+                if (rateLimit != null) {
+                    final long retryAfter = config.getRateLimiter().acquire(api.getRoute(), rateLimit, resolveRateLimitKey(config, request));
+                    if (retryAfter > 0) {
+                        response.setHeader("Retry-After", Long.toString(TimeUnit.NANOSECONDS.toSeconds(retryAfter - 1) + 1));
+                        exceptionHandler.handleException(response, 429, "Rate limit exceeded", null);
+                        if (operationMetrics != null) {
+                            operationMetrics.recordRequest(System.nanoTime() - start, 429);
+                        }
+                        return;
+                    }
+                }
+                response.setStatus(HttpServletResponse.SC_OK);
+
+                // bind the arguments with the plan compiled at registration
+                final SwaggerAPIBindingPlan plan = api.getBindingPlan();
+                final int parameterCount = plan.size();
+                final Object[] arguments = new Object[parameterCount + 1];
+                for (int i = 0; i < parameterCount; i++) {
+                    final SwaggerAPIBindingPlan.Slot slot = plan.getSlot(i);
+
+                    // Fetch and convert argument value
+                    try {
+                        switch (slot.getParamType()) {
+                            case PATH:
+                                arguments[i + 1] = slot.convert(route.getPathParameter(slot.getPathIndex()));
+                                break;
+
+                            case QUERY:
+                                arguments[i + 1] = slot.convert(request.getParameter(slot.getName()));
+                                break;
+
+                            case BODY:
+                                final SwaggerAPIParameterData paramData = slot.getParameter();
+                                if (paramData.isJsonBody()) {
+                                    arguments[i + 1] = readJsonBody(config, request, paramData.getJavaType());
+                                } else if (paramData.isBodyReader()) {
+                                    arguments[i + 1] = request.getReader();
+                                } else {
+                                    arguments[i + 1] = request.getInputStream();
                                 }
-                            }
-
-                            // Try to invoke method
-                            try {
-                                api.getMethod().invoke(api.getAPIModelClass(), arguments);
-                            } catch (final IllegalAccessException ex) {
-                                exceptionHandler.handleException(response, HttpServletResponse.SC_BAD_REQUEST, "Called method is not accessable", ex);
-                            } catch (final IllegalArgumentException ex) {
-                                exceptionHandler.handleException(response, HttpServletResponse.SC_NOT_ACCEPTABLE, "Illegal parameters for called method. See server error log for details.", ex);
-                            } catch (final InvocationTargetException ex) {
-                                exceptionHandler.handleException(response, HttpServletResponse.SC_BAD_REQUEST, "Error calling method. See server error log for details.", ex.getTargetException());
-                            } catch (final Throwable ex) {
-                                exceptionHandler.handleException(response, HttpServletResponse.SC_BAD_REQUEST, "Internal server error for called method. See server error log for details.", ex);
-                            }
-                            break;
+                                break;
+
+                            case FORM:
+                                arguments[i + 1] = request.getInputStream();
+                                break;
+
+                            case HEADER:
+                                arguments[i + 1] = slot.convert(request.getHeader(slot.getName()));
+                                break;
+
+                            default:
+                                throw new IllegalArgumentException("Handling for parameter type \"" + slot.getParamType().name() + "\" not yet implemented.");
                         }
+                    } catch (final IllegalArgumentException | JsonParseException | MalformedJsonException ex) {
+                        exceptionHandler.handleException(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid value for parameter " + slot.getName(), ex);
+                        if (operationMetrics != null) {
+                            operationMetrics.recordRequest(System.nanoTime() - start, HttpServletResponse.SC_BAD_REQUEST);
+                        }
+                        return;
+                    }
+                }
+                final long invocationStart = operationMetrics != null ? operationMetrics.recordSince(Phase.BINDING, bindingStart) : 0;
+
+                // responses of cached and coalesced operations are served from the cache or another invocation, or buffered for them
+                SwaggerAPIBufferedResponse bufferedResponse = null;
+                if (api.getCacheTtl() > 0 || api.isCoalesced()) {
+                    bufferedResponse = shareResponse(config, api, arguments, request, response, exceptionHandler, operationMetrics, start);
+                    if (bufferedResponse == null) {
+                        return;
                     }
                 }
+                final HttpServletResponse invocationResponse = bufferedResponse != null ? bufferedResponse : response;
+                arguments[0] = new SwaggerAPIContext(this, request, invocationResponse, exceptionHandler, config);
+
+                // limit the concurrent invocations, requests served from the cache or by another invocation do not count
+                final SwaggerAPIBulkhead bulkhead = config.getBulkheads().get(api.getRoute(), api.getOperationId(), api.getAPIModelClass().getClass());
+                if (bulkhead != null && !bulkhead.acquire()) {
+                    final String message = "Too many concurrent calls of method " + api.getMethod().getName();
+                    if (bufferedResponse != null) {
+                        // the waiting requests are rejected as well
+                        bufferedResponse.fail(new SwaggerAPIBufferedResponse.Aborted(HttpServletResponse.SC_SERVICE_UNAVAILABLE, message));
+                        bufferedResponse.release(false);
+                    }
+                    exceptionHandler.handleException(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, message, null);
+                    if (operationMetrics != null) {
+                        operationMetrics.recordRequest(System.nanoTime() - start, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    }
+                    return;
+                }
+
+                if ((api.isAsync() || api.isCompletionStage()) && request.isAsyncSupported()) {
+                    // release the container thread while the method or the returned stage runs, the invocation completes the request
+                    new AsyncInvocation(config, api, arguments, request, invocationResponse, bufferedResponse, bulkhead, exceptionHandler, operationMetrics, start,
+                            invocationStart).start();
+                    return;
+                }
+                final long bulkheadStart = bulkhead != null ? System.nanoTime() : 0;
+                boolean invoked = false;
+                try {
+                    invokeAPI(config, api, arguments, invocationResponse, exceptionHandler, operationMetrics, invocationStart);
+                    invoked = true;
+                } finally {
+                    if (bulkhead != null) {
+                        bulkhead.release(System.nanoTime() - bulkheadStart, invoked && response.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                    }
+                    if (bufferedResponse != null) {
+                        // coalesced requests must not wait forever if the invocation fails unexpectedly
+                        bufferedResponse.release(invoked);
+                    }
+                }
+                finishRequest(config, request, response);
+                if (operationMetrics != null) {
+                    operationMetrics.recordRequest(System.nanoTime() - start, response.getStatus());
+                }
+                return;
             }
-            if (!matchFound) {
-                exceptionHandler.handleException(response, HttpServletResponse.SC_NOT_IMPLEMENTED, "Called method does not exist", null);
+        }
+
+        finishRequest(config, request, response);
+    }
+
+    /**
+     * Resolves the key the requests of rate limited operations are counted for: the name set by the
+     * {@link SwaggerAPIKeyAuthorizationHandler}, the API key or, for requests without key, the client address.
+     *
+     * @param config the Swagger API config
+     * @param request the request
+     * @return the key
+     */
+    private static String resolveRateLimitKey(final SwaggerAPIConfig config, final HttpServletRequest request) {
+        final Object keyName = request.getAttribute(SwaggerAPIKeyAuthorizationHandler.KEY_NAME_ATTRIBUTE);
+        if (keyName instanceof String) {
+            return (String) keyName;
+        }
+        final SwaggerAPIAuthorizationHandler authorizationHandler = config.getAuthorizationHandler();
+        final String apiKey = authorizationHandler != null ? authorizationHandler.resolveApiKey(request) : DEFAULT_KEY_RESOLVER.resolveApiKey(request);
+        return apiKey != null ? apiKey : request.getRemoteAddr();
+    }
+
+    /**
+     * Processes the entries of a batch like requests of their own and streams their responses as JSON array in the order of the entries.
+     * Entries are executed sequentially on the container thread or, with a batch parallelism above one, on the async executor.
+     *
+     * @param config the Swagger API config
+     * @param request the batch request
+     * @param response the batch response
+     * @param method the HTTP method call type
+     * @param exceptionHandler the exception handler
+     */
+    private void processBatch(final SwaggerAPIConfig config, final HttpServletRequest request, final HttpServletResponse response, final HTTPMethod method,
+            final SwaggerExceptionHandler exceptionHandler) throws IOException {
+        if (method != HTTPMethod.POST) {
+            exceptionHandler.handleException(response, HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Batch requests must be posted", null);
+            return;
+        }
+        if (request instanceof SwaggerAPIBatchRequest) {
+            exceptionHandler.handleException(response, HttpServletResponse.SC_BAD_REQUEST, "Nested batch requests are not supported", null);
+            return;
+        }
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+        final List<SwaggerAPIBatch.Entry> entries;
+        try {
+            entries = SwaggerAPIBatch.read(request.getReader(), config.getBatchMaxEntries());
+        } catch (final JsonParseException ex) {
+            exceptionHandler.handleException(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid batch request", ex);
+            return;
+        }
+        if (entries == null) {
+            exceptionHandler.handleException(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Too many entries in batch, the maximum is "
+                    + config.getBatchMaxEntries(), null);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(ContentType.JSON_UTF8);
+        final OutputStream out = response.getOutputStream();
+        final JsonWriter writer = new JsonWriter(new SwaggerAPIUtf8Writer(out));
+        writer.beginArray();
+        final int parallelism = Math.min(config.getBatchParallelism(), entries.size());
+        if (parallelism <= 1) {
+            for (final SwaggerAPIBatch.Entry entry : entries) {
+                SwaggerAPIBatch.write(writer, out, processBatchEntry(config, request, response, entry, exceptionHandler));
+            }
+        } else {
+            // at most parallelism entries are in flight, responses are written in order as soon as they are available
+            final Deque<CompletableFuture<SwaggerAPIBatchResponse>> pending = new ArrayDeque<>(parallelism);
+            int next = 0;
+            while (!pending.isEmpty() || next < entries.size()) {
+                while (pending.size() < parallelism && next < entries.size()) {
+                    final SwaggerAPIBatch.Entry entry = entries.get(next++);
+                    CompletableFuture<SwaggerAPIBatchResponse> entryResponse;
+                    try {
+                        entryResponse = CompletableFuture.supplyAsync(() -> processBatchEntry(config, request, response, entry, exceptionHandler), config.getAsyncExecutor());
+                    } catch (final RejectedExecutionException ex) {
+                        entryResponse = CompletableFuture.completedFuture(processBatchEntry(config, request, response, entry, exceptionHandler));
+                    }
+                    pending.add(entryResponse);
+                }
+                SwaggerAPIBatch.write(writer, out, pending.poll().join());
             }
         }
+        writer.endArray();
+        writer.flush();
+    }
 
+    /**
+     * Processes an entry of a batch, errors are reported in the response of the entry.
+     *
+     * @param config the Swagger API config
+     * @param request the batch request
+     * @param response the batch response
+     * @param entry the entry
+     * @param exceptionHandler the exception handler
+     * @return the captured response of the entry
+     */
+    private SwaggerAPIBatchResponse processBatchEntry(final SwaggerAPIConfig config, final HttpServletRequest request, final HttpServletResponse response,
+            final SwaggerAPIBatch.Entry entry, final SwaggerExceptionHandler exceptionHandler) {
+        final SwaggerAPIBatchResponse entryResponse = new SwaggerAPIBatchResponse(response);
+        final SwaggerAPIBatchRequest entryRequest;
+        try {
+            entryRequest = SwaggerAPIBatch.createRequest(request, entry);
+        } catch (final IllegalArgumentException ex) {
+            exceptionHandler.handleException(entryResponse, HttpServletResponse.SC_BAD_REQUEST, "Invalid batch entry: " + ex.getMessage(), null);
+            return entryResponse;
+        }
+        final HTTPMethod method;
+        try {
+            method = HTTPMethod.valueOf(entryRequest.getMethod());
+        } catch (final IllegalArgumentException ex) {
+            exceptionHandler.handleException(entryResponse, HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Method " + entryRequest.getMethod() + " not allowed in batch", null);
+            return entryResponse;
+        }
+        try {
+            processRequest(entryRequest, entryResponse, method, config.isBatchEntryAuthorization());
+        } catch (final ServletException | IOException | RuntimeException ex) {
+            entryResponse.reset();
+            exceptionHandler.handleException(entryResponse, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Internal server error for batch entry. See server error log for details.", ex);
+        }
+        return entryResponse;
+    }
+
+    /**
+     * Serves a request of a cached or coalesced operation from the cache or waits for the invocation of an identical request in flight.
+     * Otherwise the request invokes the method and the returned response buffers the body for the cache and the waiting requests.
+     *
+     * @param config the Swagger API config
+     * @param api the called API
+     * @param arguments the method arguments
+     * @param request the request
+     * @param response the response
+     * @param exceptionHandler the exception handler
+     * @param metrics the metrics of the operation or <code>null</code> if disabled
+     * @param requestStart start of the request in nanoseconds, only used if metrics are enabled
+     * @return the response for the invocation or <code>null</code> if the request has been served
+     */
+    private SwaggerAPIBufferedResponse shareResponse(final SwaggerAPIConfig config, final SwaggerAPIModelData api, final Object[] arguments,
+            final HttpServletRequest request, final HttpServletResponse response, final SwaggerExceptionHandler exceptionHandler,
+            final SwaggerAPIOperationMetrics metrics, final long requestStart) throws ServletException, IOException {
+        final SwaggerAPIResponseCache.Key key = new SwaggerAPIResponseCache.Key(api.getRoute(), Arrays.copyOfRange(arguments, 1, arguments.length));
+        final SwaggerAPIResponseCache cache = api.getCacheTtl() > 0 ? config.getResponseCache() : null;
+        if (cache != null) {
+            final SwaggerAPICachedResponse cached = cache.get(key);
+            if (cached != null) {
+                cached.writeTo(response);
+                finishRequest(config, request, response);
+                if (metrics != null) {
+                    metrics.recordRequest(System.nanoTime() - requestStart, cached.getStatus());
+                }
+                return null;
+            }
+        }
+        CompletableFuture<SwaggerAPICachedResponse> flight = null;
+        if (api.isCoalesced()) {
+            flight = new CompletableFuture<>();
+            final CompletableFuture<SwaggerAPICachedResponse> leading = config.getRequestCoalescer().join(key, flight);
+            if (leading != null) {
+                final CoalescedRequest coalesced = new CoalescedRequest(config, api, request, response, exceptionHandler, metrics, requestStart);
+                if (request.isAsyncSupported()) {
+                    coalesced.start(leading);
+                } else {
+                    coalesced.await(leading);
+                }
+                return null;
+            }
+        }
+        return new SwaggerAPIBufferedResponse(response, key, cache, api.getCacheTtl(), flight);
+    }
+
+    /**
+     * Invokes the API method and writes its return value. Returned stages are awaited, as the request does not support async processing.
+     *
+     * @param config the Swagger API config
+     * @param api the called API
+     * @param arguments the method arguments
+     * @param response the response
+     * @param exceptionHandler the exception handler
+     * @param metrics the metrics of the operation or <code>null</code> if disabled
+     * @param invocationStart start of the invocation in nanoseconds, only used if metrics are enabled
+     */
+    private void invokeAPI(final SwaggerAPIConfig config, final SwaggerAPIModelData api, final Object[] arguments, final HttpServletResponse response,
+            final SwaggerExceptionHandler exceptionHandler, final SwaggerAPIOperationMetrics metrics, final long invocationStart) throws IOException {
+        Object result = null;
+        try {
+            result = api.invoke(arguments);
+            if (result instanceof CompletionStage) {
+                result = ((CompletionStage<?>) result).toCompletableFuture().join();
+            }
+        } catch (final CompletionException | CancellationException ex) {
+            handleInvocationException(response, exceptionHandler, unwrapStageException(ex));
+        } catch (final Throwable ex) {
+            handleInvocationException(response, exceptionHandler, ex);
+        }
+        final long serializationStart = metrics != null ? metrics.recordSince(Phase.INVOCATION, invocationStart) : 0;
+
+        // serialize the return value
+        if (result != null) {
+            writeResult(config, api, result, response, exceptionHandler, metrics, serializationStart);
+        }
+    }
+
+    /**
+     * Helper for converting the exception of a completed stage into the exception thrown by an invocation.
+     *
+     * @param ex the exception of the stage, possibly wrapped in a {@link CompletionException}
+     * @return the exception wrapped in an {@link InvocationTargetException}
+     */
+    private static InvocationTargetException unwrapStageException(final Throwable ex) {
+        return new InvocationTargetException(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+    }
+
+    /**
+     * Reports an exception thrown by the invocation of an API method.
+     *
+     * @param response the response
+     * @param exceptionHandler the exception handler
+     * @param exception the exception
+     */
+    private void handleInvocationException(final HttpServletResponse response, final SwaggerExceptionHandler exceptionHandler, final Throwable exception) {
+        if (response instanceof SwaggerAPIBufferedResponse) {
+            // coalesced requests report the exception with their own handler
+            ((SwaggerAPIBufferedResponse) response).fail(exception);
+        }
+        if (exception instanceof IllegalArgumentException) {
+            exceptionHandler.handleException(response, HttpServletResponse.SC_NOT_ACCEPTABLE, "Illegal parameters for called method. See server error log for details.", exception);
+        } else if (exception instanceof InvocationTargetException) {
+            exceptionHandler.handleException(response, HttpServletResponse.SC_BAD_REQUEST, "Error calling method. See server error log for details.", ((InvocationTargetException) exception).getTargetException());
+        } else {
+            exceptionHandler.handleException(response, HttpServletResponse.SC_BAD_REQUEST, "Internal server error for called method. See server error log for details.", exception);
+        }
+    }
+
+    /**
+     * Executes the post-request handler and flushes the response.
+     *
+     * @param config the Swagger API config
+     * @param request the request
+     * @param response the response
+     */
+    private void finishRequest(final SwaggerAPIConfig config, final HttpServletRequest request, final HttpServletResponse response) throws ServletException, IOException {
         // execute post-request handler
         if (config.getPostRequestHandler() != null) {
             config.getPostRequestHandler().handle(request, response);
@@ -196,35 +617,630 @@ public class SwaggerAPIServlet extends HttpServlet {
     }
 
     /**
-     * Convert the swagger API parameter to a method argument class type depending on the swagger API data type.
+     * Writes the return value of an API method with the serializer for the result format of the model.
+     *
+     * @param config the Swagger API config
+     * @param api the called API
+     * @param result the return value
+     * @param response the response
+     * @param exceptionHandler the exception handler
+     * @param metrics the metrics of the operation or <code>null</code> if disabled
+     * @param serializationStart start of the serialization in nanoseconds, only used if metrics are enabled
+     */
+    private void writeResult(final SwaggerAPIConfig config, final SwaggerAPIModelData api, final Object result, final HttpServletResponse response,
+            final SwaggerExceptionHandler exceptionHandler, final SwaggerAPIOperationMetrics metrics, final long serializationStart) throws IOException {
+        final SwaggerAPIResultSerializer serializer = config.getResultSerializer(api.getFormat());
+        if (serializer == null) {
+            exceptionHandler.handleException(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "No result serializer for format " + api.getFormat(), null);
+            return;
+        }
+        if (!response.isCommitted()) {
+            response.setContentType(serializer.getContentType());
+        }
+        try {
+            serializer.serialize(result, api.getResultType(), response.getOutputStream());
+            if (metrics != null) {
+                metrics.recordSince(Phase.SERIALIZATION, serializationStart);
+            }
+        } catch (final RuntimeException ex) {
+            // only reported to the client if nothing has been sent yet
+            if (response.isCommitted()) {
+                throw new IOException("Could not serialize result of method " + api.getMethod().getName(), ex);
+            }
+            response.resetBuffer();
+            exceptionHandler.handleException(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Could not serialize result. See server error log for details.", ex);
+        }
+    }
+
+    /**
+     * Adds the cross-origin-access headers, if allowed, and sets the default content type, if defined.
+     *
+     * @param config the Swagger API config
+     * @param response the response
+     */
+    private void addDefaultHeaders(final SwaggerAPIConfig config, final HttpServletResponse response) {
+        if (allowCrossOriginAccess || config.isCrossOriginAccessAllowed()) {
+            response.addHeader("Access-Control-Allow-Origin", "*");
+            response.addHeader("Access-Control-Allow-Methods", "POST, GET, PUT, DELETE, UPDATE, OPTIONS");
+            response.addHeader("Access-Control-Allow-Headers", "Content-Type, Accept, X-Requested-With, X-Api-Key");
+        }
+
+        final String contentType = defaultContentType != null ? defaultContentType : config.getDefaultContentType();
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+    }
+
+    /**
+     * Writes the pre-rendered OpenAPI spec, compressed if accepted by the client, or answers a conditional request with
+     * <code>304 Not Modified</code>.
+     *
+     * @param request the request
+     * @param response the response
+     * @param document the rendered API spec
+     */
+    private void writeApiSpec(final HttpServletRequest request, final HttpServletResponse response, final ApiSpecDocument document) throws IOException {
+        final ApiSpecDocument.Encoding encoding = ApiSpecDocument.selectEncoding(request.getHeader("Accept-Encoding"));
+        response.setContentType(ContentType.JSON_UTF8);
+        response.setHeader("ETag", document.getEntityTag(encoding));
+        response.setDateHeader("Last-Modified", document.getLastModified());
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("Vary", "Accept-Encoding");
+
+        // If-Modified-Since is ignored if If-None-Match is present
+        final String ifNoneMatch = request.getHeader("If-None-Match");
+        long ifModifiedSince = -1;
+        if (ifNoneMatch == null) {
+            try {
+                ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            } catch (final IllegalArgumentException ex) {
+                // invalid date, send the spec
+            }
+        }
+        if (document.matches(ifNoneMatch) || (ifModifiedSince != -1 && document.getLastModified() <= ifModifiedSince)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        final byte[] content = document.getContent(encoding);
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (encoding.getHeaderValue() != null) {
+            response.setHeader("Content-Encoding", encoding.getHeaderValue());
+        }
+        response.setContentLength(content.length);
+        response.getOutputStream().write(content);
+    }
+
+    /**
+     * Serves a static resource for GET and HEAD requests.
+     *
+     * @param request the request
+     * @param response the response
+     * @param method the HTTP method
+     * @param resources the static resources of the first segment of the path
+     * @param path the path below the first segment or <code>null</code> if the path has no further segment
+     * @param exceptionHandler the exception handler
+     */
+    private void serveStaticResource(final HttpServletRequest request, final HttpServletResponse response, final HTTPMethod method,
+            final SwaggerAPIStaticResources resources, final String path, final SwaggerExceptionHandler exceptionHandler) throws IOException {
+        if (method != HTTPMethod.GET) {
+            response.setHeader("Allow", "GET, HEAD");
+            exceptionHandler.handleException(response, HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Static resources are read only", null);
+        } else if (path == null) {
+            // the relative links of the index resolve against the directory
+            final String query = request.getQueryString();
+            response.sendRedirect(request.getRequestURI() + "/" + (query != null ? "?" + query : ""));
+        } else if (!resources.serve(request, response, path)) {
+            exceptionHandler.handleException(response, HttpServletResponse.SC_NOT_FOUND, "Resource not found", null);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the per-operation metrics as JSON.
+     *
+     * @param config the Swagger API config
+     * @param metrics the metrics
+     * @param response the response
+     */
+    private void writeMetrics(final SwaggerAPIConfig config, final SwaggerAPIMetrics metrics, final HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(ContentType.JSON_UTF8);
+        response.setHeader("Cache-Control", "no-store");
+        final Map<String, Object> snapshot = metrics.snapshot();
+        snapshot.put("cache", config.getResponseCache().statistics());
+        snapshot.put("coalescing", config.getRequestCoalescer().statistics());
+        snapshot.put("rateLimiting", config.getRateLimiter().statistics());
+        snapshot.put("bulkheads", config.getBulkheads().statistics());
+        if (config.hasStaticResources()) {
+            snapshot.put("staticResources", config.staticResourceStatistics());
+        }
+        final PrintWriter writer = response.getWriter();
+        config.getGson().toJson(snapshot, writer);
+        writer.flush();
+    }
+
+    /**
+     * Deserializes the JSON request body while reading it, without buffering the whole body.
+     * The container's reader is used, as containers recycle it together with its decoder and buffers.
      *
-     * @param dataType the swagger API parameter data type
-     * @param paramValue the value of the parameter as string
-     * @return the argument
+     * @param config the Swagger API config providing the type adapters
+     * @param request the request
+     * @param type the Java type of the method parameter
+     * @return the deserialized body or <code>null</code> for an empty body
+     * @throws JsonParseException if the body is no valid JSON of the type, also if it is truncated
+     * @throws IOException if the body can not be read
      */
-    private Object convertParamToArgument(final DataType dataType, final String paramValue) throws ParseException, IOException {
-        if (StringUtils.isEmpty(paramValue)) {
+    static Object readJsonBody(final SwaggerAPIConfig config, final HttpServletRequest request, final Type type) throws IOException {
+        if (request.getCharacterEncoding() == null) {
+            // JSON is UTF-8 unless declared otherwise, the servlet default would be ISO-8859-1
+            request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+        final JsonReader reader = config.getGson().newJsonReader(request.getReader());
+        try {
+            if (reader.peek() == JsonToken.END_DOCUMENT) {
+                return null;
+            }
+        } catch (final EOFException ex) {
+            // empty body
             return null;
-        } else {
-            switch (dataType) {
-                case STRING:
-                    return paramValue;
-                case INTEGER:
-                    return Integer.parseInt(paramValue);
-                case LONG:
-                    return Long.parseLong(paramValue);
-                case BOOLEAN:
-                    return Boolean.valueOf(paramValue);
-                case DATE:
-                    return new SimpleDateFormat(DATE_FORMAT).parse(paramValue);
-                case DATETIME:
-                    return new SimpleDateFormat(DATE_TIME_FORMAT).parse(paramValue);
-                default:
-                    throw new IllegalArgumentException("Handling for data type \"" + dataType.name() + "\" not yet implemented.");
+        }
+        try {
+            return config.getTypeAdapter(type).read(reader);
+        } catch (final EOFException | MalformedJsonException | IllegalStateException ex) {
+            // a truncated or malformed body or an unexpected token, mapped like Gson.fromJson does
+            throw new JsonSyntaxException(ex);
+        }
+    }
+
+    /**
+     * Async invocation of an API method. Methods annotated as async are invoked on the async executor, methods returning a
+     * {@link CompletionStage} on the container thread, and the request is completed when the stage completes.
+     * Either the invocation or the timeout completes the request, whichever comes first. Completing holds the {@link #lock}, so the
+     * result is written by one of them only and a timeout during the serialization waits for it. A method still running at the timeout
+     * is interrupted and a pending {@link CompletableFuture} is cancelled, but the method must not use the response afterwards,
+     * as the container may recycle it.
+     */
+    private final class AsyncInvocation implements Runnable, AsyncListener {
+
+        private final SwaggerAPIConfig config;
+        private final SwaggerAPIModelData api;
+        private final Object[] arguments;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final SwaggerExceptionHandler exceptionHandler;
+
+        /**
+         * The response buffering the body for the cache and coalesced requests, the same as {@link #response}, or <code>null</code> if the
+         * response is not shared
+         */
+        private final SwaggerAPIBufferedResponse bufferedResponse;
+
+        /**
+         * The bulkhead the invocation holds a permit of or <code>null</code> if the invocations are not limited
+         */
+        private final SwaggerAPIBulkhead bulkhead;
+
+        /**
+         * Set when the permit of the bulkhead is released
+         */
+        private final AtomicBoolean bulkheadReleased = new AtomicBoolean();
+
+        /**
+         * Start of the invocation in nanoseconds for the bulkhead, only set if the invocations are limited
+         */
+        private long bulkheadStart;
+
+        /**
+         * The metrics of the operation or <code>null</code> if disabled
+         */
+        private final SwaggerAPIOperationMetrics metrics;
+
+        /**
+         * Start of the request in nanoseconds, only set if metrics are enabled
+         */
+        private final long requestStart;
+
+        /**
+         * Start of the invocation in nanoseconds, only set if metrics are enabled
+         */
+        private final long invocationStart;
+
+        /**
+         * Set by whoever completes the request first, before writing to the response
+         */
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        /**
+         * Held while completing the request, by the invocation while writing the result and by the timeout and error callbacks
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * The thread invoking the method, <code>null</code> if not running or taken by the timeout to interrupt it
+         */
+        private final AtomicReference<Thread> worker = new AtomicReference<>();
+
+        /**
+         * Set by the timeout after interrupting the worker it has taken
+         */
+        private volatile boolean interruptDelivered;
+
+        /**
+         * The stage returned by the method, <code>null</code> if none
+         */
+        private volatile CompletionStage<?> stage;
+
+        private AsyncContext asyncContext;
+
+        private AsyncInvocation(final SwaggerAPIConfig config, final SwaggerAPIModelData api, final Object[] arguments, final HttpServletRequest request,
+                final HttpServletResponse response, final SwaggerAPIBufferedResponse bufferedResponse, final SwaggerAPIBulkhead bulkhead,
+                final SwaggerExceptionHandler exceptionHandler, final SwaggerAPIOperationMetrics metrics, final long requestStart, final long invocationStart) {
+            this.config = config;
+            this.api = api;
+            this.arguments = arguments;
+            this.request = request;
+            this.response = response;
+            this.bufferedResponse = bufferedResponse;
+            this.bulkhead = bulkhead;
+            this.exceptionHandler = exceptionHandler;
+            this.metrics = metrics;
+            this.requestStart = requestStart;
+            this.invocationStart = invocationStart;
+        }
+
+        /**
+         * Starts async processing and submits the invocation to the executor or, for methods only returning a stage, invokes it directly.
+         */
+        private void start() {
+            asyncContext = request.startAsync(request, response);
+            asyncContext.setTimeout(Math.max(config.getAsyncTimeout(), 0));
+            asyncContext.addListener(this);
+            if (bulkhead != null) {
+                bulkheadStart = System.nanoTime();
+            }
+            if (!api.isAsync()) {
+                run();
+                return;
+            }
+            try {
+                config.getAsyncExecutor().execute(this);
+            } catch (final RejectedExecutionException ex) {
+                releaseBulkhead(false);
+                complete(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Could not schedule method call", ex);
+            }
+        }
+
+        /**
+         * Releases the permit of the bulkhead once the method or the returned stage has finished, even if the request timed out before.
+         *
+         * @param success false if the invocation failed or timed out
+         */
+        private void releaseBulkhead(final boolean success) {
+            if (bulkhead != null && bulkheadReleased.compareAndSet(false, true)) {
+                bulkhead.release(System.nanoTime() - bulkheadStart, success);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (api.isAsync()) {
+                worker.set(Thread.currentThread());
+            }
+            try {
+                final Object result;
+                try {
+                    result = api.invoke(arguments);
+                } catch (final Throwable ex) {
+                    finish(null, ex);
+                    return;
+                }
+                if (result instanceof CompletionStage) {
+                    // no thread is held while the stage is pending
+                    stage = (CompletionStage<?>) result;
+                    stage.whenComplete(this::finishStage);
+                } else {
+                    finish(result, null);
+                }
+            } finally {
+                if (api.isAsync() && worker.getAndSet(null) == null) {
+                    // the timeout has taken the thread to interrupt it, so the interrupt must not hit the next task of the pooled thread
+                    while (!interruptDelivered) {
+                        Thread.onSpinWait();
+                    }
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        /**
+         * Completes the request with the outcome of the returned stage.
+         */
+        private void finishStage(final Object result, final Throwable ex) {
+            finish(result, ex == null ? null : unwrapStageException(ex));
+        }
+
+        /**
+         * Writes the result or reports the exception of the invocation and completes the request, unless it has been completed already.
+         *
+         * @param result the result of the method, may be <code>null</code>
+         * @param exception the exception thrown by the invocation, <code>null</code> on success
+         */
+        private void finish(final Object result, final Throwable exception) {
+            lock.lock();
+            try {
+                if (!completed.compareAndSet(false, true)) {
+                    // answered by the timeout already
+                    releaseBulkhead(false);
+                    return;
+                }
+                // includes the time waiting for an executor thread
+                final long serializationStart = metrics != null ? metrics.recordSince(Phase.INVOCATION, invocationStart) : 0;
+                try {
+                    if (exception != null) {
+                        handleInvocationException(response, exceptionHandler, exception);
+                    } else if (result != null) {
+                        writeResult(config, api, result, response, exceptionHandler, metrics, serializationStart);
+                    }
+                    releaseBulkhead(response.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                    if (bufferedResponse != null) {
+                        bufferedResponse.release(true);
+                    }
+                    finishRequest(config, request, response);
+                    recordRequest();
+                    asyncContext.complete();
+                } catch (final IOException | ServletException | RuntimeException ex) {
+                    releaseBulkhead(false);
+                    abort(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Internal server error for called method. See server error log for details.", ex);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) {
+            // waits for an invocation writing its result, which completes the request then
+            if (complete(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Timeout calling method " + api.getMethod().getName(), null)) {
+                // interrupts the worker only while it still runs this invocation, see run()
+                final Thread thread = worker.getAndSet(null);
+                if (thread != null) {
+                    thread.interrupt();
+                    interruptDelivered = true;
+                }
+                final CompletionStage<?> pending = stage;
+                if (pending instanceof CompletableFuture) {
+                    ((CompletableFuture<?>) pending).cancel(true);
+                }
+            }
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) {
+            lock.lock();
+            try {
+                if (completed.compareAndSet(false, true)) {
+                    try {
+                        if (bufferedResponse != null) {
+                            // the waiting requests answer on their own
+                            bufferedResponse.fail(new SwaggerAPIBufferedResponse.Aborted(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Error calling method " + api.getMethod().getName()));
+                            bufferedResponse.release(false);
+                        }
+                    } catch (final IOException | RuntimeException ex) {
+                        // the client is gone
+                    } finally {
+                        asyncContext.complete();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) {
+            // nothing to do
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+            // nothing to do
+        }
+
+        /**
+         * Reports an error and completes the request, unless it has been completed already.
+         *
+         * @return true if the request was completed by this call
+         */
+        private boolean complete(final int code, final String message, final Throwable ex) {
+            lock.lock();
+            try {
+                if (!completed.compareAndSet(false, true)) {
+                    return false;
+                }
+                abort(code, message, ex);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Helper for reporting an error and completing the request after claiming it.
+         */
+        private void abort(final int code, final String message, final Throwable ex) {
+            try {
+                try {
+                    if (!response.isCommitted()) {
+                        response.resetBuffer();
+                        exceptionHandler.handleException(response, code, message, ex);
+                    }
+                } finally {
+                    // the waiting requests must be released even if the error could not be reported
+                    if (bufferedResponse != null) {
+                        bufferedResponse.fail(new SwaggerAPIBufferedResponse.Aborted(code, message));
+                        bufferedResponse.release(false);
+                    }
+                    recordRequest();
+                }
+            } catch (final IOException nested) {
+                // the client is gone
+            } catch (final RuntimeException nested) {
+                nested.printStackTrace(System.err);
+            } finally {
+                asyncContext.complete();
+            }
+        }
+
+        /**
+         * Records the completed request in the metrics, if enabled.
+         */
+        private void recordRequest() {
+            if (metrics != null) {
+                metrics.recordRequest(System.nanoTime() - requestStart, response.getStatus());
             }
         }
     }
 
+    /**
+     * A request waiting for the response of an identical coalesced request in flight. The shared response is written as it is, an exception
+     * of the invocation is reported with the exception handler of this request. With async support the container thread is released while
+     * waiting, otherwise it blocks. The wait is limited by the async timeout.
+     */
+    private final class CoalescedRequest implements AsyncListener {
+
+        private final SwaggerAPIConfig config;
+        private final SwaggerAPIModelData api;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final SwaggerExceptionHandler exceptionHandler;
+
+        /**
+         * The metrics of the operation or <code>null</code> if disabled
+         */
+        private final SwaggerAPIOperationMetrics metrics;
+
+        /**
+         * Start of the request in nanoseconds, only set if metrics are enabled
+         */
+        private final long requestStart;
+
+        /**
+         * Set by whoever completes the request first
+         */
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private AsyncContext asyncContext;
+
+        private CoalescedRequest(final SwaggerAPIConfig config, final SwaggerAPIModelData api, final HttpServletRequest request,
+                final HttpServletResponse response, final SwaggerExceptionHandler exceptionHandler, final SwaggerAPIOperationMetrics metrics,
+                final long requestStart) {
+            this.config = config;
+            this.api = api;
+            this.request = request;
+            this.response = response;
+            this.exceptionHandler = exceptionHandler;
+            this.metrics = metrics;
+            this.requestStart = requestStart;
+        }
+
+        /**
+         * Starts async processing, the completion of the flight or the timeout completes the request.
+         *
+         * @param flight the flight to wait for
+         */
+        private void start(final CompletableFuture<SwaggerAPICachedResponse> flight) {
+            asyncContext = request.startAsync(request, response);
+            asyncContext.setTimeout(Math.max(config.getAsyncTimeout(), 0));
+            asyncContext.addListener(this);
+            flight.whenComplete((shared, ex) -> {
+                if (completed.compareAndSet(false, true)) {
+                    try {
+                        write(shared, ex);
+                    } catch (final IOException | ServletException | RuntimeException nested) {
+                        // the client is gone
+                    } finally {
+                        asyncContext.complete();
+                    }
+                }
+            });
+        }
+
+        /**
+         * Blocks the container thread until the flight completes or the timeout elapses.
+         *
+         * @param flight the flight to wait for
+         */
+        private void await(final CompletableFuture<SwaggerAPICachedResponse> flight) throws ServletException, IOException {
+            SwaggerAPICachedResponse shared = null;
+            Throwable exception = null;
+            try {
+                shared = config.getAsyncTimeout() > 0 ? flight.get(config.getAsyncTimeout(), TimeUnit.MILLISECONDS) : flight.get();
+            } catch (final ExecutionException ex) {
+                exception = ex.getCause();
+            } catch (final TimeoutException ex) {
+                exception = timeout();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                exception = timeout();
+            }
+            write(shared, exception);
+        }
+
+        /**
+         * Writes the shared response or reports the exception of the invocation and finishes the request.
+         */
+        private void write(final SwaggerAPICachedResponse shared, final Throwable exception) throws ServletException, IOException {
+            if (exception == null) {
+                shared.writeTo(response);
+            } else if (exception instanceof SwaggerAPIBufferedResponse.Aborted) {
+                exceptionHandler.handleException(response, ((SwaggerAPIBufferedResponse.Aborted) exception).getCode(), exception.getMessage(), null);
+            } else {
+                handleInvocationException(response, exceptionHandler, exception);
+            }
+            finishRequest(config, request, response);
+            if (metrics != null) {
+                metrics.recordRequest(System.nanoTime() - requestStart, response.getStatus());
+            }
+        }
+
+        /**
+         * @return the failure reported if waiting timed out
+         */
+        private SwaggerAPIBufferedResponse.Aborted timeout() {
+            return new SwaggerAPIBufferedResponse.Aborted(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Timeout waiting for method " + api.getMethod().getName());
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) {
+            if (completed.compareAndSet(false, true)) {
+                try {
+                    write(null, timeout());
+                } catch (final IOException | ServletException | RuntimeException ex) {
+                    // the client is gone
+                } finally {
+                    asyncContext.complete();
+                }
+            }
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) {
+            if (completed.compareAndSet(false, true)) {
+                asyncContext.complete();
+            }
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) {
+            // nothing to do
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+            // nothing to do
+        }
+    }
+
     @Override
     protected void doGet(final HttpServletRequest request, final HttpServletResponse response) throws ServletException, IOException {
         processRequest(request, response, HTTPMethod.GET);
@@ -247,17 +1263,9 @@ public class SwaggerAPIServlet extends HttpServlet {
 
     @Override
     protected void doOptions(final HttpServletRequest request, final HttpServletResponse response) throws ServletException, IOException {
-        final SwaggerAPIConfig config = (SwaggerAPIConfig) request.getSession().getServletContext().getAttribute(SwaggerAPIConfig.SERVLET_ATTRIBUTE_NAME);
-
-        if (config.isCrossOriginAccessAllowed()) {
-            response.addHeader("Access-Control-Allow-Origin", "*");
-            response.addHeader("Access-Control-Allow-Methods", "POST, GET, PUT, DELETE, UPDATE, OPTIONS");
-            response.addHeader("Access-Control-Allow-Headers", "Content-Type, Accept, X-Requested-With, X-Api-Key");
-        }
+        final SwaggerAPIConfig config = getConfig(request);
 
-        if (config.getDefaultContentType() != null) {
-            response.setContentType(config.getDefaultContentType());
-        }
+        addDefaultHeaders(config, response);
 
         response.setStatus(HttpServletResponse.SC_OK);
         response.flushBuffer();
@@ -269,7 +1277,9 @@ public class SwaggerAPIServlet extends HttpServlet {
             super.service(request, response);
         } finally {
             // because Swagger REST calls are stateless the session should be invalidated immediately
-            request.getSession().invalidate();
+            if (useSession) {
+                request.getSession().invalidate();
+            }
         }
     }
 }
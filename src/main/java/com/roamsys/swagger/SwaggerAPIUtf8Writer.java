@@ -0,0 +1,141 @@
+package com.roamsys.swagger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Unsynchronized writer encoding UTF-8 into a small buffer in front of an output stream.
+ * Unlike {@link java.io.OutputStreamWriter} it does not allocate per write call and buffers less than one block of the response,
+ * which suits the many short writes of a JSON writer. Unpaired surrogates are written as <code>?</code>.
+ */
+final class SwaggerAPIUtf8Writer extends Writer {
+
+    /**
+     * The size of the byte buffer
+     */
+    private static final int BUFFER_SIZE = 1024;
+
+    /**
+     * The target stream, never closed by this writer
+     */
+    private final OutputStream out;
+
+    /**
+     * The encoded bytes not yet written to the stream
+     */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * The number of bytes in the buffer
+     */
+    private int count;
+
+    /**
+     * A high surrogate waiting for the low surrogate of the next write call, <code>0</code> if none
+     */
+    private char highSurrogate;
+
+    /**
+     * Creates a writer
+     * @param out the target stream
+     */
+    SwaggerAPIUtf8Writer(final OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        write((char) c);
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            write(str.charAt(i));
+        }
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            write(cbuf[i]);
+        }
+    }
+
+    /**
+     * Encodes one character
+     */
+    private void write(final char c) throws IOException {
+        if (count > BUFFER_SIZE - 4) {
+            flushBuffer();
+        }
+        if (highSurrogate != 0) {
+            final char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int codePoint = Character.toCodePoint(high, c);
+                buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            buffer[count++] = '?';
+            write(c);
+            return;
+        }
+        if (c < 0x80) {
+            buffer[count++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[count++] = (byte) (0xC0 | (c >> 6));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buffer[count++] = '?';
+        } else {
+            buffer[count++] = (byte) (0xE0 | (c >> 12));
+            buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    /**
+     * @return the number of encoded bytes not yet written to the stream
+     */
+    int getBufferedCount() {
+        return count;
+    }
+
+    /**
+     * Writes the buffered bytes to the stream
+     */
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the stream without flushing the stream, so the container still decides when to send.
+     * A pending high surrogate at the end is written as <code>?</code>.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            buffer[count++] = '?';
+        }
+        flushBuffer();
+    }
+
+    /**
+     * Flushes the buffered bytes, the stream is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -71,4 +71,48 @@ public @interface SwaggerApi {
      * @return description as string
      */
     String description() default "";
+
+    /**
+     * Invokes the method on the async executor of the config instead of the container thread, if the servlet supports async requests.
+     * Should be enabled for methods waiting on databases or downstream services.
+     *
+     * @return true for async invocation
+     */
+    boolean async() default false;
+
+    /**
+     * Caches the response of a GET operation for the given time, per combination of its PATH, QUERY and HEADER parameter values.
+     * Only responses with status 200 are cached, with their content type and body. Cache hits are served without invoking the method,
+     * so the response must not depend on anything but the parameters, e.g. the caller.
+     *
+     * @return the time to live in seconds, 0 to not cache the response
+     */
+    int cacheTtl() default 0;
+
+    /**
+     * Coalesces concurrent identical requests of a GET operation: while the method is invoked for a combination of PATH, QUERY and HEADER
+     * parameter values, requests with the same values wait for its response instead of invoking the method again. The response, or the
+     * exception thrown by the method, which is reported by the exception handler of each request, is shared by all waiting requests.
+     * The response must not depend on anything but the parameters, e.g. the caller.
+     *
+     * @return true to coalesce concurrent identical requests
+     */
+    boolean coalesce() default false;
+
+    /**
+     * Limits the requests per API key to the given rate, requests above the limit respond with status 429 and a <code>Retry-After</code>
+     * header. Requests without API key are limited per client address. Takes precedence over the limit of the model, a limit configured
+     * with {@link com.roamsys.swagger.SwaggerAPIConfig#setRateLimit(String, com.roamsys.swagger.limit.SwaggerAPIRateLimit)} takes
+     * precedence over both.
+     *
+     * @return the number of requests per second, 0 to use the limit of the model
+     */
+    double rateLimit() default 0;
+
+    /**
+     * The number of requests per API key which may be sent at once, see {@link #rateLimit()}.
+     *
+     * @return the burst, 0 for the requests of one second
+     */
+    int rateBurst() default 0;
 }
@@ -37,4 +37,25 @@ public @interface SwaggerModel {
      */
     String format() default "json";
 
+    /**
+     * Invokes all methods of the model asynchronously, see {@link SwaggerApi#async()}.
+     *
+     * @return true for async invocation
+     */
+    boolean async() default false;
+
+    /**
+     * Limits the requests per API key to each method of the model, see {@link SwaggerApi#rateLimit()}.
+     *
+     * @return the number of requests per second, 0 to not limit the requests
+     */
+    double rateLimit() default 0;
+
+    /**
+     * The number of requests per API key which may be sent at once, see {@link SwaggerApi#rateBurst()}.
+     *
+     * @return the burst, 0 for the requests of one second
+     */
+    int rateBurst() default 0;
+
 }
@@ -0,0 +1,122 @@
+package com.roamsys.swagger.auth;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the results of a slow key store, e.g. a database or a remote service. Valid and invalid keys are cached with their own time to
+ * live, so revoked keys expire after the positive TTL and unknown keys, e.g. of a client guessing keys, do not query the store on every
+ * request. The number of cached digests is bounded, above the limit expired and then arbitrary entries are dropped.
+ */
+public class SwaggerAPICachingKeyStore implements SwaggerAPIKeyStore {
+
+    private final SwaggerAPIKeyStore keyStore;
+    private final int maxEntries;
+
+    /**
+     * The time to live of valid keys in nanoseconds
+     */
+    private final long positiveTtl;
+
+    /**
+     * The time to live of invalid keys in nanoseconds
+     */
+    private final long negativeTtl;
+
+    /**
+     * The cached results by digest
+     */
+    private final Map<ByteBuffer, Result> results = new ConcurrentHashMap<>();
+
+    /**
+     * A cached result
+     */
+    private static final class Result {
+
+        /**
+         * The name of the key, <code>null</code> if invalid
+         */
+        private final String name;
+
+        /**
+         * The expiry in nanoseconds
+         */
+        private final long expires;
+
+        private Result(final String name, final long expires) {
+            this.name = name;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * Creates the cache
+     *
+     * @param keyStore the key store
+     * @param maxEntries the maximum number of cached digests
+     * @param positiveTtl the time to live of valid keys
+     * @param negativeTtl the time to live of invalid keys, <code>0</code> to not cache them
+     * @param unit the unit of the times to live
+     */
+    public SwaggerAPICachingKeyStore(final SwaggerAPIKeyStore keyStore, final int maxEntries, final long positiveTtl, final long negativeTtl, final TimeUnit unit) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The key cache must hold at least one entry");
+        }
+        this.keyStore = keyStore;
+        this.maxEntries = maxEntries;
+        this.positiveTtl = unit.toNanos(positiveTtl);
+        this.negativeTtl = unit.toNanos(negativeTtl);
+    }
+
+    @Override
+    public String lookup(final byte[] digest) throws IOException {
+        final ByteBuffer key = ByteBuffer.wrap(digest);
+        final long now = System.nanoTime();
+        final Result cached = results.get(key);
+        if (cached != null && cached.expires - now > 0) {
+            return cached.name;
+        }
+        // concurrent misses of the same key may query the store more than once
+        final String name = keyStore.lookup(digest);
+        final long ttl = name != null ? positiveTtl : negativeTtl;
+        if (ttl > 0) {
+            if (results.size() >= maxEntries) {
+                evict(now);
+            }
+            results.put(ByteBuffer.wrap(digest.clone()), new Result(name, now + ttl));
+        } else if (cached != null) {
+            results.remove(key, cached);
+        }
+        return name;
+    }
+
+    /**
+     * Removes all cached results, e.g. after keys have been revoked.
+     */
+    public void invalidateAll() {
+        results.clear();
+    }
+
+    /**
+     * @return the number of cached digests
+     */
+    public int size() {
+        return results.size();
+    }
+
+    /**
+     * Helper for dropping expired results and, if still full, a quarter of the results.
+     */
+    private void evict(final long now) {
+        results.values().removeIf(result -> result.expires - now <= 0);
+        final Iterator<ByteBuffer> keys = results.keySet().iterator();
+        for (int excess = results.size() - maxEntries * 3 / 4; excess > 0 && keys.hasNext(); excess--) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.roamsys.swagger.auth;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * API keys read from a file with lines <code>name = digest</code>, see {@link SwaggerAPIKeyTable}. The file is checked for changes at
+ * most once per interval by the requests themselves and reloaded without blocking them, they use the previous keys until the new keys
+ * are read. A file which can not be read keeps the previous keys.
+ */
+public class SwaggerAPIKeyFileStore implements SwaggerAPIKeyStore {
+
+    /**
+     * The default interval for checking the file for changes in seconds
+     */
+    public static final long DEFAULT_CHECK_INTERVAL = 10;
+
+    private final Path file;
+
+    /**
+     * The interval for checking the file for changes in nanoseconds
+     */
+    private final long checkInterval;
+
+    /**
+     * Held by the request checking the file
+     */
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile SwaggerAPIKeyTable table;
+
+    /**
+     * The modification time of the loaded file
+     */
+    private volatile FileTime lastModified;
+
+    /**
+     * The time of the next check in nanoseconds
+     */
+    private volatile long nextCheck;
+
+    /**
+     * Creates the store checking the file for changes every {@value #DEFAULT_CHECK_INTERVAL} seconds
+     *
+     * @param file the file
+     * @throws IOException if the file can not be read
+     * @throws IllegalArgumentException if the file contains an invalid line
+     */
+    public SwaggerAPIKeyFileStore(final Path file) throws IOException {
+        this(file, DEFAULT_CHECK_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates the store
+     *
+     * @param file the file
+     * @param checkInterval the interval for checking the file for changes
+     * @param unit the unit of the interval
+     * @throws IOException if the file can not be read
+     * @throws IllegalArgumentException if the file contains an invalid line
+     */
+    public SwaggerAPIKeyFileStore(final Path file, final long checkInterval, final TimeUnit unit) throws IOException {
+        this.file = file;
+        this.checkInterval = unit.toNanos(checkInterval);
+        reload();
+    }
+
+    @Override
+    public String lookup(final byte[] digest) {
+        if (System.nanoTime() - nextCheck >= 0) {
+            checkForUpdate();
+        }
+        return table.lookup(digest);
+    }
+
+    /**
+     * Reads the file, regardless of its modification time.
+     *
+     * @throws IOException if the file can not be read
+     * @throws IllegalArgumentException if the file contains an invalid line
+     */
+    public void reload() throws IOException {
+        reloadLock.lock();
+        try {
+            final FileTime modified = Files.getLastModifiedTime(file);
+            try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                table = SwaggerAPIKeyTable.read(reader);
+            }
+            lastModified = modified;
+            nextCheck = System.nanoTime() + checkInterval;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Helper for reloading the file if it has been modified. Only one request checks the file, the others use the loaded keys.
+     */
+    private void checkForUpdate() {
+        if (!reloadLock.tryLock()) {
+            return;
+        }
+        try {
+            nextCheck = System.nanoTime() + checkInterval;
+            if (!Files.getLastModifiedTime(file).equals(lastModified)) {
+                reload();
+            }
+        } catch (final IOException | IllegalArgumentException ex) {
+            System.err.println("Could not reload API keys from " + file + ", using the previous keys: " + ex.getMessage());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of loaded keys
+     */
+    public int size() {
+        return table.size();
+    }
+}
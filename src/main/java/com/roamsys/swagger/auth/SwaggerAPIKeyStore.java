@@ -0,0 +1,45 @@
+package com.roamsys.swagger.auth;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Store of valid API keys, queried by the SHA-256 digest of the key. Stores never see nor keep the keys themselves, and the lookup of a
+ * digest reveals nothing about the key, unlike comparing keys with {@link String#equals(Object)}.
+ */
+public interface SwaggerAPIKeyStore {
+
+    /**
+     * The digest algorithm of the keys
+     */
+    String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Looks up the digest of an API key.
+     *
+     * @param digest the SHA-256 digest of the UTF-8 encoded key, see {@link #digest(String)}, must not be modified
+     * @return the name of the key, e.g. the tenant, or <code>null</code> if the key is not valid
+     * @throws IOException if the store is not available
+     */
+    String lookup(byte[] digest) throws IOException;
+
+    /**
+     * Creates the digest of an API key.
+     *
+     * @param key the API key
+     * @return the SHA-256 digest of the UTF-8 encoded key or <code>null</code> if the key is <code>null</code>
+     */
+    static byte[] digest(final String key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (final NoSuchAlgorithmException ex) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+}
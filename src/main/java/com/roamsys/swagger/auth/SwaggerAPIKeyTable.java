@@ -0,0 +1,150 @@
+package com.roamsys.swagger.auth;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable table of API keys by their digest. The lookup hashes the digest, so it takes the same time for any key, and a key is only
+ * kept as digest.
+ * <p>
+ * Tables are read from lines <code>name = digest</code> with the hex encoded SHA-256 digest of the key, see {@link #toHex(byte[])}.
+ * Empty lines and lines starting with <code>#</code> are ignored.
+ */
+public class SwaggerAPIKeyTable implements SwaggerAPIKeyStore {
+
+    /**
+     * An empty table
+     */
+    public static final SwaggerAPIKeyTable EMPTY = new SwaggerAPIKeyTable(Collections.emptyMap());
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * The names by digest
+     */
+    private final Map<ByteBuffer, String> names;
+
+    /**
+     * Creates a table from digests
+     *
+     * @param digests the SHA-256 digests of the keys by name
+     * @throws IllegalArgumentException if a digest is invalid or used for several names
+     */
+    public SwaggerAPIKeyTable(final Map<String, byte[]> digests) {
+        names = new HashMap<>(digests.size() * 4 / 3 + 1);
+        for (final Map.Entry<String, byte[]> digest : digests.entrySet()) {
+            add(digest.getKey(), digest.getValue());
+        }
+    }
+
+    /**
+     * Creates a table from keys
+     *
+     * @param keys the API keys by name
+     * @return the table
+     * @throws IllegalArgumentException if a key is used for several names
+     */
+    public static SwaggerAPIKeyTable ofKeys(final Map<String, String> keys) {
+        final SwaggerAPIKeyTable table = new SwaggerAPIKeyTable(Collections.emptyMap());
+        for (final Map.Entry<String, String> key : keys.entrySet()) {
+            table.add(key.getKey(), SwaggerAPIKeyStore.digest(key.getValue()));
+        }
+        return table;
+    }
+
+    /**
+     * Reads a table from lines <code>name = digest</code>.
+     *
+     * @param reader the reader, not closed
+     * @return the table
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if a line is invalid
+     */
+    public static SwaggerAPIKeyTable read(final Reader reader) throws IOException {
+        final SwaggerAPIKeyTable table = new SwaggerAPIKeyTable(Collections.emptyMap());
+        final BufferedReader lines = new BufferedReader(reader);
+        int lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            final int separatorPos = line.indexOf('=');
+            if (separatorPos <= 0) {
+                throw new IllegalArgumentException("Invalid API key in line " + lineNumber + ", expected name = digest");
+            }
+            try {
+                table.add(line.substring(0, separatorPos).trim(), fromHex(line.substring(separatorPos + 1).trim()));
+            } catch (final IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Invalid API key in line " + lineNumber + ": " + ex.getMessage(), ex);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Helper for adding a digest while the table is created.
+     */
+    private void add(final String name, final byte[] digest) {
+        if (digest == null || digest.length != 32) {
+            throw new IllegalArgumentException("Invalid SHA-256 digest for API key " + name);
+        }
+        final String previous = names.putIfAbsent(ByteBuffer.wrap(digest.clone()), name);
+        if (previous != null) {
+            throw new IllegalArgumentException("API key " + name + " is already used for " + previous);
+        }
+    }
+
+    @Override
+    public String lookup(final byte[] digest) {
+        return names.get(ByteBuffer.wrap(digest));
+    }
+
+    /**
+     * @return the number of keys
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Encodes a digest for the lines of a table.
+     *
+     * @param digest the digest
+     * @return the lower case hex encoded digest
+     */
+    public static String toHex(final byte[] digest) {
+        final char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Helper for decoding a hex encoded digest.
+     */
+    private static byte[] fromHex(final String hex) {
+        if (hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("odd number of hex digits");
+        }
+        final byte[] digest = new byte[hex.length() / 2];
+        for (int i = 0; i < digest.length; i++) {
+            final int high = Character.digit(hex.charAt(i * 2), 16);
+            final int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("invalid hex digit");
+            }
+            digest[i] = (byte) ((high << 4) | low);
+        }
+        return digest;
+    }
+}
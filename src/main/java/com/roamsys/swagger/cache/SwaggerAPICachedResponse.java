@@ -0,0 +1,86 @@
+package com.roamsys.swagger.cache;
+
+import java.io.IOException;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * A buffered response of an API operation, cached, see {@link com.roamsys.swagger.annotations.SwaggerApi#cacheTtl()}, or replayed to
+ * coalesced requests, see {@link com.roamsys.swagger.annotations.SwaggerApi#coalesce()}.
+ * Instances are immutable and shared by all requests they are written to.
+ */
+public class SwaggerAPICachedResponse {
+
+    /**
+     * The HTTP status
+     */
+    private final int status;
+
+    /**
+     * The content type including the character encoding or <code>null</code> if none was set
+     */
+    private final String contentType;
+
+    /**
+     * The response body, never modified
+     */
+    private final byte[] body;
+
+    /**
+     * Creates a response with status 200
+     *
+     * @param contentType the content type including the character encoding, may be <code>null</code>
+     * @param body the response body, must not be modified afterwards
+     */
+    public SwaggerAPICachedResponse(final String contentType, final byte[] body) {
+        this(HttpServletResponse.SC_OK, contentType, body);
+    }
+
+    /**
+     * Creates a response
+     *
+     * @param status the HTTP status
+     * @param contentType the content type including the character encoding, may be <code>null</code>
+     * @param body the response body, must not be modified afterwards
+     */
+    public SwaggerAPICachedResponse(final int status, final String contentType, final byte[] body) {
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    /**
+     * @return the HTTP status
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the content type including the character encoding or <code>null</code> if none was set
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return the size of the body in bytes
+     */
+    public int getContentLength() {
+        return body.length;
+    }
+
+    /**
+     * Writes the response with its status, content type and body.
+     *
+     * @param response the response
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(final HttpServletResponse response) throws IOException {
+        response.setStatus(status);
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
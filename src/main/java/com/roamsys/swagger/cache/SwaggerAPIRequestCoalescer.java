@@ -0,0 +1,69 @@
+package com.roamsys.swagger.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The in-flight invocations of coalesced operations, see {@link com.roamsys.swagger.annotations.SwaggerApi#coalesce()}.
+ * The first request for a key leads the flight and invokes the method, concurrent requests for the same key wait for the buffered
+ * response of the leader. A flight is removed when it completes, so later requests invoke the method again.
+ */
+public class SwaggerAPIRequestCoalescer {
+
+    /**
+     * The in-flight invocations by key
+     */
+    private final Map<SwaggerAPIResponseCache.Key, CompletableFuture<SwaggerAPICachedResponse>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * The number of requests which waited for the invocation of another request
+     */
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Joins the in-flight invocation for a key or starts a new flight.
+     *
+     * @param key the key of the request
+     * @param flight the flight completed by the caller if it leads the flight; completed with the buffered response or exceptionally with the
+     * exception of the invocation
+     * @return the flight of another request to wait for or <code>null</code> if the caller leads the flight
+     */
+    public CompletableFuture<SwaggerAPICachedResponse> join(final SwaggerAPIResponseCache.Key key, final CompletableFuture<SwaggerAPICachedResponse> flight) {
+        final CompletableFuture<SwaggerAPICachedResponse> leading = flights.putIfAbsent(key, flight);
+        if (leading == null) {
+            flight.whenComplete((response, ex) -> flights.remove(key, flight));
+            return null;
+        }
+        coalesced.increment();
+        return leading;
+    }
+
+    /**
+     * @return the number of requests which waited for the invocation of another request
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return the number of invocations in flight
+     */
+    public int getInFlightCount() {
+        return flights.size();
+    }
+
+    /**
+     * Creates a snapshot of the statistics for the <code>/metrics</code> path.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> statistics() {
+        final Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("coalesced", getCoalescedCount());
+        statistics.put("inFlight", getInFlightCount());
+        return statistics;
+    }
+}
@@ -0,0 +1,393 @@
+package com.roamsys.swagger.cache;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of responses of API operations, see {@link com.roamsys.swagger.annotations.SwaggerApi#cacheTtl()}.
+ * <p>
+ * Entries are weighted by their size and evicted as segmented LRU: new entries are added to a probation segment and promoted to a protected
+ * segment, holding up to 80% of the capacity, when they are hit again. Entries hit only once are evicted first, so a scan over many
+ * rarely requested parameter values does not displace the frequently requested ones.
+ * <p>
+ * Lookups read a {@link ConcurrentHashMap} without locking. Hits are reordered only if the lock is free, so under contention some hits
+ * do not update the recency, which is tolerable for the eviction order but keeps the lock off the hot path.
+ */
+public class SwaggerAPIResponseCache {
+
+    /**
+     * The default capacity of 32 MB
+     */
+    public static final long DEFAULT_MAX_BYTES = 32L << 20;
+
+    /**
+     * The estimated memory used by an entry besides the body
+     */
+    private static final int ENTRY_OVERHEAD = 160;
+
+    /**
+     * The entries by key
+     */
+    private final Map<Key, Node> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Guards the segments
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Sentinel of the probation segment, the head is the most recently used entry
+     */
+    private final Node probation = new Node();
+
+    /**
+     * Sentinel of the protected segment, the head is the most recently used entry
+     */
+    private final Node protection = new Node();
+
+    /**
+     * The weight of the entries in the probation segment, guarded by the lock
+     */
+    private long probationBytes;
+
+    /**
+     * The weight of the entries in the protected segment, guarded by the lock
+     */
+    private long protectedBytes;
+
+    /**
+     * The capacity in bytes
+     */
+    private volatile long maxBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache
+     *
+     * @param maxBytes the capacity in bytes
+     */
+    public SwaggerAPIResponseCache(final long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns a cached response.
+     *
+     * @param key the key
+     * @return the response or <code>null</code> if there is no current response for the key
+     */
+    public SwaggerAPICachedResponse get(final Key key) {
+        final Node node = entries.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - node.expires >= 0) {
+            lock.lock();
+            try {
+                if (entries.remove(key, node)) {
+                    unlink(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (lock.tryLock()) {
+            try {
+                if (node.prev != null) {
+                    promote(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return node.response;
+    }
+
+    /**
+     * Adds a response, replacing the response for the same key. Responses larger than an eighth of the capacity are not cached.
+     *
+     * @param key the key
+     * @param response the response
+     * @param ttl the time to live in nanoseconds
+     */
+    public void put(final Key key, final SwaggerAPICachedResponse response, final long ttl) {
+        final long weight = (long) response.getContentLength() + key.weight();
+        if (weight > maxBytes / 8) {
+            return;
+        }
+        final Node node = new Node(key, response, System.nanoTime() + ttl, (int) weight);
+        lock.lock();
+        try {
+            final Node replaced = entries.put(key, node);
+            if (replaced != null) {
+                unlink(replaced);
+            }
+            linkFirst(probation, node);
+            probationBytes += node.weight;
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the cached responses of an operation.
+     *
+     * @param route the route of the operation, see {@link com.roamsys.swagger.data.SwaggerAPIModelData#getRoute()}
+     */
+    public void invalidate(final String route) {
+        lock.lock();
+        try {
+            for (final Node node : entries.values()) {
+                if (node.key.route.equals(route) && entries.remove(node.key, node)) {
+                    unlink(node);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all cached responses
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            for (final Node node : entries.values()) {
+                unlink(node);
+            }
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the capacity, evicting entries if necessary.
+     *
+     * @param maxBytes the capacity in bytes
+     */
+    public void setMaxBytes(final long maxBytes) {
+        lock.lock();
+        try {
+            this.maxBytes = maxBytes;
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the capacity in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return the number of requests served from the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of requests of cached operations not served from the cache
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries evicted to stay within the capacity
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of cached responses, including expired responses not yet removed
+     */
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * @return the estimated memory used by the cached responses in bytes
+     */
+    public long getWeightedSize() {
+        lock.lock();
+        try {
+            return probationBytes + protectedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Creates a snapshot of the statistics for the <code>/metrics</code> path.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> statistics() {
+        final Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("hits", getHitCount());
+        statistics.put("misses", getMissCount());
+        statistics.put("evictions", getEvictionCount());
+        statistics.put("size", getSize());
+        statistics.put("bytes", getWeightedSize());
+        return statistics;
+    }
+
+    /**
+     * Moves a hit entry to the head of the protected segment and demotes the least recently used protected entries, if necessary.
+     */
+    private void promote(final Node node) {
+        unlink(node);
+        linkFirst(protection, node);
+        protectedBytes += node.weight;
+        final long maxProtectedBytes = maxBytes / 5 * 4;
+        while (protectedBytes > maxProtectedBytes && protection.prev != node) {
+            final Node demoted = protection.prev;
+            unlink(demoted);
+            linkFirst(probation, demoted);
+            probationBytes += demoted.weight;
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache is within its capacity, probation entries first.
+     */
+    private void evict() {
+        while (probationBytes + protectedBytes > maxBytes) {
+            final Node victim = probation.prev != probation ? probation.prev : protection.prev;
+            if (victim == protection) {
+                break;
+            }
+            unlink(victim);
+            entries.remove(victim.key, victim);
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Links a node as head of a segment.
+     */
+    private void linkFirst(final Node sentinel, final Node node) {
+        node.protectedSegment = sentinel == protection;
+        node.prev = sentinel;
+        node.next = sentinel.next;
+        sentinel.next.prev = node;
+        sentinel.next = node;
+    }
+
+    /**
+     * Unlinks a node from its segment.
+     */
+    private void unlink(final Node node) {
+        if (node.prev == null) {
+            return;
+        }
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        if (node.protectedSegment) {
+            protectedBytes -= node.weight;
+        } else {
+            probationBytes -= node.weight;
+        }
+    }
+
+    /**
+     * The key of a cached response: the operation and the converted values of its parameters.
+     */
+    public static final class Key {
+
+        private final String route;
+        private final Object[] values;
+        private final int hash;
+
+        /**
+         * Creates a key
+         *
+         * @param route the route of the operation, see {@link com.roamsys.swagger.data.SwaggerAPIModelData#getRoute()}
+         * @param values the converted parameter values, must not be modified afterwards
+         */
+        public Key(final String route, final Object[] values) {
+            this.route = route;
+            this.values = values;
+            this.hash = route.hashCode() * 31 + Arrays.hashCode(values);
+        }
+
+        /**
+         * Estimates the memory used by the key.
+         */
+        private int weight() {
+            int weight = ENTRY_OVERHEAD + route.length();
+            for (final Object value : values) {
+                weight += value instanceof String ? 40 + ((String) value).length() : 24;
+            }
+            return weight;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return hash == other.hash && route.equals(other.route) && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * An entry of a segment
+     */
+    private static final class Node {
+
+        private final Key key;
+        private final SwaggerAPICachedResponse response;
+        private final long expires;
+        private final int weight;
+        private boolean protectedSegment;
+        private Node prev;
+        private Node next;
+
+        /**
+         * Creates a sentinel
+         */
+        private Node() {
+            this(null, null, 0, 0);
+            prev = this;
+            next = this;
+        }
+
+        private Node(final Key key, final SwaggerAPICachedResponse response, final long expires, final int weight) {
+            this.key = key;
+            this.response = response;
+            this.expires = expires;
+            this.weight = weight;
+        }
+    }
+}
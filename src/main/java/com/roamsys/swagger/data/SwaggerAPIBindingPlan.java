@@ -0,0 +1,272 @@
+package com.roamsys.swagger.data;
+
+import com.roamsys.swagger.annotations.SwaggerParameter.ParamType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The binding of request values to the arguments of an API method, compiled when the model is registered. Each slot describes where the
+ * value of one argument comes from: the index of the path placeholder, the name of the query parameter or header, the converter and if a
+ * value is required, so binding a request is a walk over the slots without any lookups by name.
+ * <p>
+ * Compiling the plan validates the parameters against the path of the method: every PATH parameter must name a placeholder of the path,
+ * every placeholder must be bound by exactly one PATH parameter, names must be unique per parameter type and the body can only be bound
+ * once.
+ */
+public final class SwaggerAPIBindingPlan {
+
+    /**
+     * The slots in the order of the method arguments following the context
+     */
+    private final Slot[] slots;
+
+    /**
+     * The number of placeholders in the path
+     */
+    private final int pathParameterCount;
+
+    /**
+     * Compiles the plan of an API method
+     *
+     * @param methodName the name of the method, used for error messages
+     * @param path the entire path of the API method including the model path
+     * @param parameters the parameters in the order of the method arguments following the context
+     * @throws IllegalArgumentException if the parameters do not match the path or each other
+     */
+    public SwaggerAPIBindingPlan(final String methodName, final String path, final List<SwaggerAPIParameterData> parameters) {
+        final List<ParamType> paramTypes = new ArrayList<>(parameters.size());
+        final List<String> names = new ArrayList<>(parameters.size());
+        for (final SwaggerAPIParameterData parameter : parameters) {
+            paramTypes.add(parameter.getParamType());
+            names.add(parameter.getName());
+        }
+        final int[] pathIndexes = checkParameters(methodName, path, paramTypes, names);
+        slots = new Slot[parameters.size()];
+        for (int i = 0; i < slots.length; i++) {
+            final SwaggerAPIParameterData parameter = parameters.get(i);
+            slots[i] = new Slot(parameter, pathIndexes[i], parameter.isRequired() || parameter.isPrimitive());
+        }
+        pathParameterCount = placeholders(path).size();
+    }
+
+    /**
+     * Checks the parameters of an API method against its path, without resolving converters, so the annotation processor applies the
+     * same rules at compile time.
+     *
+     * @param methodName the name of the method, used for error messages
+     * @param path the entire path of the API method including the model path
+     * @param paramTypes the types of the parameters in the order of the method arguments following the context
+     * @param names the names of the parameters in the same order
+     * @return the index of the path placeholder of each parameter, -1 for other parameter types
+     * @throws IllegalArgumentException if the parameters do not match the path or each other
+     */
+    public static int[] checkParameters(final String methodName, final String path, final List<ParamType> paramTypes, final List<String> names) {
+        final List<String> placeholders = placeholders(path);
+        final Map<String, Integer> placeholderIndexes = new HashMap<>();
+        for (int i = 0; i < placeholders.size(); i++) {
+            if (placeholderIndexes.putIfAbsent(placeholders.get(i), i) != null) {
+                throw new IllegalArgumentException("Placeholder {" + placeholders.get(i) + "} occurs more than once in path \"" + path + "\" of method " + methodName);
+            }
+        }
+
+        final Set<String> keys = new HashSet<>();
+        final boolean[] boundPlaceholders = new boolean[placeholders.size()];
+        final int[] pathIndexes = new int[paramTypes.size()];
+        ParamType bodyType = null;
+        for (int i = 0; i < pathIndexes.length; i++) {
+            final ParamType paramType = paramTypes.get(i);
+            final String name = names.get(i);
+            final String description = "Parameter " + name + " (argument " + (i + 1) + ") of method " + methodName;
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Parameter " + (i + 1) + " of method " + methodName + " has no name");
+            }
+            // HTTP header names are case-insensitive
+            final String key = paramType.name() + ':' + (paramType == ParamType.HEADER ? name.toLowerCase(Locale.ROOT) : name);
+            if (!keys.add(key)) {
+                throw new IllegalArgumentException(description + " is declared more than once as " + paramType.name() + " parameter");
+            }
+
+            pathIndexes[i] = -1;
+            switch (paramType) {
+                case PATH:
+                    final Integer index = placeholderIndexes.get(name);
+                    if (index == null) {
+                        throw new IllegalArgumentException(description + " has no placeholder {" + name + "} in path \"" + path + "\"");
+                    }
+                    pathIndexes[i] = index;
+                    boundPlaceholders[index] = true;
+                    break;
+
+                case BODY:
+                case FORM:
+                    if (bodyType != null) {
+                        throw new IllegalArgumentException(description + " can not be bound, the request body is already bound to a " + bodyType.name() + " parameter");
+                    }
+                    bodyType = paramType;
+                    break;
+
+                default:
+                    break;
+            }
+        }
+        for (int i = 0; i < placeholders.size(); i++) {
+            if (!boundPlaceholders[i]) {
+                throw new IllegalArgumentException("Placeholder {" + placeholders.get(i) + "} in path \"" + path + "\" of method " + methodName + " has no PATH parameter");
+            }
+        }
+        return pathIndexes;
+    }
+
+    /**
+     * Helper for collecting the placeholder names of a path, in the same way the {@link SwaggerAPIRouter} recognizes placeholders.
+     */
+    private static List<String> placeholders(final String path) {
+        final List<String> placeholders = new ArrayList<>();
+        for (final String segment : path.split("/")) {
+            if (segment.length() > 2 && segment.charAt(0) == '{' && segment.indexOf('}') == segment.length() - 1 && segment.indexOf('{', 1) == -1) {
+                placeholders.add(segment.substring(1, segment.length() - 1));
+            }
+        }
+        return placeholders;
+    }
+
+    /**
+     * Returns the number of slots
+     *
+     * @return the number of method arguments following the context
+     */
+    public int size() {
+        return slots.length;
+    }
+
+    /**
+     * Returns a slot
+     *
+     * @param index the index of the method argument following the context, starting at 0
+     * @return the slot
+     */
+    public Slot getSlot(final int index) {
+        return slots[index];
+    }
+
+    /**
+     * Returns the number of placeholders in the path
+     *
+     * @return the number of path parameters
+     */
+    public int getPathParameterCount() {
+        return pathParameterCount;
+    }
+
+    /**
+     * The binding of one method argument
+     */
+    public static final class Slot {
+
+        /**
+         * The parameter data
+         */
+        private final SwaggerAPIParameterData parameter;
+
+        /**
+         * The type of the parameter
+         */
+        private final ParamType paramType;
+
+        /**
+         * The interned name of the query parameter or header
+         */
+        private final String name;
+
+        /**
+         * The index of the path placeholder, -1 for other parameter types
+         */
+        private final int pathIndex;
+
+        /**
+         * Defines if a request without value is rejected
+         */
+        private final boolean valueRequired;
+
+        /**
+         * The converter for PATH, QUERY and HEADER parameters, <code>null</code> for other parameter types
+         */
+        private final SwaggerParameterConverter converter;
+
+        private Slot(final SwaggerAPIParameterData parameter, final int pathIndex, final boolean valueRequired) {
+            this.parameter = parameter;
+            this.paramType = parameter.getParamType();
+            this.name = parameter.getName().intern();
+            this.pathIndex = pathIndex;
+            this.valueRequired = valueRequired;
+            this.converter = parameter.getConverter();
+        }
+
+        /**
+         * Returns the parameter data
+         *
+         * @return the parameter data
+         */
+        public SwaggerAPIParameterData getParameter() {
+            return parameter;
+        }
+
+        /**
+         * Returns the type of the parameter
+         *
+         * @return the parameter type
+         */
+        public ParamType getParamType() {
+            return paramType;
+        }
+
+        /**
+         * Returns the name of the parameter
+         *
+         * @return the interned name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the index of the path placeholder
+         *
+         * @return the index within {@link SwaggerAPIRouteMatch#getPathParameter(int)}, -1 for other parameter types
+         */
+        public int getPathIndex() {
+            return pathIndex;
+        }
+
+        /**
+         * Returns if a request without value is rejected
+         *
+         * @return true for required parameters and primitive arguments
+         */
+        public boolean isValueRequired() {
+            return valueRequired;
+        }
+
+        /**
+         * Converts the value of a PATH, QUERY or HEADER parameter with the converter resolved at registration.
+         *
+         * @param value the value from the request, may be <code>null</code>
+         * @return the method argument or <code>null</code> for empty values
+         * @throws IllegalArgumentException if the value is invalid, or missing for a required parameter
+         */
+        public Object convert(final String value) {
+            if (value == null || value.isEmpty()) {
+                if (valueRequired) {
+                    throw new IllegalArgumentException("Missing value for parameter " + name);
+                }
+                return null;
+            }
+            return converter.convert(value);
+        }
+    }
+}
@@ -1,5 +1,12 @@
 package com.roamsys.swagger.data;
 
+import com.google.gson.Gson;
+import com.roamsys.swagger.SwaggerAPIConfig;
+import com.roamsys.swagger.SwaggerAPIJsonArrayWriter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -27,6 +34,10 @@ public class SwaggerAPIContext {
      * The Swagger API exception handler
      */
     private final SwaggerExceptionHandler exceptionHandler;
+    /**
+     * The Swagger API config or <code>null</code> if unknown
+     */
+    private final SwaggerAPIConfig config;
 
     /**
      * Create a new Swagger API request context.
@@ -36,10 +47,25 @@ public class SwaggerAPIContext {
      * @param response the response
      */
     public SwaggerAPIContext(final HttpServlet servlet, final HttpServletRequest request, final HttpServletResponse response, final SwaggerExceptionHandler exceptionHandler) {
+        this(servlet, request, response, exceptionHandler, null);
+    }
+
+    /**
+     * Create a new Swagger API request context.
+     *
+     * @param servlet the servlet
+     * @param request the request
+     * @param response the response
+     * @param exceptionHandler the exception handler
+     * @param config the config providing the Gson instance and the flush threshold of streamed responses
+     */
+    public SwaggerAPIContext(final HttpServlet servlet, final HttpServletRequest request, final HttpServletResponse response, final SwaggerExceptionHandler exceptionHandler,
+            final SwaggerAPIConfig config) {
         this.servlet = servlet;
         this.request = request;
         this.response = response;
         this.exceptionHandler = exceptionHandler;
+        this.config = config;
     }
 
     /**
@@ -78,5 +104,47 @@ public class SwaggerAPIContext {
         return exceptionHandler;
     }
 
+    /**
+     * Starts a JSON array in the response, written element by element with bounded memory. The array must be closed by the method.
+     * <pre>
+     * try (final SwaggerAPIJsonArrayWriter rows = context.openJsonArray(Row.class)) {
+     *     while (resultSet.next()) {
+     *         rows.write(toRow(resultSet));
+     *     }
+     * }
+     * </pre>
+     *
+     * @param elementType the type of the elements or <code>null</code> to serialize each element by its class
+     * @return the writer
+     * @throws IOException if an I/O error occurs
+     */
+    public SwaggerAPIJsonArrayWriter openJsonArray(final Type elementType) throws IOException {
+        return new SwaggerAPIJsonArrayWriter(config != null ? config.getGson() : new Gson(), response, elementType,
+                config != null ? config.getStreamFlushThreshold() : SwaggerAPIJsonArrayWriter.DEFAULT_FLUSH_THRESHOLD);
+    }
+
+    /**
+     * Writes the elements of an iterator as JSON array. In async mode, i.e. for async methods and methods returning a stage, the elements
+     * are pulled from the iterator whenever the client can receive more, so the method must return the stage to keep the request open
+     * until the array is written. Otherwise the elements are written before this method returns.
+     * <pre>
+     * &#64;SwaggerApi(method = HTTPMethod.GET, path = "/export", summary = "Export", notes = "")
+     * public CompletionStage&lt;Void&gt; export(final SwaggerAPIContext context) {
+     *     return context.writeJsonArray(repository.iterateRows(), Row.class);
+     * }
+     * </pre>
+     *
+     * @param elements the elements
+     * @param elementType the type of the elements or <code>null</code> to serialize each element by its class
+     * @return the stage completed once the array has been written, or exceptionally if the iterator or the response fails
+     */
+    public CompletableFuture<Void> writeJsonArray(final Iterator<?> elements, final Type elementType) {
+        try {
+            return openJsonArray(elementType).writeAll(elements, request.isAsyncStarted());
+        } catch (final IOException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
 
 }
@@ -0,0 +1,60 @@
+package com.roamsys.swagger.data;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes an API method with an array of arguments.
+ * Invokers created by {@link #create(Object, Method)} call the method through a class spun by the <code>LambdaMetafactory</code>,
+ * so the call is a plain interface call the JIT can inline instead of a reflective {@link Method#invoke(Object, Object...)}.
+ * Invokers generated at compile time by the annotation processor, see {@link SwaggerAPIInvokerProvider}, are used instead if present.
+ */
+@FunctionalInterface
+public interface SwaggerAPIInvoker {
+
+    /**
+     * The maximum number of method parameters supported by the spun invokers
+     */
+    public static final int MAX_ARITY = 8;
+
+    /**
+     * Invokes the method.
+     *
+     * @param arguments the arguments, must match the parameter types of the method
+     * @return the result of the method or <code>null</code> for void methods
+     * @throws Throwable any exception thrown by the method
+     */
+    Object invoke(final Object[] arguments) throws Throwable;
+
+    /**
+     * Creates an invoker for a method. The invoker generated for the class of the target is returned if there is one, otherwise an invoker
+     * is spun. Methods with more than {@link #MAX_ARITY} parameters, static methods and methods which are not accessible for the
+     * metafactory are invoked through a bound {@link MethodHandle} instead.
+     *
+     * @param target the instance the method is invoked on
+     * @param method the method, must be accessible
+     * @return the invoker
+     * @throws IllegalAccessException if the method is not accessible
+     */
+    public static SwaggerAPIInvoker create(final Object target, final Method method) throws IllegalAccessException {
+        final SwaggerAPIInvoker generated = SwaggerAPIInvokerFactory.generated(target, method);
+        if (generated != null) {
+            return generated;
+        }
+        final MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        final int arity = method.getParameterCount();
+        if (!Modifier.isStatic(method.getModifiers()) && arity <= MAX_ARITY) {
+            try {
+                return SwaggerAPIInvokerFactory.spin(handle, target, arity, method.getReturnType() == void.class);
+            } catch (final Throwable ex) {
+                // e.g. the model class is not visible for the spun class, fall back to method handle
+            }
+        }
+        final MethodHandle bound = Modifier.isStatic(method.getModifiers()) ? handle : handle.bindTo(target);
+        final MethodHandle spreader = bound.asSpreader(Object[].class, arity).asType(MethodType.methodType(Object.class, Object[].class));
+        return arguments -> (Object) spreader.invokeExact(arguments);
+    }
+}
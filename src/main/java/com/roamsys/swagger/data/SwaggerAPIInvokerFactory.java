@@ -0,0 +1,117 @@
+package com.roamsys.swagger.data;
+
+import com.roamsys.swagger.SwaggerAPIModel;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * Creates {@link SwaggerAPIInvoker}s backed by functional interfaces implemented by the {@link LambdaMetafactory},
+ * one interface for each number of parameters. The first argument of the interfaces is the instance the method is invoked on.
+ * Also looks up the {@link SwaggerAPIInvokerProvider}s generated at compile time, which take precedence over the spun invokers.
+ */
+final class SwaggerAPIInvokerFactory {
+
+    interface F0 { Object invoke(Object t) throws Throwable; }
+    interface F1 { Object invoke(Object t, Object a) throws Throwable; }
+    interface F2 { Object invoke(Object t, Object a, Object b) throws Throwable; }
+    interface F3 { Object invoke(Object t, Object a, Object b, Object c) throws Throwable; }
+    interface F4 { Object invoke(Object t, Object a, Object b, Object c, Object d) throws Throwable; }
+    interface F5 { Object invoke(Object t, Object a, Object b, Object c, Object d, Object e) throws Throwable; }
+    interface F6 { Object invoke(Object t, Object a, Object b, Object c, Object d, Object e, Object f) throws Throwable; }
+    interface F7 { Object invoke(Object t, Object a, Object b, Object c, Object d, Object e, Object f, Object g) throws Throwable; }
+    interface F8 { Object invoke(Object t, Object a, Object b, Object c, Object d, Object e, Object f, Object g, Object h) throws Throwable; }
+
+    interface V0 { void invoke(Object t) throws Throwable; }
+    interface V1 { void invoke(Object t, Object a) throws Throwable; }
+    interface V2 { void invoke(Object t, Object a, Object b) throws Throwable; }
+    interface V3 { void invoke(Object t, Object a, Object b, Object c) throws Throwable; }
+    interface V4 { void invoke(Object t, Object a, Object b, Object c, Object d) throws Throwable; }
+    interface V5 { void invoke(Object t, Object a, Object b, Object c, Object d, Object e) throws Throwable; }
+    interface V6 { void invoke(Object t, Object a, Object b, Object c, Object d, Object e, Object f) throws Throwable; }
+    interface V7 { void invoke(Object t, Object a, Object b, Object c, Object d, Object e, Object f, Object g) throws Throwable; }
+    interface V8 { void invoke(Object t, Object a, Object b, Object c, Object d, Object e, Object f, Object g, Object h) throws Throwable; }
+
+    private static final Class<?>[] FUNCTIONS = { F0.class, F1.class, F2.class, F3.class, F4.class, F5.class, F6.class, F7.class, F8.class };
+    private static final Class<?>[] CONSUMERS = { V0.class, V1.class, V2.class, V3.class, V4.class, V5.class, V6.class, V7.class, V8.class };
+
+    /**
+     * The generated provider of each model class, empty if the class was not compiled with the annotation processor
+     */
+    private static final ClassValue<Optional<SwaggerAPIInvokerProvider>> PROVIDERS = new ClassValue<>() {
+
+        @Override
+        protected Optional<SwaggerAPIInvokerProvider> computeValue(final Class<?> modelClass) {
+            final String providerName = SwaggerAPIInvokerProvider.providerClassName(modelClass.getName());
+            try {
+                final Class<?> providerClass = Class.forName(providerName, true, modelClass.getClassLoader());
+                if (SwaggerAPIInvokerProvider.class.isAssignableFrom(providerClass)) {
+                    return Optional.of((SwaggerAPIInvokerProvider) providerClass.getConstructor().newInstance());
+                }
+                System.err.println("Ignoring generated invokers " + providerName + ", the class does not implement " + SwaggerAPIInvokerProvider.class.getSimpleName());
+            } catch (final ClassNotFoundException ex) {
+                // not compiled with the annotation processor
+            } catch (final ReflectiveOperationException | LinkageError ex) {
+                System.err.println("Ignoring generated invokers " + providerName + ": " + ex);
+            }
+            return Optional.empty();
+        }
+    };
+
+    private SwaggerAPIInvokerFactory() {
+    }
+
+    /**
+     * Returns the generated invoker of a method.
+     *
+     * @return the invoker or <code>null</code> if the class of the target has no generated provider or the provider has no invoker for
+     * the method
+     */
+    static SwaggerAPIInvoker generated(final Object target, final Method method) {
+        if (!(target instanceof SwaggerAPIModel)) {
+            return null;
+        }
+        final Optional<SwaggerAPIInvokerProvider> provider = PROVIDERS.get(target.getClass());
+        return provider.isPresent() ? provider.get().getInvoker((SwaggerAPIModel) target, SwaggerAPIInvokerProvider.signature(method)) : null;
+    }
+
+    /**
+     * Spins an implementation of the functional interface for the arity and wraps it as invoker.
+     */
+    static SwaggerAPIInvoker spin(final MethodHandle handle, final Object t, final int arity, final boolean isVoid) throws Throwable {
+        final Class<?> functionalInterface = (isVoid ? CONSUMERS : FUNCTIONS)[arity];
+        final MethodType interfaceType = MethodType.genericMethodType(arity + 1).changeReturnType(isVoid ? void.class : Object.class);
+        final MethodType instantiatedType = handle.type().wrap().changeReturnType(isVoid ? void.class : Object.class);
+        final CallSite site = LambdaMetafactory.metafactory(MethodHandles.lookup(), "invoke", MethodType.methodType(functionalInterface), interfaceType, handle, instantiatedType);
+        final Object f = site.getTarget().invoke();
+        if (isVoid) {
+            switch (arity) {
+                case 0: { final V0 v = (V0) f; return x -> { v.invoke(t); return null; }; }
+                case 1: { final V1 v = (V1) f; return x -> { v.invoke(t, x[0]); return null; }; }
+                case 2: { final V2 v = (V2) f; return x -> { v.invoke(t, x[0], x[1]); return null; }; }
+                case 3: { final V3 v = (V3) f; return x -> { v.invoke(t, x[0], x[1], x[2]); return null; }; }
+                case 4: { final V4 v = (V4) f; return x -> { v.invoke(t, x[0], x[1], x[2], x[3]); return null; }; }
+                case 5: { final V5 v = (V5) f; return x -> { v.invoke(t, x[0], x[1], x[2], x[3], x[4]); return null; }; }
+                case 6: { final V6 v = (V6) f; return x -> { v.invoke(t, x[0], x[1], x[2], x[3], x[4], x[5]); return null; }; }
+                case 7: { final V7 v = (V7) f; return x -> { v.invoke(t, x[0], x[1], x[2], x[3], x[4], x[5], x[6]); return null; }; }
+                default: { final V8 v = (V8) f; return x -> { v.invoke(t, x[0], x[1], x[2], x[3], x[4], x[5], x[6], x[7]); return null; }; }
+            }
+        } else {
+            switch (arity) {
+                case 0: { final F0 v = (F0) f; return x -> v.invoke(t); }
+                case 1: { final F1 v = (F1) f; return x -> v.invoke(t, x[0]); }
+                case 2: { final F2 v = (F2) f; return x -> v.invoke(t, x[0], x[1]); }
+                case 3: { final F3 v = (F3) f; return x -> v.invoke(t, x[0], x[1], x[2]); }
+                case 4: { final F4 v = (F4) f; return x -> v.invoke(t, x[0], x[1], x[2], x[3]); }
+                case 5: { final F5 v = (F5) f; return x -> v.invoke(t, x[0], x[1], x[2], x[3], x[4]); }
+                case 6: { final F6 v = (F6) f; return x -> v.invoke(t, x[0], x[1], x[2], x[3], x[4], x[5]); }
+                case 7: { final F7 v = (F7) f; return x -> v.invoke(t, x[0], x[1], x[2], x[3], x[4], x[5], x[6]); }
+                default: { final F8 v = (F8) f; return x -> v.invoke(t, x[0], x[1], x[2], x[3], x[4], x[5], x[6], x[7]); }
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.roamsys.swagger.data;
+
+import com.roamsys.swagger.SwaggerAPIModel;
+import java.lang.reflect.Method;
+
+/**
+ * Provides the invokers of the API methods of a model class, generated at compile time by the annotation processor of the
+ * <code>swaggerapi-processor</code> artifact. The generated invokers call the methods directly, so neither reflection nor the
+ * <code>LambdaMetafactory</code> is needed to invoke them.
+ * <p>
+ * The provider of a model class is found by its name, the binary name of the model class followed by {@link #CLASS_SUFFIX}, with the
+ * names of nested classes separated by underscores, e.g. <code>com.example.Api_Items_SwaggerInvokers</code> for the model
+ * <code>com.example.Api.Items</code>. It must have a public constructor without parameters.
+ */
+public interface SwaggerAPIInvokerProvider {
+
+    /**
+     * The suffix of the names of the generated providers
+     */
+    public static final String CLASS_SUFFIX = "_SwaggerInvokers";
+
+    /**
+     * Returns the invoker of an API method.
+     *
+     * @param model the model instance the method is invoked on
+     * @param signature the signature of the method as created by {@link #signature(Method)}
+     * @return the invoker or <code>null</code> if no invoker was generated for the method
+     */
+    SwaggerAPIInvoker getInvoker(final SwaggerAPIModel model, final String signature);
+
+    /**
+     * Returns the binary name of the provider of a model class.
+     *
+     * @param modelClassName the binary name of the model class
+     * @return the binary name of the provider
+     */
+    public static String providerClassName(final String modelClassName) {
+        final int packageEnd = modelClassName.lastIndexOf('.') + 1;
+        return modelClassName.substring(0, packageEnd) + modelClassName.substring(packageEnd).replace('$', '_') + CLASS_SUFFIX;
+    }
+
+    /**
+     * Returns the signature of a method as used by the generated providers: the name followed by the canonical names of the erased
+     * parameter types in parentheses, separated by commas, e.g. <code>item(com.roamsys.swagger.data.SwaggerAPIContext,int)</code>.
+     *
+     * @param method the method
+     * @return the signature
+     */
+    public static String signature(final Method method) {
+        final StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            final String name = parameterTypes[i].getCanonicalName();
+            signature.append(name != null ? name : parameterTypes[i].getTypeName());
+        }
+        return signature.append(')').toString();
+    }
+}
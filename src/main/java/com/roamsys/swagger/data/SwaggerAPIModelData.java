@@ -1,9 +1,21 @@
 package com.roamsys.swagger.data;
 
 import com.roamsys.swagger.SwaggerAPIModel;
+import com.roamsys.swagger.annotations.SwaggerApi;
 import com.roamsys.swagger.annotations.SwaggerApi.HTTPMethod;
+import com.roamsys.swagger.annotations.SwaggerModel;
+import com.roamsys.swagger.annotations.SwaggerParameter.ParamType;
+import com.roamsys.swagger.documentation.ApiSpecBuilder;
+import com.roamsys.swagger.limit.SwaggerAPIRateLimit;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -22,10 +34,82 @@ public class SwaggerAPIModelData {
      * The reflection method
      */
     private final Method method;
-     /**
-     * The path pattern
+
+    /**
+     * The invoker calling the method on the model instance
+     */
+    private final SwaggerAPIInvoker invoker;
+
+    /**
+     * The parameter types of the method
+     */
+    private final Class<?>[] argumentTypes;
+
+    /**
+     * Flags for arguments of primitive types, which must not be <code>null</code>
+     */
+    private final boolean[] primitiveArguments;
+
+    /**
+     * The generic return type of the method, <code>null</code> for void methods
+     */
+    private final Type returnType;
+
+    /**
+     * The type of the serialized result: the return type or the value type of a returned {@link CompletionStage}, <code>null</code> for
+     * void methods
+     */
+    private final Type resultType;
+
+    /**
+     * Defines if the method returns a {@link CompletionStage}
+     */
+    private final boolean completionStage;
+
+    /**
+     * The result format of the model
+     */
+    private final String format;
+
+    /**
+     * The operation ID as used in the API specification
+     */
+    private final String operationId;
+
+    /**
+     * The HTTP method and the entire path, e.g. <code>GET /catalog.json/items/{id}</code>, unique unlike the operation ID
+     */
+    private final String route;
+
+    /**
+     * The time to live of cached responses in nanoseconds, 0 if responses are not cached
+     */
+    private final long cacheTtl;
+
+    /**
+     * Defines if concurrent identical requests share one invocation
      */
-    private final Pattern pathPattern;
+    private final boolean coalesced;
+
+    /**
+     * Defines if the method is invoked asynchronously
+     */
+    private final boolean async;
+
+    /**
+     * The declared rate limit per API key or <code>null</code> if the requests are not limited
+     */
+    private final SwaggerAPIRateLimit rateLimit;
+
+    /**
+     * The entire path of the API method
+     */
+    private final String path;
+
+    /**
+     * The path pattern, compiled on first use since requests are resolved by the {@link SwaggerAPIRouter}
+     */
+    private volatile Pattern pathPattern;
 
     /**
      * HTTP method type
@@ -37,6 +121,11 @@ public class SwaggerAPIModelData {
      */
     private final List<SwaggerAPIParameterData> parameters;
 
+    /**
+     * The binding of request values to the method arguments
+     */
+    private final SwaggerAPIBindingPlan bindingPlan;
+
     /**
      * The standard parameter pattern
      */
@@ -55,8 +144,214 @@ public class SwaggerAPIModelData {
         this.modelClass = modelClass;
         this.method = method;
         this.httpMethod = httpMethod;
-        this.pathPattern = Pattern.compile(path.replaceAll(PATTERN, "(\\[^/\\]+)"));
+        this.path = path;
         this.parameters = parameters;
+        this.bindingPlan = new SwaggerAPIBindingPlan(method.getName(), path, parameters);
+        this.returnType = method.getReturnType() == void.class ? null : method.getGenericReturnType();
+        this.completionStage = CompletionStage.class.isAssignableFrom(method.getReturnType());
+        this.resultType = completionStage ? stageValueType(returnType) : returnType;
+        final SwaggerModel modelAnnotation = modelClass.getClass().getAnnotation(SwaggerModel.class);
+        this.format = modelAnnotation == null ? "json" : modelAnnotation.format();
+        final SwaggerApi apiAnnotation = method.getAnnotation(SwaggerApi.class);
+        this.async = apiAnnotation != null && apiAnnotation.async() || modelAnnotation != null && modelAnnotation.async();
+        this.operationId = modelAnnotation != null && apiAnnotation != null ? ApiSpecBuilder.createOperationId(modelAnnotation, apiAnnotation)
+                : httpMethod.toString() + "-" + path;
+        this.route = httpMethod.name() + " " + path;
+        this.cacheTtl = TimeUnit.SECONDS.toNanos(apiAnnotation == null ? 0 : Math.max(apiAnnotation.cacheTtl(), 0));
+        this.coalesced = apiAnnotation != null && apiAnnotation.coalesce();
+        if (apiAnnotation != null && apiAnnotation.rateLimit() != 0) {
+            this.rateLimit = createRateLimit(apiAnnotation.rateLimit(), apiAnnotation.rateBurst());
+        } else if (modelAnnotation != null && modelAnnotation.rateLimit() != 0) {
+            this.rateLimit = createRateLimit(modelAnnotation.rateLimit(), modelAnnotation.rateBurst());
+        } else {
+            this.rateLimit = null;
+        }
+        if (cacheTtl > 0 || coalesced) {
+            if (httpMethod != HTTPMethod.GET) {
+                throw new IllegalArgumentException("Responses of method " + method.getName() + " can not be shared, only GET operations can be cached or coalesced");
+            }
+            for (final SwaggerAPIParameterData parameter : parameters) {
+                final ParamType paramType = parameter.getParamType();
+                if (paramType != ParamType.PATH && paramType != ParamType.QUERY && paramType != ParamType.HEADER) {
+                    throw new IllegalArgumentException("Responses of method " + method.getName() + " can not be shared, parameter " + parameter.getName()
+                            + " is not a PATH, QUERY or HEADER parameter");
+                }
+            }
+        }
+
+        // build the invoker once, so calls do not need reflective access checks
+        argumentTypes = method.getParameterTypes();
+        primitiveArguments = new boolean[argumentTypes.length];
+        for (int i = 0; i < argumentTypes.length; i++) {
+            primitiveArguments[i] = argumentTypes[i].isPrimitive();
+        }
+        try {
+            invoker = SwaggerAPIInvoker.create(modelClass, method);
+        } catch (final IllegalAccessException ex) {
+            throw new IllegalArgumentException("Method " + method.getName() + " of " + modelClass.getClass().getName() + " is not accessible", ex);
+        }
+    }
+
+    /**
+     * Invokes the API method on the model instance
+     *
+     * @param arguments the method arguments
+     * @return the result of the method or <code>null</code> for void methods
+     * @throws IllegalArgumentException if the arguments do not match the method parameters
+     * @throws InvocationTargetException if the method throws an exception
+     */
+    public Object invoke(final Object[] arguments) throws InvocationTargetException {
+        if (arguments.length != argumentTypes.length) {
+            throw new IllegalArgumentException("Wrong number of arguments for method " + method.getName() + ": " + arguments.length);
+        }
+        try {
+            return invoker.invoke(arguments);
+        } catch (final ClassCastException | NullPointerException ex) {
+            // the invoker casts and unboxes the arguments before calling the method, so the method was not called for illegal arguments
+            checkArguments(arguments);
+            throw new InvocationTargetException(ex);
+        } catch (final Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    /**
+     * Checks if the arguments match the method parameter types.
+     *
+     * @param arguments the method arguments
+     * @throws IllegalArgumentException if an argument does not match
+     */
+    private void checkArguments(final Object[] arguments) {
+        for (int i = 0; i < arguments.length; i++) {
+            // primitive values are unboxed and widened by the invoker
+            if (arguments[i] == null ? primitiveArguments[i] : !primitiveArguments[i] && !argumentTypes[i].isInstance(arguments[i])) {
+                throw new IllegalArgumentException("Argument " + i + " of method " + method.getName() + " does not match parameter type " + argumentTypes[i].getName());
+            }
+        }
+    }
+
+    /**
+     * Returns the return type of the method
+     *
+     * @return the generic return type or <code>null</code> for void methods
+     */
+    public Type getReturnType() {
+        return returnType;
+    }
+
+    /**
+     * Returns the type of the result written to the response
+     *
+     * @return the return type or the value type of a returned {@link CompletionStage}, <code>null</code> for void methods
+     */
+    public Type getResultType() {
+        return resultType;
+    }
+
+    /**
+     * Returns if the method returns a {@link CompletionStage}, which completes the request asynchronously
+     *
+     * @return true for methods returning a stage
+     */
+    public boolean isCompletionStage() {
+        return completionStage;
+    }
+
+    /**
+     * Helper for resolving the value type of a stage type.
+     *
+     * @return the type argument, {@link Object} for raw types and type variables, <code>null</code> for stages of {@link Void}
+     */
+    private static Type stageValueType(final Type type) {
+        if (type instanceof ParameterizedType && ((ParameterizedType) type).getActualTypeArguments().length == 1) {
+            Type value = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (value instanceof WildcardType) {
+                value = ((WildcardType) value).getUpperBounds()[0];
+            }
+            if (value == Void.class) {
+                return null;
+            }
+            if (!(value instanceof TypeVariable)) {
+                return value;
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * Helper for creating the rate limit of the annotations.
+     *
+     * @throws IllegalArgumentException if the rate or burst is negative
+     */
+    private SwaggerAPIRateLimit createRateLimit(final double permitsPerSecond, final int burst) {
+        if (!(permitsPerSecond > 0) || burst < 0) {
+            throw new IllegalArgumentException("Invalid rate limit for method " + method.getName() + ", rate and burst must be positive");
+        }
+        return burst == 0 ? SwaggerAPIRateLimit.perSecond(permitsPerSecond) : new SwaggerAPIRateLimit(permitsPerSecond, burst);
+    }
+
+    /**
+     * Returns the result format of the model, used to select the result serializer
+     *
+     * @return the format, e.g. <code>json</code>
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Returns the operation ID
+     *
+     * @return the operation ID as used in the API specification
+     */
+    public String getOperationId() {
+        return operationId;
+    }
+
+    /**
+     * Returns the route identifying the operation in the response cache, the rate limiter, the bulkheads and the metrics. Unlike the
+     * operation ID it includes the format of the model and the braces of the placeholders, so different operations never share it.
+     *
+     * @return the HTTP method and the entire path, e.g. <code>GET /catalog.json/items/{id}</code>
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Returns the time to live of cached responses
+     *
+     * @return the time to live in nanoseconds, 0 if responses are not cached
+     */
+    public long getCacheTtl() {
+        return cacheTtl;
+    }
+
+    /**
+     * Returns if concurrent identical requests share one invocation
+     *
+     * @return true if requests are coalesced
+     */
+    public boolean isCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * Returns the declared rate limit per API key
+     *
+     * @return the limit of the API method or the model, <code>null</code> if the requests are not limited
+     */
+    public SwaggerAPIRateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    /**
+     * Returns if the method is invoked asynchronously
+     *
+     * @return true if the API method or the model is annotated as async
+     */
+    public boolean isAsync() {
+        return async;
     }
 
     /**
@@ -66,7 +361,21 @@ public class SwaggerAPIModelData {
      * @return matcher
      */
     public Matcher matchPath(final String path) {
-        return this.pathPattern.matcher(path);
+        Pattern pattern = pathPattern;
+        if (pattern == null) {
+            pattern = Pattern.compile(this.path.replaceAll(PATTERN, "(\\[^/\\]+)"));
+            pathPattern = pattern;
+        }
+        return pattern.matcher(path);
+    }
+
+    /**
+     * Returns the entire path of the API method including the model path
+     *
+     * @return the path with placeholders for the path parameters
+     */
+    public String getPath() {
+        return path;
     }
 
     /**
@@ -105,4 +414,13 @@ public class SwaggerAPIModelData {
         return parameters;
     }
 
+    /**
+     * Returns the binding of request values to the method arguments, compiled at registration
+     *
+     * @return the binding plan
+     */
+    public SwaggerAPIBindingPlan getBindingPlan() {
+        return bindingPlan;
+    }
+
 }
@@ -2,6 +2,9 @@ package com.roamsys.swagger.data;
 
 import com.roamsys.swagger.annotations.SwaggerParameter.DataType;
 import com.roamsys.swagger.annotations.SwaggerParameter.ParamType;
+import jakarta.servlet.ServletInputStream;
+import java.io.BufferedReader;
+import java.lang.reflect.Type;
 
 /**
  * Data class for method parameters
@@ -24,6 +27,21 @@ public class SwaggerAPIParameterData {
      */
     private final String name;
 
+    /**
+     * The Java type of the method parameter, <code>null</code> if unknown
+     */
+    private final Type javaType;
+
+    /**
+     * Defines if requests must provide a value for the parameter
+     */
+    private final boolean required;
+
+    /**
+     * The converter for PATH, QUERY and HEADER parameters, <code>null</code> for other parameter types
+     */
+    private final SwaggerParameterConverter converter;
+
     /**
      * Creates a new data object for method parameter data
      * @param name the name of the parameter
@@ -31,9 +49,58 @@ public class SwaggerAPIParameterData {
      * @param dataType the data type of the parameter
      */
     public SwaggerAPIParameterData(final String name, final ParamType paramType, final DataType dataType) {
+        this(name, paramType, dataType, null);
+    }
+
+    /**
+     * Creates a new data object for method parameter data
+     * @param name the name of the parameter
+     * @param paramType the type of parameter
+     * @param dataType the data type of the parameter
+     * @param javaType the Java type of the method parameter
+     */
+    public SwaggerAPIParameterData(final String name, final ParamType paramType, final DataType dataType, final Type javaType) {
+        this(name, paramType, dataType, javaType, SwaggerParameterConverters.getDefaults());
+    }
+
+    /**
+     * Creates a new data object for method parameter data
+     * @param name the name of the parameter
+     * @param paramType the type of parameter
+     * @param dataType the data type of the parameter
+     * @param javaType the Java type of the method parameter
+     * @param converters the converters to resolve the converter for PATH, QUERY and HEADER parameters from
+     * @throws IllegalArgumentException if no converter is registered for data type and Java type
+     */
+    public SwaggerAPIParameterData(final String name, final ParamType paramType, final DataType dataType, final Type javaType, final SwaggerParameterConverters converters) {
+        this(name, paramType, dataType, javaType, false, converters);
+    }
+
+    /**
+     * Creates a new data object for method parameter data
+     * @param name the name of the parameter
+     * @param paramType the type of parameter
+     * @param dataType the data type of the parameter
+     * @param javaType the Java type of the method parameter
+     * @param required true if requests must provide a value for the parameter
+     * @param converters the converters to resolve the converter for PATH, QUERY and HEADER parameters from
+     * @throws IllegalArgumentException if no converter is registered for data type and Java type
+     */
+    public SwaggerAPIParameterData(final String name, final ParamType paramType, final DataType dataType, final Type javaType, final boolean required,
+            final SwaggerParameterConverters converters) {
+        if (paramType == ParamType.PATH || paramType == ParamType.QUERY || paramType == ParamType.HEADER) {
+            converter = converters.get(dataType, javaType);
+            if (converter == null) {
+                throw new IllegalArgumentException("No converter for parameter " + name + " of data type " + dataType.name() + " to " + javaType.getTypeName());
+            }
+        } else {
+            converter = null;
+        }
         this.name = name;
         this.paramType = paramType;
         this.dataType = dataType;
+        this.javaType = javaType;
+        this.required = required;
     }
 
     /**
@@ -59,4 +126,55 @@ public class SwaggerAPIParameterData {
     public String getName() {
         return name;
     }
+
+    /**
+     * Returns the Java type of the method parameter
+     * @return the generic type or <code>null</code> if unknown
+     */
+    public Type getJavaType() {
+        return javaType;
+    }
+
+    /**
+     * Returns if requests must provide a value for the parameter
+     * @return true if the parameter is declared as required
+     */
+    public boolean isRequired() {
+        return required;
+    }
+
+    /**
+     * Returns the converter for the parameter value
+     * @return the converter for PATH, QUERY and HEADER parameters, <code>null</code> for other parameter types
+     */
+    public SwaggerParameterConverter getConverter() {
+        return converter;
+    }
+
+    /**
+     * Returns if the method argument is primitive and requires a value
+     * @return true for primitive Java types
+     */
+    public boolean isPrimitive() {
+        return javaType instanceof Class && ((Class<?>) javaType).isPrimitive();
+    }
+
+    /**
+     * Returns if the request body is passed as reader to the method
+     * @return true for BODY parameters of type {@link java.io.Reader}
+     */
+    public boolean isBodyReader() {
+        return paramType == ParamType.BODY && javaType instanceof Class && ((Class<?>) javaType).isAssignableFrom(BufferedReader.class)
+                && !((Class<?>) javaType).isAssignableFrom(ServletInputStream.class);
+    }
+
+    /**
+     * Returns if the request body is deserialized from JSON for the method. BODY parameters of type {@link java.io.InputStream}
+     * or {@link java.io.Reader} get the raw body instead.
+     * @return true for BODY parameters of any other type
+     */
+    public boolean isJsonBody() {
+        return paramType == ParamType.BODY && javaType != null && !isBodyReader()
+                && !(javaType instanceof Class && ((Class<?>) javaType).isAssignableFrom(ServletInputStream.class));
+    }
 }
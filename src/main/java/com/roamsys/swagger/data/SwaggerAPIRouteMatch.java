@@ -0,0 +1,56 @@
+package com.roamsys.swagger.data;
+
+/**
+ * The result of resolving a request path against the {@link SwaggerAPIRouter}.
+ */
+public class SwaggerAPIRouteMatch {
+
+    /**
+     * The matched swagger API
+     */
+    private final SwaggerAPIModelData api;
+
+    /**
+     * The values of the path parameters in the order of their placeholders
+     */
+    private final String[] pathParameters;
+
+    /**
+     * Creates a new route match
+     *
+     * @param api the matched swagger API
+     * @param pathParameters the values of the path parameters in the order of their placeholders
+     */
+    public SwaggerAPIRouteMatch(final SwaggerAPIModelData api, final String[] pathParameters) {
+        this.api = api;
+        this.pathParameters = pathParameters;
+    }
+
+    /**
+     * Returns the matched swagger API
+     *
+     * @return the swagger API data
+     */
+    public SwaggerAPIModelData getAPI() {
+        return api;
+    }
+
+    /**
+     * Returns the number of path parameters
+     *
+     * @return the number of path parameters
+     */
+    public int getPathParameterCount() {
+        return pathParameters.length;
+    }
+
+    /**
+     * Returns the value of a path parameter
+     *
+     * @param index the index of the placeholder within the path
+     * @return the path parameter value
+     */
+    public String getPathParameter(final int index) {
+        return pathParameters[index];
+    }
+}
@@ -0,0 +1,116 @@
+package com.roamsys.swagger.data;
+
+import com.roamsys.swagger.SwaggerAPIModel;
+import com.roamsys.swagger.annotations.SwaggerApi.HTTPMethod;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of all registered swagger APIs. Registering or removing models creates a new snapshot, so requests can read the
+ * current snapshot without locking while models are changed.
+ */
+public class SwaggerAPIRouteTable {
+
+    /**
+     * Snapshot without any API
+     */
+    public static final SwaggerAPIRouteTable EMPTY = new SwaggerAPIRouteTable(Collections.emptyList());
+
+    /**
+     * All swagger APIs in the order of registration
+     */
+    private final List<SwaggerAPIModelData> apis;
+
+    /**
+     * The swagger APIs by the model path
+     */
+    private final Map<String, List<SwaggerAPIModelData>> apisByModelPath;
+
+    /**
+     * The router resolving request paths
+     */
+    private final SwaggerAPIRouter router;
+
+    /**
+     * Creates a new snapshot
+     *
+     * @param apis the swagger APIs
+     * @throws IllegalArgumentException if a path is invalid or two APIs have the same path and HTTP method
+     */
+    private SwaggerAPIRouteTable(final List<SwaggerAPIModelData> apis) {
+        this.apis = Collections.unmodifiableList(apis);
+        this.router = new SwaggerAPIRouter(apis);
+        final Map<String, List<SwaggerAPIModelData>> byModelPath = new HashMap<>();
+        for (final SwaggerAPIModelData api : apis) {
+            final String path = api.getPath();
+            final int modelPathEnd = path.indexOf('/', 1);
+            byModelPath.computeIfAbsent(modelPathEnd == -1 ? path : path.substring(0, modelPathEnd), p -> new ArrayList<>()).add(api);
+        }
+        byModelPath.replaceAll((path, list) -> Collections.unmodifiableList(list));
+        this.apisByModelPath = Collections.unmodifiableMap(byModelPath);
+    }
+
+    /**
+     * Creates a new snapshot containing the APIs of this snapshot and the given APIs.
+     *
+     * @param added the APIs to add
+     * @return the new snapshot
+     * @throws IllegalArgumentException if a path is invalid or two APIs have the same path and HTTP method
+     */
+    public SwaggerAPIRouteTable with(final Collection<SwaggerAPIModelData> added) {
+        final List<SwaggerAPIModelData> all = new ArrayList<>(apis.size() + added.size());
+        all.addAll(apis);
+        all.addAll(added);
+        return new SwaggerAPIRouteTable(all);
+    }
+
+    /**
+     * Creates a new snapshot without the APIs of a model instance.
+     *
+     * @param model the model instance
+     * @return the new snapshot
+     */
+    public SwaggerAPIRouteTable without(final SwaggerAPIModel model) {
+        final List<SwaggerAPIModelData> remaining = new ArrayList<>(apis.size());
+        for (final SwaggerAPIModelData api : apis) {
+            if (api.getAPIModelClass() != model) {
+                remaining.add(api);
+            }
+        }
+        return new SwaggerAPIRouteTable(remaining);
+    }
+
+    /**
+     * Returns all swagger APIs in the order of registration
+     *
+     * @return unmodifiable list of swagger APIs
+     */
+    public List<SwaggerAPIModelData> getAPIs() {
+        return apis;
+    }
+
+    /**
+     * Returns the swagger APIs of a model path
+     *
+     * @param modelPath the model path including the format, e.g. <code>/model.json</code>
+     * @return unmodifiable list of swagger APIs or <code>null</code> if there is no model with this path
+     */
+    public List<SwaggerAPIModelData> getAPIsFor(final String modelPath) {
+        return apisByModelPath.get(modelPath);
+    }
+
+    /**
+     * Resolves the swagger API for a request path and HTTP method
+     *
+     * @param path the entire request path
+     * @param method the HTTP method
+     * @return the route match or <code>null</code> if no API is registered for path and method
+     */
+    public SwaggerAPIRouteMatch resolve(final String path, final HTTPMethod method) {
+        return router.resolve(path, method);
+    }
+}
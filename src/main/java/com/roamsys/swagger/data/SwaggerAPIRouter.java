@@ -0,0 +1,202 @@
+package com.roamsys.swagger.data;
+
+import com.roamsys.swagger.annotations.SwaggerApi.HTTPMethod;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+
+/**
+ * Segment trie used to resolve request paths to swagger APIs.
+ * Literal path segments are stored as child nodes, <code>{placeholder}</code> segments as a single wildcard child and
+ * the swagger APIs by their HTTP method at the node of the last segment.
+ * Resolving a path needs one pass over its segments and does not use regular expressions.
+ * The router is immutable after construction and can be read by any number of threads without locking.
+ */
+public class SwaggerAPIRouter {
+
+    /**
+     * The root node, representing the part of the path before the first slash
+     */
+    private final Node root = new Node();
+
+    /**
+     * The highest number of path parameters of all registered routes
+     */
+    private final int maxPathParameters;
+
+    /**
+     * Creates a router for swagger APIs
+     *
+     * @param apis the swagger APIs
+     * @throws IllegalArgumentException if a path is invalid or two APIs have the same path and HTTP method
+     */
+    public SwaggerAPIRouter(final Collection<SwaggerAPIModelData> apis) {
+        int max = 0;
+        for (final SwaggerAPIModelData api : apis) {
+            max = Math.max(max, addRoute(api.getPath(), api));
+        }
+        maxPathParameters = max;
+    }
+
+    /**
+     * Adds a route for a swagger API
+     *
+     * @param path the entire path of the API method including the model path, e.g. <code>/model.json/items/{id}</code>
+     * @param api the swagger API
+     * @return the number of path parameters
+     */
+    private int addRoute(final String path, final SwaggerAPIModelData api) {
+        if (!path.startsWith("/")) {
+            throw new IllegalArgumentException("Path \"" + path + "\" must start with a slash");
+        }
+        Node node = root;
+        int pathParameters = 0;
+        int start = 1;
+        while (start <= path.length()) {
+            final int end = segmentEnd(path, start);
+            final String segment = path.substring(start, end);
+            if (isPlaceholder(segment)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+                pathParameters++;
+            } else if (segment.indexOf('{') != -1 || segment.indexOf('}') != -1) {
+                throw new IllegalArgumentException("Path \"" + path + "\" contains a placeholder which does not span an entire path segment");
+            } else {
+                node = node.literalChild(segment);
+            }
+            start = end + 1;
+        }
+        if (node.operations == null) {
+            node.operations = new EnumMap<>(HTTPMethod.class);
+        }
+        if (node.operations.putIfAbsent(api.getHTTPMethod(), api) != null) {
+            throw new IllegalArgumentException("Duplicate route " + api.getHTTPMethod().name() + " " + path);
+        }
+        return pathParameters;
+    }
+
+    /**
+     * Resolves the swagger API for a path and HTTP method. Literal segments take precedence over placeholders.
+     *
+     * @param path the entire request path, e.g. <code>/model.json/items/42</code>
+     * @param method the HTTP method
+     * @return the route match or <code>null</code> if no API is registered for path and method
+     */
+    public SwaggerAPIRouteMatch resolve(final String path, final HTTPMethod method) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+        // start and end positions of the path parameters
+        final int[] bounds = new int[maxPathParameters * 2];
+        return resolve(root, path, 1, method, bounds, 0);
+    }
+
+    /**
+     * Recursively matches the segment starting at the given position.
+     */
+    private SwaggerAPIRouteMatch resolve(final Node node, final String path, final int start, final HTTPMethod method, final int[] bounds, final int pathParameters) {
+        if (start > path.length()) {
+            // all segments consumed
+            final SwaggerAPIModelData api = node.operations == null ? null : node.operations.get(method);
+            if (api == null) {
+                return null;
+            }
+            final String[] values = new String[pathParameters];
+            for (int i = 0; i < pathParameters; i++) {
+                values[i] = path.substring(bounds[i * 2], bounds[i * 2 + 1]);
+            }
+            return new SwaggerAPIRouteMatch(api, values);
+        }
+
+        final int end = segmentEnd(path, start);
+        final Node literal = node.findLiteralChild(path, start, end);
+        if (literal != null) {
+            final SwaggerAPIRouteMatch match = resolve(literal, path, end + 1, method, bounds, pathParameters);
+            if (match != null) {
+                return match;
+            }
+        }
+        // placeholders never match empty segments
+        if (node.wildcard != null && end > start) {
+            bounds[pathParameters * 2] = start;
+            bounds[pathParameters * 2 + 1] = end;
+            return resolve(node.wildcard, path, end + 1, method, bounds, pathParameters + 1);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the end position (exclusive) of the segment starting at the given position.
+     */
+    private static int segmentEnd(final String path, final int start) {
+        final int end = path.indexOf('/', start);
+        return end == -1 ? path.length() : end;
+    }
+
+    /**
+     * Checks if the segment is a <code>{placeholder}</code>.
+     */
+    private static boolean isPlaceholder(final String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}'
+                && segment.indexOf('{', 1) == -1 && segment.indexOf('}') == segment.length() - 1;
+    }
+
+    /**
+     * A node of the segment trie
+     */
+    private static class Node {
+
+        /**
+         * The literal segments of the child nodes
+         */
+        private String[] literals = new String[0];
+
+        /**
+         * The child nodes for the literal segments, same order as {@link #literals}
+         */
+        private Node[] children = new Node[0];
+
+        /**
+         * The child node for placeholder segments
+         */
+        private Node wildcard;
+
+        /**
+         * The swagger APIs of routes ending at this node
+         */
+        private EnumMap<HTTPMethod, SwaggerAPIModelData> operations;
+
+        /**
+         * Returns the child node for a literal segment and creates it if necessary.
+         */
+        private Node literalChild(final String segment) {
+            for (int i = 0; i < literals.length; i++) {
+                if (literals[i].equals(segment)) {
+                    return children[i];
+                }
+            }
+            final Node child = new Node();
+            literals = Arrays.copyOf(literals, literals.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            literals[literals.length - 1] = segment;
+            children[children.length - 1] = child;
+            return child;
+        }
+
+        /**
+         * Finds the child node for the literal segment between the given positions of the path without creating a substring.
+         */
+        private Node findLiteralChild(final String path, final int start, final int end) {
+            final int length = end - start;
+            for (int i = 0; i < literals.length; i++) {
+                final String literal = literals[i];
+                if (literal.length() == length && path.regionMatches(start, literal, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.roamsys.swagger.data;
 
 import com.google.gson.GsonBuilder;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -27,14 +29,26 @@ public interface SwaggerExceptionHandler {
             response.setStatus(code);
             // write error JSON
             try {
-                final PrintWriter writer = response.getWriter();
                 response.setContentType(ContentType.JSON_UTF8);
+                final Writer writer = getWriter(response);
                 new GsonBuilder().create().toJson(Map.of("code", code, "reason", message), writer);
                 writer.flush();
             } catch (final IOException nested) {
                 nested.printStackTrace(System.err);
             }
         }
+
+        /**
+         * Helper for getting a writer for the error JSON. Results are serialized to the output stream, so the container refuses the
+         * writer if serializing a result failed, the error is written to the output stream then.
+         */
+        private Writer getWriter(final HttpServletResponse response) throws IOException {
+            try {
+                return response.getWriter();
+            } catch (final IllegalStateException ex) {
+                return new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+            }
+        }
     };
 
 
@@ -0,0 +1,18 @@
+package com.roamsys.swagger.data;
+
+/**
+ * Converts the string value of a PATH, QUERY or HEADER parameter to the type of the method argument.
+ * Converters are stateless and called concurrently.
+ */
+@FunctionalInterface
+public interface SwaggerParameterConverter {
+
+    /**
+     * Converts a parameter value
+     *
+     * @param value the value, never empty
+     * @return the method argument
+     * @throws IllegalArgumentException if the value is invalid
+     */
+    public Object convert(final String value);
+}
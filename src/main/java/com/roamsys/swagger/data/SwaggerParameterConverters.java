@@ -0,0 +1,193 @@
+package com.roamsys.swagger.data;
+
+import com.google.gson.reflect.TypeToken;
+import com.roamsys.swagger.annotations.SwaggerParameter.DataType;
+import java.lang.reflect.Type;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalQuery;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the parameter converters by data type and type of the method argument.
+ * Converters are resolved once when a model is registered, see {@link SwaggerAPIParameterData#getConverter()}.
+ * <p>
+ * Besides the legacy types {@link String}, {@link Integer}, {@link Long}, {@link Boolean} and {@link Date}, which are used for
+ * arguments of type {@link Object}, the defaults support primitive arguments, {@link LocalDate} for DATE and
+ * {@link OffsetDateTime}, {@link ZonedDateTime} and {@link Instant} for DATETIME parameters.
+ * DATE values use the format <code>yyyy-MM-dd</code>, DATETIME values the ISO format with offset, e.g.
+ * <code>2015-03-01T12:00:00+01:00</code>.
+ */
+public class SwaggerParameterConverters {
+
+    /**
+     * The registry with the default converters, used if no registry is given
+     */
+    private static final SwaggerParameterConverters DEFAULTS = new SwaggerParameterConverters();
+
+    /**
+     * The converters by data type and raw argument type
+     */
+    private final Map<DataType, Map<Class<?>, SwaggerParameterConverter>> converters = new EnumMap<>(DataType.class);
+
+    /**
+     * Creates a registry with the default converters
+     */
+    public SwaggerParameterConverters() {
+        for (final DataType dataType : DataType.values()) {
+            converters.put(dataType, new ConcurrentHashMap<>());
+        }
+
+        register(DataType.STRING, String.class, value -> value);
+        register(DataType.STRING, CharSequence.class, value -> value);
+        register(DataType.STRING, Object.class, value -> value);
+
+        final SwaggerParameterConverter integer = value -> Integer.valueOf(Integer.parseInt(value));
+        register(DataType.INTEGER, Integer.class, integer);
+        register(DataType.INTEGER, int.class, integer);
+        register(DataType.INTEGER, Number.class, integer);
+        register(DataType.INTEGER, Object.class, integer);
+        register(DataType.INTEGER, Long.class, value -> Long.valueOf(Integer.parseInt(value)));
+        register(DataType.INTEGER, long.class, value -> Long.valueOf(Integer.parseInt(value)));
+
+        final SwaggerParameterConverter longValue = value -> Long.valueOf(Long.parseLong(value));
+        register(DataType.LONG, Long.class, longValue);
+        register(DataType.LONG, long.class, longValue);
+        register(DataType.LONG, Number.class, longValue);
+        register(DataType.LONG, Object.class, longValue);
+
+        final SwaggerParameterConverter bool = Boolean::valueOf;
+        register(DataType.BOOLEAN, Boolean.class, bool);
+        register(DataType.BOOLEAN, boolean.class, bool);
+        register(DataType.BOOLEAN, Object.class, bool);
+
+        final SwaggerParameterConverter localDate = SwaggerParameterConverters::parseLocalDate;
+        final SwaggerParameterConverter date = value -> Date.from(((LocalDate) localDate.convert(value)).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        register(DataType.DATE, LocalDate.class, localDate);
+        register(DataType.DATE, Date.class, date);
+        register(DataType.DATE, Object.class, date);
+
+        final SwaggerParameterConverter offsetDateTime = SwaggerParameterConverters::parseOffsetDateTime;
+        final SwaggerParameterConverter dateTime = value -> Date.from(((OffsetDateTime) offsetDateTime.convert(value)).toInstant());
+        register(DataType.DATETIME, OffsetDateTime.class, offsetDateTime);
+        register(DataType.DATETIME, ZonedDateTime.class, value -> ((OffsetDateTime) offsetDateTime.convert(value)).toZonedDateTime());
+        register(DataType.DATETIME, Instant.class, value -> ((OffsetDateTime) offsetDateTime.convert(value)).toInstant());
+        register(DataType.DATETIME, Date.class, dateTime);
+        register(DataType.DATETIME, Object.class, dateTime);
+    }
+
+    /**
+     * Returns the registry with the default converters
+     *
+     * @return the shared registry, must not be modified
+     */
+    public static SwaggerParameterConverters getDefaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Registers a converter, replacing the converter for the same data type and argument type
+     *
+     * @param dataType the data type of the parameter
+     * @param type the type of the method argument
+     * @param converter the converter
+     */
+    public final void register(final DataType dataType, final Class<?> type, final SwaggerParameterConverter converter) {
+        converters.get(dataType).put(type, converter);
+    }
+
+    /**
+     * Returns the converter for a parameter
+     *
+     * @param dataType the data type of the parameter
+     * @param type the type of the method argument, <code>null</code> for the legacy type of the data type
+     * @return the converter or <code>null</code> if none is registered
+     */
+    public SwaggerParameterConverter get(final DataType dataType, final Type type) {
+        return converters.get(dataType).get(type == null ? Object.class : TypeToken.get(type).getRawType());
+    }
+
+    /**
+     * Parses a DATE value. The common form <code>yyyy-MM-dd</code> is parsed without the formatter, which allocates its parse state.
+     */
+    private static LocalDate parseLocalDate(final String value) {
+        if (value.length() == 10 && value.charAt(4) == '-' && value.charAt(7) == '-') {
+            final int year = digits(value, 0, 4);
+            final int month = digits(value, 5, 7);
+            final int day = digits(value, 8, 10);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                try {
+                    return LocalDate.of(year, month, day);
+                } catch (final DateTimeException ex) {
+                    throw new IllegalArgumentException("Invalid date value \"" + value + "\"", ex);
+                }
+            }
+        }
+        return parse(value, DateTimeFormatter.ISO_LOCAL_DATE, LocalDate::from);
+    }
+
+    /**
+     * Parses a DATETIME value. The common forms <code>yyyy-MM-ddTHH:mm:ssZ</code> and <code>yyyy-MM-ddTHH:mm:ss+hh:mm</code> are
+     * parsed without the formatter, all other ISO forms, e.g. with fractions of seconds, by the formatter.
+     */
+    private static OffsetDateTime parseOffsetDateTime(final String value) {
+        final int length = value.length();
+        if ((length == 20 && value.charAt(19) == 'Z' || length == 25 && (value.charAt(19) == '+' || value.charAt(19) == '-') && value.charAt(22) == ':')
+                && value.charAt(4) == '-' && value.charAt(7) == '-' && value.charAt(10) == 'T' && value.charAt(13) == ':' && value.charAt(16) == ':') {
+            final int year = digits(value, 0, 4);
+            final int month = digits(value, 5, 7);
+            final int day = digits(value, 8, 10);
+            final int hour = digits(value, 11, 13);
+            final int minute = digits(value, 14, 16);
+            final int second = digits(value, 17, 19);
+            final int offsetHours = length == 20 ? 0 : digits(value, 20, 22);
+            final int offsetMinutes = length == 20 ? 0 : digits(value, 23, 25);
+            if ((year | month | day | hour | minute | second | offsetHours | offsetMinutes) >= 0) {
+                try {
+                    final int sign = value.charAt(19) == '-' ? -1 : 1;
+                    return OffsetDateTime.of(year, month, day, hour, minute, second, 0, ZoneOffset.ofHoursMinutes(sign * offsetHours, sign * offsetMinutes));
+                } catch (final DateTimeException ex) {
+                    throw new IllegalArgumentException("Invalid date value \"" + value + "\"", ex);
+                }
+            }
+        }
+        return parse(value, DateTimeFormatter.ISO_OFFSET_DATE_TIME, OffsetDateTime::from);
+    }
+
+    /**
+     * Parses the ASCII digits between the given positions.
+     *
+     * @return the value or <code>-1</code> if a character is not a digit
+     */
+    private static int digits(final String value, final int start, final int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            final int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Helper for parsing temporal values with a formatter, mapping parse errors to {@link IllegalArgumentException}.
+     */
+    private static <T> T parse(final String value, final DateTimeFormatter formatter, final TemporalQuery<T> query) {
+        try {
+            return formatter.parse(value, query);
+        } catch (final DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid date value \"" + value + "\"", ex);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -27,10 +28,17 @@ public class ApiSpecBuilder {
     private static final List<String> DEFAULT_SCHEMES = Collections.singletonList("https");
     private static final Map<String, Map<String, String>> DEFAULT_SECURITY_DEFINITION = Collections.singletonMap("api_key", Map.of("type", "apiKey", "name", "x-api-key", "in", "header"));
     private static final List<Map<String, List<String>>> DEFAULT_SECURITY = Collections.singletonList(Collections.singletonMap("api_key", Collections.emptyList()));
-    private static final Map<String, String> DEFAULT_OBJECT_SCHEMA = Collections.singletonMap("type", "object");
+    private static final Map<String, Object> DEFAULT_OBJECT_SCHEMA = Collections.singletonMap("type", "object");
+    private static final Map<String, Object> BATCH_SCHEMA = Map.of("type", "array", "items", DEFAULT_OBJECT_SCHEMA);
+    private static final List<String> BATCH_TAGS = Collections.singletonList("batch");
 
     private final SwaggerApiSpec apiSpec;
 
+    /**
+     * The tags of the spec by their lower case name, so adding operations does not search the list of tags
+     */
+    private final Map<String, TagApiSpec> tagsByName = new HashMap<>();
+
     /**
      * Constructor.
      */
@@ -137,23 +145,103 @@ public class ApiSpecBuilder {
                 apiSpec.tags = new ArrayList<>();
             }
             // tag maybe created by former call for another call for same model
-            if (apiSpec.tags.stream().noneMatch(t -> modelName.equalsIgnoreCase(t.name))) {
+            tagsByName.computeIfAbsent(modelName.toLowerCase(Locale.ROOT), name -> {
                 final TagApiSpec tagSpec = new TagApiSpec();
                 tagSpec.name = modelName;
                 tagSpec.description = modelAnnotation.description();
                 apiSpec.tags.add(tagSpec);
+                return tagSpec;
+            });
+        }
+        return this;
+    }
+
+    /**
+     * Removes an operation added by {@link #addOperation(SwaggerModel, SwaggerApi, List)}. The path and the tag of the model are removed
+     * with their last operation.
+     *
+     * @param modelAnnotation the model annotation
+     * @param apiAnnotation the API call annotation
+     * @return <code>this</code> pointer
+     */
+    public ApiSpecBuilder removeOperation(final SwaggerModel modelAnnotation, final SwaggerApi apiAnnotation) {
+        final String modelName = cleanupPath(modelAnnotation.path());
+        final String path = String.format("%s.%s%s", modelAnnotation.path(), modelAnnotation.format(), apiAnnotation.path());
+        final Map<String, OperationApiSpec> operations = apiSpec.paths.get(path);
+        if (operations != null) {
+            operations.remove(apiAnnotation.method().toString());
+            if (operations.isEmpty()) {
+                apiSpec.paths.remove(path);
+            }
+        }
+        // remove the tag if no other operation uses it
+        if (apiSpec.tags != null && apiSpec.paths.values().stream().flatMap(o -> o.values().stream()).noneMatch(o -> o.tags.contains(modelName))) {
+            apiSpec.tags.removeIf(t -> modelName.equalsIgnoreCase(t.name));
+            tagsByName.remove(modelName.toLowerCase(Locale.ROOT));
+            if (apiSpec.tags.isEmpty()) {
+                apiSpec.tags = null;
             }
         }
         return this;
     }
 
+    /**
+     * Adds or removes the operation of the batch endpoint.
+     *
+     * @param path the path of the batch endpoint
+     * @param maxEntries the maximum number of entries of a batch, <code>0</code> to remove the operation
+     * @return <code>this</code> pointer
+     */
+    public ApiSpecBuilder setBatchOperation(final String path, final int maxEntries) {
+        if (maxEntries <= 0) {
+            apiSpec.paths.remove(path);
+            return this;
+        }
+        final OperationApiSpec operationSpec = new OperationApiSpec();
+        operationSpec.description = "Executes up to " + maxEntries + " API calls in one request. Each entry of the posted array has the properties "
+                + "*method*, *path*, *query*, *headers* and *body*, the response is an array of objects with the properties *status*, *headers* "
+                + "and *body* in the order of the entries.";
+        operationSpec.operationId = "post-batch";
+        operationSpec.tags = BATCH_TAGS;
+        operationSpec.produces = Collections.singletonList("application/json");
+        operationSpec.summary = "Execute a batch of API calls";
+        final ParameterApiSpec parameterSpec = new ParameterApiSpec();
+        parameterSpec.name = "entries";
+        parameterSpec.required = true;
+        parameterSpec.description = "The API calls";
+        parameterSpec.in = SwaggerParameter.ParamType.BODY.toString();
+        parameterSpec.schema = BATCH_SCHEMA;
+        operationSpec.parameters = Collections.singletonList(parameterSpec);
+        operationSpec.responses = new HashMap<>();
+        operationSpec.responses.put(200, createResponseSpec("the responses of the API calls"));
+        operationSpec.responses.put(400, createResponseSpec("invalid batch"));
+        operationSpec.responses.put(403, createResponseSpec("authentication failed"));
+        operationSpec.responses.put(413, createResponseSpec("too many entries"));
+        operationSpec.security = DEFAULT_SECURITY;
+        final Map<String, OperationApiSpec> operations = new HashMap<>();
+        operations.put("post", operationSpec);
+        apiSpec.paths.put(path, operations);
+        return this;
+    }
+
+    /**
+     * Creates the operation ID of an API call as used in the specification, e.g. <code>get-model-itemsid</code>.
+     *
+     * @param modelAnnotation the model annotation
+     * @param apiAnnotation the API call annotation
+     * @return the operation ID
+     */
+    public static String createOperationId(final SwaggerModel modelAnnotation, final SwaggerApi apiAnnotation) {
+        return String.format("%s-%s-%s", apiAnnotation.method().toString(), cleanupPath(modelAnnotation.path()), cleanupPath(apiAnnotation.path()));
+    }
+
     /**
      * Helper for creating operator specification block.
      */
     private OperationApiSpec createOperatorSpec(final String modelName, final SwaggerModel modelAnnotation, final SwaggerApi apiAnnotation, final List<SwaggerParameter> parameterAnnotations) {
         final OperationApiSpec operationSpec = new OperationApiSpec();
         operationSpec.description = apiAnnotation.description().isEmpty() ? apiAnnotation.notes() : String.format("\n%s\n*Notes: %s*", apiAnnotation.description(), apiAnnotation.notes());
-        operationSpec.operationId = String.format("%s-%s-%s", apiAnnotation.method().toString(), modelName, cleanupPath(apiAnnotation.path()));
+        operationSpec.operationId = createOperationId(modelAnnotation, apiAnnotation);
         operationSpec.tags = Collections.singletonList(modelName);
         operationSpec.produces = Collections.singletonList("application/" + modelAnnotation.format());
         operationSpec.summary = apiAnnotation.summary();
@@ -207,7 +295,7 @@ public class ApiSpecBuilder {
     /**
      * Helper for removing slashes and parentheses from path.
      */
-    private String cleanupPath(final String path) {
+    private static String cleanupPath(final String path) {
         return path.replaceAll("\\/|\\{|\\}", "");
     }
 
@@ -0,0 +1,196 @@
+package com.roamsys.swagger.documentation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The OpenAPI specification rendered to JSON, with pre-compressed variants and validators for conditional requests.
+ * Instances are immutable and rendered once per change of the specification.
+ */
+public class ApiSpecDocument {
+
+    /**
+     * Content encodings of the rendered variants
+     */
+    public enum Encoding {
+
+        IDENTITY(null),
+        GZIP("gzip"),
+        DEFLATE("deflate");
+
+        private final String name;
+
+        private Encoding(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return the value of the <code>Content-Encoding</code> header or <code>null</code> for the uncompressed variant
+         */
+        public String getHeaderValue() {
+            return name;
+        }
+    }
+
+    /**
+     * The variants by {@link Encoding#ordinal()}
+     */
+    private final byte[][] content;
+
+    /**
+     * The entity tags of the variants by {@link Encoding#ordinal()}
+     */
+    private final String[] entityTags;
+
+    /**
+     * Time the document was rendered in milliseconds, truncated to seconds as used in HTTP dates
+     */
+    private final long lastModified;
+
+    /**
+     * Renders the specification.
+     *
+     * @param apiSpec the specification
+     */
+    public ApiSpecDocument(final SwaggerApiSpec apiSpec) {
+        final byte[] json = toJson(apiSpec).getBytes(StandardCharsets.UTF_8);
+        content = new byte[Encoding.values().length][];
+        content[Encoding.IDENTITY.ordinal()] = json;
+        try {
+            final ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length / 4);
+            try (final OutputStream out = new GZIPOutputStream(gzip)) {
+                out.write(json);
+            }
+            content[Encoding.GZIP.ordinal()] = gzip.toByteArray();
+            final ByteArrayOutputStream deflate = new ByteArrayOutputStream(json.length / 4);
+            try (final OutputStream out = new DeflaterOutputStream(deflate)) {
+                out.write(json);
+            }
+            content[Encoding.DEFLATE.ordinal()] = deflate.toByteArray();
+        } catch (final IOException ex) {
+            throw new IllegalStateException("Could not compress API spec", ex);
+        }
+
+        // strong entity tags must differ for each content encoding
+        final String hash = hash(json);
+        entityTags = new String[Encoding.values().length];
+        for (final Encoding encoding : Encoding.values()) {
+            entityTags[encoding.ordinal()] = encoding == Encoding.IDENTITY ? "\"" + hash + "\"" : "\"" + hash + "-" + encoding.getHeaderValue() + "\"";
+        }
+        lastModified = System.currentTimeMillis() / 1000 * 1000;
+    }
+
+    /**
+     * Renders a specification to JSON without reflection, e.g. to store it as a resource at build time.
+     *
+     * @param apiSpec the specification
+     * @return the JSON
+     */
+    public static String toJson(final SwaggerApiSpec apiSpec) {
+        return ApiSpecWriter.toJson(apiSpec);
+    }
+
+    /**
+     * Returns the content of a variant.
+     *
+     * @param encoding the content encoding
+     * @return the content, must not be modified
+     */
+    public byte[] getContent(final Encoding encoding) {
+        return content[encoding.ordinal()];
+    }
+
+    /**
+     * Returns the entity tag of a variant.
+     *
+     * @param encoding the content encoding
+     * @return the quoted entity tag
+     */
+    public String getEntityTag(final Encoding encoding) {
+        return entityTags[encoding.ordinal()];
+    }
+
+    /**
+     * @return the time the document was rendered in milliseconds
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Selects the best variant for an <code>Accept-Encoding</code> header, preferring gzip.
+     *
+     * @param acceptEncoding the header value, may be <code>null</code>
+     * @return the encoding to use
+     */
+    public static Encoding selectEncoding(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return Encoding.IDENTITY;
+        }
+        Encoding selected = Encoding.IDENTITY;
+        for (final String coding : acceptEncoding.split(",")) {
+            final int parameters = coding.indexOf(';');
+            final String name = (parameters == -1 ? coding : coding.substring(0, parameters)).trim();
+            if (parameters != -1 && coding.substring(parameters + 1).replace(" ", "").matches("q=0(\\.0*)?")) {
+                continue;
+            }
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return Encoding.GZIP;
+            } else if (name.equalsIgnoreCase("deflate")) {
+                selected = Encoding.DEFLATE;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Checks if an <code>If-None-Match</code> header matches the document. The tags of all variants match, as they all represent the same
+     * document.
+     *
+     * @param ifNoneMatch the header value, may be <code>null</code>
+     * @return true if the client has a current copy
+     */
+    public boolean matches(final String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (final String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*")) {
+                return true;
+            }
+            // If-None-Match uses the weak comparison
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            for (final String entityTag : entityTags) {
+                if (entityTag.equals(trimmed)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Helper for creating the hex encoded hash of the content.
+     */
+    private static String hash(final byte[] content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            final StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.roamsys.swagger.documentation;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Writes the OpenAPI specification with a {@link JsonWriter}, without reflection on the specification classes. The output is the same
+ * as serializing the <code>@Expose</code> annotated fields with Gson: the fields of a subclass precede the inherited description,
+ * <code>null</code> values are omitted and HTML characters are escaped. Writing the fields explicitly keeps the specification
+ * available in native images, where the fields would have to be registered for reflection otherwise.
+ */
+final class ApiSpecWriter {
+
+    private ApiSpecWriter() {
+    }
+
+    /**
+     * Renders a specification to JSON.
+     *
+     * @param apiSpec the specification
+     * @return the JSON
+     */
+    static String toJson(final SwaggerApiSpec apiSpec) {
+        final StringWriter json = new StringWriter(4096);
+        try (final JsonWriter writer = new JsonWriter(json)) {
+            writer.setHtmlSafe(true);
+            writer.setSerializeNulls(false);
+            write(writer, apiSpec);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return json.toString();
+    }
+
+    /**
+     * Helper for writing the specification.
+     */
+    private static void write(final JsonWriter writer, final SwaggerApiSpec apiSpec) throws IOException {
+        writer.beginObject();
+        writer.name("swagger").value(apiSpec.swaggerVersion);
+        if (apiSpec.info != null) {
+            writer.name("info").beginObject();
+            writer.name("version").value(apiSpec.info.version);
+            writer.name("title").value(apiSpec.info.title);
+            writer.name("description").value(apiSpec.info.description);
+            writer.endObject();
+        }
+        writer.name("host").value(apiSpec.host);
+        writer.name("basePath").value(apiSpec.basePath);
+        writeValue(writer, "schemes", apiSpec.schemes);
+        writeValue(writer, "securityDefinitions", apiSpec.securityDefinitions);
+        if (apiSpec.tags != null) {
+            writer.name("tags").beginArray();
+            for (final TagApiSpec tag : apiSpec.tags) {
+                writer.beginObject();
+                writer.name("name").value(tag.name);
+                writer.name("description").value(tag.description);
+                writer.endObject();
+            }
+            writer.endArray();
+        }
+        if (apiSpec.paths != null) {
+            writer.name("paths").beginObject();
+            for (final Map.Entry<String, Map<String, OperationApiSpec>> path : apiSpec.paths.entrySet()) {
+                writer.name(path.getKey()).beginObject();
+                for (final Map.Entry<String, OperationApiSpec> operation : path.getValue().entrySet()) {
+                    writer.name(operation.getKey());
+                    write(writer, operation.getValue());
+                }
+                writer.endObject();
+            }
+            writer.endObject();
+        }
+        writer.endObject();
+    }
+
+    /**
+     * Helper for writing an operation.
+     */
+    private static void write(final JsonWriter writer, final OperationApiSpec operation) throws IOException {
+        writer.beginObject();
+        writer.name("summary").value(operation.summary);
+        writer.name("operationId").value(operation.operationId);
+        writeValue(writer, "tags", operation.tags);
+        writeValue(writer, "produces", operation.produces);
+        if (operation.parameters != null) {
+            writer.name("parameters").beginArray();
+            for (final ParameterApiSpec parameter : operation.parameters) {
+                writer.beginObject();
+                writer.name("name").value(parameter.name);
+                writer.name("in").value(parameter.in);
+                writer.name("format").value(parameter.format);
+                writer.name("required").value(parameter.required);
+                writer.name("type").value(parameter.type);
+                writeValue(writer, "schema", parameter.schema);
+                writer.name("description").value(parameter.description);
+                writer.endObject();
+            }
+            writer.endArray();
+        }
+        if (operation.responses != null) {
+            writer.name("responses").beginObject();
+            for (final Map.Entry<Integer, ResponseApiSpec> response : operation.responses.entrySet()) {
+                writer.name(String.valueOf(response.getKey())).beginObject();
+                writer.name("description").value(response.getValue().description);
+                writer.endObject();
+            }
+            writer.endObject();
+        }
+        writeValue(writer, "security", operation.security);
+        writer.name("description").value(operation.description);
+        writer.endObject();
+    }
+
+    /**
+     * Helper for writing a named value unless it is <code>null</code>.
+     */
+    private static void writeValue(final JsonWriter writer, final String name, final Object value) throws IOException {
+        if (value != null) {
+            writer.name(name);
+            writeValue(writer, value);
+        }
+    }
+
+    /**
+     * Helper for writing the maps, lists, strings, numbers and booleans of the generic parts of the specification, e.g. the schemas.
+     */
+    private static void writeValue(final JsonWriter writer, final Object value) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+        } else if (value instanceof Map) {
+            writer.beginObject();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writer.name(String.valueOf(entry.getKey()));
+                writeValue(writer, entry.getValue());
+            }
+            writer.endObject();
+        } else if (value instanceof Collection) {
+            writer.beginArray();
+            for (final Object element : (Collection<?>) value) {
+                writeValue(writer, element);
+            }
+            writer.endArray();
+        } else if (value instanceof Number) {
+            writer.value((Number) value);
+        } else if (value instanceof Boolean) {
+            writer.value(((Boolean) value).booleanValue());
+        } else {
+            writer.value(value.toString());
+        }
+    }
+}
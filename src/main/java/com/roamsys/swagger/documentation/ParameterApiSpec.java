@@ -20,5 +20,5 @@ public class ParameterApiSpec extends AbstractApiSpecPart {
     String type;
 
     @Expose
-    Map<String, String> schema;
+    Map<String, Object> schema;
 }
@@ -0,0 +1,281 @@
+package com.roamsys.swagger.limit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the concurrent invocations of a model or an operation, so a slow model can not occupy all container threads, see
+ * {@link SwaggerAPIBulkheads}. Requests above the limit wait in a short queue for at most the maximum wait time, or are rejected right
+ * away without a queue.
+ * <p>
+ * In adaptive mode the limit follows the latency of the invocations (additive increase, multiplicative decrease): it grows by one per
+ * limit invocations while all permits are in use, and shrinks by 10 percent, at most once per average latency, when an invocation fails
+ * or takes more than twice the average latency.
+ */
+public class SwaggerAPIBulkhead {
+
+    /**
+     * The number of invocations the average latency is smoothed over in adaptive mode
+     */
+    private static final double LATENCY_WINDOW = 100;
+
+    /**
+     * The factor of the average latency above which an invocation is considered congested in adaptive mode
+     */
+    private static final double LATENCY_TOLERANCE = 2;
+
+    /**
+     * The factor the limit is reduced with on congestion in adaptive mode
+     */
+    private static final double BACKOFF = 0.9;
+
+    /**
+     * The maximum number of waiting requests
+     */
+    private final int maxQueued;
+
+    /**
+     * The maximum wait time in nanoseconds
+     */
+    private final long maxWait;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Held while waiting for a permit
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    /**
+     * The current limit
+     */
+    private volatile int limit;
+
+    /**
+     * Defines if the limit adapts to the latency, read without the lock of the bulkhead by every release
+     */
+    private volatile boolean adaptive;
+
+    private int minLimit;
+    private int maxLimit;
+
+    /**
+     * The limit in adaptive mode, increased by fractions
+     */
+    private double adaptiveLimit;
+
+    /**
+     * The average latency in nanoseconds in adaptive mode
+     */
+    private double averageLatency;
+
+    /**
+     * The time of the last decrease in nanoseconds in adaptive mode
+     */
+    private long lastDecrease;
+
+    /**
+     * Creates a bulkhead rejecting requests above the limit right away
+     *
+     * @param maxConcurrent the maximum number of concurrent invocations
+     */
+    public SwaggerAPIBulkhead(final int maxConcurrent) {
+        this(maxConcurrent, 0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a bulkhead with a queue for requests above the limit
+     *
+     * @param maxConcurrent the maximum number of concurrent invocations
+     * @param maxQueued the maximum number of requests waiting for a permit
+     * @param maxWait the maximum time a request waits for a permit
+     * @param unit the unit of the wait time
+     */
+    public SwaggerAPIBulkhead(final int maxConcurrent, final int maxQueued, final long maxWait, final TimeUnit unit) {
+        if (maxConcurrent < 1 || maxQueued < 0 || maxWait < 0) {
+            throw new IllegalArgumentException("Invalid bulkhead of " + maxConcurrent + " concurrent and " + maxQueued + " queued invocations");
+        }
+        this.limit = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWait = maxQueued > 0 ? unit.toNanos(maxWait) : 0;
+    }
+
+    /**
+     * Adapts the limit to the latency of the invocations, starting with the current limit.
+     *
+     * @param minLimit the minimum limit
+     * @param maxLimit the maximum limit
+     */
+    public synchronized void setAdaptive(final int minLimit, final int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid adaptive bulkhead limits " + minLimit + " to " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.adaptiveLimit = Math.min(Math.max(limit, minLimit), maxLimit);
+        this.limit = (int) adaptiveLimit;
+        this.adaptive = true;
+    }
+
+    /**
+     * Acquires a permit for an invocation, waiting for at most the maximum wait time if the queue is not full.
+     *
+     * @return true if the permit was acquired and must be released with {@link #release(long, boolean)}, false if the request is rejected
+     */
+    public boolean acquire() {
+        if (tryAcquire()) {
+            return true;
+        }
+        if (maxWait > 0) {
+            try {
+                if (queued.incrementAndGet() <= maxQueued && awaitPermit()) {
+                    return true;
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Helper for acquiring a permit if one is available.
+     */
+    private boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Helper for waiting for a released permit until the maximum wait time.
+     */
+    private boolean awaitPermit() throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = maxWait;
+            while (!tryAcquire()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = permitReleased.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the permit of a finished invocation.
+     *
+     * @param latency the duration of the invocation in nanoseconds
+     * @param success false if the invocation failed or timed out, which reduces the limit in adaptive mode
+     */
+    public void release(final long latency, final boolean success) {
+        final int current = inFlight.getAndDecrement();
+        if (adaptive) {
+            adapt(latency, success, current);
+        }
+        if (queued.get() > 0) {
+            lock.lock();
+            try {
+                permitReleased.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Helper for adapting the limit to a finished invocation.
+     */
+    private synchronized void adapt(final long latency, final boolean success, final int current) {
+        if (averageLatency == 0) {
+            averageLatency = latency;
+        }
+        final boolean congested = !success || latency > averageLatency * LATENCY_TOLERANCE;
+        averageLatency += (latency - averageLatency) / LATENCY_WINDOW;
+        if (congested) {
+            final long now = System.nanoTime();
+            if (now - lastDecrease > averageLatency) {
+                adaptiveLimit = Math.max(adaptiveLimit * BACKOFF, minLimit);
+                lastDecrease = now;
+            }
+        } else if (current >= limit) {
+            adaptiveLimit = Math.min(adaptiveLimit + 1 / adaptiveLimit, maxLimit);
+        }
+        limit = (int) adaptiveLimit;
+    }
+
+    /**
+     * @return the current limit of concurrent invocations
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return true if the limit adapts to the latency
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @return the number of running invocations
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the number of requests waiting for a permit
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * @return the number of rejected requests
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Creates a snapshot of the statistics for the <code>/metrics</code> path.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> statistics() {
+        final Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("limit", getLimit());
+        statistics.put("inFlight", getInFlightCount());
+        statistics.put("queued", getQueuedCount());
+        statistics.put("rejected", getRejectedCount());
+        synchronized (this) {
+            if (adaptive) {
+                statistics.put("averageLatency", Math.round(averageLatency / 1000));
+            }
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,104 @@
+package com.roamsys.swagger.limit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The bulkheads of operations and models. An operation uses its own bulkhead if it has one, set for its route or its operation ID, otherwise
+ * the bulkhead of its model, which is shared by all operations of the model.
+ */
+public class SwaggerAPIBulkheads {
+
+    /**
+     * The bulkheads by route or operation ID
+     */
+    private final Map<String, SwaggerAPIBulkhead> operations = new ConcurrentHashMap<>();
+
+    /**
+     * The bulkheads by model class
+     */
+    private final Map<Class<?>, SwaggerAPIBulkhead> models = new ConcurrentHashMap<>();
+
+    /**
+     * Resolves the bulkhead of an operation. A bulkhead set for the route takes precedence over one set for the operation ID.
+     *
+     * @param route the route of the operation, see {@link com.roamsys.swagger.data.SwaggerAPIModelData#getRoute()}
+     * @param operationId the operation ID
+     * @param modelClass the class of the model
+     * @return the bulkhead or <code>null</code> if the invocations are not limited
+     */
+    public SwaggerAPIBulkhead get(final String route, final String operationId, final Class<?> modelClass) {
+        SwaggerAPIBulkhead bulkhead = null;
+        if (!operations.isEmpty()) {
+            bulkhead = operations.get(route);
+            if (bulkhead == null) {
+                bulkhead = operations.get(operationId);
+            }
+        }
+        return bulkhead != null || models.isEmpty() ? bulkhead : models.get(modelClass);
+    }
+
+    /**
+     * Sets the bulkhead of an operation. A bulkhead set for an operation ID is shared by all operations with this ID, e.g. the JSON and
+     * the XML variant of an operation.
+     *
+     * @param operation the route of the operation, e.g. <code>GET /catalog.json/items/{id}</code>, or the operation ID as used in the API
+     * specification
+     * @param bulkhead the bulkhead or <code>null</code> to use the bulkhead of the model
+     */
+    public void setOperationBulkhead(final String operation, final SwaggerAPIBulkhead bulkhead) {
+        if (bulkhead == null) {
+            operations.remove(operation);
+        } else {
+            operations.put(operation, bulkhead);
+        }
+    }
+
+    /**
+     * Sets the bulkhead shared by the operations of a model.
+     *
+     * @param modelClass the class of the model
+     * @param bulkhead the bulkhead or <code>null</code> to not limit the invocations
+     */
+    public void setModelBulkhead(final Class<?> modelClass, final SwaggerAPIBulkhead bulkhead) {
+        if (bulkhead == null) {
+            models.remove(modelClass);
+        } else {
+            models.put(modelClass, bulkhead);
+        }
+    }
+
+    /**
+     * @param operation the route or the operation ID
+     * @return the bulkhead set for the route or the operation ID or <code>null</code>
+     */
+    public SwaggerAPIBulkhead getOperationBulkhead(final String operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * @param modelClass the class of the model
+     * @return the bulkhead set for the model or <code>null</code>
+     */
+    public SwaggerAPIBulkhead getModelBulkhead(final Class<?> modelClass) {
+        return models.get(modelClass);
+    }
+
+    /**
+     * Creates a snapshot of the statistics of all bulkheads for the <code>/metrics</code> path.
+     *
+     * @return the statistics by route or operation ID and by model class name
+     */
+    public Map<String, Object> statistics() {
+        final Map<String, Object> operationStatistics = new TreeMap<>();
+        operations.forEach((operation, bulkhead) -> operationStatistics.put(operation, bulkhead.statistics()));
+        final Map<String, Object> modelStatistics = new TreeMap<>();
+        models.forEach((modelClass, bulkhead) -> modelStatistics.put(modelClass.getName(), bulkhead.statistics()));
+        final Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("operations", operationStatistics);
+        statistics.put("models", modelStatistics);
+        return statistics;
+    }
+}
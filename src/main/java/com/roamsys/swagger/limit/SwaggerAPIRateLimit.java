@@ -0,0 +1,110 @@
+package com.roamsys.swagger.limit;
+
+/**
+ * The rate limit of an operation per API key, see {@link SwaggerAPIRateLimiter}. A key may send {@link #getBurst()} requests at once and
+ * then one request per {@link #getPermitsPerSecond() 1 / permits per second}, like a token bucket of the burst size refilled at the rate.
+ */
+public final class SwaggerAPIRateLimit {
+
+    /**
+     * No limit, e.g. to exempt an operation from the default limit of the config
+     */
+    public static final SwaggerAPIRateLimit UNLIMITED = new SwaggerAPIRateLimit();
+
+    /**
+     * The maximum of the intervals, about 36 years
+     */
+    private static final long MAX_INTERVAL = Long.MAX_VALUE / 256;
+
+    private final double permitsPerSecond;
+    private final int burst;
+
+    /**
+     * The interval between two permits in nanoseconds
+     */
+    private final long interval;
+
+    /**
+     * The interval of the whole burst in nanoseconds
+     */
+    private final long tolerance;
+
+    /**
+     * Creates the limit
+     *
+     * @param permitsPerSecond the number of requests per second
+     * @param burst the number of requests which may be sent at once
+     * @throws IllegalArgumentException if the rate or burst is not positive
+     */
+    public SwaggerAPIRateLimit(final double permitsPerSecond, final int burst) {
+        if (!(permitsPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Invalid rate limit of " + permitsPerSecond + " requests per second with a burst of " + burst);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        // bounded, so times in the future do not overflow
+        this.interval = Math.min(Math.max(Math.round(1_000_000_000 / permitsPerSecond), 1), MAX_INTERVAL);
+        this.tolerance = (double) interval * burst >= MAX_INTERVAL ? MAX_INTERVAL : interval * burst;
+    }
+
+    /**
+     * Helper for creating the unlimited instance.
+     */
+    private SwaggerAPIRateLimit() {
+        this.permitsPerSecond = Double.POSITIVE_INFINITY;
+        this.burst = Integer.MAX_VALUE;
+        this.interval = 0;
+        this.tolerance = 0;
+    }
+
+    /**
+     * Creates a limit allowing a burst of the requests of one second.
+     *
+     * @param permitsPerSecond the number of requests per second
+     * @return the limit
+     * @throws IllegalArgumentException if the rate is not positive
+     */
+    public static SwaggerAPIRateLimit perSecond(final double permitsPerSecond) {
+        return new SwaggerAPIRateLimit(permitsPerSecond, (int) Math.max(Math.min(Math.ceil(permitsPerSecond), Integer.MAX_VALUE), 1));
+    }
+
+    /**
+     * @return the number of requests per second
+     */
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * @return the number of requests which may be sent at once
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * @return true for {@link #UNLIMITED}
+     */
+    public boolean isUnlimited() {
+        return interval == 0;
+    }
+
+    /**
+     * @return the interval between two permits in nanoseconds
+     */
+    long getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return the interval of the whole burst in nanoseconds
+     */
+    long getTolerance() {
+        return tolerance;
+    }
+
+    @Override
+    public String toString() {
+        return isUnlimited() ? "unlimited" : permitsPerSecond + "/s, burst " + burst;
+    }
+}
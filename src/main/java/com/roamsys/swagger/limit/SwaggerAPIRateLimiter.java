@@ -0,0 +1,239 @@
+package com.roamsys.swagger.limit;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate limits of operations per API key. Limits are declared with {@link com.roamsys.swagger.annotations.SwaggerApi#rateLimit()} or
+ * {@link com.roamsys.swagger.annotations.SwaggerModel#rateLimit()}, configured per route or operation ID, which takes precedence, or set as default
+ * for all operations without a limit.
+ * <p>
+ * Each combination of route and key has a bucket holding the time at which it is full again (the theoretical arrival time of the
+ * generic cell rate algorithm). A request moves the time by the interval of one permit with a single compare-and-set, unless that moves
+ * it further than the burst into the future. A bucket which is full again behaves like a new one, so such idle buckets are dropped when new
+ * buckets are added, at most every {@link #SWEEP_INTERVAL} seconds or when there are more than {@link #getMaxBuckets()} buckets.
+ */
+public class SwaggerAPIRateLimiter {
+
+    /**
+     * The default maximum number of buckets
+     */
+    public static final int DEFAULT_MAX_BUCKETS = 1_000_000;
+
+    /**
+     * The interval for dropping idle buckets in seconds
+     */
+    public static final long SWEEP_INTERVAL = 10;
+
+    /**
+     * The limits configured by route or operation ID
+     */
+    private final Map<String, SwaggerAPIRateLimit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * The buckets by API key by route, holding the time at which the bucket is full again
+     */
+    private final Map<String, Map<String, AtomicLong>> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * The number of buckets
+     */
+    private final AtomicInteger bucketCount = new AtomicInteger();
+
+    /**
+     * The number of rejected requests
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Set while the buckets are swept
+     */
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private volatile SwaggerAPIRateLimit defaultLimit;
+    private volatile int maxBuckets = DEFAULT_MAX_BUCKETS;
+
+    /**
+     * The time of the next sweep in nanoseconds
+     */
+    private volatile long nextSweep = System.nanoTime() + TimeUnit.SECONDS.toNanos(SWEEP_INTERVAL);
+
+    /**
+     * Resolves the limit of an operation. A limit configured for the route takes precedence over one configured for the operation ID.
+     *
+     * @param route the route of the operation, see {@link com.roamsys.swagger.data.SwaggerAPIModelData#getRoute()}
+     * @param operationId the operation ID
+     * @param declaredLimit the limit declared by the annotations or <code>null</code>
+     * @return the limit or <code>null</code> if the operation is not limited
+     */
+    public SwaggerAPIRateLimit getLimit(final String route, final String operationId, final SwaggerAPIRateLimit declaredLimit) {
+        SwaggerAPIRateLimit limit = null;
+        if (!limits.isEmpty()) {
+            limit = limits.get(route);
+            if (limit == null) {
+                limit = limits.get(operationId);
+            }
+        }
+        if (limit == null) {
+            limit = declaredLimit != null ? declaredLimit : defaultLimit;
+        }
+        return limit == null || limit.isUnlimited() ? null : limit;
+    }
+
+    /**
+     * Acquires a permit for a request.
+     *
+     * @param route the route of the operation
+     * @param limit the limit of the operation, see {@link #getLimit(String, String, SwaggerAPIRateLimit)}
+     * @param key the API key or another identification of the caller
+     * @return 0 if the request is permitted, otherwise the time in nanoseconds until the next request is permitted
+     */
+    public long acquire(final String route, final SwaggerAPIRateLimit limit, final String key) {
+        return acquire(route, limit, key, System.nanoTime());
+    }
+
+    /**
+     * Acquires a permit for a request at a given time.
+     */
+    long acquire(final String route, final SwaggerAPIRateLimit limit, final String key, final long now) {
+        final Map<String, AtomicLong> operationBuckets = buckets.computeIfAbsent(route, r -> new ConcurrentHashMap<>());
+        AtomicLong bucket = operationBuckets.get(key);
+        if (bucket == null) {
+            if (bucketCount.get() >= maxBuckets || now - nextSweep >= 0) {
+                sweep(now);
+            }
+            bucket = operationBuckets.computeIfAbsent(key, k -> {
+                bucketCount.incrementAndGet();
+                return new AtomicLong(now);
+            });
+        }
+        while (true) {
+            final long full = bucket.get();
+            final long next = (full - now > 0 ? full : now) + limit.getInterval();
+            final long excess = next - now - limit.getTolerance();
+            if (excess > 0) {
+                rejected.increment();
+                return excess;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Helper for dropping idle buckets and, if still above the limit, a quarter of the buckets. A request using a bucket while it is
+     * dropped is not counted, which only loosens the limit for that request.
+     */
+    private void sweep(final long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            nextSweep = now + TimeUnit.SECONDS.toNanos(SWEEP_INTERVAL);
+            for (final Map<String, AtomicLong> operationBuckets : buckets.values()) {
+                for (final Iterator<AtomicLong> it = operationBuckets.values().iterator(); it.hasNext();) {
+                    if (it.next().get() - now <= 0) {
+                        it.remove();
+                        bucketCount.decrementAndGet();
+                    }
+                }
+            }
+            final int target = maxBuckets * 3 / 4;
+            for (final Iterator<Map<String, AtomicLong>> operations = buckets.values().iterator(); operations.hasNext() && bucketCount.get() > target;) {
+                for (final Iterator<AtomicLong> it = operations.next().values().iterator(); it.hasNext() && bucketCount.get() > target;) {
+                    it.next();
+                    it.remove();
+                    bucketCount.decrementAndGet();
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * Configures the limit of an operation, which takes precedence over the declared limit. An operation ID configures all operations
+     * sharing it, e.g. the JSON and the XML variant of an operation, each operation still counts its requests separately.
+     *
+     * @param operation the route of the operation, e.g. <code>GET /catalog.json/items/{id}</code>, or the operation ID as used in the API
+     * specification
+     * @param limit the limit, {@link SwaggerAPIRateLimit#UNLIMITED} to not limit the operation or <code>null</code> to use the declared limit
+     */
+    public void setLimit(final String operation, final SwaggerAPIRateLimit limit) {
+        if (limit == null) {
+            limits.remove(operation);
+        } else {
+            limits.put(operation, limit);
+        }
+    }
+
+    /**
+     * Sets the limit of operations which neither declare nor configure a limit.
+     *
+     * @param defaultLimit the limit or <code>null</code> to not limit them
+     */
+    public void setDefaultLimit(final SwaggerAPIRateLimit defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    /**
+     * @return the limit of operations which neither declare nor configure a limit or <code>null</code>
+     */
+    public SwaggerAPIRateLimit getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    /**
+     * Sets the number of buckets above which buckets are dropped regardless of the sweep interval. If the buckets are not idle, the keys
+     * of the dropped buckets get a full bucket.
+     *
+     * @param maxBuckets the maximum number of buckets
+     */
+    public void setMaxBuckets(final int maxBuckets) {
+        if (maxBuckets < 1) {
+            throw new IllegalArgumentException("The rate limiter must hold at least one bucket");
+        }
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * @return the number of buckets above which buckets are dropped regardless of the sweep interval
+     */
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    /**
+     * @return the number of buckets
+     */
+    public int getBucketCount() {
+        return bucketCount.get();
+    }
+
+    /**
+     * @return the number of rejected requests
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Creates a snapshot of the statistics for the <code>/metrics</code> path.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> statistics() {
+        final Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("buckets", getBucketCount());
+        statistics.put("rejected", getRejectedCount());
+        return statistics;
+    }
+}
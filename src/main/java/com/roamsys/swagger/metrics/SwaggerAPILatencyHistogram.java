@@ -0,0 +1,135 @@
+package com.roamsys.swagger.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with log-linear buckets: each power of two is split into
+ * {@value #SUB_BUCKETS} buckets of equal width, so recorded values are reproduced with a relative error below 12.5%.
+ * Recording is two atomic additions without allocation and can be done by any number of threads concurrently.
+ * Values above {@link #MAX_VALUE} are counted in the highest bucket.
+ */
+public class SwaggerAPILatencyHistogram {
+
+    /**
+     * The number of buckets per power of two
+     */
+    private static final int SUB_BUCKETS = 8;
+
+    /**
+     * Number of bits of {@link #SUB_BUCKETS}
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * The highest exact value, about 18 minutes
+     */
+    public static final long MAX_VALUE = (1L << 40) - 1;
+
+    /**
+     * The number of recorded values by bucket
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(bucketIndex(MAX_VALUE) + 1);
+
+    /**
+     * The sum of recorded values
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * The highest recorded value
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds, negative values are recorded as 0
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketIndex(Math.min(value, MAX_VALUE)));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        long n = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            n += counts.get(i);
+        }
+        return n;
+    }
+
+    /**
+     * @return the mean of the recorded values in nanoseconds or 0 if no value has been recorded
+     */
+    public double getMean() {
+        final long n = getCount();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * @return the highest recorded value in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value at a percentile. Values are read while other threads may record, so the result is approximate under load.
+     *
+     * @param percentile the percentile between 0 and 100
+     * @return the highest value of the bucket containing the percentile in nanoseconds, at most the highest recorded value,
+     * or 0 if no value has been recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        final long[] snapshot = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns the bucket of a value. Values below {@link #SUB_BUCKETS} have a bucket each, higher values use the top bits after the
+     * highest one bit.
+     */
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the highest value of a bucket.
+     */
+    static long bucketUpperBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
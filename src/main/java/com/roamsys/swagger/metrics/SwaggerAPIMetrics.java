@@ -0,0 +1,154 @@
+package com.roamsys.swagger.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The metrics of all API operations by route, see {@link com.roamsys.swagger.SwaggerAPIConfig#setMetricsEnabled(boolean)}.
+ * The metrics of each operation are registered as {@link SwaggerAPIOperationMetricsMXBean} with the platform MBean server.
+ */
+public class SwaggerAPIMetrics {
+
+    /**
+     * The JMX domain of the MBeans
+     */
+    public static final String JMX_DOMAIN = "com.roamsys.swagger";
+
+    /**
+     * The metrics by route
+     */
+    private final Map<String, SwaggerAPIOperationMetrics> operations = new ConcurrentHashMap<>();
+
+    /**
+     * The number of requests not matching any operation
+     */
+    private final LongAdder unmatched = new LongAdder();
+
+    /**
+     * The context distinguishing the MBeans of several web applications or <code>null</code> if the MBeans are not registered
+     */
+    private final String jmxContext;
+
+    /**
+     * Creates the metrics
+     *
+     * @param jmxContext the context distinguishing the MBeans of several web applications, e.g. the context path,
+     * or <code>null</code> to not register MBeans
+     */
+    public SwaggerAPIMetrics(final String jmxContext) {
+        this.jmxContext = jmxContext;
+    }
+
+    /**
+     * Returns the metrics of an operation and creates them if necessary.
+     *
+     * @param route the route of the operation, see {@link com.roamsys.swagger.data.SwaggerAPIModelData#getRoute()}
+     * @param operationId the operation ID
+     * @return the metrics
+     */
+    public SwaggerAPIOperationMetrics getOperation(final String route, final String operationId) {
+        final SwaggerAPIOperationMetrics metrics = operations.get(route);
+        return metrics != null ? metrics : operations.computeIfAbsent(route, r -> createOperation(r, operationId));
+    }
+
+    /**
+     * Removes the metrics of an operation, e.g. when its model is unregistered.
+     *
+     * @param route the route of the operation
+     */
+    public void removeOperation(final String route) {
+        if (operations.remove(route) != null) {
+            unregisterMBean(route);
+        }
+    }
+
+    /**
+     * Records a request not matching any operation
+     */
+    public void recordUnmatched() {
+        unmatched.increment();
+    }
+
+    /**
+     * @return the number of requests not matching any operation
+     */
+    public long getUnmatchedCount() {
+        return unmatched.sum();
+    }
+
+    /**
+     * Creates a snapshot of all metrics for the <code>/metrics</code> path.
+     *
+     * @return the number of unmatched requests and the metrics by route
+     */
+    public Map<String, Object> snapshot() {
+        final Map<String, Object> byOperation = new TreeMap<>();
+        for (final SwaggerAPIOperationMetrics metrics : operations.values()) {
+            byOperation.put(metrics.getRoute(), metrics.snapshot());
+        }
+        final Map<String, Object> snapshot = new TreeMap<>();
+        snapshot.put("unmatched", getUnmatchedCount());
+        snapshot.put("operations", byOperation);
+        return snapshot;
+    }
+
+    /**
+     * Unregisters the MBeans of all operations
+     */
+    public void close() {
+        for (final String route : operations.keySet()) {
+            unregisterMBean(route);
+        }
+    }
+
+    /**
+     * Helper for creating the metrics of an operation and registering their MBean.
+     */
+    private SwaggerAPIOperationMetrics createOperation(final String route, final String operationId) {
+        final SwaggerAPIOperationMetrics metrics = new SwaggerAPIOperationMetrics(route, operationId);
+        if (jmxContext != null) {
+            try {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                final ObjectName name = objectName(route);
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(metrics, name);
+                }
+            } catch (final JMException ex) {
+                System.err.println("Could not register metrics MBean of operation " + route);
+                ex.printStackTrace(System.err);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Helper for unregistering the MBean of an operation.
+     */
+    private void unregisterMBean(final String route) {
+        if (jmxContext != null) {
+            try {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                final ObjectName name = objectName(route);
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (final JMException ex) {
+                System.err.println("Could not unregister metrics MBean of operation " + route);
+                ex.printStackTrace(System.err);
+            }
+        }
+    }
+
+    /**
+     * Helper for creating the name of the MBean of an operation.
+     */
+    private ObjectName objectName(final String route) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=Operation,context=" + ObjectName.quote(jmxContext) + ",name=" + ObjectName.quote(route));
+    }
+}
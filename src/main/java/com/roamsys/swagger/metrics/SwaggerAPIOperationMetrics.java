@@ -0,0 +1,227 @@
+package com.roamsys.swagger.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters and latency histograms of a single API operation.
+ */
+public class SwaggerAPIOperationMetrics implements SwaggerAPIOperationMetricsMXBean {
+
+    /**
+     * The phases of a request measured separately
+     */
+    public enum Phase {
+
+        /**
+         * Resolving the operation from path and HTTP method
+         */
+        ROUTING,
+
+        /**
+         * Converting and deserializing the parameters
+         */
+        BINDING,
+
+        /**
+         * Invoking the method, including the completion of a returned stage
+         */
+        INVOCATION,
+
+        /**
+         * Writing the return value
+         */
+        SERIALIZATION
+    }
+
+    /**
+     * The route of the operation, e.g. <code>GET /catalog.json/items/{id}</code>
+     */
+    private final String route;
+
+    /**
+     * The operation ID as used in the API specification
+     */
+    private final String operationId;
+
+    /**
+     * The number of completed requests
+     */
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * The number of requests completed with an error status
+     */
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * The latency of entire requests
+     */
+    private final SwaggerAPILatencyHistogram total = new SwaggerAPILatencyHistogram();
+
+    /**
+     * The latency by phase
+     */
+    private final SwaggerAPILatencyHistogram[] phases = new SwaggerAPILatencyHistogram[Phase.values().length];
+
+    /**
+     * Creates the metrics of an operation
+     *
+     * @param route the route of the operation
+     * @param operationId the operation ID
+     */
+    public SwaggerAPIOperationMetrics(final String route, final String operationId) {
+        this.route = route;
+        this.operationId = operationId;
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new SwaggerAPILatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the duration of a phase.
+     *
+     * @param phase the phase
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(final Phase phase, final long nanos) {
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records the duration of a phase ending now, so the end can be used as start of the next phase without reading the clock again.
+     *
+     * @param phase the phase
+     * @param start the start of the phase as returned by {@link System#nanoTime()}
+     * @return the end of the phase
+     */
+    public long recordSince(final Phase phase, final long start) {
+        final long now = System.nanoTime();
+        phases[phase.ordinal()].record(now - start);
+        return now;
+    }
+
+    /**
+     * Records a completed request.
+     *
+     * @param nanos the duration of the entire request in nanoseconds
+     * @param status the HTTP status of the response, 400 and above are counted as errors
+     */
+    public void recordRequest(final long nanos, final int status) {
+        requests.increment();
+        if (status >= 400) {
+            errors.increment();
+        }
+        total.record(nanos);
+    }
+
+    /**
+     * Returns the latency histogram of a phase
+     *
+     * @param phase the phase
+     * @return the histogram
+     */
+    public SwaggerAPILatencyHistogram getHistogram(final Phase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /**
+     * @return the latency histogram of entire requests
+     */
+    public SwaggerAPILatencyHistogram getTotalHistogram() {
+        return total;
+    }
+
+    @Override
+    public String getRoute() {
+        return route;
+    }
+
+    @Override
+    public String getOperationId() {
+        return operationId;
+    }
+
+    @Override
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return total.getMean() / 1000;
+    }
+
+    @Override
+    public double getMedianMicros() {
+        return total.getValueAtPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double get99thPercentileMicros() {
+        return total.getValueAtPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return total.getMax() / 1000.0;
+    }
+
+    @Override
+    public Map<String, Double> getPhaseMeanMicros() {
+        final Map<String, Double> means = new LinkedHashMap<>();
+        for (final Phase phase : Phase.values()) {
+            means.put(phase.name().toLowerCase(Locale.ROOT), getHistogram(phase).getMean() / 1000);
+        }
+        return means;
+    }
+
+    @Override
+    public Map<String, Double> getPhase99thPercentileMicros() {
+        final Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (final Phase phase : Phase.values()) {
+            percentiles.put(phase.name().toLowerCase(Locale.ROOT), getHistogram(phase).getValueAtPercentile(99) / 1000.0);
+        }
+        return percentiles;
+    }
+
+    /**
+     * Creates a snapshot of the metrics for the <code>/metrics</code> path.
+     *
+     * @return the operation ID, the counters and the latency statistics of the requests and each phase in microseconds
+     */
+    public Map<String, Object> snapshot() {
+        final Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("operationId", operationId);
+        snapshot.put("requests", getRequestCount());
+        snapshot.put("errors", getErrorCount());
+        snapshot.put("latency", statistics(total));
+        final Map<String, Object> phaseStatistics = new LinkedHashMap<>();
+        for (final Phase phase : Phase.values()) {
+            phaseStatistics.put(phase.name().toLowerCase(Locale.ROOT), statistics(getHistogram(phase)));
+        }
+        snapshot.put("phases", phaseStatistics);
+        return snapshot;
+    }
+
+    /**
+     * Helper for creating the statistics of a histogram in microseconds.
+     */
+    private static Map<String, Object> statistics(final SwaggerAPILatencyHistogram histogram) {
+        final Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("count", histogram.getCount());
+        statistics.put("mean", histogram.getMean() / 1000);
+        statistics.put("p50", histogram.getValueAtPercentile(50) / 1000.0);
+        statistics.put("p90", histogram.getValueAtPercentile(90) / 1000.0);
+        statistics.put("p99", histogram.getValueAtPercentile(99) / 1000.0);
+        statistics.put("max", histogram.getMax() / 1000.0);
+        return statistics;
+    }
+}
@@ -0,0 +1,62 @@
+package com.roamsys.swagger.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the metrics of an API operation, registered as
+ * <code>com.roamsys.swagger:type=Operation,context=&lt;context path&gt;,name=&lt;route&gt;</code>, e.g. the name
+ * <code>"GET /catalog.json/items/{id}"</code>.
+ * Latencies are in microseconds.
+ */
+public interface SwaggerAPIOperationMetricsMXBean {
+
+    /**
+     * @return the HTTP method and the entire path of the operation
+     */
+    String getRoute();
+
+    /**
+     * @return the operation ID as used in the API specification, which operations of different routes may share
+     */
+    String getOperationId();
+
+    /**
+     * @return the number of completed requests
+     */
+    long getRequestCount();
+
+    /**
+     * @return the number of requests completed with status 400 or above
+     */
+    long getErrorCount();
+
+    /**
+     * @return the mean latency of the requests
+     */
+    double getMeanMicros();
+
+    /**
+     * @return the median latency of the requests
+     */
+    double getMedianMicros();
+
+    /**
+     * @return the 99th percentile of the latency of the requests
+     */
+    double get99thPercentileMicros();
+
+    /**
+     * @return the highest latency of the requests
+     */
+    double getMaxMicros();
+
+    /**
+     * @return the mean latency by phase
+     */
+    Map<String, Double> getPhaseMeanMicros();
+
+    /**
+     * @return the 99th percentile of the latency by phase
+     */
+    Map<String, Double> getPhase99thPercentileMicros();
+}
@@ -0,0 +1,157 @@
+package com.roamsys.swagger.resources;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.CRC32;
+
+/**
+ * A static resource with its optional gzip compressed sibling. The content of files is memory-mapped, the content of class path
+ * resources in JAR files is read once into direct buffers, so neither occupies the heap.
+ */
+final class SwaggerAPIStaticResource {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocateDirect(0);
+
+    /**
+     * The content, read-only with position 0
+     */
+    final ByteBuffer content;
+
+    /**
+     * The gzip compressed content or <code>null</code> if there is no sibling with the suffix <code>.gz</code>
+     */
+    final ByteBuffer gzipContent;
+
+    /**
+     * The file of the content or <code>null</code> if it is no file
+     */
+    final Path file;
+
+    /**
+     * The file of the gzip compressed content or <code>null</code>
+     */
+    final Path gzipFile;
+
+    final String contentType;
+
+    /**
+     * The quoted entity tag of the content
+     */
+    final String entityTag;
+
+    /**
+     * The quoted entity tag of the gzip compressed content, strong entity tags must differ for each content encoding
+     */
+    final String gzipEntityTag;
+
+    /**
+     * The modification time in milliseconds, truncated to seconds as used in HTTP dates
+     */
+    final long lastModified;
+
+    /**
+     * Defines if the name is fingerprinted, so the content never changes
+     */
+    final boolean immutable;
+
+    /**
+     * The modification time of the file when it was mapped
+     */
+    private final FileTime fileModified;
+
+    /**
+     * The time of the next check of the file for changes in nanoseconds
+     */
+    volatile long nextCheck;
+
+    private SwaggerAPIStaticResource(final ByteBuffer content, final ByteBuffer gzipContent, final Path file, final Path gzipFile, final String contentType,
+            final String entityTag, final long lastModified, final boolean immutable, final FileTime fileModified) {
+        this.content = content;
+        this.gzipContent = gzipContent;
+        this.file = file;
+        this.gzipFile = gzipFile;
+        this.contentType = contentType;
+        this.entityTag = "\"" + entityTag + "\"";
+        this.gzipEntityTag = "\"" + entityTag + "-gzip\"";
+        this.lastModified = lastModified / 1000 * 1000;
+        this.immutable = immutable;
+        this.fileModified = fileModified;
+    }
+
+    /**
+     * Maps a file and its gzip compressed sibling.
+     *
+     * @param file the file
+     * @param gzipFile the gzip compressed file or <code>null</code>
+     * @param contentType the content type
+     * @param immutable true if the name is fingerprinted
+     * @return the resource
+     * @throws IOException if a file can not be mapped
+     */
+    static SwaggerAPIStaticResource map(final Path file, final Path gzipFile, final String contentType, final boolean immutable) throws IOException {
+        final FileTime modified = Files.getLastModifiedTime(file);
+        final ByteBuffer content = map(file);
+        return new SwaggerAPIStaticResource(content, gzipFile != null ? map(gzipFile) : null, file, gzipFile, contentType,
+                Integer.toHexString(content.limit()) + "-" + Long.toHexString(modified.toMillis()), modified.toMillis(), immutable, modified);
+    }
+
+    /**
+     * Copies the content of a class path resource in a JAR file and its gzip compressed sibling to direct buffers.
+     *
+     * @param content the content
+     * @param gzipContent the gzip compressed content or <code>null</code>
+     * @param contentType the content type
+     * @param lastModified the modification time in milliseconds
+     * @param immutable true if the name is fingerprinted
+     * @return the resource
+     */
+    static SwaggerAPIStaticResource copy(final byte[] content, final byte[] gzipContent, final String contentType, final long lastModified, final boolean immutable) {
+        // the JAR entries have no reliable modification time, so the entity tag is a checksum
+        final CRC32 checksum = new CRC32();
+        checksum.update(content);
+        return new SwaggerAPIStaticResource(copy(content), gzipContent != null ? copy(gzipContent) : null, null, null, contentType,
+                Integer.toHexString(content.length) + "-" + Long.toHexString(checksum.getValue()), lastModified, immutable, null);
+    }
+
+    /**
+     * Checks if the mapped file was changed or removed since it was mapped, its mapping must not be used any more then.
+     *
+     * @return true if the file was changed
+     */
+    boolean isModified() {
+        if (file == null) {
+            return false;
+        }
+        try {
+            return !Files.getLastModifiedTime(file).equals(fileModified) || Files.size(file) != content.limit();
+        } catch (final IOException ex) {
+            return true;
+        }
+    }
+
+    /**
+     * Helper for mapping a file read-only.
+     */
+    private static ByteBuffer map(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File " + file + " is too large to be mapped");
+            }
+            // the mapping stays valid after the channel is closed
+            return size == 0 ? EMPTY : channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Helper for copying bytes to a read-only direct buffer.
+     */
+    private static ByteBuffer copy(final byte[] bytes) {
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,511 @@
+package com.roamsys.swagger.resources;
+
+import com.roamsys.swagger.documentation.ApiSpecDocument;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequestWrapper;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Static resources served by the servlet, e.g. Swagger UI or pre-built API specs, from a directory or from the class path, e.g. a
+ * WebJar. Resources are loaded on first request and kept until their file changes: files are memory-mapped and class path resources in
+ * JAR files are copied once to direct buffers, so serving them neither occupies the heap nor copies them per request in containers
+ * writing byte buffers directly. Tomcat sends mapped files with <code>sendfile</code> if it supports it and the request and response are
+ * not wrapped.
+ * <ul>
+ * <li>A sibling with the suffix <code>.gz</code>, e.g. <code>swagger-ui-bundle.js.gz</code>, is served instead if the client accepts
+ * gzip.</li>
+ * <li>Names with a fingerprint, a hex hash of at least 8 digits before the extension like <code>app.3f2a9c1b.js</code>, are cached by
+ * clients for a year without revalidation, all other resources are revalidated with their entity tag and modification time.</li>
+ * <li>Single byte ranges are served partially, also conditionally with <code>If-Range</code>; requests for several ranges get the entire
+ * resource.</li>
+ * <li>Directories are served with their <code>index.html</code>, hidden files and paths leaving the root are not served.</li>
+ * </ul>
+ */
+public class SwaggerAPIStaticResources {
+
+    /**
+     * The default interval for checking files for changes in seconds
+     */
+    public static final long DEFAULT_CHECK_INTERVAL = 2;
+
+    /**
+     * The resource served for directories
+     */
+    public static final String INDEX = "index.html";
+
+    /**
+     * The <code>Cache-Control</code> header of fingerprinted resources
+     */
+    public static final String CACHE_CONTROL_IMMUTABLE = "public, max-age=31536000, immutable";
+
+    /**
+     * The request attribute of Tomcat signaling <code>sendfile</code> support and the attributes requesting it
+     */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Names with a hex hash before the extension
+     */
+    private static final Pattern FINGERPRINT = Pattern.compile(".*[.-][0-9a-fA-F]{8,}\\.[^/]+");
+
+    /**
+     * The size of the chunks written to output streams which do not write byte buffers themselves
+     */
+    private static final int CHUNK_SIZE = 16384;
+
+    /**
+     * The content types by extension, others are resolved by the servlet context
+     */
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("html", "text/html;charset=UTF-8"),
+            Map.entry("js", "text/javascript;charset=UTF-8"),
+            Map.entry("mjs", "text/javascript;charset=UTF-8"),
+            Map.entry("css", "text/css;charset=UTF-8"),
+            Map.entry("json", "application/json;charset=UTF-8"),
+            Map.entry("map", "application/json;charset=UTF-8"),
+            Map.entry("yaml", "application/yaml;charset=UTF-8"),
+            Map.entry("txt", "text/plain;charset=UTF-8"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("png", "image/png"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("woff2", "font/woff2"));
+
+    /**
+     * Defines if the output stream class of a container writes byte buffers itself, the default implementation copies the entire buffer
+     * to an array
+     */
+    private static final ClassValue<Boolean> WRITES_BUFFERS = new ClassValue<Boolean>() {
+
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                return type.getMethod("write", ByteBuffer.class).getDeclaringClass() != ServletOutputStream.class;
+            } catch (final NoSuchMethodException ex) {
+                return false;
+            }
+        }
+    };
+
+    /**
+     * Range of a request which can not be satisfied
+     */
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    /**
+     * The directory or <code>null</code> for class path resources
+     */
+    private final Path directory;
+
+    /**
+     * The class loader of class path resources
+     */
+    private final ClassLoader classLoader;
+
+    /**
+     * The root of the class path resources, empty or ending with a slash
+     */
+    private final String classPathRoot;
+
+    /**
+     * The interval for checking files for changes in nanoseconds
+     */
+    private final long checkInterval;
+
+    /**
+     * The loaded resources by path, resources which are not found are not kept
+     */
+    private final Map<String, SwaggerAPIStaticResource> resources = new ConcurrentHashMap<>();
+
+    private final LongAdder served = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder partial = new LongAdder();
+    private final LongAdder sendfile = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    /**
+     * Serves the files of a directory, which are checked for changes every {@value #DEFAULT_CHECK_INTERVAL} seconds
+     *
+     * @param directory the directory
+     * @throws IllegalArgumentException if the directory does not exist
+     */
+    public SwaggerAPIStaticResources(final Path directory) {
+        this(directory, DEFAULT_CHECK_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Serves the files of a directory
+     *
+     * @param directory the directory
+     * @param checkInterval the interval for checking the files for changes
+     * @param unit the unit of the interval
+     * @throws IllegalArgumentException if the directory does not exist
+     */
+    public SwaggerAPIStaticResources(final Path directory, final long checkInterval, final TimeUnit unit) {
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Static resource directory " + directory + " does not exist");
+        }
+        this.directory = directory.toAbsolutePath().normalize();
+        this.classLoader = null;
+        this.classPathRoot = null;
+        this.checkInterval = unit.toNanos(checkInterval);
+    }
+
+    /**
+     * Serves class path resources, e.g. <code>META-INF/resources/webjars/swagger-ui/5.17.14</code> of the Swagger UI WebJar. Class path
+     * resources are not checked for changes.
+     *
+     * @param classLoader the class loader
+     * @param root the root of the resources
+     */
+    public SwaggerAPIStaticResources(final ClassLoader classLoader, final String root) {
+        this.directory = null;
+        this.classLoader = classLoader;
+        final String trimmed = root.replaceAll("^/+|/+$", "");
+        this.classPathRoot = trimmed.isEmpty() ? "" : trimmed + "/";
+        this.checkInterval = 0;
+    }
+
+    /**
+     * Serves a resource including the headers for caching, compression and byte ranges, or answers a conditional request with
+     * <code>304 Not Modified</code>.
+     *
+     * @param request the request
+     * @param response the response
+     * @param path the path of the resource relative to the root, not URL encoded, empty or ending with a slash for the index of a
+     * directory
+     * @return false if the resource does not exist, nothing was written then
+     * @throws IOException if the resource can not be read or written
+     */
+    public boolean serve(final HttpServletRequest request, final HttpServletResponse response, final String path) throws IOException {
+        final SwaggerAPIStaticResource resource = find(path.isEmpty() || path.endsWith("/") ? path + INDEX : path, request);
+        if (resource == null) {
+            notFound.increment();
+            return false;
+        }
+        final boolean gzip = resource.gzipContent != null
+                && ApiSpecDocument.selectEncoding(request.getHeader("Accept-Encoding")) == ApiSpecDocument.Encoding.GZIP;
+        final ByteBuffer content = gzip ? resource.gzipContent : resource.content;
+        final String entityTag = gzip ? resource.gzipEntityTag : resource.entityTag;
+        response.setContentType(resource.contentType);
+        response.setHeader("ETag", entityTag);
+        response.setDateHeader("Last-Modified", resource.lastModified);
+        response.setHeader("Cache-Control", resource.immutable ? CACHE_CONTROL_IMMUTABLE : "no-cache");
+        response.setHeader("Accept-Ranges", "bytes");
+        if (resource.gzipContent != null) {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+        if (isNotModified(request, resource)) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+
+        final long length = content.limit();
+        long start = 0;
+        long end = length;
+        boolean ranged = false;
+        final String range = request.getHeader("Range");
+        if (range != null && isRangeCurrent(request, entityTag, resource.lastModified)) {
+            final long[] bounds = parseRange(range, length);
+            if (bounds == UNSATISFIABLE) {
+                response.setHeader("Content-Range", "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return true;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                ranged = true;
+                partial.increment();
+                response.setHeader("Content-Range", "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+        response.setStatus(ranged ? HttpServletResponse.SC_PARTIAL_CONTENT : HttpServletResponse.SC_OK);
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        response.setContentLengthLong(end - start);
+
+        final Path file = gzip ? resource.gzipFile : resource.file;
+        if (file != null && isSendfileSupported(request, response)) {
+            // the container sends the file after the servlet returns
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            sendfile.increment();
+        } else {
+            write(response.getOutputStream(), content.duplicate().position((int) start).limit((int) end));
+        }
+        served.increment();
+        bytes.add(end - start);
+        return true;
+    }
+
+    /**
+     * Helper for checking if the container sends the file. Like Tomcat's default servlet, wrapped requests and responses, e.g. the entries
+     * of a batch, are served by the servlet: the attributes set on a wrapper may not reach the container, and a wrapper capturing the body
+     * would remain empty.
+     */
+    private static boolean isSendfileSupported(final HttpServletRequest request, final HttpServletResponse response) {
+        return !(request instanceof ServletRequestWrapper) && !(response instanceof ServletResponseWrapper)
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT));
+    }
+
+    /**
+     * Helper for finding a resource, which is loaded on first request and again after its file changed.
+     */
+    private SwaggerAPIStaticResource find(final String path, final HttpServletRequest request) throws IOException {
+        if (!isValid(path)) {
+            return null;
+        }
+        SwaggerAPIStaticResource resource = resources.get(path);
+        if (resource != null && directory != null) {
+            final long now = System.nanoTime();
+            if (now - resource.nextCheck >= 0) {
+                resource.nextCheck = now + checkInterval;
+                if (resource.isModified()) {
+                    resources.remove(path, resource);
+                    resource = null;
+                }
+            }
+        }
+        if (resource == null) {
+            final SwaggerAPIStaticResource loaded = load(path, request);
+            if (loaded == null) {
+                return null;
+            }
+            loaded.nextCheck = System.nanoTime() + checkInterval;
+            resource = resources.putIfAbsent(path, loaded);
+            if (resource == null) {
+                resource = loaded;
+            }
+        }
+        return resource;
+    }
+
+    /**
+     * Helper for loading a resource from the directory or the class path.
+     */
+    private SwaggerAPIStaticResource load(final String path, final HttpServletRequest request) throws IOException {
+        final String contentType = contentType(path, request);
+        final boolean immutable = FINGERPRINT.matcher(path).matches();
+        if (directory != null) {
+            final Path file = directory.resolve(path).normalize();
+            return file.startsWith(directory) && Files.isRegularFile(file) ? map(file, contentType, immutable) : null;
+        }
+
+        final URL url = classLoader.getResource(classPathRoot + path);
+        if (url == null) {
+            return null;
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                final Path file = Paths.get(url.toURI());
+                return Files.isRegularFile(file) ? map(file, contentType, immutable) : null;
+            } catch (final URISyntaxException ex) {
+                throw new IOException("Invalid class path resource " + url, ex);
+            }
+        }
+        final URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+        if (connection instanceof JarURLConnection && ((JarURLConnection) connection).getJarEntry().isDirectory()) {
+            return null;
+        }
+        final byte[] content;
+        try (InputStream in = connection.getInputStream()) {
+            content = in.readAllBytes();
+        }
+        final URL gzipUrl = classLoader.getResource(classPathRoot + path + ".gz");
+        byte[] gzipContent = null;
+        if (gzipUrl != null) {
+            final URLConnection gzipConnection = gzipUrl.openConnection();
+            gzipConnection.setUseCaches(false);
+            try (InputStream in = gzipConnection.getInputStream()) {
+                gzipContent = in.readAllBytes();
+            }
+        }
+        return SwaggerAPIStaticResource.copy(content, gzipContent, contentType, connection.getLastModified(), immutable);
+    }
+
+    /**
+     * Helper for mapping a file and its gzip compressed sibling.
+     */
+    private static SwaggerAPIStaticResource map(final Path file, final String contentType, final boolean immutable) throws IOException {
+        final Path gzipFile = file.resolveSibling(file.getFileName() + ".gz");
+        return SwaggerAPIStaticResource.map(file, Files.isRegularFile(gzipFile) ? gzipFile : null, contentType, immutable);
+    }
+
+    /**
+     * Helper for checking a path: no empty, relative or hidden segments and no characters with a special meaning in file systems.
+     */
+    private static boolean isValid(final String path) {
+        if (path.indexOf('\\') != -1 || path.indexOf(':') != -1 || path.indexOf('\0') != -1) {
+            return false;
+        }
+        for (final String segment : path.split("/", -1)) {
+            if (segment.isEmpty() || segment.startsWith(".")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Helper for resolving the content type of a resource by its extension.
+     */
+    private static String contentType(final String path, final HttpServletRequest request) {
+        final String name = path.substring(path.lastIndexOf('/') + 1);
+        final String contentType = CONTENT_TYPES.get(name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT));
+        if (contentType != null) {
+            return contentType;
+        }
+        final String mimeType = request.getServletContext() != null ? request.getServletContext().getMimeType(name) : null;
+        return mimeType != null ? mimeType : "application/octet-stream";
+    }
+
+    /**
+     * Helper for checking the conditional headers. <code>If-Modified-Since</code> is ignored if <code>If-None-Match</code> is present,
+     * which matches the entity tags of all variants with the weak comparison.
+     */
+    private static boolean isNotModified(final HttpServletRequest request, final SwaggerAPIStaticResource resource) {
+        final String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (final String tag : ifNoneMatch.split(",")) {
+                String trimmed = tag.trim();
+                if (trimmed.startsWith("W/")) {
+                    trimmed = trimmed.substring(2);
+                }
+                if (trimmed.equals("*") || trimmed.equals(resource.entityTag) || trimmed.equals(resource.gzipEntityTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        try {
+            final long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            return ifModifiedSince != -1 && resource.lastModified <= ifModifiedSince;
+        } catch (final IllegalArgumentException ex) {
+            // invalid date, send the resource
+            return false;
+        }
+    }
+
+    /**
+     * Helper for checking <code>If-Range</code>, which requires the strong comparison of the entity tag or the exact modification time.
+     */
+    private static boolean isRangeCurrent(final HttpServletRequest request, final String entityTag, final long lastModified) {
+        final String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.trim().equals(entityTag);
+        }
+        try {
+            return request.getDateHeader("If-Range") == lastModified;
+        } catch (final IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Parses a <code>Range</code> header with a single byte range.
+     *
+     * @param range the header value
+     * @param length the length of the content
+     * @return the start and the exclusive end, <code>null</code> to send the entire content, for invalid headers and several ranges, or
+     * {@link #UNSATISFIABLE} if the range is outside of the content
+     */
+    static long[] parseRange(final String range, final long length) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') != -1) {
+            return null;
+        }
+        final String spec = range.substring(6).trim();
+        final int dash = spec.indexOf('-');
+        if (dash == -1) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                // the last bytes
+                final long suffix = Long.parseLong(spec.substring(1));
+                if (suffix < 0) {
+                    return null;
+                }
+                return suffix == 0 || length == 0 ? UNSATISFIABLE : new long[] { Math.max(0, length - suffix), length };
+            }
+            final long start = Long.parseLong(spec.substring(0, dash));
+            final long last = dash == spec.length() - 1 ? Long.MAX_VALUE - 1 : Long.parseLong(spec.substring(dash + 1));
+            if (start < 0 || last < start) {
+                return null;
+            }
+            return start >= length ? UNSATISFIABLE : new long[] { start, Math.min(last + 1, length) };
+        } catch (final NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Helper for writing content. Output streams which do not write byte buffers themselves get chunks, so the content is not copied to
+     * the heap at once.
+     */
+    private static void write(final ServletOutputStream out, final ByteBuffer content) throws IOException {
+        if (WRITES_BUFFERS.get(out.getClass())) {
+            out.write(content);
+            return;
+        }
+        final byte[] chunk = new byte[Math.min(content.remaining(), CHUNK_SIZE)];
+        while (content.hasRemaining()) {
+            final int length = Math.min(content.remaining(), chunk.length);
+            content.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+
+    /**
+     * @return the number of loaded resources
+     */
+    public int getResourceCount() {
+        return resources.size();
+    }
+
+    /**
+     * Creates a snapshot of the statistics for the <code>/metrics</code> path.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> statistics() {
+        final Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("resources", getResourceCount());
+        statistics.put("served", served.sum());
+        statistics.put("notModified", notModified.sum());
+        statistics.put("partial", partial.sum());
+        statistics.put("sendfile", sendfile.sum());
+        statistics.put("notFound", notFound.sum());
+        statistics.put("bytes", bytes.sum());
+        return statistics;
+    }
+}
@@ -0,0 +1,64 @@
+package com.roamsys.swagger;
+
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPIBatch}.
+ */
+public class SwaggerAPIBatchTest {
+
+    private static final String ENTRY = "{\"method\":\"POST\",\"path\":\"/testAPI.json/test\",\"body\":{\"name\":\"item\"}}";
+
+    /**
+     * Helper for reading a batch which must be rejected as invalid JSON.
+     */
+    private static void assertInvalid(final String batch) throws IOException {
+        try {
+            SwaggerAPIBatch.read(new StringReader(batch), 10);
+            Assert.fail("Invalid batch accepted: " + batch);
+        } catch (final JsonParseException ex) {
+            // expected, answered with 400
+        }
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        final List<SwaggerAPIBatch.Entry> entries = SwaggerAPIBatch.read(new StringReader("[" + ENTRY + ", {\"path\":\"/testAPI.json/test\"}]"), 2);
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals("POST", entries.get(0).method);
+        Assert.assertEquals("item", entries.get(0).body.getAsJsonObject().get("name").getAsString());
+        Assert.assertNull(entries.get(1).method);
+        Assert.assertTrue(SwaggerAPIBatch.read(new StringReader(""), 2).isEmpty());
+        Assert.assertTrue(SwaggerAPIBatch.read(new StringReader("null"), 2).isEmpty());
+        Assert.assertTrue(SwaggerAPIBatch.read(new StringReader("[]"), 2).isEmpty());
+
+        assertInvalid("[" + ENTRY);
+        assertInvalid("[" + ENTRY + "] []");
+        assertInvalid(ENTRY);
+        assertInvalid("[1]");
+    }
+
+    @Test
+    public void testReadTooManyEntries() throws IOException {
+        // rejected at the entry exceeding the maximum, without reading the remaining body
+        final StringBuilder batch = new StringBuilder("[").append(ENTRY).append(',').append(ENTRY).append(',').append(ENTRY).append(',');
+        final int[] read = new int[1];
+        final Reader reader = new StringReader(batch + "invalid") {
+
+            @Override
+            public int read(final char[] buffer, final int offset, final int length) throws IOException {
+                final int count = super.read(buffer, offset, Math.min(length, 16));
+                read[0] += Math.max(count, 0);
+                return count;
+            }
+        };
+        Assert.assertNull(SwaggerAPIBatch.read(reader, 2));
+        Assert.assertTrue(read[0] < batch.length());
+    }
+}
@@ -0,0 +1,154 @@
+package com.roamsys.swagger;
+
+import com.roamsys.swagger.annotations.SwaggerApi;
+import com.roamsys.swagger.annotations.SwaggerApi.HTTPMethod;
+import com.roamsys.swagger.annotations.SwaggerModel;
+import com.roamsys.swagger.annotations.SwaggerParameter;
+import com.roamsys.swagger.annotations.SwaggerParameter.DataType;
+import com.roamsys.swagger.annotations.SwaggerParameter.ParamType;
+import com.roamsys.swagger.data.SwaggerAPIContext;
+import com.roamsys.swagger.data.SwaggerAPIModelData;
+import com.roamsys.swagger.limit.SwaggerAPIBulkhead;
+import com.roamsys.swagger.limit.SwaggerAPIRateLimit;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPIConfig}.
+ */
+public class SwaggerAPIConfigTest {
+
+    /**
+     * Abstract, so scanning does not find it, like the other models of this test
+     */
+    @SwaggerModel(path = "/catalog")
+    public abstract static class CatalogJsonAPI implements SwaggerAPIModel {
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/items/{id}", summary = "", notes = "", cacheTtl = 60)
+        public String item(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "id", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.STRING) final String id) {
+            return "item " + id;
+        }
+    }
+
+    @SwaggerModel(path = "/catalog", format = "xml")
+    public abstract static class CatalogXmlAPI extends CatalogJsonAPI {
+    }
+
+    @SwaggerModel(path = "/a")
+    public abstract static class PlaceholderAPI implements SwaggerAPIModel {
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/{b}/c", summary = "", notes = "")
+        public void first(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "b", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.STRING) final String b) {
+            // nothing to do
+        }
+
+        @SwaggerApi(method = HTTPMethod.GET, path = "/b/{c}", summary = "", notes = "")
+        public void second(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "c", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.STRING) final String c) {
+            // nothing to do
+        }
+    }
+
+    private final SwaggerAPIConfig config = new SwaggerAPIConfig(null);
+
+    @Before
+    public void registerXmlSerializer() {
+        config.setResultSerializer("xml", new SwaggerAPIResultSerializer() {
+
+            @Override
+            public String getContentType() {
+                return "application/xml";
+            }
+
+            @Override
+            public void serialize(final Object result, final Type type, final OutputStream out) throws IOException {
+                out.write(("<item>" + result + "</item>").getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    @After
+    public void shutdown() {
+        config.shutdown();
+    }
+
+    /**
+     * Helper for resolving a registered operation.
+     */
+    private SwaggerAPIModelData resolve(final String path) {
+        return config.resolveAPI(path, HTTPMethod.GET).getAPI();
+    }
+
+    @Test
+    public void testSharedOperationIds() {
+        config.registerModel(new CatalogJsonAPI() { });
+        config.registerModel(new CatalogXmlAPI() { });
+        config.registerModel(new PlaceholderAPI() { });
+        config.setMetricsEnabled(true);
+
+        // the operation ID omits the format and the braces of the placeholders, the route does not
+        final SwaggerAPIModelData json = resolve("/catalog.json/items/42");
+        final SwaggerAPIModelData xml = resolve("/catalog.xml/items/42");
+        Assert.assertEquals("get-catalog-itemsid", json.getOperationId());
+        Assert.assertEquals(json.getOperationId(), xml.getOperationId());
+        Assert.assertEquals("GET /catalog.json/items/{id}", json.getRoute());
+        Assert.assertEquals("GET /catalog.xml/items/{id}", xml.getRoute());
+        final SwaggerAPIModelData first = resolve("/a.json/x/c");
+        final SwaggerAPIModelData second = resolve("/a.json/b/y");
+        Assert.assertEquals("get-a-bc", first.getOperationId());
+        Assert.assertEquals(first.getOperationId(), second.getOperationId());
+        Assert.assertNotEquals(first.getRoute(), second.getRoute());
+
+        // separate metrics
+        Assert.assertNotSame(config.getMetrics().getOperation(json.getRoute(), json.getOperationId()),
+                config.getMetrics().getOperation(xml.getRoute(), xml.getOperationId()));
+        final Map<?, ?> operations = (Map<?, ?>) config.getMetrics().snapshot().get("operations");
+        Assert.assertEquals(4, operations.size());
+        Assert.assertEquals("get-a-bc", ((Map<?, ?>) operations.get("GET /a.json/b/{c}")).get("operationId"));
+
+        // separate rate limit buckets, even with a limit configured for the shared operation ID
+        config.setRateLimit("get-catalog-itemsid", new SwaggerAPIRateLimit(1, 1));
+        final SwaggerAPIRateLimit limit = config.getRateLimiter().getLimit(json.getRoute(), json.getOperationId(), json.getRateLimit());
+        Assert.assertSame(limit, config.getRateLimiter().getLimit(xml.getRoute(), xml.getOperationId(), xml.getRateLimit()));
+        Assert.assertEquals(0, config.getRateLimiter().acquire(json.getRoute(), limit, "key"));
+        Assert.assertTrue(config.getRateLimiter().acquire(json.getRoute(), limit, "key") > 0);
+        Assert.assertEquals(0, config.getRateLimiter().acquire(xml.getRoute(), limit, "key"));
+
+        // a bulkhead of the operation ID is shared, a bulkhead of the route is not
+        final SwaggerAPIBulkhead shared = new SwaggerAPIBulkhead(1);
+        final SwaggerAPIBulkhead own = new SwaggerAPIBulkhead(1);
+        config.setBulkhead("get-a-bc", shared);
+        config.setBulkhead(second.getRoute(), own);
+        Assert.assertSame(shared, config.getBulkheads().get(first.getRoute(), first.getOperationId(), first.getAPIModelClass().getClass()));
+        Assert.assertSame(own, config.getBulkheads().get(second.getRoute(), second.getOperationId(), second.getAPIModelClass().getClass()));
+    }
+
+    @Test
+    public void testCachedResponsesByRoute() throws ServletException, IOException {
+        final SwaggerAPIModel jsonModel = new CatalogJsonAPI() { };
+        config.registerModel(jsonModel);
+        config.registerModel(new CatalogXmlAPI() { });
+        final SwaggerAPIServlet servlet = SwaggerAPITestExchange.servlet(config);
+
+        // the XML operation with the same operation ID and arguments is not served the cached JSON response
+        Assert.assertEquals("\"item 42\"", new SwaggerAPITestExchange("GET", "/catalog.json/items/42").dispatch(servlet).getBody());
+        Assert.assertEquals("<item>item 42</item>", new SwaggerAPITestExchange("GET", "/catalog.xml/items/42").dispatch(servlet).getBody());
+        Assert.assertEquals("\"item 42\"", new SwaggerAPITestExchange("GET", "/catalog.json/items/42").dispatch(servlet).getBody());
+        Assert.assertEquals(2, config.getResponseCache().getSize());
+
+        // invalidating the cached responses of a model keeps those of the other model
+        config.invalidateCachedResponses(jsonModel);
+        Assert.assertEquals(1, config.getResponseCache().getSize());
+        Assert.assertEquals("<item>item 42</item>", new SwaggerAPITestExchange("GET", "/catalog.xml/items/42").dispatch(servlet).getBody());
+    }
+}
@@ -0,0 +1,133 @@
+package com.roamsys.swagger;
+
+import com.google.gson.Gson;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPIJsonArrayWriter}.
+ */
+public class SwaggerAPIJsonArrayWriterTest {
+
+    /**
+     * Output stream of a client reading slowly: after each write it is not ready until {@link #drain()} is called.
+     */
+    private static final class SlowOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private WriteListener listener;
+        private boolean ready = true;
+        private int writes;
+        private int flushes;
+
+        @Override
+        public void write(final int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            if (!ready) {
+                throw new IllegalStateException("Write while not ready");
+            }
+            body.write(b, off, len);
+            writes++;
+            ready = listener == null;
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            listener = writeListener;
+            drain();
+        }
+
+        private void drain() {
+            ready = true;
+            try {
+                listener.onWritePossible();
+            } catch (final Exception ex) {
+                listener.onError(ex);
+            }
+        }
+
+        private String body() {
+            return body.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static HttpServletResponse response(final ServletOutputStream out) {
+        return (HttpServletResponse) Proxy.newProxyInstance(SwaggerAPIJsonArrayWriterTest.class.getClassLoader(), new Class<?>[] { HttpServletResponse.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getOutputStream":
+                            return out;
+                        case "isCommitted":
+                            return false;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static List<Integer> numbers(final int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testBlocking() throws Exception {
+        final SlowOutputStream out = new SlowOutputStream();
+        final SwaggerAPIJsonArrayWriter writer = new SwaggerAPIJsonArrayWriter(new Gson(), response(out), Integer.class, 100);
+        final CompletableFuture<Void> written = writer.writeAll(numbers(1000).iterator(), false);
+        Assert.assertTrue(written.isDone());
+        Assert.assertEquals(new Gson().toJson(numbers(1000)), out.body());
+        // flushed about every 100 bytes
+        Assert.assertTrue(out.flushes > 30);
+    }
+
+    @Test
+    public void testNonBlocking() throws Exception {
+        final SlowOutputStream out = new SlowOutputStream();
+        final SwaggerAPIJsonArrayWriter writer = new SwaggerAPIJsonArrayWriter(new Gson(), response(out), null, 100);
+        final CompletableFuture<Void> written = writer.writeAll(numbers(1000).iterator(), true);
+
+        // one buffer per ready stream
+        Assert.assertFalse(written.isDone());
+        Assert.assertEquals(1, out.writes);
+        Assert.assertTrue(out.body().length() < 200);
+        while (!written.isDone()) {
+            out.drain();
+        }
+        Assert.assertEquals(new Gson().toJson(numbers(1000)), out.body());
+        written.get();
+    }
+
+    @Test
+    public void testCancelled() throws Exception {
+        final SlowOutputStream out = new SlowOutputStream();
+        final SwaggerAPIJsonArrayWriter writer = new SwaggerAPIJsonArrayWriter(new Gson(), response(out), null, 100);
+        final CompletableFuture<Void> written = writer.writeAll(numbers(1000).iterator(), true);
+        written.cancel(true);
+        out.drain();
+        Assert.assertEquals(1, out.writes);
+    }
+}
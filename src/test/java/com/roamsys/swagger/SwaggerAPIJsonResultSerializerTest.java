@@ -0,0 +1,61 @@
+package com.roamsys.swagger;
+
+import com.google.gson.Gson;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPIJsonResultSerializer}.
+ */
+public class SwaggerAPIJsonResultSerializerTest {
+
+    public static class Item {
+
+        public String name;
+
+        public Item(final String name) {
+            this.name = name;
+        }
+    }
+
+    public Map<String, Item> map() {
+        return null;
+    }
+
+    public Iterator<Item> iterator() {
+        return null;
+    }
+
+    public Stream<? extends Item> stream() {
+        return null;
+    }
+
+    private String serialize(final Object result, final String method) throws Exception {
+        final SwaggerAPIJsonResultSerializer serializer = new SwaggerAPIJsonResultSerializer(new Gson());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(result, getClass().getMethod(method).getGenericReturnType(), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testObject() throws Exception {
+        Assert.assertEquals("{\"a\":{\"name\":\"ä\"}}", serialize(Map.of("a", new Item("ä")), "map"));
+        final String text = "€ \uD83D\uDE00 " + "x".repeat(3000);
+        Assert.assertEquals("{\"a\":{\"name\":\"" + text + "\"}}", serialize(Map.of("a", new Item(text)), "map"));
+    }
+
+    @Test
+    public void testSequences() throws Exception {
+        final List<Item> items = Arrays.asList(new Item("a"), new Item("b"));
+        Assert.assertEquals("[{\"name\":\"a\"},{\"name\":\"b\"}]", serialize(items.iterator(), "iterator"));
+        Assert.assertEquals("[{\"name\":\"a\"},{\"name\":\"b\"}]", serialize(items.stream(), "stream"));
+        Assert.assertEquals("[]", serialize(Stream.empty(), "stream"));
+    }
+}
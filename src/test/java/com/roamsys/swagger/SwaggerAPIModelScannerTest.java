@@ -0,0 +1,114 @@
+package com.roamsys.swagger;
+
+import com.roamsys.swagger.annotations.SwaggerApi;
+import com.roamsys.swagger.annotations.SwaggerModel;
+import com.roamsys.swagger.documentation.ApiSpecDocument;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test for {@link SwaggerAPIModelScanner} and the registration of several models.
+ */
+public class SwaggerAPIModelScannerTest {
+
+    /**
+     * Annotated, but abstract
+     */
+    @SwaggerModel(path = "/abstract")
+    public abstract static class AbstractAPI implements SwaggerAPIModel {
+    }
+
+    @SwaggerModel(path = "/nested", description = "Nested model")
+    public static class NestedAPI extends AbstractAPI {
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] classFile(final Class<?> type) throws IOException {
+        final String name = type.getName();
+        try (InputStream in = type.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    public void testModelClassName() throws IOException {
+        Assert.assertEquals(TestsAPI.class.getName(), SwaggerAPIModelScanner.modelClassName(classFile(TestsAPI.class)));
+        Assert.assertEquals(NestedAPI.class.getName(), SwaggerAPIModelScanner.modelClassName(classFile(NestedAPI.class)));
+        Assert.assertNull(SwaggerAPIModelScanner.modelClassName(classFile(AbstractAPI.class)));
+        // annotated with other annotations only
+        Assert.assertNull(SwaggerAPIModelScanner.modelClassName(classFile(SwaggerApi.class)));
+        Assert.assertNull(SwaggerAPIModelScanner.modelClassName(classFile(SwaggerAPIModelScannerTest.class)));
+        try {
+            SwaggerAPIModelScanner.modelClassName(Arrays.copyOf(classFile(TestsAPI.class), 100));
+            Assert.fail("Truncated class file accepted");
+        } catch (final IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFindModelClasses() throws IOException {
+        final SwaggerAPIModelScanner scanner = new SwaggerAPIModelScanner(getClass().getClassLoader());
+        Assert.assertEquals(Arrays.asList(NestedAPI.class.getName(), TestsAPI.class.getName()), scanner.findModelClassNames("com.roamsys.swagger"));
+        Assert.assertEquals(Arrays.asList(NestedAPI.class, TestsAPI.class), scanner.findModelClasses("com.roamsys.swagger"));
+        Assert.assertEquals(Arrays.asList(), scanner.findModelClassNames("com.roamsys.swagger.annotations", "com.roamsys.unknown"));
+        // classes of the JUnit JAR are read without loading them
+        Assert.assertEquals(Arrays.asList(), scanner.findModelClassNames("org.junit.runner"));
+    }
+
+    @Test
+    public void testFindIndexedModelClasses() throws IOException {
+        // the class files of a directory with index are not read, so the annotated class is not found
+        final Path root = folder.getRoot().toPath();
+        final Path directory = Files.createDirectories(root.resolve("com/roamsys/indexed/api"));
+        Files.write(directory.resolve("NestedAPI.class"), classFile(NestedAPI.class));
+        final Path index = Files.createDirectories(root.resolve("META-INF/swaggerapi")).resolve("models");
+        Files.write(index, "# models\ncom.roamsys.indexed.api.ItemsAPI\n\ncom.roamsys.indexed.Outer$InnerAPI\ncom.roamsys.other.OtherAPI\n".getBytes(StandardCharsets.UTF_8));
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { root.toUri().toURL() }, null)) {
+            final SwaggerAPIModelScanner scanner = new SwaggerAPIModelScanner(classLoader);
+            Assert.assertEquals(Arrays.asList("com.roamsys.indexed.Outer$InnerAPI", "com.roamsys.indexed.api.ItemsAPI"), scanner.findModelClassNames("com.roamsys.indexed"));
+            Assert.assertEquals(Arrays.asList("com.roamsys.indexed.api.ItemsAPI"), scanner.findModelClassNames("com.roamsys.indexed.api"));
+            // packages without directory, e.g. in native images, are looked up in the indexes
+            Assert.assertEquals(Arrays.asList("com.roamsys.other.OtherAPI"), scanner.findModelClassNames("com.roamsys.other"));
+
+            // without index the class files are read
+            Files.delete(index);
+            Assert.assertEquals(Arrays.asList(NestedAPI.class.getName()), scanner.findModelClassNames("com.roamsys.indexed"));
+        }
+    }
+
+    @Test
+    public void testScanModels() {
+        final SwaggerAPIConfig config = new SwaggerAPIConfig(null);
+        final List<SwaggerAPIModel> models = config.scanModels("com.roamsys.swagger");
+        Assert.assertEquals(2, models.size());
+        Assert.assertNotNull(config.resolveAPI("/testAPI.json/test/42", SwaggerApi.HTTPMethod.GET));
+
+        // the same spec as registering the models one by one
+        final SwaggerAPIConfig serial = new SwaggerAPIConfig(null);
+        models.forEach(serial::registerModel);
+        Assert.assertArrayEquals(serial.getApiSpecDocument().getContent(ApiSpecDocument.Encoding.IDENTITY), config.getApiSpecDocument().getContent(ApiSpecDocument.Encoding.IDENTITY));
+
+        // a duplicate model rejects all models
+        final int apis = config.getRoutes().getAPIs().size();
+        try {
+            config.registerModels(Arrays.asList(new NestedAPI(), new TestsAPI()));
+            Assert.fail("Duplicate routes accepted");
+        } catch (final IllegalArgumentException ex) {
+            Assert.assertEquals(apis, config.getRoutes().getAPIs().size());
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.roamsys.swagger;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.roamsys.swagger.annotations.SwaggerApi;
+import com.roamsys.swagger.annotations.SwaggerModel;
+import com.roamsys.swagger.annotations.SwaggerParameter;
+import com.roamsys.swagger.annotations.SwaggerParameter.DataType;
+import com.roamsys.swagger.annotations.SwaggerParameter.ParamType;
+import com.roamsys.swagger.data.SwaggerAPIContext;
+import com.roamsys.swagger.data.SwaggerExceptionHandler;
+import com.roamsys.swagger.limit.SwaggerAPIBulkhead;
+import com.roamsys.swagger.resources.SwaggerAPIStaticResources;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test for {@link SwaggerAPIServlet}.
+ */
+public class SwaggerAPIServletTest {
+
+    public static class Item {
+        String name;
+        int count;
+    }
+
+    @SwaggerModel(path = "/errors")
+    public abstract static class ErrorAPI implements SwaggerAPIModel {
+
+        /**
+         * Opened to let the coalesced invocation fail
+         */
+        final CountDownLatch failure = new CountDownLatch(1);
+
+        @SwaggerApi(path = "/item", summary = "", notes = "Get item")
+        public Item item(final SwaggerAPIContext context) {
+            final Item item = new Item();
+            item.name = "item";
+            return item;
+        }
+
+        @SwaggerApi(path = "/coalesced/{id}", summary = "", notes = "Fail for all coalesced requests", async = true, coalesce = true)
+        public Item coalesced(final SwaggerAPIContext context,
+                @SwaggerParameter(name = "id", description = "", required = true, paramType = ParamType.PATH, dataType = DataType.STRING) final String id)
+                throws InterruptedException {
+            failure.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("Invocation failed");
+        }
+    }
+
+    @SwaggerModel(path = "/async")
+    public abstract static class AsyncAPI implements SwaggerAPIModel {
+
+        /**
+         * Opened when the blocking invocation has started
+         */
+        final CountDownLatch started = new CountDownLatch(1);
+
+        /**
+         * Opened to let the blocking invocation return
+         */
+        final CountDownLatch proceed = new CountDownLatch(1);
+
+        /**
+         * The interrupt status of the blocking invocation when it returned
+         */
+        volatile boolean interrupted;
+
+        /**
+         * The stage returned by the method invoked on the container thread
+         */
+        final CompletableFuture<Item> stage = new CompletableFuture<>();
+
+        @SwaggerApi(path = "/blocking", summary = "", notes = "Block until released, ignoring interrupts", async = true)
+        public Item blocking(final SwaggerAPIContext context) {
+            started.countDown();
+            while (proceed.getCount() > 0) {
+                Thread.onSpinWait();
+            }
+            interrupted = Thread.currentThread().isInterrupted();
+            final Item item = new Item();
+            item.name = "blocking";
+            return item;
+        }
+
+        @SwaggerApi(path = "/stage", summary = "", notes = "Return a pending stage")
+        public CompletionStage<Item> stage(final SwaggerAPIContext context) {
+            return stage;
+        }
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final SwaggerAPIConfig config = new SwaggerAPIConfig(null);
+
+    /**
+     * A single pooled thread, so the next task runs on the thread of the previous invocation
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void shutdown() {
+        config.shutdown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Helper for registering an async model limited by a bulkhead.
+     */
+    private SwaggerAPIBulkhead registerAsyncModel(final AsyncAPI model) {
+        config.registerModel(model);
+        config.setAsyncExecutor(executor);
+        final SwaggerAPIBulkhead bulkhead = new SwaggerAPIBulkhead(1);
+        config.setBulkhead(model.getClass(), bulkhead);
+        return bulkhead;
+    }
+
+    /**
+     * Helper for waiting until the permit of the bulkhead has been released, also by an invocation outliving its request.
+     */
+    private static void awaitReleased(final SwaggerAPIBulkhead bulkhead) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.getInFlightCount() > 0) {
+            Assert.assertTrue("Bulkhead not released", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Helper for creating a request with a body.
+     */
+    private static HttpServletRequest request(final String body) {
+        return (HttpServletRequest) Proxy.newProxyInstance(SwaggerAPIServletTest.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        case "getReader":
+                            return new BufferedReader(new StringReader(body));
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    /**
+     * Helper for reading a body which must be rejected as invalid JSON.
+     */
+    private void assertInvalid(final String body) throws IOException {
+        try {
+            SwaggerAPIServlet.readJsonBody(config, request(body), Item.class);
+            Assert.fail("Invalid body accepted: " + body);
+        } catch (final JsonParseException ex) {
+            // expected, answered with 400
+        }
+    }
+
+    @Test
+    public void testReadJsonBody() throws IOException {
+        final Item item = (Item) SwaggerAPIServlet.readJsonBody(config, request("{\"name\":\"item\",\"count\":3}"), Item.class);
+        Assert.assertEquals("item", item.name);
+        Assert.assertEquals(3, item.count);
+        Assert.assertNull(SwaggerAPIServlet.readJsonBody(config, request(""), Item.class));
+        Assert.assertNull(SwaggerAPIServlet.readJsonBody(config, request("  "), Item.class));
+
+        // truncated
+        assertInvalid("{\"name\":");
+        assertInvalid("{\"name\":\"item\"");
+        // wrong token and malformed
+        assertInvalid("\"item\"");
+        assertInvalid("{name:item;}}");
+    }
+
+    @Test
+    public void testSerializationErrorAfterOutputStream() throws ServletException, IOException {
+        config.registerModel(new ErrorAPI() { });
+        config.setResultSerializer("json", new SwaggerAPIResultSerializer() {
+
+            @Override
+            public String getContentType() {
+                return "application/json";
+            }
+
+            @Override
+            public void serialize(final Object result, final Type type, final OutputStream out) throws IOException {
+                out.write("{\"name\":".getBytes(StandardCharsets.UTF_8));
+                throw new IllegalArgumentException("Not serializable");
+            }
+        });
+
+        // the container refuses the writer for the error, as the serializer took the output stream
+        final SwaggerAPITestExchange exchange = new SwaggerAPITestExchange("GET", "/errors.json/item").dispatch(SwaggerAPITestExchange.servlet(config));
+        Assert.assertEquals(500, exchange.getStatus());
+        // the partial result has been discarded
+        Assert.assertEquals(500, JsonParser.parseString(exchange.getBody()).getAsJsonObject().get("code").getAsInt());
+    }
+
+    @Test
+    public void testFailingExceptionHandlerReleasesCoalescedRequests() throws ServletException, IOException, InterruptedException {
+        final ErrorAPI model = new ErrorAPI() { };
+        config.registerModel(model);
+        // fails for both reports of the leading request, like a handler using the writer of a response whose stream has been taken
+        final AtomicInteger reports = new AtomicInteger();
+        config.setExceptionHandler((response, code, message, ex) -> {
+            if (reports.incrementAndGet() <= 2) {
+                throw new IllegalStateException("getOutputStream() has already been called for this response");
+            }
+            SwaggerExceptionHandler.DEFAULT.handleException(response, code, message, ex);
+        });
+        final SwaggerAPIServlet servlet = SwaggerAPITestExchange.servlet(config);
+
+        final SwaggerAPITestExchange leading = new SwaggerAPITestExchange("GET", "/errors.json/coalesced/1").dispatch(servlet);
+        final SwaggerAPITestExchange waiting = new SwaggerAPITestExchange("GET", "/errors.json/coalesced/1").dispatch(servlet);
+        Assert.assertTrue(waiting.isAsyncStarted());
+        Assert.assertEquals(1, config.getRequestCoalescer().getCoalescedCount());
+        model.failure.countDown();
+
+        Assert.assertTrue(leading.await(5000));
+        Assert.assertTrue(waiting.await(5000));
+        Assert.assertEquals(400, waiting.getStatus());
+        Assert.assertEquals(0, config.getRequestCoalescer().getInFlightCount());
+    }
+
+    @Test
+    public void testAsyncResultBeforeTimeout() throws ServletException, IOException, InterruptedException {
+        final AsyncAPI model = new AsyncAPI() { };
+        final SwaggerAPIBulkhead bulkhead = registerAsyncModel(model);
+        model.proceed.countDown();
+
+        final SwaggerAPITestExchange exchange = new SwaggerAPITestExchange("GET", "/async.json/blocking").dispatch(SwaggerAPITestExchange.servlet(config));
+        Assert.assertTrue(exchange.isAsyncStarted());
+        Assert.assertTrue(exchange.await(5000));
+        final String body = exchange.getBody();
+        Assert.assertTrue(body, body.contains("blocking"));
+
+        // a late timeout neither writes nor completes the request again
+        exchange.fireTimeout();
+        Assert.assertEquals(200, exchange.getStatus());
+        Assert.assertEquals(body, exchange.getBody());
+        awaitReleased(bulkhead);
+    }
+
+    @Test
+    public void testTimeoutBeforeResult() throws ServletException, IOException, InterruptedException, ExecutionException {
+        final AsyncAPI model = new AsyncAPI() { };
+        final SwaggerAPIBulkhead bulkhead = registerAsyncModel(model);
+
+        final SwaggerAPITestExchange exchange = new SwaggerAPITestExchange("GET", "/async.json/blocking").dispatch(SwaggerAPITestExchange.servlet(config));
+        Assert.assertTrue(model.started.await(5, TimeUnit.SECONDS));
+        exchange.fireTimeout();
+        Assert.assertTrue(exchange.await(0));
+        Assert.assertEquals(503, exchange.getStatus());
+
+        // the result of the invocation returning after the timeout is dropped
+        model.proceed.countDown();
+        awaitReleased(bulkhead);
+        Assert.assertTrue(model.interrupted);
+        Assert.assertEquals(503, exchange.getStatus());
+        Assert.assertFalse(exchange.getBody().contains("\"name\""));
+
+        // the interrupt of the timeout does not hit the next task of the pooled thread
+        Assert.assertFalse(executor.submit(() -> Thread.currentThread().isInterrupted()).get());
+    }
+
+    @Test
+    public void testTimeoutWaitsForSerialization() throws ServletException, IOException, InterruptedException {
+        final AsyncAPI model = new AsyncAPI() { };
+        final SwaggerAPIBulkhead bulkhead = registerAsyncModel(model);
+        model.proceed.countDown();
+        final CountDownLatch serializing = new CountDownLatch(1);
+        final CountDownLatch serialized = new CountDownLatch(1);
+        final SwaggerAPIResultSerializer json = config.getResultSerializer("json");
+        config.setResultSerializer("json", new SwaggerAPIResultSerializer() {
+
+            @Override
+            public String getContentType() {
+                return json.getContentType();
+            }
+
+            @Override
+            public void serialize(final Object result, final Type type, final OutputStream out) throws IOException {
+                serializing.countDown();
+                try {
+                    serialized.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                json.serialize(result, type, out);
+            }
+        });
+
+        final SwaggerAPITestExchange exchange = new SwaggerAPITestExchange("GET", "/async.json/blocking").dispatch(SwaggerAPITestExchange.servlet(config));
+        Assert.assertTrue(serializing.await(5, TimeUnit.SECONDS));
+        final AtomicReference<IOException> timeoutFailure = new AtomicReference<>();
+        final Thread timeout = new Thread(() -> {
+            try {
+                exchange.fireTimeout();
+            } catch (final IOException ex) {
+                timeoutFailure.set(ex);
+            }
+        });
+        timeout.start();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (timeout.getState() != Thread.State.WAITING) {
+            Assert.assertTrue("Timeout did not wait for the serialization", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+        Assert.assertFalse(exchange.await(0));
+
+        serialized.countDown();
+        timeout.join(5000);
+        Assert.assertNull(timeoutFailure.get());
+        Assert.assertTrue(exchange.await(0));
+        Assert.assertEquals(200, exchange.getStatus());
+        Assert.assertEquals("blocking", JsonParser.parseString(exchange.getBody()).getAsJsonObject().get("name").getAsString());
+        Assert.assertFalse(model.interrupted);
+        awaitReleased(bulkhead);
+    }
+
+    @Test
+    public void testStageCompletedExceptionally() throws ServletException, IOException, InterruptedException {
+        final AsyncAPI model = new AsyncAPI() { };
+        final SwaggerAPIBulkhead bulkhead = registerAsyncModel(model);
+        final AtomicInteger reportedCode = new AtomicInteger();
+        final AtomicReference<Throwable> reported = new AtomicReference<>();
+        config.setExceptionHandler((response, code, message, ex) -> {
+            reportedCode.set(code);
+            reported.set(ex);
+            SwaggerExceptionHandler.DEFAULT.handleException(response, code, message, ex);
+        });
+
+        final SwaggerAPITestExchange exchange = new SwaggerAPITestExchange("GET", "/async.json/stage").dispatch(SwaggerAPITestExchange.servlet(config));
+        Assert.assertTrue(exchange.isAsyncStarted());
+        Assert.assertFalse(exchange.await(0));
+        final IllegalStateException failure = new IllegalStateException("Stage failed");
+        model.stage.completeExceptionally(new CompletionException(failure));
+
+        // reported like an exception thrown by the method, unwrapped from the completion exception
+        Assert.assertTrue(exchange.await(5000));
+        Assert.assertEquals(400, reportedCode.get());
+        Assert.assertSame(failure, reported.get());
+        Assert.assertEquals(400, exchange.getStatus());
+        awaitReleased(bulkhead);
+    }
+
+    @Test
+    public void testTimeoutCancelsStage() throws ServletException, IOException, InterruptedException {
+        final AsyncAPI model = new AsyncAPI() { };
+        final SwaggerAPIBulkhead bulkhead = registerAsyncModel(model);
+
+        final SwaggerAPITestExchange exchange = new SwaggerAPITestExchange("GET", "/async.json/stage").dispatch(SwaggerAPITestExchange.servlet(config));
+        Assert.assertEquals(1, bulkhead.getInFlightCount());
+        exchange.fireTimeout();
+        Assert.assertTrue(exchange.await(0));
+        Assert.assertEquals(503, exchange.getStatus());
+        Assert.assertTrue(model.stage.isCancelled());
+        awaitReleased(bulkhead);
+    }
+
+    @Test
+    public void testRejectedExecution() throws ServletException, IOException, InterruptedException {
+        final AsyncAPI model = new AsyncAPI() { };
+        final SwaggerAPIBulkhead bulkhead = registerAsyncModel(model);
+        executor.shutdown();
+
+        final SwaggerAPITestExchange exchange = new SwaggerAPITestExchange("GET", "/async.json/blocking").dispatch(SwaggerAPITestExchange.servlet(config));
+        Assert.assertTrue(exchange.await(0));
+        Assert.assertEquals(503, exchange.getStatus());
+        Assert.assertEquals(1, model.started.getCount());
+        awaitReleased(bulkhead);
+    }
+
+    @Test
+    public void testStaticResourceInBatch() throws ServletException, IOException {
+        final Path directory = folder.newFolder("ui").toPath();
+        Files.write(directory.resolve("index.html"), "<html>Swagger UI</html>".getBytes(StandardCharsets.UTF_8));
+        config.setStaticResources("/ui", new SwaggerAPIStaticResources(directory));
+        config.setBatchMaxEntries(10);
+
+        // the entry inherits the sendfile support of the batch request, but the container would not send the file for it
+        final SwaggerAPITestExchange exchange = new SwaggerAPITestExchange("POST", SwaggerAPIServlet.BATCH_PATH)
+                .attribute("org.apache.tomcat.sendfile.support", Boolean.TRUE)
+                .body("[{\"method\":\"GET\",\"path\":\"/ui/index.html\"}]")
+                .dispatch(SwaggerAPITestExchange.servlet(config));
+        Assert.assertEquals(200, exchange.getStatus());
+        final JsonObject entry = JsonParser.parseString(exchange.getBody()).getAsJsonArray().get(0).getAsJsonObject();
+        Assert.assertEquals(200, entry.get("status").getAsInt());
+        Assert.assertEquals("<html>Swagger UI</html>", entry.get("body").getAsString());
+    }
+}
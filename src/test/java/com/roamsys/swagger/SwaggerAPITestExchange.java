@@ -0,0 +1,372 @@
+package com.roamsys.swagger;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A request and response dispatched through the {@link SwaggerAPIServlet} in tests. Like a container, the response hands out either the
+ * writer or the output stream, and async requests are completed once. Timeouts are not enforced, {@link #fireTimeout()} simulates one.
+ */
+final class SwaggerAPITestExchange {
+
+    private final String method;
+    private final String path;
+    private final Map<String, String> requestHeaders = new HashMap<>();
+    private final Map<String, Object> requestAttributes = new HashMap<>();
+    private String requestBody = "";
+    private String characterEncoding;
+    private boolean asyncSupported = true;
+
+    private volatile int status = HttpServletResponse.SC_OK;
+    private volatile String contentType;
+    private final Map<String, String> responseHeaders = new HashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private volatile boolean committed;
+
+    private final List<AsyncListener> listeners = new CopyOnWriteArrayList<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private volatile AsyncContext asyncContext;
+
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+
+    /**
+     * Creates the exchange.
+     *
+     * @param method the HTTP method
+     * @param path the path info
+     */
+    SwaggerAPITestExchange(final String method, final String path) {
+        this.method = method;
+        this.path = path;
+        request = (HttpServletRequest) Proxy.newProxyInstance(SwaggerAPITestExchange.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class },
+                (proxy, invoked, args) -> handleRequest(invoked.getName(), args, invoked.getReturnType()));
+        response = (HttpServletResponse) Proxy.newProxyInstance(SwaggerAPITestExchange.class.getClassLoader(), new Class<?>[] { HttpServletResponse.class },
+                (proxy, invoked, args) -> handleResponse(invoked.getName(), args, invoked.getReturnType()));
+    }
+
+    /**
+     * Creates a servlet initialized with the config.
+     *
+     * @param config the Swagger API config
+     * @return the servlet
+     * @throws ServletException if the servlet could not be initialized
+     */
+    static SwaggerAPIServlet servlet(final SwaggerAPIConfig config) throws ServletException {
+        final ServletContext context = (ServletContext) Proxy.newProxyInstance(SwaggerAPITestExchange.class.getClassLoader(), new Class<?>[] { ServletContext.class },
+                (proxy, invoked, args) -> "getAttribute".equals(invoked.getName()) && SwaggerAPIConfig.SERVLET_ATTRIBUTE_NAME.equals(args[0]) ? config
+                        : defaultValue(invoked.getReturnType()));
+        final ServletConfig servletConfig = (ServletConfig) Proxy.newProxyInstance(SwaggerAPITestExchange.class.getClassLoader(), new Class<?>[] { ServletConfig.class },
+                (proxy, invoked, args) -> {
+                    switch (invoked.getName()) {
+                        case "getServletContext":
+                            return context;
+                        case "getServletName":
+                            return "swagger";
+                        case "getInitParameterNames":
+                            return Collections.emptyEnumeration();
+                        default:
+                            return null;
+                    }
+                });
+        final SwaggerAPIServlet servlet = new SwaggerAPIServlet();
+        servlet.init(servletConfig);
+        return servlet;
+    }
+
+    /**
+     * Helper for the value returned by unsupported methods.
+     */
+    private static Object defaultValue(final Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return -1L;
+        }
+        return null;
+    }
+
+    SwaggerAPITestExchange header(final String name, final String value) {
+        requestHeaders.put(name, value);
+        return this;
+    }
+
+    SwaggerAPITestExchange attribute(final String name, final Object value) {
+        requestAttributes.put(name, value);
+        return this;
+    }
+
+    SwaggerAPITestExchange body(final String body) {
+        requestBody = body;
+        return this;
+    }
+
+    SwaggerAPITestExchange asyncSupported(final boolean supported) {
+        asyncSupported = supported;
+        return this;
+    }
+
+    /**
+     * Dispatches the request through the servlet.
+     *
+     * @param servlet the servlet
+     * @return this exchange
+     * @throws ServletException if the servlet fails
+     * @throws IOException if an I/O error occurs
+     */
+    SwaggerAPITestExchange dispatch(final SwaggerAPIServlet servlet) throws ServletException, IOException {
+        servlet.service(request, response);
+        return this;
+    }
+
+    /**
+     * @return true if the request has been switched to async processing
+     */
+    boolean isAsyncStarted() {
+        return asyncContext != null;
+    }
+
+    /**
+     * Waits until the async request is completed.
+     *
+     * @param timeoutMillis the maximum time to wait
+     * @return true if completed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean await(final long timeoutMillis) throws InterruptedException {
+        return completed.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Notifies the listeners about a timeout, as the container would.
+     *
+     * @throws IOException if a listener fails
+     */
+    void fireTimeout() throws IOException {
+        for (final AsyncListener listener : listeners) {
+            listener.onTimeout(new AsyncEvent(asyncContext, request, response));
+        }
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    String getContentType() {
+        return contentType;
+    }
+
+    synchronized String getHeader(final String name) {
+        return responseHeaders.get(name);
+    }
+
+    /**
+     * @return the body written so far
+     */
+    synchronized String getBody() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private Object handleRequest(final String name, final Object[] args, final Class<?> returnType) {
+        switch (name) {
+            case "getMethod":
+                return method;
+            case "getPathInfo":
+                return path;
+            case "getRequestURI":
+                return "/api" + path;
+            case "getHeader":
+                return requestHeaders.get(args[0]);
+            case "getAttribute":
+                return requestAttributes.get(args[0]);
+            case "setAttribute":
+                requestAttributes.put((String) args[0], args[1]);
+                return null;
+            case "removeAttribute":
+                requestAttributes.remove(args[0]);
+                return null;
+            case "getCharacterEncoding":
+                return characterEncoding;
+            case "setCharacterEncoding":
+                characterEncoding = (String) args[0];
+                return null;
+            case "getReader":
+                return new BufferedReader(new StringReader(requestBody));
+            case "getRemoteAddr":
+                return "127.0.0.1";
+            case "isAsyncSupported":
+                return asyncSupported;
+            case "isAsyncStarted":
+                return asyncContext != null;
+            case "startAsync":
+                if (!asyncSupported || asyncContext != null) {
+                    throw new IllegalStateException("Async processing not supported or already started");
+                }
+                asyncContext = asyncContext();
+                return asyncContext;
+            case "getAsyncContext":
+                return asyncContext;
+            default:
+                return defaultValue(returnType);
+        }
+    }
+
+    private synchronized Object handleResponse(final String name, final Object[] args, final Class<?> returnType) throws IOException {
+        switch (name) {
+            case "setStatus":
+                status = (Integer) args[0];
+                return null;
+            case "getStatus":
+                return status;
+            case "setContentType":
+                contentType = (String) args[0];
+                return null;
+            case "getContentType":
+                return contentType;
+            case "setHeader":
+            case "addHeader":
+                responseHeaders.put((String) args[0], (String) args[1]);
+                return null;
+            case "setDateHeader":
+            case "addDateHeader":
+                responseHeaders.put((String) args[0], Long.toString((Long) args[1]));
+                return null;
+            case "setIntHeader":
+                responseHeaders.put((String) args[0], Integer.toString((Integer) args[1]));
+                return null;
+            case "getHeader":
+                return responseHeaders.get(args[0]);
+            case "containsHeader":
+                return responseHeaders.containsKey(args[0]);
+            case "getOutputStream":
+                if (writer != null) {
+                    throw new IllegalStateException("getWriter() has already been called for this response");
+                }
+                if (outputStream == null) {
+                    outputStream = outputStream();
+                }
+                return outputStream;
+            case "getWriter":
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called for this response");
+                }
+                if (writer == null) {
+                    writer = new PrintWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+                }
+                return writer;
+            case "isCommitted":
+                return committed;
+            case "flushBuffer":
+                if (writer != null) {
+                    writer.flush();
+                }
+                committed = true;
+                return null;
+            case "resetBuffer":
+            case "reset":
+                if (committed) {
+                    throw new IllegalStateException("Response already committed");
+                }
+                if (writer != null) {
+                    writer.flush();
+                }
+                body.reset();
+                return null;
+            case "getCharacterEncoding":
+                return StandardCharsets.UTF_8.name();
+            default:
+                return defaultValue(returnType);
+        }
+    }
+
+    /**
+     * Helper for creating the output stream of the response.
+     */
+    private ServletOutputStream outputStream() {
+        return new ServletOutputStream() {
+
+            @Override
+            public void write(final int b) {
+                synchronized (SwaggerAPITestExchange.this) {
+                    body.write(b);
+                }
+            }
+
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) {
+                synchronized (SwaggerAPITestExchange.this) {
+                    body.write(bytes, offset, length);
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(final WriteListener listener) {
+                throw new UnsupportedOperationException("setWriteListener");
+            }
+        };
+    }
+
+    /**
+     * Helper for creating the async context of the request.
+     */
+    private AsyncContext asyncContext() {
+        return (AsyncContext) Proxy.newProxyInstance(SwaggerAPITestExchange.class.getClassLoader(), new Class<?>[] { AsyncContext.class },
+                (proxy, invoked, args) -> {
+                    switch (invoked.getName()) {
+                        case "getRequest":
+                            return request;
+                        case "getResponse":
+                            return response;
+                        case "addListener":
+                            listeners.add((AsyncListener) args[0]);
+                            return null;
+                        case "complete":
+                            synchronized (completed) {
+                                if (completed.getCount() == 0) {
+                                    throw new IllegalStateException("Request already completed");
+                                }
+                                committed = true;
+                                completed.countDown();
+                            }
+                            return null;
+                        default:
+                            return defaultValue(invoked.getReturnType());
+                    }
+                });
+    }
+}
@@ -0,0 +1,55 @@
+package com.roamsys.swagger.auth;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPICachingKeyStore}.
+ */
+public class SwaggerAPICachingKeyStoreTest {
+
+    private final SwaggerAPIKeyTable table = SwaggerAPIKeyTable.ofKeys(Map.of("tenant-a", "key-a"));
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private final SwaggerAPIKeyStore backend = digest -> {
+        lookups.incrementAndGet();
+        return table.lookup(digest);
+    };
+
+    @Test
+    public void testCachedLookup() throws IOException {
+        final SwaggerAPICachingKeyStore store = new SwaggerAPICachingKeyStore(backend, 100, 1, 1, TimeUnit.HOURS);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals("tenant-a", store.lookup(SwaggerAPIKeyStore.digest("key-a")));
+            Assert.assertNull(store.lookup(SwaggerAPIKeyStore.digest("key-b")));
+        }
+        Assert.assertEquals(2, lookups.get());
+        Assert.assertEquals(2, store.size());
+
+        store.invalidateAll();
+        Assert.assertEquals("tenant-a", store.lookup(SwaggerAPIKeyStore.digest("key-a")));
+        Assert.assertEquals(3, lookups.get());
+    }
+
+    @Test
+    public void testUncachedInvalidKeys() throws IOException {
+        final SwaggerAPICachingKeyStore store = new SwaggerAPICachingKeyStore(backend, 100, 1, 0, TimeUnit.HOURS);
+        Assert.assertNull(store.lookup(SwaggerAPIKeyStore.digest("key-b")));
+        Assert.assertNull(store.lookup(SwaggerAPIKeyStore.digest("key-b")));
+        Assert.assertEquals(2, lookups.get());
+        Assert.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testBoundedSize() throws IOException {
+        final SwaggerAPICachingKeyStore store = new SwaggerAPICachingKeyStore(backend, 8, 1, 1, TimeUnit.HOURS);
+        for (int i = 0; i < 100; i++) {
+            store.lookup(SwaggerAPIKeyStore.digest("key-" + i));
+        }
+        Assert.assertTrue(store.size() <= 8);
+    }
+}
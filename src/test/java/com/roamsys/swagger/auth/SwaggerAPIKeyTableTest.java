@@ -0,0 +1,42 @@
+package com.roamsys.swagger.auth;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPIKeyTable}.
+ */
+public class SwaggerAPIKeyTableTest {
+
+    @Test
+    public void testLookup() {
+        final SwaggerAPIKeyTable table = SwaggerAPIKeyTable.ofKeys(Map.of("tenant-a", "key-a", "tenant-b", "key-b"));
+        Assert.assertEquals(2, table.size());
+        Assert.assertEquals("tenant-a", table.lookup(SwaggerAPIKeyStore.digest("key-a")));
+        Assert.assertEquals("tenant-b", table.lookup(SwaggerAPIKeyStore.digest("key-b")));
+        Assert.assertNull(table.lookup(SwaggerAPIKeyStore.digest("key-c")));
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        final String lines = "# tenants\n\ntenant-a = " + SwaggerAPIKeyTable.toHex(SwaggerAPIKeyStore.digest("key-a")) + "\n"
+                + "tenant-b=" + SwaggerAPIKeyTable.toHex(SwaggerAPIKeyStore.digest("key-b")).toUpperCase() + "\n";
+        final SwaggerAPIKeyTable table = SwaggerAPIKeyTable.read(new StringReader(lines));
+        Assert.assertEquals(2, table.size());
+        Assert.assertEquals("tenant-a", table.lookup(SwaggerAPIKeyStore.digest("key-a")));
+        Assert.assertEquals("tenant-b", table.lookup(SwaggerAPIKeyStore.digest("key-b")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadInvalidDigest() throws IOException {
+        SwaggerAPIKeyTable.read(new StringReader("tenant-a = 0123"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateKey() {
+        SwaggerAPIKeyTable.ofKeys(Map.of("tenant-a", "key", "tenant-b", "key"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.roamsys.swagger.cache;
+
+import java.util.concurrent.CompletableFuture;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPIRequestCoalescer}.
+ */
+public class SwaggerAPIRequestCoalescerTest {
+
+    private static SwaggerAPIResponseCache.Key key(final Object... values) {
+        return new SwaggerAPIResponseCache.Key("get-test-id", values);
+    }
+
+    @Test
+    public void testJoin() {
+        final SwaggerAPIRequestCoalescer coalescer = new SwaggerAPIRequestCoalescer();
+        final CompletableFuture<SwaggerAPICachedResponse> leading = new CompletableFuture<>();
+        Assert.assertNull(coalescer.join(key("42"), leading));
+        Assert.assertSame(leading, coalescer.join(key("42"), new CompletableFuture<>()));
+        Assert.assertNull(coalescer.join(key("43"), new CompletableFuture<>()));
+        Assert.assertEquals(1, coalescer.getCoalescedCount());
+        Assert.assertEquals(2, coalescer.getInFlightCount());
+
+        // completed flights are removed, the next request leads a new flight
+        leading.complete(new SwaggerAPICachedResponse("application/json", new byte[0]));
+        Assert.assertEquals(1, coalescer.getInFlightCount());
+        Assert.assertNull(coalescer.join(key("42"), new CompletableFuture<>()));
+    }
+
+    @Test
+    public void testFailedFlight() {
+        final SwaggerAPIRequestCoalescer coalescer = new SwaggerAPIRequestCoalescer();
+        final CompletableFuture<SwaggerAPICachedResponse> leading = new CompletableFuture<>();
+        coalescer.join(key("42"), leading);
+        final CompletableFuture<SwaggerAPICachedResponse> joined = coalescer.join(key("42"), new CompletableFuture<>());
+        leading.completeExceptionally(new IllegalStateException("failed"));
+        Assert.assertTrue(joined.isCompletedExceptionally());
+        Assert.assertEquals(0, coalescer.getInFlightCount());
+    }
+}
@@ -0,0 +1,79 @@
+package com.roamsys.swagger.cache;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPIResponseCache}.
+ */
+public class SwaggerAPIResponseCacheTest {
+
+    private static final long TTL = TimeUnit.MINUTES.toNanos(1);
+
+    private static SwaggerAPIResponseCache.Key key(final String operationId, final Object... values) {
+        return new SwaggerAPIResponseCache.Key(operationId, values);
+    }
+
+    private static SwaggerAPICachedResponse response(final int size) {
+        return new SwaggerAPICachedResponse("application/json", new byte[size]);
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        final SwaggerAPIResponseCache cache = new SwaggerAPIResponseCache(SwaggerAPIResponseCache.DEFAULT_MAX_BYTES);
+        final SwaggerAPICachedResponse response = response(10);
+        cache.put(key("get-test-id", "42", 1L), response, TTL);
+        Assert.assertSame(response, cache.get(key("get-test-id", "42", 1L)));
+        Assert.assertNull(cache.get(key("get-test-id", "42", 2L)));
+        Assert.assertNull(cache.get(key("get-other-id", "42", 1L)));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+
+        // expired
+        cache.put(key("get-test-id", "43"), response, 0);
+        Assert.assertNull(cache.get(key("get-test-id", "43")));
+        Assert.assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void testEviction() {
+        final SwaggerAPIResponseCache cache = new SwaggerAPIResponseCache(100_000);
+        // frequently requested entries are protected from a scan over other values
+        for (int i = 0; i < 10; i++) {
+            cache.put(key("get-test-id", "hot" + i), response(1000), TTL);
+            Assert.assertNotNull(cache.get(key("get-test-id", "hot" + i)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            cache.put(key("get-test-id", "cold" + i), response(1000), TTL);
+        }
+        for (int i = 0; i < 10; i++) {
+            Assert.assertNotNull(cache.get(key("get-test-id", "hot" + i)));
+        }
+        Assert.assertNull(cache.get(key("get-test-id", "cold0")));
+        Assert.assertTrue(cache.getEvictionCount() > 0);
+        Assert.assertTrue(cache.getWeightedSize() <= 100_000);
+
+        // too large for the cache
+        cache.put(key("get-test-id", "large"), response(20_000), TTL);
+        Assert.assertNull(cache.get(key("get-test-id", "large")));
+
+        cache.setMaxBytes(0);
+        Assert.assertEquals(0, cache.getSize());
+        Assert.assertEquals(0, cache.getWeightedSize());
+    }
+
+    @Test
+    public void testInvalidate() {
+        final SwaggerAPIResponseCache cache = new SwaggerAPIResponseCache(SwaggerAPIResponseCache.DEFAULT_MAX_BYTES);
+        cache.put(key("get-test-id", "1"), response(10), TTL);
+        cache.put(key("get-test-id", "2"), response(10), TTL);
+        cache.put(key("get-other-id", "1"), response(10), TTL);
+        cache.invalidate("get-test-id");
+        Assert.assertNull(cache.get(key("get-test-id", "1")));
+        Assert.assertNotNull(cache.get(key("get-other-id", "1")));
+        cache.invalidateAll();
+        Assert.assertNull(cache.get(key("get-other-id", "1")));
+        Assert.assertEquals(0, cache.getWeightedSize());
+    }
+}
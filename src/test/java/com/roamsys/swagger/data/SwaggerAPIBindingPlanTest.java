@@ -0,0 +1,77 @@
+package com.roamsys.swagger.data;
+
+import com.roamsys.swagger.annotations.SwaggerParameter.DataType;
+import com.roamsys.swagger.annotations.SwaggerParameter.ParamType;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPIBindingPlan}.
+ */
+public class SwaggerAPIBindingPlanTest {
+
+    private static SwaggerAPIParameterData parameter(final String name, final ParamType paramType, final Class<?> type, final boolean required) {
+        final DataType dataType = type == long.class || type == Long.class ? DataType.LONG : DataType.STRING;
+        return new SwaggerAPIParameterData(name, paramType, dataType, type, required, SwaggerParameterConverters.getDefaults());
+    }
+
+    private static void assertInvalid(final String path, final SwaggerAPIParameterData... parameters) {
+        try {
+            new SwaggerAPIBindingPlan("method", path, Arrays.asList(parameters));
+            Assert.fail("Invalid plan compiled for " + path);
+        } catch (final IllegalArgumentException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("method"));
+        }
+    }
+
+    @Test
+    public void testPathIndexes() {
+        // the parameters are bound by name, not by their order
+        final SwaggerAPIBindingPlan plan = new SwaggerAPIBindingPlan("method", "/model.json/{from}/to/{to}", Arrays.asList(
+                parameter("to", ParamType.PATH, long.class, true), parameter("q", ParamType.QUERY, String.class, false),
+                parameter("from", ParamType.PATH, Long.class, true)));
+        Assert.assertEquals(3, plan.size());
+        Assert.assertEquals(2, plan.getPathParameterCount());
+        Assert.assertEquals(1, plan.getSlot(0).getPathIndex());
+        Assert.assertEquals(-1, plan.getSlot(1).getPathIndex());
+        Assert.assertEquals(0, plan.getSlot(2).getPathIndex());
+        Assert.assertEquals(42L, plan.getSlot(0).convert("42"));
+        Assert.assertNull(plan.getSlot(1).convert(null));
+    }
+
+    @Test
+    public void testRequired() {
+        final SwaggerAPIBindingPlan plan = new SwaggerAPIBindingPlan("method", "/model.json/items", Arrays.asList(
+                parameter("page", ParamType.QUERY, long.class, false), parameter("X-Tenant", ParamType.HEADER, String.class, true)));
+        Assert.assertTrue(plan.getSlot(0).isValueRequired());
+        Assert.assertTrue(plan.getSlot(1).isValueRequired());
+        try {
+            plan.getSlot(1).convert("");
+            Assert.fail("Missing required value accepted");
+        } catch (final IllegalArgumentException ex) {
+            Assert.assertEquals("Missing value for parameter X-Tenant", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        // placeholder without parameter, parameter without placeholder
+        assertInvalid("/model.json/{id}");
+        assertInvalid("/model.json/items", parameter("id", ParamType.PATH, Long.class, true));
+        assertInvalid("/model.json/{id}", parameter("itemId", ParamType.PATH, Long.class, true));
+        // duplicates
+        assertInvalid("/model.json/{id}/{id}", parameter("id", ParamType.PATH, Long.class, true));
+        assertInvalid("/model.json/items", parameter("q", ParamType.QUERY, String.class, false), parameter("q", ParamType.QUERY, String.class, false));
+        assertInvalid("/model.json/items", parameter("X-Tenant", ParamType.HEADER, String.class, false), parameter("x-tenant", ParamType.HEADER, String.class, false));
+        assertInvalid("/model.json/items", parameter("body", ParamType.BODY, InputStream.class, true), parameter("form", ParamType.FORM, InputStream.class, true));
+        assertInvalid("/model.json/items", parameter("", ParamType.QUERY, String.class, false));
+
+        // the same name as query and header parameter is valid
+        new SwaggerAPIBindingPlan("method", "/model.json/items", Arrays.asList(parameter("q", ParamType.QUERY, String.class, false),
+                parameter("q", ParamType.HEADER, String.class, false)));
+        new SwaggerAPIBindingPlan("method", "/model.json/items", Collections.emptyList());
+    }
+}
@@ -0,0 +1,63 @@
+package com.roamsys.swagger.data;
+
+import com.roamsys.swagger.SwaggerAPIModel;
+import java.lang.reflect.Method;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPIInvokerProvider} and the lookup of generated invokers by {@link SwaggerAPIInvoker#create(Object, Method)}.
+ */
+public class SwaggerAPIInvokerProviderTest {
+
+    /**
+     * Not annotated, so it is not found by the scanner tests
+     */
+    public static class ProvidedAPI implements SwaggerAPIModel {
+
+        public String generated(final SwaggerAPIContext context, final int[] values) {
+            return "reflective";
+        }
+
+        public String spun(final SwaggerAPIContext context) {
+            return "spun";
+        }
+    }
+
+    @Test
+    public void testNames() throws NoSuchMethodException {
+        Assert.assertEquals("com.example.Api_Items_SwaggerInvokers", SwaggerAPIInvokerProvider.providerClassName("com.example.Api$Items"));
+        Assert.assertEquals("Api_SwaggerInvokers", SwaggerAPIInvokerProvider.providerClassName("Api"));
+        Assert.assertEquals("generated(com.roamsys.swagger.data.SwaggerAPIContext,int[])",
+                SwaggerAPIInvokerProvider.signature(ProvidedAPI.class.getMethod("generated", SwaggerAPIContext.class, int[].class)));
+    }
+
+    @Test
+    public void testCreate() throws Throwable {
+        final ProvidedAPI model = new ProvidedAPI();
+        final SwaggerAPIInvoker generated = SwaggerAPIInvoker.create(model, ProvidedAPI.class.getMethod("generated", SwaggerAPIContext.class, int[].class));
+        Assert.assertEquals("generated 3", generated.invoke(new Object[] { null, new int[3] }));
+        // the provider has no invoker for the method
+        final SwaggerAPIInvoker spun = SwaggerAPIInvoker.create(model, ProvidedAPI.class.getMethod("spun", SwaggerAPIContext.class));
+        Assert.assertEquals("spun", spun.invoke(new Object[] { null }));
+    }
+}
+
+/**
+ * Provider as generated by the annotation processor for {@link SwaggerAPIInvokerProviderTest.ProvidedAPI}
+ */
+final class SwaggerAPIInvokerProviderTest_ProvidedAPI_SwaggerInvokers implements SwaggerAPIInvokerProvider {
+
+    public SwaggerAPIInvokerProviderTest_ProvidedAPI_SwaggerInvokers() {
+    }
+
+    @Override
+    public SwaggerAPIInvoker getInvoker(final SwaggerAPIModel model, final String signature) {
+        switch (signature) {
+            case "generated(com.roamsys.swagger.data.SwaggerAPIContext,int[])":
+                return arguments -> "generated " + ((int[]) arguments[1]).length;
+            default:
+                return null;
+        }
+    }
+}
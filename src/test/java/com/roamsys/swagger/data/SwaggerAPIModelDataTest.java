@@ -49,4 +49,33 @@ public class SwaggerAPIModelDataTest {
         }
 
     }
+
+    @Test
+    public void testResolveAPI() {
+        final SwaggerAPIConfig config = new SwaggerAPIConfig(null);
+        config.registerModel(new TestsAPI());
+        final SwaggerAPIRouteMatch route = config.resolveAPI(path, SwaggerApi.HTTPMethod.GET);
+        Assert.assertNotNull(route);
+        Assert.assertEquals(expectedPattern, route.getAPI().getMethod().getAnnotation(SwaggerApi.class).path());
+        Assert.assertEquals(route.getAPI().getParameters().size(), route.getPathParameterCount());
+        if (route.getPathParameterCount() > 0) {
+            Assert.assertEquals("123456789012345678901234", route.getPathParameter(0));
+        }
+        Assert.assertNull(config.resolveAPI(path, SwaggerApi.HTTPMethod.POST));
+        Assert.assertNull(config.resolveAPI(path + "/", SwaggerApi.HTTPMethod.GET));
+    }
+
+    @Test
+    public void testUnregisterModel() {
+        final SwaggerAPIConfig config = new SwaggerAPIConfig(null);
+        final TestsAPI model = new TestsAPI();
+        config.registerModel(model);
+        Assert.assertTrue(config.unregisterModel(model));
+        Assert.assertFalse(config.unregisterModel(model));
+        Assert.assertNull(config.resolveAPI(path, SwaggerApi.HTTPMethod.GET));
+        Assert.assertFalse(config.isAPIModelPath("/testAPI.json"));
+        Assert.assertTrue(config.getApiSpec().toString().endsWith("Paths: []"));
+        config.registerModel(new TestsAPI());
+        Assert.assertNotNull(config.resolveAPI(path, SwaggerApi.HTTPMethod.GET));
+    }
 }
@@ -0,0 +1,61 @@
+package com.roamsys.swagger.data;
+
+import com.roamsys.swagger.annotations.SwaggerParameter.DataType;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerParameterConverters}.
+ */
+public class SwaggerParameterConvertersTest {
+
+    private final SwaggerParameterConverters converters = new SwaggerParameterConverters();
+
+    private Object convert(final DataType dataType, final Class<?> type, final String value) {
+        return converters.get(dataType, type).convert(value);
+    }
+
+    @Test
+    public void testNumbers() {
+        Assert.assertEquals(42, convert(DataType.INTEGER, int.class, "42"));
+        Assert.assertEquals(42L, convert(DataType.INTEGER, long.class, "42"));
+        Assert.assertEquals(1234567890123L, convert(DataType.LONG, Long.class, "1234567890123"));
+        Assert.assertEquals(Boolean.TRUE, convert(DataType.BOOLEAN, boolean.class, "true"));
+        Assert.assertNull(converters.get(DataType.LONG, int.class));
+    }
+
+    @Test
+    public void testDates() {
+        Assert.assertEquals(LocalDate.of(2007, 8, 31), convert(DataType.DATE, LocalDate.class, "2007-08-31"));
+        final OffsetDateTime time = OffsetDateTime.of(2007, 8, 31, 16, 47, 0, 0, ZoneOffset.ofHours(2));
+        Assert.assertEquals(time, convert(DataType.DATETIME, OffsetDateTime.class, "2007-08-31T16:47:00+02:00"));
+        Assert.assertEquals(time.toInstant(), convert(DataType.DATETIME, Instant.class, "2007-08-31T16:47:00+02:00"));
+        Assert.assertEquals(time.withOffsetSameInstant(ZoneOffset.ofHoursMinutes(-3, -30)), convert(DataType.DATETIME, OffsetDateTime.class, "2007-08-31T11:17:00-03:30"));
+        // forms parsed by the formatter
+        Assert.assertEquals(time.withNano(500_000_000), convert(DataType.DATETIME, OffsetDateTime.class, "2007-08-31T16:47:00.5+02:00"));
+        Assert.assertEquals(time, convert(DataType.DATETIME, OffsetDateTime.class, "2007-08-31T16:47+02:00"));
+        // legacy Date arguments
+        Assert.assertEquals(Date.from(time.toInstant()), convert(DataType.DATETIME, null, "2007-08-31T16:47:00+02:00"));
+        Assert.assertEquals(Date.from(Instant.parse("2007-08-31T14:47:00Z")), convert(DataType.DATETIME, Date.class, "2007-08-31T14:47:00Z"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDate() {
+        convert(DataType.DATE, LocalDate.class, "2007-02-30");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDateTime() {
+        convert(DataType.DATETIME, OffsetDateTime.class, "2007-08-31T25:47:00+02:00");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNumber() {
+        convert(DataType.INTEGER, Integer.class, "4x");
+    }
+}
@@ -29,4 +29,15 @@ public class ApiSpecBuilderTest {
         final JsonElement specJson = gson.toJsonTree(apiSpecBuilder.getApiSpec());
         Assert.assertEquals(specJson, gson.fromJson(IOUtils.toString(getClass().getClassLoader().getResourceAsStream("swagger.json"), "UTF-8"), JsonElement.class));
     }
+
+    @Test
+    public void testBatchOperation() {
+        final ApiSpecBuilder apiSpecBuilder = new ApiSpecBuilder();
+        apiSpecBuilder.setBatchOperation("/_batch", 10);
+        final OperationApiSpec operation = apiSpecBuilder.getApiSpec().paths.get("/_batch").get("post");
+        Assert.assertEquals("post-batch", operation.operationId);
+        Assert.assertEquals("body", operation.parameters.get(0).in);
+        apiSpecBuilder.setBatchOperation("/_batch", 0);
+        Assert.assertFalse(apiSpecBuilder.getApiSpec().paths.containsKey("/_batch"));
+    }
 }
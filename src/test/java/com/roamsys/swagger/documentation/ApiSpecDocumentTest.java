@@ -0,0 +1,83 @@
+package com.roamsys.swagger.documentation;
+
+import com.google.gson.GsonBuilder;
+import com.roamsys.swagger.TestsAPI;
+import com.roamsys.swagger.annotations.SwaggerApi;
+import com.roamsys.swagger.annotations.SwaggerModel;
+import com.roamsys.swagger.annotations.SwaggerParameter;
+import com.roamsys.swagger.data.SwaggerAPIContext;
+import com.roamsys.swagger.documentation.ApiSpecDocument.Encoding;
+import java.io.ByteArrayInputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link ApiSpecDocument}.
+ */
+public class ApiSpecDocumentTest {
+
+    private ApiSpecDocument createDocument() throws Exception {
+        final ApiSpecBuilder apiSpecBuilder = new ApiSpecBuilder();
+        final SwaggerApi apiAnnotation = TestsAPI.class.getMethod("test", SwaggerAPIContext.class).getAnnotation(SwaggerApi.class);
+        apiSpecBuilder.addOperation(TestsAPI.class.getAnnotation(SwaggerModel.class), apiAnnotation, Collections.emptyList());
+        return new ApiSpecDocument(apiSpecBuilder.getApiSpec());
+    }
+
+    @Test
+    public void testVariants() throws Exception {
+        final ApiSpecDocument document = createDocument();
+        final byte[] json = document.getContent(Encoding.IDENTITY);
+        Assert.assertArrayEquals(json, IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(document.getContent(Encoding.GZIP)))));
+        Assert.assertArrayEquals(json, IOUtils.toByteArray(new InflaterInputStream(new ByteArrayInputStream(document.getContent(Encoding.DEFLATE)))));
+        Assert.assertNotEquals(document.getEntityTag(Encoding.IDENTITY), document.getEntityTag(Encoding.GZIP));
+        Assert.assertEquals(document.getEntityTag(Encoding.GZIP), createDocument().getEntityTag(Encoding.GZIP));
+    }
+
+    @Test
+    public void testToJson() {
+        final ApiSpecBuilder apiSpecBuilder = new ApiSpecBuilder().setHost("example.com").setVersion("1.0").setDescription("<b>Tests</b> & more");
+        for (final Method method : TestsAPI.class.getMethods()) {
+            if (method.isAnnotationPresent(SwaggerApi.class)) {
+                final List<SwaggerParameter> parameterAnnotations = new ArrayList<>();
+                for (final Annotation[] annotations : method.getParameterAnnotations()) {
+                    Arrays.stream(annotations).filter(SwaggerParameter.class::isInstance).map(SwaggerParameter.class::cast).forEach(parameterAnnotations::add);
+                }
+                apiSpecBuilder.addOperation(TestsAPI.class.getAnnotation(SwaggerModel.class), method.getAnnotation(SwaggerApi.class), parameterAnnotations);
+            }
+        }
+        apiSpecBuilder.setBatchOperation("/_batch", 10);
+
+        // the same output as the reflective serialization of the exposed fields
+        final String json = ApiSpecDocument.toJson(apiSpecBuilder.getApiSpec());
+        Assert.assertEquals(new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create().toJson(apiSpecBuilder.getApiSpec()), json);
+        Assert.assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), new ApiSpecDocument(apiSpecBuilder.getApiSpec()).getContent(Encoding.IDENTITY));
+    }
+
+    @Test
+    public void testSelectEncoding() {
+        Assert.assertEquals(Encoding.IDENTITY, ApiSpecDocument.selectEncoding(null));
+        Assert.assertEquals(Encoding.GZIP, ApiSpecDocument.selectEncoding("deflate, gzip;q=0.8"));
+        Assert.assertEquals(Encoding.DEFLATE, ApiSpecDocument.selectEncoding("gzip;q=0, deflate"));
+        Assert.assertEquals(Encoding.IDENTITY, ApiSpecDocument.selectEncoding("br"));
+    }
+
+    @Test
+    public void testMatches() throws Exception {
+        final ApiSpecDocument document = createDocument();
+        Assert.assertFalse(document.matches(null));
+        Assert.assertFalse(document.matches("\"other\""));
+        Assert.assertTrue(document.matches("*"));
+        Assert.assertTrue(document.matches("\"other\", " + document.getEntityTag(Encoding.GZIP)));
+        Assert.assertTrue(document.matches("W/" + document.getEntityTag(Encoding.IDENTITY)));
+    }
+}
@@ -0,0 +1,93 @@
+package com.roamsys.swagger.limit;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPIBulkhead}.
+ */
+public class SwaggerAPIBulkheadTest {
+
+    private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testLimit() {
+        final SwaggerAPIBulkhead bulkhead = new SwaggerAPIBulkhead(2);
+        Assert.assertTrue(bulkhead.acquire());
+        Assert.assertTrue(bulkhead.acquire());
+        Assert.assertFalse(bulkhead.acquire());
+        Assert.assertEquals(2, bulkhead.getInFlightCount());
+        Assert.assertEquals(1, bulkhead.getRejectedCount());
+
+        bulkhead.release(MILLISECOND, true);
+        Assert.assertTrue(bulkhead.acquire());
+    }
+
+    @Test
+    public void testQueue() throws InterruptedException {
+        final SwaggerAPIBulkhead bulkhead = new SwaggerAPIBulkhead(1, 1, 10, TimeUnit.SECONDS);
+        Assert.assertTrue(bulkhead.acquire());
+
+        // a queued request gets the permit once it is released
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final AtomicBoolean acquired = new AtomicBoolean();
+        final Thread queued = new Thread(() -> {
+            waiting.countDown();
+            acquired.set(bulkhead.acquire());
+        });
+        queued.start();
+        waiting.await();
+        while (bulkhead.getQueuedCount() == 0) {
+            Thread.sleep(1);
+        }
+        // the queue is full
+        Assert.assertFalse(bulkhead.acquire());
+        bulkhead.release(MILLISECOND, true);
+        queued.join(5000);
+        Assert.assertTrue(acquired.get());
+        Assert.assertEquals(1, bulkhead.getInFlightCount());
+    }
+
+    @Test
+    public void testQueueDeadline() {
+        final SwaggerAPIBulkhead bulkhead = new SwaggerAPIBulkhead(1, 10, 20, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(bulkhead.acquire());
+        final long start = System.nanoTime();
+        Assert.assertFalse(bulkhead.acquire());
+        Assert.assertTrue(System.nanoTime() - start >= 20 * MILLISECOND);
+        Assert.assertEquals(0, bulkhead.getQueuedCount());
+    }
+
+    @Test
+    public void testAdaptiveLimit() throws InterruptedException {
+        final SwaggerAPIBulkhead bulkhead = new SwaggerAPIBulkhead(10);
+        bulkhead.setAdaptive(2, 20);
+
+        // saturated with stable latency, the limit grows
+        for (int i = 0; i < 200; i++) {
+            while (bulkhead.acquire()) {
+                // take all permits
+            }
+            bulkhead.release(MILLISECOND, true);
+        }
+        Assert.assertTrue(bulkhead.getLimit() > 10);
+        drain(bulkhead);
+
+        // failures shrink the limit down to the minimum, at most once per average latency
+        for (int i = 0; i < 50; i++) {
+            Assert.assertTrue(bulkhead.acquire());
+            bulkhead.release(MILLISECOND, false);
+            Thread.sleep(2);
+        }
+        Assert.assertEquals(2, bulkhead.getLimit());
+    }
+
+    private static void drain(final SwaggerAPIBulkhead bulkhead) {
+        while (bulkhead.getInFlightCount() > 0) {
+            bulkhead.release(MILLISECOND, true);
+        }
+    }
+}
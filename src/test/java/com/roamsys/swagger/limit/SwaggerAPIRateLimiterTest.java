@@ -0,0 +1,84 @@
+package com.roamsys.swagger.limit;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPIRateLimiter}.
+ */
+public class SwaggerAPIRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testBurstAndRate() {
+        final SwaggerAPIRateLimiter limiter = new SwaggerAPIRateLimiter();
+        final SwaggerAPIRateLimit limit = new SwaggerAPIRateLimit(2, 3);
+        final long now = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(0, limiter.acquire("get-test", limit, "key-a", now));
+        }
+        // the next permit is available after half a second
+        Assert.assertEquals(SECOND / 2, limiter.acquire("get-test", limit, "key-a", now));
+        Assert.assertEquals(0, limiter.acquire("get-test", limit, "key-a", now + SECOND / 2));
+        Assert.assertTrue(limiter.acquire("get-test", limit, "key-a", now + SECOND / 2) > 0);
+
+        // other keys and operations have buckets of their own
+        Assert.assertEquals(0, limiter.acquire("get-test", limit, "key-b", now));
+        Assert.assertEquals(0, limiter.acquire("get-other", limit, "key-a", now));
+        Assert.assertEquals(2, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void testLimitResolution() {
+        final SwaggerAPIRateLimiter limiter = new SwaggerAPIRateLimiter();
+        final SwaggerAPIRateLimit declared = SwaggerAPIRateLimit.perSecond(10);
+        Assert.assertNull(limiter.getLimit("GET /test.json/items", "get-test", null));
+        Assert.assertSame(declared, limiter.getLimit("GET /test.json/items", "get-test", declared));
+
+        final SwaggerAPIRateLimit defaultLimit = SwaggerAPIRateLimit.perSecond(100);
+        limiter.setDefaultLimit(defaultLimit);
+        Assert.assertSame(defaultLimit, limiter.getLimit("GET /test.json/items", "get-test", null));
+        Assert.assertSame(declared, limiter.getLimit("GET /test.json/items", "get-test", declared));
+
+        limiter.setLimit("get-test", SwaggerAPIRateLimit.UNLIMITED);
+        Assert.assertNull(limiter.getLimit("GET /test.json/items", "get-test", declared));
+        limiter.setLimit("get-test", null);
+        Assert.assertSame(declared, limiter.getLimit("GET /test.json/items", "get-test", declared));
+
+        // a limit of the route takes precedence over the limit of the operation ID, which other routes may share
+        final SwaggerAPIRateLimit routeLimit = SwaggerAPIRateLimit.perSecond(1);
+        limiter.setLimit("get-test", SwaggerAPIRateLimit.UNLIMITED);
+        limiter.setLimit("GET /test.json/items", routeLimit);
+        Assert.assertSame(routeLimit, limiter.getLimit("GET /test.json/items", "get-test", declared));
+        Assert.assertNull(limiter.getLimit("GET /test.xml/items", "get-test", declared));
+    }
+
+    @Test
+    public void testIdleBucketsDropped() {
+        final SwaggerAPIRateLimiter limiter = new SwaggerAPIRateLimiter();
+        limiter.setMaxBuckets(100);
+        final SwaggerAPIRateLimit limit = SwaggerAPIRateLimit.perSecond(1);
+        final long now = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire("get-test", limit, "key-" + i, now);
+        }
+        Assert.assertEquals(100, limiter.getBucketCount());
+
+        // the buckets are full again after a second, adding a bucket drops them
+        limiter.acquire("get-test", limit, "key-new", now + 2 * SECOND);
+        Assert.assertEquals(1, limiter.getBucketCount());
+
+        // buckets in use are dropped as well above the maximum
+        for (int i = 0; i < 200; i++) {
+            limiter.acquire("get-test", limit, "key-" + i, now + 2 * SECOND);
+        }
+        Assert.assertTrue(limiter.getBucketCount() <= 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimit() {
+        new SwaggerAPIRateLimit(0, 1);
+    }
+}
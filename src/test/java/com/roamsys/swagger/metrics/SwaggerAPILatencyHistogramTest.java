@@ -0,0 +1,45 @@
+package com.roamsys.swagger.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwaggerAPILatencyHistogram}.
+ */
+public class SwaggerAPILatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < 100_000; value++) {
+            final int index = SwaggerAPILatencyHistogram.bucketIndex(value);
+            Assert.assertTrue("Upper bound of " + value, SwaggerAPILatencyHistogram.bucketUpperBound(index) >= value);
+            Assert.assertTrue("Relative error of " + value, SwaggerAPILatencyHistogram.bucketUpperBound(index) - value <= value / 8);
+            if (index > 0) {
+                Assert.assertTrue("Lower bound of " + value, SwaggerAPILatencyHistogram.bucketUpperBound(index - 1) < value);
+            }
+        }
+        final int last = SwaggerAPILatencyHistogram.bucketIndex(SwaggerAPILatencyHistogram.MAX_VALUE);
+        Assert.assertEquals(SwaggerAPILatencyHistogram.MAX_VALUE, SwaggerAPILatencyHistogram.bucketUpperBound(last));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final SwaggerAPILatencyHistogram histogram = new SwaggerAPILatencyHistogram();
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        Assert.assertEquals(1000, histogram.getCount());
+        Assert.assertEquals(500_500, histogram.getMean(), 0.001);
+        Assert.assertEquals(1_000_000, histogram.getMax());
+        Assert.assertEquals(500_000, histogram.getValueAtPercentile(50), 500_000 / 8);
+        Assert.assertEquals(990_000, histogram.getValueAtPercentile(99), 990_000 / 8);
+        Assert.assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+
+        // out of range values
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(1002, histogram.getCount());
+        Assert.assertEquals(Long.MAX_VALUE, histogram.getMax());
+    }
+}
@@ -0,0 +1,299 @@
+package com.roamsys.swagger.resources;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.GZIPOutputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test for {@link SwaggerAPIStaticResources}.
+ */
+public class SwaggerAPIStaticResourcesTest {
+
+    private static final String INDEX = "<html>Swagger UI</html>";
+    private static final String SCRIPT = "console.log('0123456789');";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    /**
+     * The headers of the next request
+     */
+    private final Map<String, String> requestHeaders = new HashMap<>();
+
+    /**
+     * The attributes of the next request
+     */
+    private final Map<String, Object> requestAttributes = new HashMap<>();
+
+    /**
+     * Defines if the next request is wrapped, e.g. as entry of a batch
+     */
+    private boolean wrapRequest;
+
+    private final Map<String, String> responseHeaders = new HashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private int status;
+
+    @Before
+    public void createFiles() throws IOException {
+        directory = folder.newFolder("ui").toPath();
+        Files.write(directory.resolve("index.html"), INDEX.getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("app.3f2a9c1b.js"), SCRIPT.getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("app.3f2a9c1b.js.gz"), gzip(SCRIPT));
+        Files.write(directory.resolve(".secret"), "secret".getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Helper for compressing a string.
+     */
+    private static byte[] gzip(final String content) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Helper for serving a resource with the prepared request headers and attributes, which are cleared afterwards.
+     */
+    private boolean serve(final SwaggerAPIStaticResources resources, final String path) throws IOException {
+        responseHeaders.clear();
+        body.reset();
+        status = 0;
+        final HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { HttpServletRequest.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getHeader":
+                            return requestHeaders.get(((String) args[0]).toLowerCase(Locale.ROOT));
+                        case "getDateHeader":
+                            final String date = requestHeaders.get(((String) args[0]).toLowerCase(Locale.ROOT));
+                            return date != null ? Long.parseLong(date) : -1L;
+                        case "getAttribute":
+                            return requestAttributes.get(args[0]);
+                        case "setAttribute":
+                            requestAttributes.put((String) args[0], args[1]);
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+        final ServletOutputStream out = new ServletOutputStream() {
+
+            @Override
+            public void write(final int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(final WriteListener writeListener) {
+                // blocking
+            }
+        };
+        final HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { HttpServletResponse.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setStatus":
+                            status = (Integer) args[0];
+                            return null;
+                        case "setHeader":
+                        case "setDateHeader":
+                            responseHeaders.put(((String) args[0]).toLowerCase(Locale.ROOT), String.valueOf(args[1]));
+                            return null;
+                        case "setContentType":
+                            responseHeaders.put("content-type", (String) args[0]);
+                            return null;
+                        case "setContentLengthLong":
+                            responseHeaders.put("content-length", String.valueOf(args[0]));
+                            return null;
+                        case "getOutputStream":
+                            return out;
+                        default:
+                            return null;
+                    }
+                });
+        try {
+            return resources.serve(wrapRequest ? new HttpServletRequestWrapper(request) : request, response, path);
+        } finally {
+            requestHeaders.clear();
+        }
+    }
+
+    private String body() {
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testServe() throws IOException {
+        final SwaggerAPIStaticResources resources = new SwaggerAPIStaticResources(directory);
+        Assert.assertTrue(serve(resources, ""));
+        Assert.assertEquals(200, status);
+        Assert.assertEquals(INDEX, body());
+        Assert.assertEquals("text/html;charset=UTF-8", responseHeaders.get("content-type"));
+        Assert.assertEquals("no-cache", responseHeaders.get("cache-control"));
+        Assert.assertNull(responseHeaders.get("vary"));
+
+        // fingerprinted and compressed
+        Assert.assertTrue(serve(resources, "app.3f2a9c1b.js"));
+        Assert.assertEquals(SCRIPT, body());
+        Assert.assertEquals(SwaggerAPIStaticResources.CACHE_CONTROL_IMMUTABLE, responseHeaders.get("cache-control"));
+        Assert.assertEquals("Accept-Encoding", responseHeaders.get("vary"));
+        final String entityTag = responseHeaders.get("etag");
+        requestHeaders.put("accept-encoding", "gzip, deflate");
+        Assert.assertTrue(serve(resources, "app.3f2a9c1b.js"));
+        Assert.assertArrayEquals(gzip(SCRIPT), body.toByteArray());
+        Assert.assertEquals("gzip", responseHeaders.get("content-encoding"));
+        Assert.assertNotEquals(entityTag, responseHeaders.get("etag"));
+        Assert.assertEquals(2, resources.getResourceCount());
+
+        // missing, hidden and outside of the directory
+        Assert.assertFalse(serve(resources, "missing.js"));
+        Assert.assertFalse(serve(resources, ".secret"));
+        Assert.assertFalse(serve(resources, "../ui/index.html"));
+        Assert.assertFalse(serve(resources, "a//index.html"));
+        Assert.assertEquals(0, body.size());
+        Assert.assertEquals(4L, resources.statistics().get("notFound"));
+    }
+
+    @Test
+    public void testConditionalAndRange() throws IOException {
+        final SwaggerAPIStaticResources resources = new SwaggerAPIStaticResources(directory);
+        Assert.assertTrue(serve(resources, "app.3f2a9c1b.js"));
+        final String entityTag = responseHeaders.get("etag");
+        final long lastModified = Long.parseLong(responseHeaders.get("last-modified"));
+
+        requestHeaders.put("if-none-match", "\"other\", W/" + entityTag);
+        Assert.assertTrue(serve(resources, "app.3f2a9c1b.js"));
+        Assert.assertEquals(304, status);
+        Assert.assertEquals(0, body.size());
+        requestHeaders.put("if-modified-since", Long.toString(lastModified));
+        Assert.assertTrue(serve(resources, "app.3f2a9c1b.js"));
+        Assert.assertEquals(304, status);
+
+        requestHeaders.put("range", "bytes=13-22");
+        Assert.assertTrue(serve(resources, "app.3f2a9c1b.js"));
+        Assert.assertEquals(206, status);
+        Assert.assertEquals("0123456789", body());
+        Assert.assertEquals("bytes 13-22/" + SCRIPT.length(), responseHeaders.get("content-range"));
+        Assert.assertEquals("10", responseHeaders.get("content-length"));
+
+        // the range is only served if the client has the current version
+        requestHeaders.put("range", "bytes=-3");
+        requestHeaders.put("if-range", entityTag);
+        Assert.assertTrue(serve(resources, "app.3f2a9c1b.js"));
+        Assert.assertEquals(206, status);
+        Assert.assertEquals("');", body());
+        requestHeaders.put("range", "bytes=-3");
+        requestHeaders.put("if-range", "\"outdated\"");
+        Assert.assertTrue(serve(resources, "app.3f2a9c1b.js"));
+        Assert.assertEquals(200, status);
+        Assert.assertEquals(SCRIPT, body());
+
+        requestHeaders.put("range", "bytes=100-");
+        Assert.assertTrue(serve(resources, "app.3f2a9c1b.js"));
+        Assert.assertEquals(416, status);
+        Assert.assertEquals("bytes */" + SCRIPT.length(), responseHeaders.get("content-range"));
+    }
+
+    @Test
+    public void testParseRange() {
+        Assert.assertArrayEquals(new long[] { 0, 10 }, SwaggerAPIStaticResources.parseRange("bytes=0-9", 100));
+        Assert.assertArrayEquals(new long[] { 90, 100 }, SwaggerAPIStaticResources.parseRange("bytes=90-", 100));
+        Assert.assertArrayEquals(new long[] { 90, 100 }, SwaggerAPIStaticResources.parseRange("bytes=90-200", 100));
+        Assert.assertArrayEquals(new long[] { 0, 100 }, SwaggerAPIStaticResources.parseRange("bytes=-200", 100));
+        Assert.assertEquals(0, SwaggerAPIStaticResources.parseRange("bytes=100-", 100).length);
+        Assert.assertEquals(0, SwaggerAPIStaticResources.parseRange("bytes=-0", 100).length);
+        // served entirely
+        Assert.assertNull(SwaggerAPIStaticResources.parseRange("bytes=0-1,5-6", 100));
+        Assert.assertNull(SwaggerAPIStaticResources.parseRange("bytes=5-2", 100));
+        Assert.assertNull(SwaggerAPIStaticResources.parseRange("items=0-9", 100));
+        Assert.assertNull(SwaggerAPIStaticResources.parseRange("bytes=a-b", 100));
+    }
+
+    @Test
+    public void testChangedFile() throws IOException {
+        final SwaggerAPIStaticResources resources = new SwaggerAPIStaticResources(directory, 0, TimeUnit.SECONDS);
+        Assert.assertTrue(serve(resources, "index.html"));
+        final Path index = directory.resolve("index.html");
+        Files.write(index, "<html>changed</html>".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(index, FileTime.fromMillis(Files.getLastModifiedTime(index).toMillis() + 2000));
+        Assert.assertTrue(serve(resources, "index.html"));
+        Assert.assertEquals("<html>changed</html>", body());
+        Files.delete(index);
+        Assert.assertFalse(serve(resources, "index.html"));
+    }
+
+    @Test
+    public void testSendfile() throws IOException {
+        final SwaggerAPIStaticResources resources = new SwaggerAPIStaticResources(directory);
+        requestAttributes.put("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        requestHeaders.put("range", "bytes=1-");
+        Assert.assertTrue(serve(resources, "index.html"));
+        Assert.assertEquals(0, body.size());
+        Assert.assertEquals(directory.resolve("index.html").toString(), requestAttributes.get("org.apache.tomcat.sendfile.filename"));
+        Assert.assertEquals(1L, requestAttributes.get("org.apache.tomcat.sendfile.start"));
+        Assert.assertEquals((long) INDEX.length(), requestAttributes.get("org.apache.tomcat.sendfile.end"));
+
+        // the attributes set on a wrapper may not reach the container
+        requestAttributes.remove("org.apache.tomcat.sendfile.filename");
+        wrapRequest = true;
+        Assert.assertTrue(serve(resources, "index.html"));
+        Assert.assertEquals(INDEX, body());
+        Assert.assertNull(requestAttributes.get("org.apache.tomcat.sendfile.filename"));
+    }
+
+    @Test
+    public void testClassPath() throws IOException {
+        final Path jar = folder.newFile("ui.jar").toPath();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("META-INF/resources/ui/"));
+            out.putNextEntry(new JarEntry("META-INF/resources/ui/index.html"));
+            out.write(INDEX.getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new JarEntry("META-INF/resources/ui/app.js"));
+            out.write(SCRIPT.getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new JarEntry("META-INF/resources/ui/app.js.gz"));
+            out.write(gzip(SCRIPT));
+        }
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toUri().toURL() }, null)) {
+            final SwaggerAPIStaticResources resources = new SwaggerAPIStaticResources(classLoader, "/META-INF/resources/ui/");
+            Assert.assertTrue(serve(resources, ""));
+            Assert.assertEquals(INDEX, body());
+            requestHeaders.put("accept-encoding", "gzip");
+            Assert.assertTrue(serve(resources, "app.js"));
+            Assert.assertArrayEquals(gzip(SCRIPT), body.toByteArray());
+            Assert.assertEquals("text/javascript;charset=UTF-8", responseHeaders.get("content-type"));
+            Assert.assertFalse(serve(resources, "missing.js"));
+        }
+    }
+}